@@ -0,0 +1,174 @@
+package edu.hm.hafner.coverage;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes the change coverage trees of a coverage tree in a single traversal. The results are the same as the results
+ * of {@link Node#filterByModifiedLines()}, {@link Node#filterByModifiedFiles()}, and
+ * {@link Node#filterByIndirectChanges()}. However, the tree is visited only once, and the lines with code coverage
+ * that also have been modified are computed only once per file and are shared between the modified lines and the
+ * modified files trees.
+ *
+ * <p>
+ * The filtered trees and their aggregated values are computed when the analyzer is created. Later changes of the
+ * analyzed tree are not reflected in the results.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public final class ChangeCoverageAnalyzer {
+    private final Node modifiedLinesTree;
+    private final Node modifiedFilesTree;
+    private final Node indirectChangesTree;
+
+    private final List<Value> modifiedLinesValues;
+    private final List<Value> modifiedFilesValues;
+    private final List<Value> indirectChangesValues;
+
+    /**
+     * Creates the change coverage trees for the specified tree.
+     *
+     * @param root
+     *         the root of the tree to analyze
+     */
+    public ChangeCoverageAnalyzer(final Node root) {
+        var filtered = filter(root);
+
+        modifiedLinesTree = orCopy(filtered.modifiedLines, root);
+        modifiedFilesTree = orCopy(filtered.modifiedFiles, root);
+        indirectChangesTree = orCopy(filtered.indirectChanges, root);
+
+        modifiedLinesValues = modifiedLinesTree.aggregateValues();
+        modifiedFilesValues = modifiedFilesTree.aggregateValues();
+        indirectChangesValues = indirectChangesTree.aggregateValues();
+    }
+
+    /**
+     * Returns the tree that represents the modified lines coverage.
+     *
+     * @return the filtered tree
+     * @see Node#filterByModifiedLines()
+     */
+    public Node getModifiedLinesTree() {
+        return modifiedLinesTree;
+    }
+
+    /**
+     * Returns the aggregated values of the modified lines coverage.
+     *
+     * @return the aggregated values of the {@link #getModifiedLinesTree() modified lines tree}
+     */
+    public List<Value> getModifiedLinesValues() {
+        return modifiedLinesValues;
+    }
+
+    /**
+     * Returns the tree that represents the modified files coverage.
+     *
+     * @return the filtered tree
+     * @see Node#filterByModifiedFiles()
+     */
+    public Node getModifiedFilesTree() {
+        return modifiedFilesTree;
+    }
+
+    /**
+     * Returns the aggregated values of the modified files coverage.
+     *
+     * @return the aggregated values of the {@link #getModifiedFilesTree() modified files tree}
+     */
+    public List<Value> getModifiedFilesValues() {
+        return modifiedFilesValues;
+    }
+
+    /**
+     * Returns the tree that shows the indirect coverage changes.
+     *
+     * @return the filtered tree
+     * @see Node#filterByIndirectChanges()
+     */
+    public Node getIndirectChangesTree() {
+        return indirectChangesTree;
+    }
+
+    /**
+     * Returns the aggregated values of the indirect coverage changes.
+     *
+     * @return the aggregated values of the {@link #getIndirectChangesTree() indirect changes tree}
+     */
+    public List<Value> getIndirectChangesValues() {
+        return indirectChangesValues;
+    }
+
+    private static Node orCopy(@CheckForNull final Node filtered, final Node root) {
+        return filtered == null ? root.copy() : filtered;
+    }
+
+    private Filtered filter(final Node node) {
+        if (node instanceof FileNode file) {
+            return filter(file);
+        }
+
+        List<Node> modifiedLines = new ArrayList<>();
+        List<Node> modifiedFiles = new ArrayList<>();
+        List<Node> indirectChanges = new ArrayList<>();
+        for (Node child : node.getChildren()) {
+            var filtered = filter(child);
+            addIfPresent(modifiedLines, filtered.modifiedLines);
+            addIfPresent(modifiedFiles, filtered.modifiedFiles);
+            addIfPresent(indirectChanges, filtered.indirectChanges);
+        }
+        return new Filtered(prune(node, modifiedLines), prune(node, modifiedFiles), prune(node, indirectChanges));
+    }
+
+    private Filtered filter(final FileNode file) {
+        var coveredAndModifiedLines = file.getCoveredAndModifiedLines();
+        var modifiedFile = coveredAndModifiedLines.isEmpty() ? null : file.copyTree();
+        return new Filtered(
+                file.filterTreeByModifiedLines(coveredAndModifiedLines).orElse(null),
+                modifiedFile,
+                file.filterTreeByIndirectChanges().orElse(null));
+    }
+
+    private static void addIfPresent(final List<Node> nodes, @CheckForNull final Node node) {
+        if (node != null) {
+            nodes.add(node);
+        }
+    }
+
+    /**
+     * Creates a copy of the specified node with the pruned children, in the same way as the filter methods of
+     * {@link Node}.
+     */
+    @CheckForNull
+    private static Node prune(final Node node, final List<Node> prunedChildren) {
+        if (prunedChildren.isEmpty()) {
+            return null;
+        }
+        var copy = node.copy();
+        copy.addAllChildren(prunedChildren);
+        return copy;
+    }
+
+    /**
+     * The filtered copies of a node for each of the change coverage trees.
+     */
+    private static final class Filtered {
+        @CheckForNull
+        private final Node modifiedLines;
+        @CheckForNull
+        private final Node modifiedFiles;
+        @CheckForNull
+        private final Node indirectChanges;
+
+        Filtered(@CheckForNull final Node modifiedLines, @CheckForNull final Node modifiedFiles,
+                @CheckForNull final Node indirectChanges) {
+            this.modifiedLines = modifiedLines;
+            this.modifiedFiles = modifiedFiles;
+            this.indirectChanges = indirectChanges;
+        }
+    }
+}
@@ -12,14 +12,37 @@ import com.google.errorprone.annotations.FormatMethod;
 import edu.hm.hafner.util.FilteredLog;
 import edu.hm.hafner.util.TreeStringBuilder;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.Serial;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipInputStream;
 
 /**
- * Parses a file and returns the code coverage information in a tree of {@link Node} instances.
+ * Parses a file and returns the code coverage information in a tree of {@link Node} instances. A parser does not store
+ * any state of a parse invocation in its fields, so a single instance can parse several reports concurrently.
  *
  * @author Ullrich Hafner
  */
@@ -33,6 +56,13 @@ public abstract class CoverageParser implements Serializable {
     /** Toplevel module name. */
     protected static final String EMPTY = "-";
 
+    private static final int HEADER_SIZE = 256;
+    private static final int MINIMUM_BUFFER_SIZE = 8 * 1024;
+    private static final int MAXIMUM_BUFFER_SIZE = 256 * 1024;
+    private static final long MAPPING_THRESHOLD = 16L * 1024 * 1024;
+    private static final String GZIP_EXTENSION = ".gz";
+    private static final byte[] ASCII_MARKUP = "<>/=\"' ?!-:,\n\r".getBytes(StandardCharsets.US_ASCII);
+
     /**
      * Defines how to handle fatal errors during parsing.
      */
@@ -43,7 +73,7 @@ public abstract class CoverageParser implements Serializable {
         FAIL_FAST
     }
 
-    private transient TreeStringBuilder treeStringBuilder = new TreeStringBuilder();
+    private transient ThreadLocal<TreeStringBuilder> invocationContext = new ThreadLocal<>();
     private final ProcessingMode processingMode; // since 0.26.0
 
     /**
@@ -80,9 +110,163 @@ public abstract class CoverageParser implements Serializable {
      *         if the content cannot be read by the parser
      */
     public ModuleNode parse(final Reader reader, final String fileName, final FilteredLog log) {
+        return parse(() -> parseReport(reader, fileName, log), fileName);
+    }
+
+    /**
+     * Parses only the summary of a report provided by the given reader. The result is a module without children that
+     * contains the aggregated values of the whole report, e.g., the line, branch, or mutation coverage. These are the
+     * same values as the {@link Node#aggregateValues() aggregated values} of the tree that is created by
+     * {@link #parse(Reader, String, FilteredLog)}. Use this method if only the totals of a report are required, e.g.,
+     * to evaluate a quality gate.
+     *
+     * @param reader
+     *         the reader with the coverage information
+     * @param fileName
+     *         the file name of the report
+     * @param log
+     *         the logger to write messages to
+     *
+     * @return a module that contains the aggregated values of the report
+     * @throws ParsingException
+     *         if the content cannot be read by the parser
+     */
+    public ModuleNode parseSummary(final Reader reader, final String fileName, final FilteredLog log) {
+        return parse(() -> parseSummaryReport(reader, fileName, log), fileName);
+    }
+
+    /**
+     * Parses the specified report file. The file is {@link #readContent(FileChannel) read into memory}, and the
+     * encoding is detected from the byte order mark or the XML declaration. Parsers that scan the bytes of a report
+     * obtain the content directly, all other parsers read the decoded characters. Reports that are too large to be
+     * mapped at once are read as a stream.
+     *
+     * <p>
+     * Compressed reports are detected by their magic bytes and decompressed while reading: a gzip file contains a
+     * single report, a zip file might contain several reports. All files of a zip archive are parsed in a single pass
+     * without extracting them. The results of the individual files are merged as soon as they have been parsed.
+     * </p>
+     *
+     * @param report
+     *         the report to parse
+     * @param log
+     *         the logger to write messages to
+     *
+     * @return the root of the created tree
+     * @throws ParsingException
+     *         if the file cannot be read or if the content cannot be read by the parser
+     */
+    public ModuleNode parse(final Path report, final FilteredLog log) {
+        var fileName = report.toString();
+        try (var channel = FileChannel.open(report, StandardOpenOption.READ)) {
+            var size = channel.size();
+            if (size > Integer.MAX_VALUE) { // a single mapping is limited to 2 GB
+                return parseStream(new BufferedInputStream(Channels.newInputStream(channel), MAXIMUM_BUFFER_SIZE),
+                        fileName, log);
+            }
+            var content = readContent(channel);
+            if (isCompressed(content)) {
+                return parseCompressed(Compression.detect(content), asInputStream(content), fileName, log);
+            }
+            var charset = detectCharset(content);
+            return parse(() -> parseReport(content, charset, fileName, log), fileName);
+        }
+        catch (IOException exception) {
+            throw new ParsingException(exception, "Can't read report '%s'", fileName);
+        }
+    }
+
+    private ModuleNode parseStream(final InputStream stream, final String fileName, final FilteredLog log)
+            throws IOException {
+        stream.mark(HEADER_SIZE);
+        var header = ByteBuffer.wrap(stream.readNBytes(HEADER_SIZE));
+        stream.reset();
+
+        var compression = Compression.detect(header);
+        if (compression != Compression.NONE) {
+            return parseCompressed(compression, stream, fileName, log);
+        }
+        var charset = detectCharset(header);
+        stream.skipNBytes(header.position());
+        return parse(new InputStreamReader(stream, charset), fileName, log);
+    }
+
+    private ModuleNode parseCompressed(final Compression compression, final InputStream stream,
+            final String fileName, final FilteredLog log) throws IOException {
+        if (compression == Compression.GZIP) {
+            try (var gzip = new GZIPInputStream(stream, MINIMUM_BUFFER_SIZE)) {
+                return parseStream(new BufferedInputStream(gzip, MAXIMUM_BUFFER_SIZE), fileName, log);
+            }
+        }
+        try (var zip = new ZipInputStream(stream)) {
+            return parseArchive(zip, fileName, log);
+        }
+    }
+
+    /**
+     * Parses all reports of the archive and merges the results incrementally. Results with different names are
+     * attached to a new module. Entries that are not {@link #isReportEntry(String) reports} are skipped.
+     */
+    private ModuleNode parseArchive(final ZipInputStream zip, final String fileName, final FilteredLog log)
+            throws IOException {
+        Map<String, ModuleNode> roots = new LinkedHashMap<>();
+        for (var entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+            if (entry.isDirectory()) {
+                continue;
+            }
+            var entryName = fileName + "!/" + entry.getName();
+            if (isReportEntry(Strings.CI.removeEnd(entry.getName(), GZIP_EXTENSION))) {
+                var entryStream = new BufferedInputStream(new ArchiveEntryInputStream(zip), MAXIMUM_BUFFER_SIZE);
+                var root = parseStream(entryStream, entryName, log);
+                roots.merge(root.getName(), root, CoverageParser::mergeInto);
+            }
+            else {
+                log.logInfo("Skipping '%s' since it is not a supported report file", entryName);
+            }
+        }
+
+        if (roots.isEmpty()) {
+            handleEmptyResults(fileName, log);
+            return new ModuleNode("empty");
+        }
+        if (roots.size() == 1) {
+            return roots.values().iterator().next();
+        }
+        var module = new ModuleNode(EMPTY);
+        module.addAllChildren(roots.values());
+        return module;
+    }
+
+    private static ModuleNode mergeInto(final ModuleNode merged, final ModuleNode root) {
+        merged.mergeNode(root); // the merged tree is not shared, so it can be changed in place
+        return merged;
+    }
+
+    /**
+     * Runs the specified parser in a new parse invocation. The invocation provides the
+     * {@link #getTreeStringBuilder() string builder} for the paths of the created tree and interns the tree with the
+     * {@link CoveragePool#getShared() shared pool}. Subclasses that provide additional entry points should parse their
+     * reports with this method.
+     *
+     * @param parser
+     *         the parser that creates the tree
+     * @param fileName
+     *         the file name of the report
+     *
+     * @return the root of the created tree
+     * @throws ParsingException
+     *         if the content cannot be read by the parser
+     */
+    protected final ModuleNode parse(final Supplier<ModuleNode> parser, final String fileName) {
+        var enclosingBuilder = invocationContext.get(); // a parser might parse nested reports
+        var treeStringBuilder = new TreeStringBuilder();
+        invocationContext.set(treeStringBuilder);
         try {
-            var moduleNode = parseReport(reader, fileName, log);
-            getTreeStringBuilder().dedup();
+            var moduleNode = parser.get();
+            treeStringBuilder.dedup();
+            if (enclosingBuilder == null) { // nested reports are interned with the enclosing report
+                CoveragePool.getShared().ifPresent(pool -> pool.intern(moduleNode));
+            }
             return moduleNode;
         }
         catch (IllegalArgumentException e) {
@@ -97,6 +281,14 @@ public abstract class CoverageParser implements Serializable {
             }
             throw e;
         }
+        finally {
+            if (enclosingBuilder == null) {
+                invocationContext.remove();
+            }
+            else {
+                invocationContext.set(enclosingBuilder);
+            }
+        }
     }
 
     /**
@@ -161,12 +353,23 @@ public abstract class CoverageParser implements Serializable {
      */
     @Serial
     protected Object readResolve() {
-        treeStringBuilder = new TreeStringBuilder();
+        invocationContext = new ThreadLocal<>();
 
         return this;
     }
 
+    /**
+     * Returns the string builder of the running parse invocation. Each invocation uses its own builder, so a parser
+     * instance can parse several reports concurrently. Outside of a parse invocation, a new builder is returned for
+     * each call. This builder is not stored, since the thread that calls this method might never clean it up.
+     *
+     * @return the string builder of the running invocation
+     */
     protected final TreeStringBuilder getTreeStringBuilder() {
+        var treeStringBuilder = invocationContext.get();
+        if (treeStringBuilder == null) { // a report part is parsed outside of a parse invocation
+            return new TreeStringBuilder();
+        }
         return treeStringBuilder;
     }
 
@@ -186,6 +389,201 @@ public abstract class CoverageParser implements Serializable {
      */
     protected abstract ModuleNode parseReport(Reader reader, String fileName, FilteredLog log);
 
+    /**
+     * Parses the summary of a report provided by the given reader. The default implementation creates the whole tree
+     * with {@link #parseReport(Reader, String, FilteredLog)} and stores the aggregated values of the tree in a new
+     * module. Parsers that can obtain the totals while reading the report should override this method, so that no tree
+     * needs to be created and the required memory does not grow with the size of the report. Overriding methods need to
+     * provide the same metrics as the default implementation: values that are derived from the nodes of the tree, like
+     * the coverage of the packages and files or the lines of code, need to be derived from the report as well.
+     *
+     * @param reader
+     *         the reader with the coverage information
+     * @param fileName
+     *         the file name of the report
+     * @param log
+     *         the logger to write messages to
+     *
+     * @return a module that contains the aggregated values of the report
+     * @throws ParsingException
+     *         if the parser cannot read the content
+     */
+    protected ModuleNode parseSummaryReport(final Reader reader, final String fileName, final FilteredLog log) {
+        var root = parseReport(reader, fileName, log);
+        var summary = new ModuleNode(root.getName());
+        summary.addAllValues(root.aggregateValues());
+        return summary;
+    }
+
+    /**
+     * Returns whether the specified entry of a ZIP archive is a report that should be parsed. All other entries of the
+     * archive (e.g., a README or an HTML report) are skipped. The default implementation accepts XML files, parsers
+     * for other formats should override this method. Compressed entries are checked with the name of the
+     * uncompressed file.
+     *
+     * @param entryName
+     *         the name of the archive entry
+     *
+     * @return {@code true} if the entry should be parsed, {@code false} if the entry should be skipped
+     */
+    protected boolean isReportEntry(final String entryName) {
+        return Strings.CI.endsWith(entryName, ".xml");
+    }
+
+    /**
+     * Parses a report provided by the given bytes. The position of the buffer points to the first byte after an
+     * optional byte order mark. Parsers that scan the bytes of a report directly should override this method. The
+     * default implementation decodes the content with the specified charset and delegates to
+     * {@link #parseReport(Reader, String, FilteredLog)}, using a buffer that fits the size of the report.
+     *
+     * @param content
+     *         the content of the report
+     * @param charset
+     *         the charset of the report
+     * @param fileName
+     *         the file name of the report
+     * @param log
+     *         the logger to write messages to
+     *
+     * @return the root of the created tree
+     * @throws ParsingException
+     *         if the parser cannot read the content
+     */
+    protected ModuleNode parseReport(final ByteBuffer content, final Charset charset, final String fileName,
+            final FilteredLog log) {
+        var bufferSize = Math.clamp(content.remaining(), MINIMUM_BUFFER_SIZE, MAXIMUM_BUFFER_SIZE);
+        var reader = new BufferedReader(new InputStreamReader(asInputStream(content), charset), bufferSize);
+
+        return parseReport(reader, fileName, log);
+    }
+
+    /**
+     * Reads the content of the specified report file. Small reports are read into a heap buffer. Larger reports are
+     * mapped into memory, since copying them would double the required memory. Note that a mapped file is released
+     * only when the buffer has been garbage collected: until then, the file cannot be deleted or overwritten on
+     * Windows.
+     *
+     * @param channel
+     *         the channel of the report file
+     *
+     * @return the content of the report
+     * @throws IOException
+     *         if the file cannot be read
+     */
+    protected static ByteBuffer readContent(final FileChannel channel) throws IOException {
+        var size = channel.size();
+        if (size > MAPPING_THRESHOLD) {
+            return channel.map(MapMode.READ_ONLY, 0, size);
+        }
+        var content = ByteBuffer.allocate((int) size);
+        while (content.hasRemaining() && channel.read(content) >= 0) {
+            // read until the buffer is full or the end of the file has been reached
+        }
+        return content.flip();
+    }
+
+    /**
+     * Detects the charset of a report from its byte order mark or its XML declaration. If the content starts with a
+     * byte order mark, then the position of the buffer is moved behind it. Reports without such information are
+     * expected to use UTF-8.
+     *
+     * @param content
+     *         the content of the report
+     *
+     * @return the detected charset
+     */
+    protected static Charset detectCharset(final ByteBuffer content) {
+        var header = new byte[Math.min(content.remaining(), HEADER_SIZE)];
+        content.get(content.position(), header);
+        if (startsWith(header, 0xEF, 0xBB, 0xBF)) {
+            content.position(content.position() + 3);
+            return StandardCharsets.UTF_8;
+        }
+        if (startsWith(header, 0xFE, 0xFF) || startsWith(header, 0xFF, 0xFE)) {
+            return StandardCharsets.UTF_16; // the decoder consumes the byte order mark
+        }
+        if (header.length > 1 && header[0] == 0) {
+            return StandardCharsets.UTF_16BE; // UTF-16 without byte order mark, e.g. "\0<\0?"
+        }
+        if (header.length > 1 && header[1] == 0) {
+            return StandardCharsets.UTF_16LE; // UTF-16 without byte order mark, e.g. "<\0?\0"
+        }
+        return readDeclaredCharset(new String(header, StandardCharsets.ISO_8859_1));
+    }
+
+    private static boolean startsWith(final byte[] header, final int... prefix) {
+        if (header.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if ((header[i] & 0xFF) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Charset readDeclaredCharset(final String header) {
+        if (header.startsWith("<?xml")) {
+            int end = header.indexOf("?>");
+            int attribute = header.indexOf("encoding");
+            if (end > 0 && attribute > 0 && attribute < end) {
+                int quote = attribute + "encoding".length();
+                while (quote < end && header.charAt(quote) != '"' && header.charAt(quote) != '\'') {
+                    quote++;
+                }
+                int close = quote < end ? header.indexOf(header.charAt(quote), quote + 1) : -1;
+                if (close > 0 && close < end) {
+                    try {
+                        return Charset.forName(header.substring(quote + 1, close));
+                    }
+                    catch (IllegalCharsetNameException | UnsupportedCharsetException ignore) {
+                        // use the default encoding of XML documents
+                    }
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * Returns whether the specified content starts with the magic bytes of a gzip or zip file.
+     *
+     * @param content
+     *         the content of the report
+     *
+     * @return {@code true} if the content is compressed, {@code false} otherwise
+     */
+    protected static boolean isCompressed(final ByteBuffer content) {
+        return Compression.detect(content) != Compression.NONE;
+    }
+
+    /**
+     * Returns whether the specified charset encodes the ASCII characters of markup and line breaks with the same single
+     * bytes as ASCII. Reports with such a charset can be scanned byte by byte.
+     *
+     * @param charset
+     *         the charset to check
+     *
+     * @return {@code true} if the charset is compatible with ASCII, {@code false} otherwise
+     */
+    protected static boolean isAsciiCompatible(final Charset charset) {
+        return Arrays.equals(ASCII_MARKUP, new String(ASCII_MARKUP, StandardCharsets.US_ASCII).getBytes(charset));
+    }
+
+    /**
+     * Returns the remaining content of the specified buffer as {@link InputStream}. Reading the stream advances the
+     * position of the buffer.
+     *
+     * @param content
+     *         the content to read
+     *
+     * @return the stream
+     */
+    protected static InputStream asInputStream(final ByteBuffer content) {
+        return new ByteBufferInputStream(content);
+    }
+
     protected static Optional<String> getOptionalValueOf(final StartElement element, final QName attribute) {
         var value = element.getAttributeByName(attribute);
         if (value == null) {
@@ -298,4 +696,74 @@ public abstract class CoverageParser implements Serializable {
                     ExceptionUtils.getMessage(cause), ExceptionUtils.getStackTrace(cause));
         }
     }
+
+    /**
+     * The compression formats that are detected by their magic bytes.
+     */
+    private enum Compression {
+        NONE,
+        GZIP,
+        ZIP;
+
+        static Compression detect(final ByteBuffer content) {
+            var header = new byte[Math.min(content.remaining(), 4)];
+            content.get(content.position(), header);
+            if (startsWith(header, 0x1F, 0x8B)) {
+                return GZIP;
+            }
+            if (startsWith(header, 'P', 'K', 0x03, 0x04) || startsWith(header, 'P', 'K', 0x05, 0x06)) {
+                return ZIP;
+            }
+            return NONE;
+        }
+    }
+
+    /**
+     * Provides the current entry of a {@link ZipInputStream}. Closing this stream does not close the archive, so
+     * parsers that close their reader do not stop the processing of the remaining entries.
+     */
+    private static final class ArchiveEntryInputStream extends FilterInputStream {
+        ArchiveEntryInputStream(final ZipInputStream zip) {
+            super(zip);
+        }
+
+        @Override
+        public void close() {
+            // the archive is closed by the caller
+        }
+    }
+
+    /**
+     * Provides the content of a {@link ByteBuffer} as {@link InputStream}.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
 }
@@ -0,0 +1,165 @@
+package edu.hm.hafner.coverage;
+
+import edu.hm.hafner.util.TreeString;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pool of the strings of coverage trees. The names of the nodes, the relative paths of the files, the names and
+ * signatures of the methods, and the strings of the mutations are repeated in the trees of all builds of a job. The
+ * pool replaces equal strings of different trees with a single instance. The pool references its instances weakly, so
+ * an instance is removed from the pool as soon as no tree references it anymore.
+ *
+ * <p>
+ * If a {@link #setShared(CoveragePool) shared pool} is set, then the parsers intern the trees they create, and Java
+ * deserialization as well as the {@link CoverageTreeCodec} intern the trees they restore. By default, no shared pool
+ * is set.
+ * </p>
+ *
+ * <p>
+ * The pool is thread safe.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public final class CoveragePool {
+    @CheckForNull
+    private static volatile CoveragePool shared;
+
+    private final Map<String, WeakReference<String>> strings = new WeakHashMap<>();
+    private final Map<TreeString, WeakReference<TreeString>> paths = new WeakHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Returns the pool that is shared by all parsers and deserialized trees of this process.
+     *
+     * @return the shared pool, or an empty optional if the strings of the trees should not be pooled
+     */
+    public static Optional<CoveragePool> getShared() {
+        return Optional.ofNullable(shared);
+    }
+
+    /**
+     * Sets the pool that is shared by all parsers and deserialized trees of this process. Trees that have been created
+     * before are not changed.
+     *
+     * @param pool
+     *         the shared pool, or {@code null} to stop pooling the strings of new trees
+     */
+    public static void setShared(@CheckForNull final CoveragePool pool) {
+        shared = pool;
+    }
+
+    /**
+     * Returns the pooled instance of the specified string.
+     *
+     * @param text
+     *         the string to intern
+     *
+     * @return the pooled string that is equal to the specified string
+     */
+    public String intern(final String text) {
+        return intern(strings, text);
+    }
+
+    /**
+     * Returns the pooled instance of the specified path.
+     *
+     * @param path
+     *         the path to intern
+     *
+     * @return the pooled path that is equal to the specified path
+     */
+    public TreeString intern(final TreeString path) {
+        return intern(paths, path);
+    }
+
+    /**
+     * Interns the strings of all nodes of the specified tree. The nodes are changed in place.
+     *
+     * @param root
+     *         the root of the tree
+     * @param <T>
+     *         the type of the root
+     *
+     * @return the root
+     */
+    public <T extends Node> T intern(final T root) {
+        root.internStrings(this);
+        return root;
+    }
+
+    @SuppressWarnings("PMD.AvoidSynchronizedStatement")
+    private <T> T intern(final Map<T, WeakReference<T>> pool, final T value) {
+        if (value == null) { // some strings of old serializations are missing
+            return value;
+        }
+        synchronized (pool) {
+            var reference = pool.get(value);
+            if (reference != null) {
+                var pooled = reference.get();
+                if (pooled != null) {
+                    hits.increment();
+                    return pooled;
+                }
+            }
+            pool.put(value, new WeakReference<>(value));
+        }
+        misses.increment();
+        return value;
+    }
+
+    /**
+     * Returns the number of interned values that have been replaced with a pooled instance.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of interned values that have not been found in the pool and have been added to the pool.
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the ratio of hits to all interned values.
+     *
+     * @return the hit ratio in the interval [0, 1], or 0 if no values have been interned yet
+     */
+    public double getHitRatio() {
+        var hitCount = getHits();
+        var total = hitCount + getMisses();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Returns the number of strings and paths that are currently pooled. Instances that are not referenced anymore
+     * might still be counted until the garbage collector has removed them.
+     *
+     * @return the number of pooled instances
+     */
+    public int size() {
+        synchronized (strings) {
+            synchronized (paths) {
+                return strings.size() + paths.size();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CoveragePool: %d instances, %d hits, %d misses".formatted(size(), getHits(), getMisses());
+    }
+}
@@ -0,0 +1,366 @@
+package edu.hm.hafner.coverage;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+
+/**
+ * Exports a coverage tree as flat tables. The tree is traversed once in pre-order, the rows are written while the tree
+ * is traversed, so no intermediate copy of the tree is created. The exporter provides three tables:
+ *
+ * <ul>
+ *     <li>{@link Table#NODES}: the ID of the node, the ID of the parent node (-1 for the root), the metric, and the
+ *     name. The ID of a node is its index in the pre-order traversal of the tree.</li>
+ *     <li>{@link Table#VALUES}: the ID of the node, the metric, the numerator, and the denominator of each value. For
+ *     coverages, the numerator is the number of covered items and the denominator is the total number of items.</li>
+ *     <li>{@link Table#LINES}: the ID of the file, the line, and the number of covered and missed items of each line
+ *     with coverage.</li>
+ * </ul>
+ *
+ * <p>
+ * A table is exported as CSV with {@link #writeCsv(Node, Table, OutputStream)}. All tables are exported to a single
+ * stream in a binary columnar layout with {@link #writeColumnar(Node, OutputStream)}. The layout consists of:
+ * </p>
+ * <ol>
+ *     <li>the magic number {@code 0x434F5658}, a version byte, and the names of the metrics: the number of metrics and
+ *     the name of each metric as modified UTF-8. Metrics are stored as indexes in this list.</li>
+ *     <li>a sequence of blocks, each with up to {@value #BLOCK_SIZE} rows of a single table. A block starts with the
+ *     ordinal of the table plus one as a byte and the number of rows as an int. The columns of the block follow one
+ *     after another: four int columns for values and lines, three int columns and a name column for nodes. A name is
+ *     stored as the number of its UTF-8 bytes followed by the bytes.</li>
+ *     <li>a zero byte that marks the end of the blocks.</li>
+ * </ol>
+ *
+ * <p>
+ * All integers are stored as big-endian values of four bytes. The exporter buffers at most one block per table, so the
+ * memory required for the export does not depend on the size of the tree. The details of files that have not been
+ * loaded yet, e.g., of trees that have been read by {@link CoverageTreeCodec#read(java.nio.file.Path)}, are read for
+ * the export but are not retained in the tree.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public final class CoverageTableExporter {
+    /** The maximum number of rows of a block in the columnar layout. */
+    public static final int BLOCK_SIZE = 4096;
+
+    private static final int MAGIC = 0x434F5658; // "COVX"
+    private static final int VERSION = 1;
+    private static final int END_OF_BLOCKS = 0;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The tables of the export.
+     */
+    public enum Table {
+        /** The nodes of the tree. */
+        NODES("id,parent,metric,name"),
+        /** The values of the nodes. */
+        VALUES("node,metric,numerator,denominator"),
+        /** The coverage of the lines of the files. */
+        LINES("file,line,covered,missed");
+
+        private final String header;
+
+        Table(final String header) {
+            this.header = header;
+        }
+
+        /**
+         * Returns the header of the table in CSV format.
+         *
+         * @return the comma separated names of the columns
+         */
+        public String getHeader() {
+            return header;
+        }
+    }
+
+    /**
+     * Writes the specified table of the tree as CSV to the specified stream. The stream is not closed.
+     *
+     * @param root
+     *         the root of the tree to export
+     * @param table
+     *         the table to write
+     * @param output
+     *         the stream to write to
+     *
+     * @throws IOException
+     *         if the stream cannot be written
+     */
+    public void writeCsv(final Node root, final Table table, final OutputStream output) throws IOException {
+        var writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        var sink = new CsvSink(writer, table);
+        export(root, sink);
+        writer.flush();
+    }
+
+    /**
+     * Writes all tables of the tree in the binary columnar layout to the specified stream. The stream is not closed.
+     *
+     * @param root
+     *         the root of the tree to export
+     * @param output
+     *         the stream to write to
+     *
+     * @throws IOException
+     *         if the stream cannot be written
+     */
+    public void writeColumnar(final Node root, final OutputStream output) throws IOException {
+        var data = new DataOutputStream(new BufferedOutputStream(output, BUFFER_SIZE));
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        var metrics = Metric.values();
+        data.writeInt(metrics.length);
+        for (Metric metric : metrics) {
+            data.writeUTF(metric.name());
+        }
+
+        var sink = new ColumnarSink(data);
+        export(root, sink);
+        sink.flush();
+        data.writeByte(END_OF_BLOCKS);
+        data.flush();
+    }
+
+    private void export(final Node root, final RowSink sink) throws IOException {
+        exportNode(root, -1, 0, sink);
+    }
+
+    /**
+     * Exports the specified node and its children.
+     *
+     * @return the next free ID after the IDs of the node and its children
+     */
+    private int exportNode(final Node node, final int parent, final int id, final RowSink sink) throws IOException {
+        sink.node(id, parent, node.getMetric(), node.getName());
+        for (Value value : node.getValues()) {
+            if (value instanceof Coverage coverage) {
+                sink.value(id, value.getMetric(), coverage.getCovered(), coverage.getTotal());
+            }
+            else {
+                sink.value(id, value.getMetric(),
+                        value.getFraction().getNumerator(), value.getFraction().getDenominator());
+            }
+        }
+        if (sink.hasLines() && node instanceof FileNode fileNode) {
+            exportLines(fileNode.getUnretainedDetails(), id, sink);
+        }
+
+        int nextId = id + 1;
+        for (Node child : node.getChildren()) {
+            nextId = exportNode(child, id, nextId, sink);
+        }
+        return nextId;
+    }
+
+    /**
+     * Exports the counters of the lines with coverage, see {@link FileNode#getLinesWithCoverage()}. The counters are
+     * stored in maps that are sorted by the line, so the lines are exported in ascending order without copying them.
+     */
+    private void exportLines(final FileNode details, final int id, final RowSink sink) throws IOException {
+        var columns = details.getCounterColumns();
+        NavigableMap<Integer, Integer> missed = columns.get(1);
+
+        for (Entry<Integer, Integer> covered : columns.get(0).entrySet()) {
+            int line = covered.getKey();
+            sink.line(id, line, covered.getValue(), missed.getOrDefault(line, 0));
+        }
+    }
+
+    /**
+     * Receives the rows of the tables while the tree is traversed.
+     */
+    private interface RowSink {
+        void node(int id, int parent, Metric metric, String name) throws IOException;
+
+        void value(int node, Metric metric, int numerator, int denominator) throws IOException;
+
+        void line(int file, int line, int covered, int missed) throws IOException;
+
+        boolean hasLines();
+    }
+
+    /**
+     * Writes the rows of a single table as CSV.
+     */
+    private static final class CsvSink implements RowSink {
+        private final Writer writer;
+        private final Table table;
+
+        CsvSink(final Writer writer, final Table table) throws IOException {
+            this.writer = writer;
+            this.table = table;
+
+            writer.write(table.getHeader());
+            writer.write('\n');
+        }
+
+        @Override
+        public void node(final int id, final int parent, final Metric metric, final String name) throws IOException {
+            if (table == Table.NODES) {
+                writer.write(id + "," + parent + "," + metric.name() + ",");
+                writeText(name);
+                writer.write('\n');
+            }
+        }
+
+        @Override
+        public void value(final int node, final Metric metric, final int numerator, final int denominator)
+                throws IOException {
+            if (table == Table.VALUES) {
+                writer.write(node + "," + metric.name() + "," + numerator + "," + denominator + "\n");
+            }
+        }
+
+        @Override
+        public void line(final int file, final int line, final int covered, final int missed) throws IOException {
+            if (table == Table.LINES) {
+                writer.write(file + "," + line + "," + covered + "," + missed + "\n");
+            }
+        }
+
+        @Override
+        public boolean hasLines() {
+            return table == Table.LINES;
+        }
+
+        /**
+         * Writes the specified text as a field of a CSV record: if the text contains a comma, a quote, or a line
+         * break, then the text is enclosed in quotes and the quotes of the text are doubled.
+         */
+        private void writeText(final String text) throws IOException {
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                writer.write(text);
+            }
+            else {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            }
+        }
+    }
+
+    /**
+     * Collects the rows of the tables in blocks and writes a block when it is full.
+     */
+    private static final class ColumnarSink implements RowSink {
+        private final DataOutputStream output;
+        private final Block nodes = new Block(Table.NODES);
+        private final Block values = new Block(Table.VALUES);
+        private final Block lines = new Block(Table.LINES);
+
+        ColumnarSink(final DataOutputStream output) {
+            this.output = output;
+        }
+
+        @Override
+        public void node(final int id, final int parent, final Metric metric, final String name) throws IOException {
+            nodes.add(id, parent, metric.ordinal(), name);
+            writeIfFull(nodes);
+        }
+
+        @Override
+        public void value(final int node, final Metric metric, final int numerator, final int denominator)
+                throws IOException {
+            values.add(node, metric.ordinal(), numerator, denominator);
+            writeIfFull(values);
+        }
+
+        @Override
+        public void line(final int file, final int line, final int covered, final int missed) throws IOException {
+            lines.add(file, line, covered, missed);
+            writeIfFull(lines);
+        }
+
+        @Override
+        public boolean hasLines() {
+            return true;
+        }
+
+        void flush() throws IOException {
+            nodes.writeTo(output);
+            values.writeTo(output);
+            lines.writeTo(output);
+        }
+
+        private void writeIfFull(final Block block) throws IOException {
+            if (block.isFull()) {
+                block.writeTo(output);
+            }
+        }
+    }
+
+    /**
+     * The rows of a table that have not been written yet. Each block has four int columns, the node table uses a
+     * column of names instead of the fourth int column.
+     */
+    private static final class Block {
+        private final Table table;
+        private final int[][] columns;
+        private final String[] names;
+        private int size;
+
+        Block(final Table table) {
+            this.table = table;
+
+            if (table == Table.NODES) {
+                columns = new int[3][BLOCK_SIZE];
+                names = new String[BLOCK_SIZE];
+            }
+            else {
+                columns = new int[4][BLOCK_SIZE];
+                names = new String[0];
+            }
+        }
+
+        void add(final int first, final int second, final int third, final String name) {
+            columns[0][size] = first;
+            columns[1][size] = second;
+            columns[2][size] = third;
+            names[size] = name;
+            size++;
+        }
+
+        void add(final int first, final int second, final int third, final int fourth) {
+            columns[0][size] = first;
+            columns[1][size] = second;
+            columns[2][size] = third;
+            columns[3][size] = fourth;
+            size++;
+        }
+
+        boolean isFull() {
+            return size == BLOCK_SIZE;
+        }
+
+        void writeTo(final DataOutputStream output) throws IOException {
+            if (size == 0) {
+                return;
+            }
+
+            output.writeByte(table.ordinal() + 1);
+            output.writeInt(size);
+            for (int[] column : columns) {
+                for (int row = 0; row < size; row++) {
+                    output.writeInt(column[row]);
+                }
+            }
+            for (int row = 0; row < Math.min(size, names.length); row++) {
+                var bytes = names[row].getBytes(StandardCharsets.UTF_8);
+                output.writeInt(bytes.length);
+                output.write(bytes);
+                names[row] = null;
+            }
+            size = 0;
+        }
+    }
+}
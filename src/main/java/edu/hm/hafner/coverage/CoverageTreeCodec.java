@@ -0,0 +1,1304 @@
+package edu.hm.hafner.coverage;
+
+import org.apache.commons.lang3.math.Fraction;
+
+import edu.hm.hafner.coverage.Coverage.CoverageBuilder;
+import edu.hm.hafner.coverage.Mutation.MutationBuilder;
+import edu.hm.hafner.coverage.TestCase.TestResult;
+import edu.hm.hafner.util.TreeString;
+import edu.hm.hafner.util.TreeStringBuilder;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedMap;
+
+/**
+ * Writes and reads coverage trees in a compact binary format. In contrast to Java serialization, the format contains no
+ * class descriptors or field names, and it stores the counters of the files in columns of small integers rather than
+ * as boxed map entries. So the encoded trees are much smaller and can be read much faster.
+ *
+ * <p>
+ * The format starts with a magic number, a version, and the layout of the tree, followed by a table of all strings of
+ * the tree. Nodes, values, mutations, and test cases reference the strings by their index in this table, so each
+ * distinct name, path, or signature is stored only once. The enumerations {@link Metric}, {@link MutationStatus}, and
+ * {@link TestResult} are stored by ordinal, the table of their names is part of the format so that stored trees remain
+ * readable if constants are added or reordered. The nodes follow in pre-order. All integers are written as variable
+ * length quantities, line numbers are written as differences to the previous line.
+ * </p>
+ *
+ * <p>
+ * Trees are written in one of three layouts:
+ * </p>
+ * <ul>
+ *     <li>The inline layout of {@link #write(Node, OutputStream)} stores the details of each file within the tree.</li>
+ *     <li>The segmented layout of {@link #writeSegmented(Node, OutputStream)} stores a skeleton of the tree first: all
+ *     nodes with their values and test cases, but without the details of the files. The details are the counters and
+ *     modifications of the lines, the coverage deltas, and the mutations. The details of each file are stored in a
+ *     separate block after the skeleton, the skeleton contains the length of each block. The strings of the details
+ *     are stored in a separate table between the skeleton and the detail blocks.</li>
+ *     <li>The delta layout of {@link #writeDelta(Node, Node, OutputStream)} stores the tree as a patch against a
+ *     reference tree, e.g., the tree of the previous build. Files that are unchanged with respect to the reference tree
+ *     are stored by their path and name only, the details of files with unchanged details are omitted. Since
+ *     consecutive builds typically change only a few files, the delta is a small fraction of the complete tree.</li>
+ * </ul>
+ *
+ * <p>
+ * {@link #read(Path)} reads only the skeleton of a tree in the segmented layout. The details of a file are read from
+ * the file system when they are accessed for the first time, e.g., by {@link FileNode#getCounters()} or
+ * {@link FileNode#getMutations()}. So showing the aggregated values of a large tree requires reading only a small part
+ * of the stored tree. Trees in the inline layout and trees that are read from a stream are always read completely.
+ * Trees in the delta layout are read by {@link #readDelta(InputStream, Node)}, the details of unchanged files are
+ * copied from the reference tree when they are accessed for the first time.
+ * </p>
+ *
+ * <p>
+ * The round trip of a tree is exact: the restored tree is equal to the written tree, including the order of children
+ * and values. Values must be instances of {@link Value}, {@link Coverage}, {@link Rate}, or {@link Difference}. If a
+ * {@link CoveragePool#getShared() shared pool} is set, then the strings of the restored trees are interned.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public final class CoverageTreeCodec {
+    private static final int MAGIC = 0x434F5654; // "COVT"
+    private static final int VERSION = 1;
+
+    private static final int INLINE = 0;
+    private static final int SEGMENTED = 1;
+    private static final int DELTA = 2;
+    /** Magic number, version, layout, and the lengths of the skeleton and the string table of the details. */
+    private static final int SEGMENTED_HEADER_LENGTH = 4 + 1 + 1 + 4 + 4;
+
+    private static final int VALUE = 0;
+    private static final int COVERAGE = 1;
+    private static final int RATE = 2;
+    private static final int DIFFERENCE = 3;
+
+    /** The node is stored completely, its children are stored as deltas. */
+    private static final int CHANGED_NODE = 0;
+    /** The file is stored like a changed node, but its details are the same as in the reference file. */
+    private static final int SAME_DETAILS = 1;
+    /** The node and all of its descendants are the same as the reference node, only metric and name are stored. */
+    private static final int SAME_NODE = 2;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Writes the specified tree in the inline layout to the specified stream. The stream is not closed.
+     *
+     * @param root
+     *         the root of the tree to write
+     * @param output
+     *         the stream to write to
+     *
+     * @throws IOException
+     *         if the stream cannot be written
+     * @throws IllegalArgumentException
+     *         if the tree contains values of an unsupported type
+     */
+    public void write(final Node root, final OutputStream output) throws IOException {
+        new Encoder(INLINE, null).encode(root).writeTo(output);
+    }
+
+    /**
+     * Writes the specified tree in the segmented layout to the specified stream. The stream is not closed. Trees in
+     * this layout should be stored in a file so that {@link #read(Path)} can load the details of the files on demand.
+     *
+     * @param root
+     *         the root of the tree to write
+     * @param output
+     *         the stream to write to
+     *
+     * @throws IOException
+     *         if the stream cannot be written
+     * @throws IllegalArgumentException
+     *         if the tree contains values of an unsupported type
+     */
+    public void writeSegmented(final Node root, final OutputStream output) throws IOException {
+        new Encoder(SEGMENTED, null).encode(root).writeTo(output);
+    }
+
+    /**
+     * Writes the specified tree in the delta layout to the specified stream. The stream is not closed. The tree is
+     * stored as a patch against the reference tree: each node is compared with the node of the reference tree that has
+     * the same metric and name and whose parent corresponds to the parent of the node. If both nodes and their
+     * descendants are equal, then only the metric and the name of the node are stored. Files that have the same path
+     * and details as the reference file but other values or children are stored without their details. All other
+     * nodes, e.g., new nodes or nodes with changed values, are stored completely. The same reference tree is required
+     * to read the tree with {@link #readDelta(InputStream, Node)}.
+     *
+     * @param root
+     *         the root of the tree to write
+     * @param reference
+     *         the root of the reference tree, typically the tree of a previous build
+     * @param output
+     *         the stream to write to
+     *
+     * @throws IOException
+     *         if the stream cannot be written
+     * @throws IllegalArgumentException
+     *         if the tree contains values of an unsupported type
+     */
+    public void writeDelta(final Node root, final Node reference, final OutputStream output) throws IOException {
+        new Encoder(DELTA, reference).encode(root).writeTo(output);
+    }
+
+    /**
+     * Reads a tree in any layout from the specified stream. The stream is read completely, but it is not closed. Trees
+     * in the delta layout can't be read by this method, use {@link #readDelta(InputStream, Node)} instead.
+     *
+     * @param input
+     *         the stream to read from
+     *
+     * @return the root of the restored tree
+     * @throws IOException
+     *         if the stream cannot be read or does not contain a valid tree
+     */
+    public Node read(final InputStream input) throws IOException {
+        var bytes = input.readAllBytes();
+        var source = new ByteSource(bytes, 0, bytes.length);
+        var layout = readLayout(source);
+        if (layout == DELTA) {
+            throw new IOException("Input contains a delta of a coverage tree that requires a reference tree");
+        }
+        if (layout == INLINE) {
+            return readTree(source, null, null);
+        }
+
+        var skeletonLength = source.readFixedInt();
+        var stringsLength = source.readFixedInt();
+        var skeleton = ByteSource.of(bytes, source.getPosition(), skeletonLength);
+        return readTree(skeleton, new DetailStore((long) source.getPosition() + skeletonLength, stringsLength,
+                false, (offset, length) -> ByteSource.of(bytes, offset, length)), null);
+    }
+
+    /**
+     * Reads a tree in the delta layout from the specified stream. The stream is read completely, but it is not closed.
+     * The nodes that are stored as a reference are copied from the reference tree. The details of the files are copied
+     * from the reference tree when they are accessed for the first time. So the reference tree must not be changed as
+     * long as the restored tree is used.
+     *
+     * @param input
+     *         the stream to read from
+     * @param reference
+     *         the root of the reference tree that has been used to write the tree
+     *
+     * @return the root of the restored tree
+     * @throws IOException
+     *         if the stream cannot be read, does not contain a valid tree in the delta layout, or references a node
+     *         that is not part of the reference tree
+     */
+    public Node readDelta(final InputStream input, final Node reference) throws IOException {
+        var bytes = input.readAllBytes();
+        var source = new ByteSource(bytes, 0, bytes.length);
+        if (readLayout(source) != DELTA) {
+            throw new IOException("Input does not contain a delta of a coverage tree");
+        }
+        return readTree(source, null, reference);
+    }
+
+    /**
+     * Reads a tree in any layout from the specified file. If the tree has been written in the segmented layout, then
+     * only the skeleton of the tree is read. The details of each file are read on demand, so the file must not be
+     * changed or deleted as long as the tree is used. If the details cannot be read anymore, accessing them throws an
+     * {@link IllegalStateException}.
+     *
+     * @param file
+     *         the file to read from
+     *
+     * @return the root of the restored tree
+     * @throws IOException
+     *         if the file cannot be read or does not contain a valid tree
+     */
+    public Node read(final Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var headerLength = (int) Math.min(channel.size(), SEGMENTED_HEADER_LENGTH);
+            var header = readBlock(channel, 0, headerLength);
+            if (readLayout(header) != SEGMENTED) {
+                try (var input = Files.newInputStream(file)) {
+                    return read(input);
+                }
+            }
+
+            var skeletonLength = header.readFixedInt();
+            var stringsLength = header.readFixedInt();
+            var skeleton = readBlock(channel, SEGMENTED_HEADER_LENGTH, skeletonLength);
+            return readTree(skeleton, new DetailStore((long) SEGMENTED_HEADER_LENGTH + skeletonLength,
+                    stringsLength, true, (offset, length) -> readBlock(file, offset, length)), null);
+        }
+    }
+
+    /**
+     * Encodes the specified tree in the inline layout.
+     *
+     * @param root
+     *         the root of the tree to encode
+     *
+     * @return the encoded tree
+     * @throws IllegalArgumentException
+     *         if the tree contains values of an unsupported type
+     */
+    public byte[] encode(final Node root) {
+        try (var output = new ByteArrayOutputStream(BUFFER_SIZE)) {
+            write(root, output);
+            return output.toByteArray();
+        }
+        catch (IOException exception) {
+            throw new IllegalStateException("Can't write to a byte array", exception);
+        }
+    }
+
+    /**
+     * Decodes the specified tree.
+     *
+     * @param encoded
+     *         the encoded tree
+     *
+     * @return the root of the restored tree
+     * @throws IOException
+     *         if the bytes do not contain a valid tree
+     */
+    public Node decode(final byte[] encoded) throws IOException {
+        return read(new ByteArrayInputStream(encoded));
+    }
+
+    /**
+     * Encodes the specified tree in the delta layout.
+     *
+     * @param root
+     *         the root of the tree to encode
+     * @param reference
+     *         the root of the reference tree
+     *
+     * @return the encoded tree
+     * @throws IllegalArgumentException
+     *         if the tree contains values of an unsupported type
+     * @see #writeDelta(Node, Node, OutputStream)
+     */
+    public byte[] encodeDelta(final Node root, final Node reference) {
+        try (var output = new ByteArrayOutputStream(BUFFER_SIZE)) {
+            writeDelta(root, reference, output);
+            return output.toByteArray();
+        }
+        catch (IOException exception) {
+            throw new IllegalStateException("Can't write to a byte array", exception);
+        }
+    }
+
+    /**
+     * Decodes the specified tree in the delta layout.
+     *
+     * @param encoded
+     *         the encoded tree
+     * @param reference
+     *         the root of the reference tree that has been used to encode the tree
+     *
+     * @return the root of the restored tree
+     * @throws IOException
+     *         if the bytes do not contain a valid tree in the delta layout
+     * @see #readDelta(InputStream, Node)
+     */
+    public Node decodeDelta(final byte[] encoded, final Node reference) throws IOException {
+        return readDelta(new ByteArrayInputStream(encoded), reference);
+    }
+
+    /**
+     * Maps the keys of the children of the specified reference node to the children. If several children have the
+     * same key, then the first child is used.
+     */
+    private static Map<String, Node> mapChildren(@CheckForNull final Node reference) {
+        if (reference == null || !reference.hasChildren()) {
+            return Map.of();
+        }
+        var children = new HashMap<String, Node>();
+        for (Node child : reference.getChildren()) {
+            children.putIfAbsent(getKey(child.getMetric(), child.getName()), child);
+        }
+        return children;
+    }
+
+    private static String getKey(final Metric metric, final String name) {
+        return metric.name() + ':' + name;
+    }
+
+    private static int readLayout(final ByteSource header) throws IOException {
+        if (header.readFixedInt() != MAGIC) {
+            throw new IOException("Input does not contain a coverage tree");
+        }
+        var version = header.readVarInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported version of coverage tree: " + version);
+        }
+        var layout = header.readVarInt();
+        if (layout != INLINE && layout != SEGMENTED && layout != DELTA) {
+            throw new IOException("Unsupported layout of coverage tree: " + layout);
+        }
+        return layout;
+    }
+
+    private static Node readTree(final ByteSource source, @CheckForNull final DetailStore details,
+            @CheckForNull final Node reference) throws IOException {
+        var strings = readStrings(source);
+        var constants = new Constants(strings, source);
+        var root = new Decoder(source, strings, constants, details, reference).readTree();
+        if (source.hasRemaining()) {
+            throw new IOException("Input contains unexpected bytes after the coverage tree");
+        }
+        return root;
+    }
+
+    private static String[] readStrings(final ByteSource source) throws IOException {
+        var count = source.readLength();
+        var strings = new String[count + 1];
+        for (int i = 1; i <= count; i++) {
+            strings[i] = source.readUtf8(source.readLength());
+        }
+        CoveragePool.getShared().ifPresent(pool -> Arrays.setAll(strings, i -> pool.intern(strings[i])));
+        return strings;
+    }
+
+    private static ByteSource readBlock(final Path file, final long offset, final int length) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readBlock(channel, offset, length);
+        }
+    }
+
+    private static ByteSource readBlock(final FileChannel channel, final long offset, final int length)
+            throws IOException {
+        if (length < 0 || offset + length > channel.size()) {
+            throw new IOException("Unexpected end of coverage tree at position " + offset);
+        }
+        var buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of coverage tree at position " + (offset + buffer.position()));
+            }
+        }
+        return new ByteSource(buffer.array(), 0, length);
+    }
+
+    /**
+     * Encodes the nodes of a tree and collects the strings of the tree in a table. The tables are written before the
+     * encoded nodes when the tree has been encoded completely. In the segmented layout, the details of the files are
+     * encoded into separate blocks with a separate string table. In the delta layout, the nodes that are the same as in
+     * the reference tree are encoded as references.
+     */
+    private static final class Encoder {
+        private final int layout;
+        private final boolean isSegmented;
+        @CheckForNull
+        private final Node reference;
+
+        private final StringTable skeletonStrings = new StringTable();
+        private final ByteSink skeleton = new ByteSink(BUFFER_SIZE);
+        private final StringTable detailStrings;
+        private final ByteSink details;
+
+        private StringTable strings;
+        private ByteSink out;
+
+        Encoder(final int layout, @CheckForNull final Node reference) {
+            this.layout = layout;
+            this.reference = reference;
+
+            isSegmented = layout == SEGMENTED;
+            if (isSegmented) {
+                detailStrings = new StringTable();
+                details = new ByteSink(BUFFER_SIZE);
+            }
+            else {
+                detailStrings = skeletonStrings;
+                details = skeleton;
+            }
+            strings = skeletonStrings;
+            out = skeleton;
+        }
+
+        Encoder encode(final Node root) {
+            writeNode(root, reference != null && reference.getMetric() == root.getMetric()
+                    && reference.getName().equals(root.getName()) ? reference : null);
+            return this;
+        }
+
+        void writeTo(final OutputStream output) throws IOException {
+            var constants = new ByteSink(1024);
+            writeEnumTable(constants, Metric.values());
+            writeEnumTable(constants, MutationStatus.values());
+            writeEnumTable(constants, TestResult.values());
+
+            var tables = new ByteSink(BUFFER_SIZE);
+            skeletonStrings.writeTo(tables);
+            constants.writeTo(tables);
+
+            var header = new ByteSink(SEGMENTED_HEADER_LENGTH);
+            header.writeFixedInt(MAGIC);
+            header.writeVarInt(VERSION);
+            if (isSegmented) {
+                var detailTable = new ByteSink(BUFFER_SIZE);
+                detailStrings.writeTo(detailTable);
+
+                header.writeVarInt(SEGMENTED);
+                header.writeFixedInt(tables.size() + skeleton.size());
+                header.writeFixedInt(detailTable.size());
+                header.writeTo(output);
+                tables.writeTo(output);
+                skeleton.writeTo(output);
+                detailTable.writeTo(output);
+                details.writeTo(output);
+            }
+            else {
+                header.writeVarInt(layout);
+                header.writeTo(output);
+                tables.writeTo(output);
+                skeleton.writeTo(output);
+            }
+        }
+
+        private void writeEnumTable(final ByteSink sink, final Enum<?>... constants) {
+            sink.writeVarInt(constants.length);
+            for (Enum<?> constant : constants) {
+                sink.writeVarInt(skeletonStrings.indexOf(constant.name()));
+            }
+        }
+
+        private void writeString(@CheckForNull final String text) {
+            out.writeVarInt(strings.indexOf(text));
+        }
+
+        private void writeNode(final Node node, @CheckForNull final Node referenceNode) {
+            out.writeVarInt(node.getMetric().ordinal());
+            writeString(node.getName());
+
+            var kind = CHANGED_NODE;
+            if (layout == DELTA) {
+                kind = getDeltaKind(node, referenceNode);
+                out.writeVarInt(kind);
+                if (kind == SAME_NODE) {
+                    return;
+                }
+            }
+
+            if (node instanceof ModuleNode moduleNode) {
+                writeStrings(moduleNode.getSources());
+            }
+            else if (node instanceof FileNode fileNode) {
+                writeFile(fileNode, kind == SAME_DETAILS);
+            }
+            else if (node instanceof ClassNode classNode) {
+                writeTestCases(classNode.getTestCases());
+            }
+            else if (node instanceof MethodNode methodNode) {
+                writeString(methodNode.getMethodName());
+                writeString(methodNode.getSignature());
+                out.writeSignedVarInt(methodNode.getLineNumber());
+            }
+
+            var values = node.getValues();
+            out.writeVarInt(values.size());
+            for (Value value : values) {
+                writeValue(value);
+            }
+
+            var children = node.getChildren();
+            var referenceChildren = mapChildren(referenceNode);
+            out.writeVarInt(children.size());
+            for (Node child : children) {
+                writeNode(child, referenceChildren.get(getKey(child.getMetric(), child.getName())));
+            }
+        }
+
+        private int getDeltaKind(final Node node, @CheckForNull final Node referenceNode) {
+            if (referenceNode == null) {
+                return CHANGED_NODE;
+            }
+            if (referenceNode.equals(node)) {
+                return SAME_NODE;
+            }
+            if (node instanceof FileNode fileNode && referenceNode instanceof FileNode referenceFile
+                    && referenceFile.getRelativePath().equals(fileNode.getRelativePath())
+                    && referenceFile.hasSameDetails(fileNode)) {
+                return SAME_DETAILS;
+            }
+            return CHANGED_NODE;
+        }
+
+        private void writeStrings(final List<String> texts) {
+            out.writeVarInt(texts.size());
+            for (String text : texts) {
+                writeString(text);
+            }
+        }
+
+        private void writeFile(final FileNode fileNode, final boolean hasReferenceDetails) {
+            writeString(fileNode.getRelativePath());
+
+            if (hasReferenceDetails) {
+                return; // the details are copied from the reference file
+            }
+            if (isSegmented) {
+                int start = details.size();
+                strings = detailStrings;
+                out = details;
+                writeFileDetails(fileNode);
+                strings = skeletonStrings;
+                out = skeleton;
+
+                out.writeVarInt(details.size() - start);
+            }
+            else {
+                writeFileDetails(fileNode);
+            }
+        }
+
+        private void writeFileDetails(final FileNode fileNode) {
+            var columns = fileNode.getCounterColumns();
+            for (int i = 0; i < columns.size(); i += 2) {
+                writeCounterPair(columns.get(i), columns.get(i + 1));
+            }
+            writeLines(fileNode.getModifiedLines());
+            writeCounters(fileNode.getIndirectCoverageChanges());
+
+            var deltas = fileNode.getCoverageDeltas();
+            out.writeVarInt(deltas.size());
+            for (Map.Entry<Metric, Value> delta : deltas.entrySet()) {
+                out.writeVarInt(delta.getKey().ordinal());
+                writeValue(delta.getValue());
+            }
+
+            var mutations = fileNode.getMutations();
+            out.writeVarInt(mutations.size());
+            for (Mutation mutation : mutations) {
+                writeMutation(mutation);
+            }
+        }
+
+        /**
+         * Writes the covered and missed counters of the lines of a file. Most lines have both counters, so the lines
+         * of the missed counters are skipped if they are the same as the lines of the covered counters.
+         */
+        private void writeCounterPair(final SortedMap<Integer, Integer> covered,
+                final SortedMap<Integer, Integer> missed) {
+            writeCounters(covered);
+            if (covered.keySet().equals(missed.keySet())) {
+                out.writeVarInt(0);
+                writeCounterValues(missed);
+            }
+            else {
+                out.writeVarInt(1);
+                writeCounters(missed);
+            }
+        }
+
+        private void writeCounters(final SortedMap<Integer, Integer> counters) {
+            writeLines(counters.keySet());
+            writeCounterValues(counters);
+        }
+
+        private void writeCounterValues(final SortedMap<Integer, Integer> counters) {
+            for (int value : counters.values()) {
+                out.writeSignedVarInt(value);
+            }
+        }
+
+        private void writeLines(final Iterable<Integer> lines) {
+            var lineList = new ArrayList<Integer>();
+            lines.forEach(lineList::add);
+
+            out.writeVarInt(lineList.size());
+            int previous = 0;
+            for (int line : lineList) {
+                out.writeSignedVarInt(line - previous);
+                previous = line;
+            }
+        }
+
+        private void writeMutation(final Mutation mutation) {
+            out.writeVarInt(mutation.isDetected() ? 1 : 0);
+            out.writeVarInt(mutation.getStatus().ordinal());
+            out.writeSignedVarInt(mutation.getLine());
+            writeString(mutation.getMutator());
+            writeString(mutation.getKillingTest());
+            writeString(mutation.getMutatedClass());
+            writeString(mutation.getMethod());
+            writeString(mutation.getSignature());
+            writeString(mutation.getDescription());
+        }
+
+        private void writeTestCases(final List<TestCase> testCases) {
+            out.writeVarInt(testCases.size());
+            for (TestCase testCase : testCases) {
+                writeString(testCase.getTestName());
+                writeString(testCase.getClassName());
+                out.writeVarInt(testCase.getResult().ordinal());
+                writeString(testCase.getType());
+                writeString(testCase.getMessage());
+                writeString(testCase.getStoredDescription());
+                var compressed = testCase.getCompressedDescription();
+                if (compressed == null) {
+                    out.writeVarInt(0);
+                }
+                else {
+                    out.writeVarInt(compressed.length + 1);
+                    out.writeBytes(compressed);
+                }
+            }
+        }
+
+        private void writeValue(final Value value) {
+            out.writeVarInt(getKind(value));
+            out.writeVarInt(value.getMetric().ordinal());
+            if (value instanceof Coverage coverage) {
+                out.writeVarInt(coverage.getCovered());
+                out.writeVarInt(coverage.getMissed());
+            }
+            else {
+                var fraction = value.getFraction();
+                out.writeSignedVarInt(fraction.getNumerator());
+                out.writeVarInt(fraction.getDenominator());
+            }
+        }
+
+        private int getKind(final Value value) {
+            var type = value.getClass();
+            if (type == Coverage.class) {
+                return COVERAGE;
+            }
+            if (type == Rate.class) {
+                return RATE;
+            }
+            if (type == Difference.class) {
+                return DIFFERENCE;
+            }
+            if (type == Value.class) {
+                return VALUE;
+            }
+            throw new IllegalArgumentException("Unsupported value type: " + type.getName());
+        }
+    }
+
+    /**
+     * Assigns an index to each distinct string. The index 0 represents {@code null}.
+     */
+    private static final class StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        int indexOf(@CheckForNull final String text) {
+            if (text == null) {
+                return 0;
+            }
+            var index = indexes.get(text);
+            if (index == null) {
+                strings.add(text);
+                index = strings.size();
+                indexes.put(text, index);
+            }
+            return index;
+        }
+
+        void writeTo(final ByteSink sink) {
+            sink.writeVarInt(strings.size());
+            for (String text : strings) {
+                var bytes = text.getBytes(StandardCharsets.UTF_8);
+                sink.writeVarInt(bytes.length);
+                sink.writeBytes(bytes);
+            }
+        }
+    }
+
+    /**
+     * Maps the stored ordinals of the enumerations to the constants of the current version.
+     */
+    private static final class Constants {
+        private final Metric[] metrics;
+        private final MutationStatus[] mutationStatuses;
+        private final TestResult[] testResults;
+
+        Constants(final String[] strings, final ByteSource source) throws IOException {
+            metrics = readEnumTable(Metric.class, strings, source);
+            mutationStatuses = readEnumTable(MutationStatus.class, strings, source);
+            testResults = readEnumTable(TestResult.class, strings, source);
+        }
+
+        private static <E extends Enum<E>> E[] readEnumTable(final Class<E> type, final String[] strings,
+                final ByteSource source) throws IOException {
+            var count = source.readLength();
+            var constants = Arrays.copyOf(type.getEnumConstants(), count);
+            for (int i = 0; i < count; i++) {
+                var index = source.readVarInt();
+                var name = index > 0 && index < strings.length ? strings[index] : "";
+                try {
+                    constants[i] = Enum.valueOf(type, name);
+                }
+                catch (IllegalArgumentException exception) {
+                    throw new IOException("Unknown constant %s of %s".formatted(name, type.getSimpleName()),
+                            exception);
+                }
+            }
+            return constants;
+        }
+    }
+
+    /**
+     * Reads a block of a stored tree.
+     */
+    @FunctionalInterface
+    private interface BlockReader {
+        ByteSource read(long offset, int length) throws IOException;
+    }
+
+    /**
+     * Provides the details of the files of a tree in the segmented layout. The blocks of the details are read in the
+     * order of the files in the skeleton, so the offset of each block is the sum of the lengths of the previous
+     * blocks. The string table of the details is read when the details of a file are read for the first time.
+     */
+    private static final class DetailStore {
+        private final long stringsOffset;
+        private final int stringsLength;
+        private final boolean isLazy;
+        private final BlockReader reader;
+
+        @CheckForNull
+        private String[] strings;
+        private long nextOffset;
+
+        DetailStore(final long stringsOffset, final int stringsLength, final boolean isLazy,
+                final BlockReader reader) {
+            this.stringsOffset = stringsOffset;
+            this.stringsLength = stringsLength;
+            this.isLazy = isLazy;
+            this.reader = reader;
+
+            nextOffset = stringsOffset + stringsLength;
+        }
+
+        /**
+         * Registers the details of the specified file. The details are stored in the block that follows the block of
+         * the previously registered file. If the store is lazy, the block is read when the details of the file are
+         * accessed for the first time. Otherwise, the block is read immediately.
+         */
+        void register(final FileNode fileNode, final int length, final Constants constants) throws IOException {
+            var offset = nextOffset;
+            nextOffset += length;
+
+            if (isLazy) {
+                fileNode.setDetailLoader(() -> loadDetails(fileNode, offset, length, constants));
+            }
+            else {
+                readDetails(fileNode, offset, length, constants);
+            }
+        }
+
+        private FileNode loadDetails(final FileNode fileNode, final long offset, final int length,
+                final Constants constants) {
+            try {
+                var details = new FileNode(fileNode.getName(), fileNode.getRelativePath());
+                readDetails(details, offset, length, constants);
+                return details;
+            }
+            catch (IOException exception) {
+                throw new IllegalStateException(
+                        "Can't read details of file '%s'".formatted(fileNode.getRelativePath()), exception);
+            }
+        }
+
+        private void readDetails(final FileNode fileNode, final long offset, final int length,
+                final Constants constants) throws IOException {
+            var source = reader.read(offset, length);
+            new Decoder(source, getStrings(), constants, null, null).readFileDetails(fileNode);
+            if (source.hasRemaining()) {
+                throw new IOException("Details of file contain unexpected bytes at position " + offset);
+            }
+        }
+
+        private synchronized String[] getStrings() throws IOException {
+            if (strings == null) {
+                strings = readStrings(reader.read(stringsOffset, stringsLength));
+            }
+            return strings;
+        }
+    }
+
+    /**
+     * Restores a tree from the bytes that have been written by an {@link Encoder}.
+     */
+    private static final class Decoder {
+        private final ByteSource source;
+        private final String[] strings;
+        private final Constants constants;
+        @CheckForNull
+        private final DetailStore details;
+        @CheckForNull
+        private final Node reference;
+        private final TreeStringBuilder treeStringBuilder = new TreeStringBuilder();
+
+        Decoder(final ByteSource source, final String[] strings, final Constants constants,
+                @CheckForNull final DetailStore details, @CheckForNull final Node reference) {
+            this.source = source;
+            this.strings = strings;
+            this.constants = constants;
+            this.details = details;
+            this.reference = reference;
+        }
+
+        Node readTree() throws IOException {
+            var root = readNode(reference == null ? Map.of()
+                    : Map.of(getKey(reference.getMetric(), reference.getName()), reference));
+            treeStringBuilder.dedup();
+            return root;
+        }
+
+        @CheckForNull
+        private String readString() throws IOException {
+            var index = source.readVarInt();
+            if (index < 0 || index >= strings.length) {
+                throw new IOException("Invalid string reference: " + index);
+            }
+            return strings[index];
+        }
+
+        private String readRequiredString() throws IOException {
+            var text = readString();
+            if (text == null) {
+                throw new IOException("Missing string value");
+            }
+            return text;
+        }
+
+        private <E> E readConstant(final E[] values) throws IOException {
+            var ordinal = source.readVarInt();
+            if (ordinal < 0 || ordinal >= values.length) {
+                throw new IOException("Invalid ordinal: " + ordinal);
+            }
+            return values[ordinal];
+        }
+
+        /**
+         * Reads a node and its children.
+         *
+         * @param referenceNodes
+         *         the nodes of the reference tree that correspond to the siblings of the node, empty if the tree is
+         *         not stored in the delta layout
+         */
+        private Node readNode(final Map<String, Node> referenceNodes) throws IOException {
+            var metric = readConstant(constants.metrics);
+            var name = readRequiredString();
+
+            var kind = reference == null ? CHANGED_NODE : source.readVarInt();
+            var referenceNode = referenceNodes.get(getKey(metric, name));
+            FileNode referenceFile = null;
+            if (kind != CHANGED_NODE) {
+                if (referenceNode == null) {
+                    throw new IOException("Reference tree does not contain the node " + getKey(metric, name));
+                }
+                if (kind == SAME_NODE) {
+                    return copyReference(referenceNode);
+                }
+                if (kind != SAME_DETAILS || !(referenceNode instanceof FileNode file)) {
+                    throw new IOException("Unsupported kind of node delta: " + kind);
+                }
+                referenceFile = file;
+            }
+
+            var node = createNode(metric, name, referenceFile);
+            if (!node.getName().equals(name)) { // the constructors of some nodes normalize the name
+                node.setName(name);
+            }
+
+            var valueCount = source.readLength();
+            if (node instanceof ClassNode) {
+                node.removeValues(); // the count of the test cases is one of the stored values
+            }
+            for (int i = 0; i < valueCount; i++) {
+                node.replaceValue(readValue());
+            }
+
+            var childCount = source.readLength();
+            var referenceChildren = mapChildren(referenceNode);
+            for (int i = 0; i < childCount; i++) {
+                node.addRestoredChild(readNode(referenceChildren));
+            }
+            return node;
+        }
+
+        private Node createNode(final Metric metric, final String name, @CheckForNull final FileNode referenceFile)
+                throws IOException {
+            switch (metric) {
+                case CONTAINER:
+                    return new ContainerNode(name);
+                case MODULE:
+                    var moduleNode = new ModuleNode(name);
+                    var sourceCount = source.readLength();
+                    for (int i = 0; i < sourceCount; i++) {
+                        moduleNode.addSource(readRequiredString());
+                    }
+                    return moduleNode;
+                case PACKAGE:
+                    return new PackageNode(name);
+                case FILE:
+                    var fileNode = new FileNode(name, readPath());
+                    if (referenceFile != null) {
+                        fileNode.setDetailLoader(referenceFile::getUnretainedDetails);
+                    }
+                    else if (details == null) {
+                        readFileDetails(fileNode);
+                    }
+                    else {
+                        details.register(fileNode, source.readSize(), constants);
+                    }
+                    return fileNode;
+                case CLASS:
+                    var classNode = new ClassNode(name);
+                    readTestCases(classNode);
+                    return classNode;
+                case METHOD:
+                    var methodName = readRequiredString();
+                    var signature = readRequiredString();
+                    return new MethodNode(methodName, signature, source.readSignedVarInt());
+                default:
+                    throw new IOException("Unsupported node metric: " + metric);
+            }
+        }
+
+        /**
+         * Copies the specified node of the reference tree and all of its descendants. The details of the files are
+         * copied from the reference files when they are accessed for the first time.
+         */
+        private Node copyReference(final Node referenceNode) {
+            Node copy;
+            if (referenceNode instanceof ModuleNode referenceModule) {
+                var moduleNode = new ModuleNode(referenceModule.getName());
+                referenceModule.getSources().forEach(moduleNode::addSource);
+                copy = moduleNode;
+            }
+            else if (referenceNode instanceof FileNode referenceFile) {
+                copy = referenceFile.copyWithDeferredDetails();
+            }
+            else {
+                copy = referenceNode.copy();
+            }
+            if (!copy.getName().equals(referenceNode.getName())) { // the constructors of some nodes normalize the name
+                copy.setName(referenceNode.getName());
+            }
+            copy.removeValues();
+            referenceNode.getValues().forEach(copy::replaceValue);
+            for (Node child : referenceNode.getChildren()) {
+                copy.addRestoredChild(copyReference(child));
+            }
+            return copy;
+        }
+
+        private TreeString readPath() throws IOException {
+            var path = treeStringBuilder.intern(readRequiredString());
+            return CoveragePool.getShared().map(pool -> pool.intern(path)).orElse(path);
+        }
+
+        void readFileDetails(final FileNode fileNode) throws IOException {
+            var columns = fileNode.getCounterColumns();
+            for (int i = 0; i < columns.size(); i += 2) {
+                readCounterPair(columns.get(i), columns.get(i + 1));
+            }
+            fileNode.addModifiedLines(readLines());
+
+            var indirectLines = readLines();
+            for (int line : indirectLines) {
+                fileNode.addIndirectCoverageChange(line, source.readSignedVarInt());
+            }
+
+            var deltaCount = source.readLength();
+            var deltas = fileNode.getCoverageDeltas();
+            for (int i = 0; i < deltaCount; i++) {
+                var metric = readConstant(constants.metrics);
+                deltas.put(metric, readValue());
+            }
+
+            var mutationCount = source.readLength();
+            for (int i = 0; i < mutationCount; i++) {
+                fileNode.addMutation(readMutation());
+            }
+        }
+
+        private void readCounterPair(final NavigableMap<Integer, Integer> covered,
+                final NavigableMap<Integer, Integer> missed) throws IOException {
+            var lines = readLines();
+            readCounterValues(lines, covered);
+            if (source.readVarInt() != 0) {
+                lines = readLines();
+            }
+            readCounterValues(lines, missed);
+        }
+
+        private void readCounterValues(final int[] lines, final NavigableMap<Integer, Integer> counters)
+                throws IOException {
+            for (int line : lines) {
+                counters.put(line, source.readSignedVarInt());
+            }
+        }
+
+        private int[] readLines() throws IOException {
+            var lines = new int[source.readLength()];
+            int previous = 0;
+            for (int i = 0; i < lines.length; i++) {
+                previous += source.readSignedVarInt();
+                lines[i] = previous;
+            }
+            return lines;
+        }
+
+        private Mutation readMutation() throws IOException {
+            return new MutationBuilder()
+                    .withIsDetected(source.readVarInt() != 0)
+                    .withStatus(readConstant(constants.mutationStatuses))
+                    .withLine(source.readSignedVarInt())
+                    .withMutator(readRequiredString())
+                    .withKillingTest(readRequiredString())
+                    .withMutatedClass(readRequiredString())
+                    .withMutatedMethod(readRequiredString())
+                    .withMutatedMethodSignature(readRequiredString())
+                    .withDescription(readRequiredString())
+                    .build();
+        }
+
+        private void readTestCases(final ClassNode classNode) throws IOException {
+            var count = source.readLength();
+            if (count == 0) {
+                return;
+            }
+
+            var testCases = new ArrayList<TestCase>(count);
+            for (int i = 0; i < count; i++) {
+                var testName = readString();
+                var className = readRequiredString();
+                var result = readConstant(constants.testResults);
+                var type = readString();
+                var message = readString();
+                var description = readString();
+                var compressedLength = source.readVarInt();
+                var compressed = compressedLength == 0 ? null : source.readBytes(compressedLength - 1);
+                testCases.add(new TestCase(testName, className, result, type, message, description, compressed));
+            }
+            classNode.addTestCases(testCases);
+        }
+
+        private Value readValue() throws IOException {
+            var kind = source.readVarInt();
+            var metric = readConstant(constants.metrics);
+            if (kind == COVERAGE) {
+                return new CoverageBuilder().withMetric(metric)
+                        .withCovered(source.readVarInt())
+                        .withMissed(source.readVarInt())
+                        .build();
+            }
+
+            var numerator = source.readSignedVarInt();
+            var denominator = source.readVarInt();
+            if (denominator <= 0) {
+                throw new IOException("Invalid denominator of value: " + denominator);
+            }
+            var fraction = Fraction.getFraction(numerator, denominator);
+            return switch (kind) {
+                case VALUE -> new Value(metric, fraction);
+                case RATE -> new Rate(metric, fraction);
+                case DIFFERENCE -> new Difference(metric, fraction);
+                default -> throw new IOException("Unsupported value type: " + kind);
+            };
+        }
+    }
+
+    /**
+     * A growing byte array that writes integers as variable length quantities.
+     */
+    private static final class ByteSink {
+        private byte[] buffer;
+        private int size;
+
+        ByteSink(final int capacity) {
+            buffer = new byte[capacity];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void writeFixedInt(final int value) {
+            ensureCapacity(4);
+            buffer[size++] = (byte) (value >>> 24);
+            buffer[size++] = (byte) (value >>> 16);
+            buffer[size++] = (byte) (value >>> 8);
+            buffer[size++] = (byte) value;
+        }
+
+        /**
+         * Writes an integer with 7 bits per byte, the highest bit marks that more bytes follow. Small non-negative
+         * values require a single byte.
+         */
+        void writeVarInt(final int value) {
+            ensureCapacity(5);
+            int remaining = value;
+            while ((remaining & ~0x7F) != 0) {
+                buffer[size++] = (byte) (remaining & 0x7F | 0x80);
+                remaining >>>= 7;
+            }
+            buffer[size++] = (byte) remaining;
+        }
+
+        /**
+         * Writes an integer in zigzag encoding, so that values with a small magnitude require a single byte, even if
+         * they are negative.
+         */
+        void writeSignedVarInt(final int value) {
+            writeVarInt(value << 1 ^ value >> 31);
+        }
+
+        void writeBytes(final byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void writeTo(final OutputStream output) throws IOException {
+            output.write(buffer, 0, size);
+        }
+
+        void writeTo(final ByteSink sink) {
+            sink.ensureCapacity(size);
+            System.arraycopy(buffer, 0, sink.buffer, sink.size, size);
+            sink.size += size;
+        }
+
+        private void ensureCapacity(final int additional) {
+            if (size + additional > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additional));
+            }
+        }
+    }
+
+    /**
+     * Reads the integers that have been written by a {@link ByteSink} from a range of a byte array.
+     */
+    private static final class ByteSource {
+        private final byte[] buffer;
+        private final int limit;
+        private int position;
+
+        /**
+         * Creates a source for the specified range of a buffer.
+         *
+         * @param buffer
+         *         the buffer to read from
+         * @param offset
+         *         the index of the first byte to read
+         * @param length
+         *         the number of bytes to read
+         *
+         * @return the source
+         * @throws IOException
+         *         if the range exceeds the buffer
+         */
+        static ByteSource of(final byte[] buffer, final long offset, final int length) throws IOException {
+            if (offset < 0 || length < 0 || offset + length > buffer.length) {
+                throw new IOException("Unexpected end of coverage tree at position " + offset);
+            }
+            return new ByteSource(buffer, (int) offset, (int) offset + length);
+        }
+
+        ByteSource(final byte[] buffer, final int start, final int end) {
+            this.buffer = buffer;
+            this.position = start;
+            this.limit = end;
+        }
+
+        int getPosition() {
+            return position;
+        }
+
+        boolean hasRemaining() {
+            return position < limit;
+        }
+
+        int readFixedInt() throws IOException {
+            ensureAvailable(4);
+            return (buffer[position++] & 0xFF) << 24
+                    | (buffer[position++] & 0xFF) << 16
+                    | (buffer[position++] & 0xFF) << 8
+                    | buffer[position++] & 0xFF;
+        }
+
+        int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                ensureAvailable(1);
+                byte current = buffer[position++];
+                value |= (current & 0x7F) << shift;
+                if (current >= 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed variable length integer at position " + position);
+        }
+
+        int readSignedVarInt() throws IOException {
+            int value = readVarInt();
+            return value >>> 1 ^ -(value & 1);
+        }
+
+        /**
+         * Reads the length of a sequence. Since each element requires at least one byte, the length cannot exceed
+         * the number of remaining bytes.
+         */
+        int readLength() throws IOException {
+            int length = readVarInt();
+            if (length < 0 || length > limit - position) {
+                throw new IOException("Invalid length %d at position %d".formatted(length, position));
+            }
+            return length;
+        }
+
+        /**
+         * Reads the size of a block that is stored elsewhere.
+         */
+        int readSize() throws IOException {
+            int size = readVarInt();
+            if (size < 0) {
+                throw new IOException("Invalid size %d at position %d".formatted(size, position));
+            }
+            return size;
+        }
+
+        String readUtf8(final int length) throws IOException {
+            ensureAvailable(length);
+            var text = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return text;
+        }
+
+        byte[] readBytes(final int length) throws IOException {
+            ensureAvailable(length);
+            var bytes = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return bytes;
+        }
+
+        private void ensureAvailable(final int length) throws IOException {
+            if (length < 0 || length > limit - position) {
+                throw new IOException("Unexpected end of coverage tree at position " + position);
+            }
+        }
+    }
+}
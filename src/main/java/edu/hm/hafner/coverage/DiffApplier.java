@@ -0,0 +1,337 @@
+package edu.hm.hafner.coverage;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.hm.hafner.util.LineRange;
+import edu.hm.hafner.util.LineRangeList;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Applies the changes of a unified diff to the files of a coverage tree. For each file of the diff, the added lines
+ * are marked as {@link FileNode#getModifiedLines() modified lines} of the corresponding file node.
+ * Additionally, a {@link LineMapping} is created that maps the lines of the file before the change to the lines after
+ * the change. This mapping can be used to align the line coverage of a reference build with the current build, e.g.,
+ * to compute the {@link FileNode#addIndirectCoverageChange(int, int) indirect coverage changes}.
+ *
+ * <p>
+ * The diff is read in a single pass. The paths of the diff are resolved using a hash index of the relative paths of
+ * the file nodes. Since the paths of a diff are relative to the root of the repository, while the relative paths of the
+ * file nodes are usually relative to a source folder, each path of the diff is resolved by its longest suffix that
+ * matches a relative path of the tree.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public final class DiffApplier {
+    private static final String NO_FILE = "/dev/null";
+    private static final Pattern HUNK_HEADER = Pattern.compile("@@ -(\\d+)(?:,(\\d+))? \\+(\\d+)(?:,(\\d+))? @@.*");
+
+    private final Map<String, FileNode> filesByPath = new HashMap<>();
+    private final Map<String, LineMapping> mappingsByPath = new HashMap<>();
+    private final Set<String> unresolvedFiles = new TreeSet<>();
+
+    /**
+     * Creates a new instance that applies the changes to the files of the specified tree.
+     *
+     * @param root
+     *         the root of the tree
+     */
+    public DiffApplier(final Node root) {
+        for (FileNode file : root.getAllFileNodes()) {
+            filesByPath.putIfAbsent(file.getRelativePath(), file);
+        }
+    }
+
+    /**
+     * Reads the specified unified diff and applies the changes to the files of the tree.
+     *
+     * @param diff
+     *         the unified diff to read
+     *
+     * @throws IOException
+     *         if the diff could not be read or if the diff is malformed
+     */
+    public void apply(final Reader diff) throws IOException {
+        var reader = diff instanceof BufferedReader buffered ? buffered : new BufferedReader(diff);
+
+        ChangedFile changedFile = null;
+        int oldRemaining = 0;
+        int newRemaining = 0;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            if (oldRemaining > 0 || newRemaining > 0) {
+                char type = line.isEmpty() ? ' ' : line.charAt(0);
+                if (type == ' ') {
+                    changedFile.keepLine();
+                    oldRemaining--;
+                    newRemaining--;
+                }
+                else if (type == '-') {
+                    changedFile.removeLine();
+                    oldRemaining--;
+                }
+                else if (type == '+') {
+                    changedFile.addLine();
+                    newRemaining--;
+                }
+                else if (type != '\\') {
+                    throw new IOException("Unexpected line in hunk of file " + changedFile.path + ": " + line);
+                }
+            }
+            else if (line.startsWith("+++ ")) {
+                finish(changedFile);
+                changedFile = new ChangedFile(getPath(line));
+            }
+            else if (line.startsWith("@@ ")) {
+                if (changedFile == null) {
+                    throw new IOException("Hunk without file header: " + line);
+                }
+                var header = HUNK_HEADER.matcher(line);
+                if (!header.matches()) {
+                    throw new IOException("Malformed hunk header: " + line);
+                }
+                oldRemaining = getCount(header.group(2));
+                newRemaining = getCount(header.group(4));
+                changedFile.startHunk(getStart(header.group(1), oldRemaining), getStart(header.group(3), newRemaining));
+            }
+        }
+        if (oldRemaining > 0 || newRemaining > 0) {
+            throw new IOException("Unexpected end of hunk of file " + changedFile.path);
+        }
+        finish(changedFile);
+    }
+
+    /**
+     * Returns the paths of the diff that could not be resolved to a file of the tree.
+     *
+     * @return the unresolved paths
+     */
+    public Set<String> getUnresolvedFiles() {
+        return Collections.unmodifiableSet(unresolvedFiles);
+    }
+
+    /**
+     * Finds the file of the tree for the specified path of a diff. The path is resolved by its longest suffix that
+     * matches the relative path of a file.
+     *
+     * @param path
+     *         the path to resolve
+     *
+     * @return the file node, or an empty result if the path is not part of the tree
+     */
+    public Optional<FileNode> findFile(final String path) {
+        var normalized = path.replace('\\', '/');
+        for (int start = 0; start >= 0; ) {
+            var file = filesByPath.get(normalized.substring(start));
+            if (file != null) {
+                return Optional.of(file);
+            }
+            int separator = normalized.indexOf('/', start);
+            start = separator < 0 ? -1 : separator + 1;
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the mapping of the lines of the specified file before the change to the lines after the change. If the
+     * file has not been changed by the applied diffs, then the mapping maps each line to itself.
+     *
+     * @param file
+     *         the file to get the mapping for
+     *
+     * @return the line mapping
+     */
+    public LineMapping getLineMapping(final FileNode file) {
+        return mappingsByPath.getOrDefault(file.getRelativePath(), LineMapping.IDENTITY);
+    }
+
+    @CheckForNull
+    private static String getPath(final String header) {
+        var path = StringUtils.substringBefore(header.substring(4), "\t").strip();
+        if (NO_FILE.equals(path)) {
+            return null;
+        }
+        return StringUtils.unwrap(path, '"');
+    }
+
+    private static int getCount(@CheckForNull final String count) {
+        return count == null ? 1 : Integer.parseInt(count);
+    }
+
+    /**
+     * Returns the first line of a hunk. If the hunk contains no lines of a file, then the start refers to the line
+     * before the hunk.
+     */
+    private static int getStart(final String start, final int count) {
+        return count == 0 ? Integer.parseInt(start) + 1 : Integer.parseInt(start);
+    }
+
+    private void finish(@CheckForNull final ChangedFile changedFile) {
+        if (changedFile == null || changedFile.path == null) {
+            return;
+        }
+        var file = findFile(changedFile.path);
+        if (file.isPresent()) {
+            changedFile.finish(file.get());
+            mappingsByPath.put(file.get().getRelativePath(), changedFile.createMapping());
+        }
+        else {
+            unresolvedFiles.add(changedFile.path);
+        }
+    }
+
+    /**
+     * Maps the lines of a file before a change to the lines after the change. The mapping is stored as a sorted list
+     * of the changed blocks of the file. Each block consists of the start and the number of lines before and after
+     * the change. All lines between the blocks are unchanged and are shifted by the size difference of the preceding
+     * blocks.
+     */
+    public static final class LineMapping {
+        private static final int BLOCK_SIZE = 4;
+        static final LineMapping IDENTITY = new LineMapping(new int[0]);
+
+        private final int[] blocks;
+
+        LineMapping(final int[] blocks) {
+            this.blocks = blocks;
+        }
+
+        /**
+         * Returns the line after the change for the specified line before the change.
+         *
+         * @param oldLine
+         *         the line before the change
+         *
+         * @return the line after the change, or an empty result if the line has been removed
+         */
+        public OptionalInt getNewLine(final int oldLine) {
+            int block = findBlock(oldLine);
+            if (block < 0) {
+                return OptionalInt.of(oldLine);
+            }
+            int offset = oldLine - (blocks[block] + blocks[block + 1]);
+            if (offset < 0) {
+                return OptionalInt.empty();
+            }
+            return OptionalInt.of(blocks[block + 2] + blocks[block + 3] + offset);
+        }
+
+        /**
+         * Returns the index of the last block that starts at or before the specified line.
+         */
+        private int findBlock(final int oldLine) {
+            int low = 0;
+            int high = blocks.length / BLOCK_SIZE - 1;
+            int found = -1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (blocks[middle * BLOCK_SIZE] <= oldLine) {
+                    found = middle * BLOCK_SIZE;
+                    low = middle + 1;
+                }
+                else {
+                    high = middle - 1;
+                }
+            }
+            return found;
+        }
+
+        @Override
+        public String toString() {
+            return "LineMapping" + Arrays.toString(blocks);
+        }
+    }
+
+    /**
+     * Collects the changes of a single file of the diff.
+     */
+    private static final class ChangedFile {
+        @CheckForNull
+        private final String path;
+        private final LineRangeList modifiedLines = new LineRangeList();
+
+        private int[] blocks = new int[16];
+        private int size;
+        private boolean isInBlock;
+
+        private int oldLine;
+        private int newLine;
+        private int rangeStart;
+        private int rangeEnd = -1;
+
+        ChangedFile(@CheckForNull final String path) {
+            this.path = path;
+        }
+
+        void startHunk(final int oldStart, final int newStart) {
+            isInBlock = false;
+            oldLine = oldStart;
+            newLine = newStart;
+        }
+
+        void keepLine() {
+            isInBlock = false;
+            oldLine++;
+            newLine++;
+        }
+
+        void removeLine() {
+            startBlock();
+            blocks[size - 3]++;
+            oldLine++;
+        }
+
+        void addLine() {
+            startBlock();
+            blocks[size - 1]++;
+            if (rangeEnd + 1 != newLine) {
+                addRange();
+                rangeStart = newLine;
+            }
+            rangeEnd = newLine;
+            newLine++;
+        }
+
+        private void startBlock() {
+            if (!isInBlock) {
+                if (size == blocks.length) {
+                    blocks = Arrays.copyOf(blocks, size * 2);
+                }
+                blocks[size++] = oldLine;
+                blocks[size++] = 0;
+                blocks[size++] = newLine;
+                blocks[size++] = 0;
+                isInBlock = true;
+            }
+        }
+
+        private void addRange() {
+            if (rangeEnd >= rangeStart) {
+                modifiedLines.add(new LineRange(rangeStart, rangeEnd));
+            }
+        }
+
+        void finish(final FileNode file) {
+            addRange();
+            if (!modifiedLines.isEmpty()) {
+                file.addModifiedLines(modifiedLines);
+            }
+        }
+
+        LineMapping createMapping() {
+            return new LineMapping(Arrays.copyOf(blocks, size));
+        }
+    }
+}
@@ -12,8 +12,12 @@ import edu.hm.hafner.util.LineRangeList;
 import edu.hm.hafner.util.PitMutator;
 import edu.hm.hafner.util.SuppressMutation;
 import edu.hm.hafner.util.TreeString;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serial;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -31,6 +35,7 @@ import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -45,9 +50,9 @@ public final class FileNode extends Node {
     private static final int UNSET = -1;
 
     @SuppressWarnings("serial")
-    private final NavigableMap<Integer, Integer> coveredPerLine = new TreeMap<>();
+    private /* almost final */ NavigableMap<Integer, Integer> coveredPerLine = new TreeMap<>();
     @SuppressWarnings("serial")
-    private final NavigableMap<Integer, Integer> missedPerLine = new TreeMap<>();
+    private /* almost final */ NavigableMap<Integer, Integer> missedPerLine = new TreeMap<>();
 
     @SuppressWarnings("serial")
     private NavigableMap<Integer, Integer> mcdcPairCoveredPerLine = new TreeMap<>();
@@ -65,14 +70,17 @@ public final class FileNode extends Node {
     private final List<Mutation> mutations = new ArrayList<>();
 
     @SuppressWarnings("serial")
-    private final SortedSet<Integer> modifiedLines = new TreeSet<>();
+    private /* almost final */ SortedSet<Integer> modifiedLines = new TreeSet<>();
     @SuppressWarnings("serial")
-    private final NavigableMap<Integer, Integer> indirectCoverageChanges = new TreeMap<>();
+    private /* almost final */ NavigableMap<Integer, Integer> indirectCoverageChanges = new TreeMap<>();
     @SuppressWarnings("serial")
-    private final NavigableMap<Metric, Value> coverageDelta = new TreeMap<>();
+    private /* almost final */ NavigableMap<Metric, Value> coverageDelta = new TreeMap<>();
 
     private TreeString relativePath; // @since 0.22.0
 
+    @CheckForNull
+    private transient volatile Supplier<FileNode> detailLoader; // @since 0.73.0: set if the details are not loaded yet
+
     /**
      * Creates a new {@link FileNode} with the given name.
      *
@@ -130,8 +138,152 @@ public final class FileNode extends Node {
         return this;
     }
 
+    /**
+     * Defers loading of the details of this file until they are accessed for the first time. The details are the
+     * counters and modifications of the lines, the coverage deltas, and the mutations. The values and children of the
+     * file are not part of the details. The loader creates a file that contains the details, these details are then
+     * copied into this file.
+     *
+     * @param loader
+     *         the loader of the details
+     */
+    void setDetailLoader(final Supplier<FileNode> loader) {
+        detailLoader = loader;
+    }
+
+    private void loadDetails() {
+        if (detailLoader != null) {
+            synchronized (this) {
+                var loader = detailLoader;
+                if (loader != null) {
+                    var details = loader.get();
+
+                    coveredPerLine.putAll(details.coveredPerLine);
+                    missedPerLine.putAll(details.missedPerLine);
+                    mcdcPairCoveredPerLine.putAll(details.mcdcPairCoveredPerLine);
+                    mcdcPairMissedPerLine.putAll(details.mcdcPairMissedPerLine);
+                    functionCallCoveredPerLine.putAll(details.functionCallCoveredPerLine);
+                    functionCallMissedPerLine.putAll(details.functionCallMissedPerLine);
+                    modifiedLines.addAll(details.modifiedLines);
+                    mutations.addAll(details.mutations);
+                    indirectCoverageChanges.putAll(details.indirectCoverageChanges);
+                    coverageDelta.putAll(details.coverageDelta);
+
+                    detailLoader = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the details of this file after the other fields. The counters of the lines are written as counted runs
+     * of primitive integers rather than as maps of boxed integers. The deltas are written in the compact form of
+     * {@link Node#writeValues(ObjectOutputStream, Collection)}. The fields of these details are written as
+     * {@code null} so that {@link #readObject(ObjectInputStream)} can distinguish these streams from streams of old
+     * versions that contain the maps.
+     *
+     * @param output
+     *         the stream to write to
+     *
+     * @throws IOException
+     *         if the stream cannot be written
+     */
+    @Serial
+    private void writeObject(final ObjectOutputStream output) throws IOException {
+        loadDetails();
+
+        var fields = output.putFields();
+        fields.put("mutations", mutations);
+        fields.put("relativePath", relativePath);
+        output.writeFields();
+
+        writeCounters(output, coveredPerLine);
+        writeCounters(output, missedPerLine);
+        writeCounters(output, mcdcPairCoveredPerLine);
+        writeCounters(output, mcdcPairMissedPerLine);
+        writeCounters(output, functionCallCoveredPerLine);
+        writeCounters(output, functionCallMissedPerLine);
+        writeLines(output, modifiedLines);
+        writeCounters(output, indirectCoverageChanges);
+        writeValues(output, coverageDelta.values());
+    }
+
+    private static void writeCounters(final ObjectOutputStream output, final NavigableMap<Integer, Integer> counters)
+            throws IOException {
+        writeLines(output, counters.keySet());
+        for (int counter : counters.values()) {
+            output.writeInt(counter);
+        }
+    }
+
+    private static void writeLines(final ObjectOutputStream output, final Collection<Integer> lines)
+            throws IOException {
+        output.writeInt(lines.size());
+        for (int line : lines) {
+            output.writeInt(line);
+        }
+    }
+
+    @Serial
+    private void readObject(final ObjectInputStream input) throws IOException, ClassNotFoundException {
+        input.defaultReadObject();
+
+        if (coveredPerLine == null) { // @since 0.73.0: the details follow the fields
+            coveredPerLine = readCounters(input);
+            missedPerLine = readCounters(input);
+            mcdcPairCoveredPerLine = readCounters(input);
+            mcdcPairMissedPerLine = readCounters(input);
+            functionCallCoveredPerLine = readCounters(input);
+            functionCallMissedPerLine = readCounters(input);
+            modifiedLines = new TreeSet<>(readLines(input));
+            indirectCoverageChanges = readCounters(input);
+            coverageDelta = new TreeMap<>();
+            for (Value delta : readValues(input)) {
+                coverageDelta.put(delta.getMetric(), delta);
+            }
+        }
+        CoveragePool.getShared().ifPresent(this::internFileStrings);
+    }
+
+    private static NavigableMap<Integer, Integer> readCounters(final ObjectInputStream input) throws IOException {
+        var lines = readLines(input);
+        var counters = new TreeMap<Integer, Integer>();
+        for (int line : lines) {
+            counters.put(line, input.readInt());
+        }
+        return counters;
+    }
+
+    private static List<Integer> readLines(final ObjectInputStream input) throws IOException {
+        var size = readSize(input, "lines");
+        var lines = new ArrayList<Integer>(Math.min(size, MAXIMUM_INITIAL_CAPACITY));
+        for (int i = 0; i < size; i++) {
+            lines.add(input.readInt());
+        }
+        return lines;
+    }
+
+    @Override
+    void internStrings(final CoveragePool pool) {
+        super.internStrings(pool);
+
+        internFileStrings(pool);
+    }
+
+    /**
+     * Interns the relative path and the strings of the mutations. If the details of this file have not been loaded
+     * yet, the mutations are skipped: the strings of the details are interned when they are read.
+     */
+    private void internFileStrings(final CoveragePool pool) {
+        relativePath = pool.intern(relativePath);
+        if (detailLoader == null) {
+            mutations.replaceAll(mutation -> mutation.internStrings(pool));
+        }
+    }
+
     @Override
     public FileNode copy() {
+        loadDetails();
         var copy = new FileNode(getName(), relativePath);
 
         copy.coveredPerLine.putAll(coveredPerLine);
@@ -183,6 +335,8 @@ public final class FileNode extends Node {
     @SuppressMutation(mutator = PitMutator.CONDITIONALS_BOUNDARY,
             justification = "False positive: For maximum calculation the boundary is irrelevant")
     private void mergeCounters(final FileNode otherFile) {
+        loadDetails();
+        otherFile.loadDetails();
         var lines = new TreeSet<Integer>();
 
         lines.addAll(coveredPerLine.keySet());
@@ -307,6 +461,7 @@ public final class FileNode extends Node {
     }
 
     public SortedSet<Integer> getModifiedLines() {
+        loadDetails();
         return new TreeSet<>(modifiedLines);
     }
 
@@ -317,6 +472,7 @@ public final class FileNode extends Node {
      */
     @Override
     public boolean hasModifiedLines() {
+        loadDetails();
         return !modifiedLines.isEmpty();
     }
 
@@ -329,6 +485,7 @@ public final class FileNode extends Node {
      * @return {@code true} if this file has been modified at the specified line, {@code false} otherwise
      */
     public boolean hasModifiedLine(final int line) {
+        loadDetails();
         return modifiedLines.contains(line);
     }
 
@@ -339,32 +496,62 @@ public final class FileNode extends Node {
      *         the modified code lines
      */
     public void addModifiedLines(final int... lines) {
+        loadDetails();
         for (int line : lines) {
             modifiedLines.add(line);
         }
     }
 
+    /**
+     * Marks the lines of the specified ranges as being modified. Each line of the ranges is stored individually, just
+     * like the lines that are added with {@link #addModifiedLines(int...)}.
+     *
+     * @param lineRanges
+     *         the ranges of the modified code lines
+     */
+    public void addModifiedLines(final LineRangeList lineRanges) {
+        loadDetails();
+        for (LineRange range : lineRanges) {
+            for (int line = range.getStart(); line <= range.getEnd(); line++) {
+                modifiedLines.add(line);
+            }
+        }
+    }
+
     @Override
     protected Optional<Node> filterTreeByModifiedLines() {
-        if (!hasCoveredAndModifiedLines()) {
+        return filterTreeByModifiedLines(getCoveredAndModifiedLines());
+    }
+
+    /**
+     * Creates a copy of this file that contains only the coverage of the specified lines.
+     *
+     * @param coveredAndModifiedLines
+     *         the lines with code coverage that also have been modified, see {@link #getCoveredAndModifiedLines()}
+     *
+     * @return the filtered copy of this file, or an empty result if there are no such lines
+     */
+    Optional<Node> filterTreeByModifiedLines(final SortedSet<Integer> coveredAndModifiedLines) {
+        if (coveredAndModifiedLines.isEmpty()) {
             return Optional.empty();
         }
 
+        loadDetails();
         var copy = new FileNode(getName(), relativePath);
         copy.modifiedLines.addAll(modifiedLines);
 
-        filterLineAndBranchCoverage(copy);
+        filterLineAndBranchCoverage(copy, coveredAndModifiedLines);
         filterMutations(copy);
 
         return Optional.of(copy);
     }
 
-    private void filterLineAndBranchCoverage(final FileNode copy) {
+    private void filterLineAndBranchCoverage(final FileNode copy, final SortedSet<Integer> coveredAndModifiedLines) {
         var lineCoverage = Coverage.nullObject(Metric.LINE);
         var lineBuilder = new CoverageBuilder().withMetric(Metric.LINE);
         var branchCoverage = Coverage.nullObject(Metric.BRANCH);
         var branchBuilder = new CoverageBuilder().withMetric(Metric.BRANCH);
-        for (int line : getCoveredAndModifiedLines()) {
+        for (int line : coveredAndModifiedLines) {
             var covered = coveredPerLine.getOrDefault(line, 0);
             var missed = missedPerLine.getOrDefault(line, 0);
             var total = covered + missed;
@@ -469,15 +656,18 @@ public final class FileNode extends Node {
      *         The delta of the coverage hits before and after the code changes
      */
     public void addIndirectCoverageChange(final int line, final int hitsDelta) {
+        loadDetails();
         indirectCoverageChanges.put(line, hitsDelta);
     }
 
     public SortedMap<Integer, Integer> getIndirectCoverageChanges() {
+        loadDetails();
         return new TreeMap<>(indirectCoverageChanges);
     }
 
     // TODO: the API does not work yet for mutations
     public NavigableSet<Integer> getLinesWithCoverage() {
+        loadDetails();
         return new TreeSet<>(coveredPerLine.keySet());
     }
 
@@ -490,6 +680,7 @@ public final class FileNode extends Node {
      * @return {@code true} if this file has a coverage result for the specified line, {@code false} otherwise
      */
     public boolean hasCoverageForLine(final int line) {
+        loadDetails();
         return coveredPerLine.containsKey(line) || mcdcPairCoveredPerLine.containsKey(line) || functionCallCoveredPerLine.containsKey(line);
     }
 
@@ -529,6 +720,7 @@ public final class FileNode extends Node {
      * @return {@code true} if this node is affected indirectly by the tests.
      */
     public boolean hasIndirectCoverageChanges() {
+        loadDetails();
         return !indirectCoverageChanges.isEmpty();
     }
 
@@ -541,6 +733,7 @@ public final class FileNode extends Node {
      */
     // TODO: wouldn't it make more sense to return an independent object?
     public void computeDelta(final FileNode referenceFile) {
+        loadDetails();
         NavigableMap<Metric, Value> referenceCoverage = referenceFile.getMetricsDistribution();
         getMetricsDistribution().forEach((metric, value) -> {
             if (referenceCoverage.containsKey(metric)) {
@@ -559,6 +752,7 @@ public final class FileNode extends Node {
      * @return the delta for the specified metric
      */
     public Value getDelta(final Metric metric) {
+        loadDetails();
         return coverageDelta.getOrDefault(metric, Value.nullObject(metric));
     }
 
@@ -571,6 +765,7 @@ public final class FileNode extends Node {
      * @return {@code true} has delta results are available, {@code false} otherwise
      */
     public boolean hasDelta(final Metric metric) {
+        loadDetails();
         return coverageDelta.containsKey(metric);
     }
 
@@ -580,9 +775,10 @@ public final class FileNode extends Node {
      * @return the lines with code coverage that also have been modified
      */
     public SortedSet<Integer> getCoveredAndModifiedLines() {
-        SortedSet<Integer> coveredDelta = getLinesWithCoverage();
-        coveredDelta.retainAll(getModifiedLines());
-        return coveredDelta;
+        loadDetails();
+        return modifiedLines.stream()
+                .filter(coveredPerLine::containsKey)
+                .collect(Collectors.toCollection(TreeSet::new));
     }
 
     /**
@@ -592,7 +788,8 @@ public final class FileNode extends Node {
      *         otherwise.
      */
     public boolean hasCoveredAndModifiedLines() {
-        return !getCoveredAndModifiedLines().isEmpty();
+        loadDetails();
+        return modifiedLines.stream().anyMatch(coveredPerLine::containsKey);
     }
 
     /**
@@ -609,6 +806,7 @@ public final class FileNode extends Node {
      */
     @CanIgnoreReturnValue
     public FileNode addCounters(final int lineNumber, final int covered, final int missed) {
+        loadDetails();
         coveredPerLine.put(lineNumber, covered);
         missedPerLine.put(lineNumber, missed);
 
@@ -629,6 +827,7 @@ public final class FileNode extends Node {
      */
     @CanIgnoreReturnValue
     public FileNode addMcdcPairCounters(final int lineNumber, final int covered, final int missed) {
+        loadDetails();
         mcdcPairCoveredPerLine.put(lineNumber, covered);
         mcdcPairMissedPerLine.put(lineNumber, missed);
 
@@ -649,6 +848,7 @@ public final class FileNode extends Node {
      */
     @CanIgnoreReturnValue
     public FileNode addFunctionCallCounters(final int lineNumber, final int covered, final int missed) {
+        loadDetails();
         functionCallCoveredPerLine.put(lineNumber, covered);
         functionCallMissedPerLine.put(lineNumber, missed);
 
@@ -656,26 +856,32 @@ public final class FileNode extends Node {
     }
 
     public int[] getCoveredCounters() {
+        loadDetails();
         return entriesToArray(coveredPerLine);
     }
 
     public int[] getMissedCounters() {
+        loadDetails();
         return entriesToArray(missedPerLine);
     }
 
     public int[] getMcdcPairCoveredCounters() {
+        loadDetails();
         return entriesToArray(mcdcPairCoveredPerLine);
     }
 
     public int[] getMcdcPairMissedCounters() {
+        loadDetails();
         return entriesToArray(mcdcPairMissedPerLine);
     }
 
     public int[] getFunctionCallCoveredCounters() {
+        loadDetails();
         return entriesToArray(functionCallCoveredPerLine);
     }
 
     public int[] getFunctionCallMissedCounters() {
+        loadDetails();
         return entriesToArray(functionCallMissedPerLine);
     }
 
@@ -688,6 +894,7 @@ public final class FileNode extends Node {
      * @return the number of covered items for the specified line
      */
     public int getCoveredOfLine(final int line) {
+        loadDetails();
         return coveredPerLine.getOrDefault(line, 0);
     }
 
@@ -700,6 +907,7 @@ public final class FileNode extends Node {
      * @return the number of covered items for the specified line
      */
     private int getMcdcPairCoveredOfLine(final int line) {
+        loadDetails();
         return mcdcPairCoveredPerLine.getOrDefault(line, 0);
     }
 
@@ -712,6 +920,7 @@ public final class FileNode extends Node {
      * @return the number of covered items for the specified line
      */
     private int getFunctionCallCoveredOfLine(final int line) {
+        loadDetails();
         return functionCallCoveredPerLine.getOrDefault(line, 0);
     }
 
@@ -724,6 +933,7 @@ public final class FileNode extends Node {
      * @return the number of covered items for the specified line
      */
     private int getMcdcPairMissedOfLine(final int line) {
+        loadDetails();
         return mcdcPairMissedPerLine.getOrDefault(line, 0);
     }
 
@@ -736,6 +946,7 @@ public final class FileNode extends Node {
      * @return the number of covered items for the specified line
      */
     private int getFunctionCallMissedOfLine(final int line) {
+        loadDetails();
         return functionCallMissedPerLine.getOrDefault(line, 0);
     }
 
@@ -748,6 +959,7 @@ public final class FileNode extends Node {
      * @return the number of missed items for the specified line
      */
     public int getMissedOfLine(final int line) {
+        loadDetails();
         return missedPerLine.getOrDefault(line, 0);
     }
 
@@ -774,6 +986,7 @@ public final class FileNode extends Node {
     }
 
     private NavigableSet<Integer> filterLines(final Predicate<Integer> predicate) {
+        loadDetails();
         return coveredPerLine.keySet().stream()
                 .filter(predicate)
                 .collect(Collectors.toCollection(TreeSet::new));
@@ -858,6 +1071,7 @@ public final class FileNode extends Node {
      * @return the mapping of not fully covered lines to the number of missed branches
      */
     public NavigableMap<Integer, Integer> getPartiallyCoveredLines() {
+        loadDetails();
         return getLinesWithCoverage().stream()
                 .filter(line -> getCoveredOfLine(line) > 0)
                 .filter(line -> getMissedOfLine(line) > 0)
@@ -865,6 +1079,7 @@ public final class FileNode extends Node {
     }
 
     public NavigableMap<Integer, Integer> getCounters() {
+        loadDetails();
         return Collections.unmodifiableNavigableMap(coveredPerLine);
     }
 
@@ -876,14 +1091,57 @@ public final class FileNode extends Node {
      */
     // TODO: not part of API, only for tests?
     public void addMutation(final Mutation mutation) {
+        loadDetails();
         mutations.add(mutation);
     }
 
     @Override
     public List<Mutation> getMutations() {
+        loadDetails();
         return Collections.unmodifiableList(mutations);
     }
 
+    /**
+     * Returns the counters per line in the order covered, missed, MC/DC pair covered, MC/DC pair missed, function call
+     * covered, and function call missed. The maps are not copied, so they should only be changed when restoring a
+     * stored file.
+     *
+     * @return the counters per line
+     */
+    List<NavigableMap<Integer, Integer>> getCounterColumns() {
+        loadDetails();
+        return List.of(coveredPerLine, missedPerLine, mcdcPairCoveredPerLine, mcdcPairMissedPerLine,
+                functionCallCoveredPerLine, functionCallMissedPerLine);
+    }
+
+    /**
+     * Returns a file that contains the details of this file. If the details have not been loaded yet, they are read
+     * into a new file that is not retained by this file. Otherwise, this file is returned.
+     *
+     * @return a file with the details of this file
+     */
+    FileNode getUnretainedDetails() {
+        var loader = detailLoader;
+        return loader == null ? this : loader.get();
+    }
+
+    /**
+     * Creates a copy of this file without values and children. The details of this file are copied when they are
+     * accessed for the first time, so the details of this file must not be changed as long as the copy is used.
+     *
+     * @return the copied file
+     */
+    FileNode copyWithDeferredDetails() {
+        var copy = new FileNode(getName(), relativePath);
+        copy.setDetailLoader(this::getUnretainedDetails);
+        return copy;
+    }
+
+    NavigableMap<Metric, Value> getCoverageDeltas() {
+        loadDetails();
+        return coverageDelta;
+    }
+
     /**
      * Returns the relative path of the file.
      *
@@ -920,21 +1178,37 @@ public final class FileNode extends Node {
             return false;
         }
         var fileNode = (FileNode) o;
-        return Objects.equals(coveredPerLine, fileNode.coveredPerLine)
-                && Objects.equals(missedPerLine, fileNode.missedPerLine)
-                && Objects.equals(mcdcPairCoveredPerLine, fileNode.mcdcPairCoveredPerLine)
-                && Objects.equals(mcdcPairMissedPerLine, fileNode.mcdcPairMissedPerLine)
-                && Objects.equals(functionCallCoveredPerLine, fileNode.functionCallCoveredPerLine)
-                && Objects.equals(functionCallMissedPerLine, fileNode.functionCallMissedPerLine)
-                && Objects.equals(mutations, fileNode.mutations)
-                && Objects.equals(modifiedLines, fileNode.modifiedLines)
-                && Objects.equals(indirectCoverageChanges, fileNode.indirectCoverageChanges)
-                && Objects.equals(coverageDelta, fileNode.coverageDelta)
-                && Objects.equals(relativePath, fileNode.relativePath);
+        return hasSameDetails(fileNode) && Objects.equals(relativePath, fileNode.relativePath);
+    }
+
+    /**
+     * Returns whether the specified file has the same details as this file. The details are the counters and
+     * modifications of the lines, the coverage deltas, and the mutations. Names, paths, values, and children are not
+     * compared.
+     *
+     * @param other
+     *         the file to compare with
+     *
+     * @return {@code true} if the details of both files are equal, {@code false} otherwise
+     */
+    boolean hasSameDetails(final FileNode other) {
+        loadDetails();
+        other.loadDetails();
+        return Objects.equals(coveredPerLine, other.coveredPerLine)
+                && Objects.equals(missedPerLine, other.missedPerLine)
+                && Objects.equals(mcdcPairCoveredPerLine, other.mcdcPairCoveredPerLine)
+                && Objects.equals(mcdcPairMissedPerLine, other.mcdcPairMissedPerLine)
+                && Objects.equals(functionCallCoveredPerLine, other.functionCallCoveredPerLine)
+                && Objects.equals(functionCallMissedPerLine, other.functionCallMissedPerLine)
+                && Objects.equals(mutations, other.mutations)
+                && Objects.equals(modifiedLines, other.modifiedLines)
+                && Objects.equals(indirectCoverageChanges, other.indirectCoverageChanges)
+                && Objects.equals(coverageDelta, other.coverageDelta);
     }
 
     @Override
     public int hashCode() {
+        loadDetails();
         return Objects.hash(super.hashCode(), coveredPerLine, missedPerLine, mutations, modifiedLines,
                 mcdcPairCoveredPerLine, mcdcPairMissedPerLine, functionCallCoveredPerLine, functionCallMissedPerLine,
                 indirectCoverageChanges, coverageDelta, relativePath);
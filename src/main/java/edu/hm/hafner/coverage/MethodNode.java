@@ -14,7 +14,7 @@ public final class MethodNode extends Node {
     @Serial
     private static final long serialVersionUID = -5765205034179396434L;
 
-    private final String signature;
+    private /* almost final */ String signature;
     private /* almost final */ String methodName; // @since 0.25.0
     /** The line number where the code of method begins (not including the method head). */
     private final int lineNumber;
@@ -55,11 +55,25 @@ public final class MethodNode extends Node {
         if (methodName == null) { // serialization of old versions
             methodName = getName();
             setName(methodName + signature);
+            CoveragePool.getShared().ifPresent(pool -> setName(pool.intern(getName())));
         }
+        CoveragePool.getShared().ifPresent(this::internMethodStrings); // the name has been interned by Node
 
         return this;
     }
 
+    @Override
+    void internStrings(final CoveragePool pool) {
+        super.internStrings(pool);
+
+        internMethodStrings(pool);
+    }
+
+    private void internMethodStrings(final CoveragePool pool) {
+        methodName = pool.intern(methodName);
+        signature = pool.intern(signature);
+    }
+
     @Override
     public Node copy() {
         return new MethodNode(getMethodName(), getSignature(), getLineNumber());
@@ -286,7 +286,23 @@ public enum Metric {
      * @return the aggregated value
      */
     public Optional<Value> getValueFor(final Node node) {
-        return evaluator.compute(node, this);
+        return getValueFor(node, ValueSource.NODES);
+    }
+
+    /**
+     * Returns the aggregated value of this metric for the specified tree of nodes. The values and metrics of the nodes
+     * of the tree, including the specified node, are obtained from the specified source. So a source that caches the
+     * values of the nodes aggregates each value of a tree only once.
+     *
+     * @param node
+     *         the root of the tree
+     * @param source
+     *         the source of the values and metrics of the nodes
+     *
+     * @return the aggregated value
+     */
+    Optional<Value> getValueFor(final Node node, final ValueSource source) {
+        return evaluator.compute(node, this, source);
     }
 
     /**
@@ -407,15 +423,57 @@ public enum Metric {
         CLASS_METRIC
     }
 
+    /**
+     * Provides the aggregated values and the available metrics of the nodes of a tree while a value is aggregated.
+     */
+    interface ValueSource {
+        /** Obtains the values and metrics from the nodes, i.e., computes them for each request. */
+        ValueSource NODES = new ValueSource() {
+            @Override
+            public Optional<Value> getValue(final Node node, final Metric metric) {
+                return node.getValue(metric);
+            }
+
+            @Override
+            public NavigableSet<Metric> getMetrics(final Node node) {
+                return node.getMetrics();
+            }
+        };
+
+        /**
+         * Returns the value of the specified metric, aggregated for the tree spanned by the specified node.
+         *
+         * @param node
+         *         the root of the tree
+         * @param metric
+         *         the metric of the value
+         *
+         * @return the aggregated value
+         * @see Node#getValue(Metric)
+         */
+        Optional<Value> getValue(Node node, Metric metric);
+
+        /**
+         * Returns the available metrics of the tree spanned by the specified node.
+         *
+         * @param node
+         *         the root of the tree
+         *
+         * @return the available metrics
+         * @see Node#getMetrics()
+         */
+        NavigableSet<Metric> getMetrics(Node node);
+    }
+
     private abstract static class MetricEvaluator implements Serializable {
         @Serial
         private static final long serialVersionUID = -537814226149186300L;
 
-        final Optional<Value> compute(final Node node, final Metric searchMetric) {
-            return getValue(node, searchMetric).or(() -> computeDerivedValue(node, searchMetric));
+        final Optional<Value> compute(final Node node, final Metric searchMetric, final ValueSource source) {
+            return getValue(node, searchMetric).or(() -> computeDerivedValue(node, searchMetric, source));
         }
 
-        abstract Optional<Value> computeDerivedValue(Node node, Metric searchMetric);
+        abstract Optional<Value> computeDerivedValue(Node node, Metric searchMetric, ValueSource source);
 
         abstract boolean isAggregatingChildren();
 
@@ -441,35 +499,37 @@ public enum Metric {
         }
 
         @Override
-        Optional<Value> computeDerivedValue(final Node node, final Metric searchMetric) {
+        Optional<Value> computeDerivedValue(final Node node, final Metric searchMetric, final ValueSource source) {
             Optional<Value> aggregatedChildrenValue = node.getChildren().stream()
-                    .map(n -> n.getValue(searchMetric))
+                    .map(n -> source.getValue(n, searchMetric))
                     .flatMap(Optional::stream)
                     .reduce(Value::add);
-            Optional<Value> localMetricValue = getMetricOf(node, searchMetric);
+            Optional<Value> localMetricValue = getMetricOf(node, searchMetric, source);
             return Stream.of(localMetricValue, aggregatedChildrenValue)
                     .flatMap(Optional::stream)
                     .reduce(Value::add);
         }
 
-        private Optional<Value> getMetricOf(final Node node, final Metric searchMetric) {
+        private Optional<Value> getMetricOf(final Node node, final Metric searchMetric, final ValueSource source) {
             if (node.getMetric() == searchMetric) {
-                return getValue(node, searchMetric).or(() -> deriveFromCoverage(node, searchMetric));
+                return getValue(node, searchMetric).or(() -> deriveFromCoverage(node, searchMetric, source));
             }
             return Optional.empty();
         }
 
-        private Optional<? extends Value> deriveFromCoverage(final Node node, final Metric searchMetric) {
-            var hasCoverage = node.getMetrics().stream().anyMatch(Metric::isCoverage);
+        private Optional<? extends Value> deriveFromCoverage(final Node node, final Metric searchMetric,
+                final ValueSource source) {
+            var hasCoverage = source.getMetrics(node).stream().anyMatch(Metric::isCoverage);
             if (hasCoverage) {
-                return Optional.ofNullable(deriveCoverageFromOtherMetrics(node, searchMetric));
+                return Optional.ofNullable(deriveCoverageFromOtherMetrics(node, searchMetric, source));
             }
             return Optional.empty();
         }
 
-        private Coverage deriveCoverageFromOtherMetrics(final Node node, final Metric searchMetric) {
+        private Coverage deriveCoverageFromOtherMetrics(final Node node, final Metric searchMetric,
+                final ValueSource source) {
             var builder = new CoverageBuilder().withMetric(searchMetric);
-            if (hasCoverage(node)) {
+            if (hasCoverage(node, source)) {
                 builder.withCovered(1).withMissed(0);
             }
             else {
@@ -478,20 +538,20 @@ public enum Metric {
             return builder.build();
         }
 
-        private boolean hasCoverage(final Node node) {
-            boolean baseline = hasCoverage(node, INSTRUCTION)
-                    || hasCoverage(node, LINE)
-                    || hasCoverage(node, BRANCH);
+        private boolean hasCoverage(final Node node, final ValueSource source) {
+            boolean baseline = hasCoverage(node, INSTRUCTION, source)
+                    || hasCoverage(node, LINE, source)
+                    || hasCoverage(node, BRANCH, source);
 
-            boolean additional = hasCoverage(node, MCDC_PAIR)
-                    || hasCoverage(node, FUNCTION_CALL)
-                    || hasCoverage(node, MUTATION);
+            boolean additional = hasCoverage(node, MCDC_PAIR, source)
+                    || hasCoverage(node, FUNCTION_CALL, source)
+                    || hasCoverage(node, MUTATION, source);
 
             return baseline || additional;
         }
 
-        private boolean hasCoverage(final Node node, final Metric metric) {
-            return node.getValue(metric)
+        private boolean hasCoverage(final Node node, final Metric metric, final ValueSource source) {
+            return source.getValue(node, metric)
                     .filter(value -> ((Coverage) value).getCovered() > 0)
                     .isPresent();
         }
@@ -528,16 +588,17 @@ public enum Metric {
         }
 
         @Override
-        final Optional<Value> computeDerivedValue(final Node node, final Metric searchMetric) {
-            var defaultValue = getDefaultValue(node);
+        final Optional<Value> computeDerivedValue(final Node node, final Metric searchMetric,
+                final ValueSource source) {
+            var defaultValue = getDefaultValue(node, source);
 
             return defaultValue.or(() -> node.getChildren().stream()
-                    .map(n -> compute(n, searchMetric))
+                    .map(n -> source.getValue(n, searchMetric))
                     .flatMap(Optional::stream)
                     .reduce(accumulator));
         }
 
-        Optional<Value> getDefaultValue(final Node node) {
+        Optional<Value> getDefaultValue(final Node node, final ValueSource source) {
             return Optional.empty();
         }
     }
@@ -547,8 +608,8 @@ public enum Metric {
         private static final long serialVersionUID = 8819577749737375989L;
 
         @Override
-        Optional<Value> getDefaultValue(final Node node) {
-            return LINE.getValueFor(node).map(this::getTotal);
+        Optional<Value> getDefaultValue(final Node node, final ValueSource source) {
+            return source.getValue(node, LINE).map(this::getTotal);
         }
 
         @SuppressFBWarnings(value = "BC", justification = "The value is a coverage value as it has the metric LINE")
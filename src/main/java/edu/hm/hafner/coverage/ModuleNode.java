@@ -47,6 +47,10 @@ public final class ModuleNode extends Node {
         return new HashSet<>(sources);
     }
 
+    List<String> getSources() {
+        return sources;
+    }
+
     /**
      * Appends the specified source to the list of sources.
      *
@@ -123,6 +123,19 @@ public final class Mutation implements Serializable {
                 + ", killingTest='" + killingTest + "'";
     }
 
+    /**
+     * Returns a copy of this mutation that uses the pooled instances of its strings.
+     *
+     * @param pool
+     *         the pool to intern the strings with
+     *
+     * @return the mutation with the pooled strings
+     */
+    Mutation internStrings(final CoveragePool pool) {
+        return new Mutation(detected, status, line, pool.intern(mutator), pool.intern(killingTest),
+                pool.intern(mutatedClass), pool.intern(method), pool.intern(signature), pool.intern(description));
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) {
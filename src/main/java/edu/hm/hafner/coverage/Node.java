@@ -1,20 +1,26 @@
 package edu.hm.hafner.coverage;
 
 import org.apache.commons.io.FilenameUtils;
-import org.apache.commons.lang3.RegExUtils;
+import org.apache.commons.lang3.math.Fraction;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 
+import edu.hm.hafner.coverage.Coverage.CoverageBuilder;
 import edu.hm.hafner.util.Ensure;
 import edu.hm.hafner.util.TreeString;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -44,13 +50,21 @@ public abstract class Node implements Serializable {
     static final String EMPTY_NAME = "-";
     static final String ROOT = "^";
 
+    private static final int SERIALIZED_VALUE = 0;
+    private static final int SERIALIZED_COVERAGE = 1;
+    private static final int SERIALIZED_RATE = 2;
+    private static final int SERIALIZED_DIFFERENCE = 3;
+    private static final int SERIALIZED_OBJECT = 4;
+    /** The maximum initial capacity of lists that are read from a stream with an untrusted number of elements. */
+    static final int MAXIMUM_INITIAL_CAPACITY = 1024;
+
     private final Metric metric;
 
     private /* almost final */ String name;
     @SuppressWarnings("serial")
-    private final List<Node> children = new ArrayList<>();
+    private /* almost final */ List<Node> children = new ArrayList<>();
     @SuppressWarnings("serial")
-    private final List<Value> values = new ArrayList<>();
+    private /* almost final */ List<Value> values = new ArrayList<>();
 
     @CheckForNull
     private Node parent;
@@ -186,6 +200,18 @@ public abstract class Node implements Serializable {
         child.setParent(this);
     }
 
+    /**
+     * Appends the specified child element to the list of children without checking for duplicates. Should only be
+     * used to restore a stored tree whose children are known to be unique.
+     *
+     * @param child
+     *         the child to add
+     */
+    void addRestoredChild(final Node child) {
+        children.add(child);
+        child.setParent(this);
+    }
+
     @SuppressWarnings("PMD.NullAssignment") // remove link to parent
     protected void removeChild(final Node child) {
         Ensure.that(children.contains(child)).isTrue("The node %s is not a child of this node %s", child, this);
@@ -401,6 +427,7 @@ public abstract class Node implements Serializable {
      *         the reference node
      *
      * @return the delta coverage for each available metric
+     * @see TreeDiff
      */
     public List<Difference> computeDelta(final Node reference) {
         List<Difference> deltaPercentages = new ArrayList<>();
@@ -686,8 +713,9 @@ public abstract class Node implements Serializable {
 
     /**
      * Merges the test cases of the specified test classes into the corresponding production classes of this coverage
-     * tree. The mapping is done by evaluating the name of the test class. If the name of the test class cannot be
-     * mapped to a target class, then the tests of this test class are ignored.
+     * tree. The mapping is done by evaluating the name of the test class using the
+     * {@link TestNamingConvention#DEFAULT_CONVENTIONS default naming conventions}. If the name of the test class cannot
+     * be mapped to a target class, then the tests of this test class are ignored.
      *
      * @param testClassNodes
      *         the test classes containing the test cases
@@ -695,6 +723,29 @@ public abstract class Node implements Serializable {
      * @return the test classes that have not been merged into this coverage tree
      */
     public Set<ClassNode> mergeTests(final Collection<ClassNode> testClassNodes) {
+        return mergeTests(testClassNodes, TestNamingConvention.DEFAULT_CONVENTIONS);
+    }
+
+    /**
+     * Merges the test cases of the specified test classes into the corresponding production classes of this coverage
+     * tree. The mapping is done by evaluating the name of the test class: a test class is mapped to the class of the
+     * same package whose name is derived by the first matching naming convention. If the name of the test class cannot
+     * be mapped to a target class, then the tests of this test class are ignored.
+     *
+     * <p>
+     * The classes of this tree are indexed once, then the test classes are mapped in parallel. The test cases are added
+     * to the target classes in the order of the specified test classes.
+     * </p>
+     *
+     * @param testClassNodes
+     *         the test classes containing the test cases
+     * @param conventions
+     *         the naming conventions of the test classes, the first matching convention wins
+     *
+     * @return the test classes that have not been merged into this coverage tree
+     */
+    public Set<ClassNode> mergeTests(final Collection<ClassNode> testClassNodes,
+            final List<TestNamingConvention> conventions) {
         var totalTests = testClassNodes.stream().map(testClass -> testClass.getValue(Metric.TESTS))
                 .flatMap(Optional::stream)
                 .reduce(Value::add)
@@ -702,28 +753,18 @@ public abstract class Node implements Serializable {
                 .orElse(0);
         addValue(new Value(Metric.TESTS, totalTests));
 
-        return testClassNodes.stream()
-                .map(this::mapTestClass)
-                .flatMap(Optional::stream)
-                .collect(Collectors.toSet());
-    }
-
-    private Optional<ClassNode> mapTestClass(final ClassNode testClassNode) {
-        Optional<ClassNode> targetClass = findPackage(testClassNode.getPackageName())
-                .map(Node::getAllClassNodes).stream()
-                .flatMap(Collection::stream)
-                .filter(classNode -> classNode.getName().endsWith(createTargetClassName(testClassNode)))
-                .findFirst();
-        if (targetClass.isPresent()) {
-            targetClass.get().addTestCases(testClassNode.getTestCases());
+        var testClasses = List.copyOf(testClassNodes);
+        var mapper = new TestClassMapper(this, conventions);
+        var targetClasses = testClasses.parallelStream().map(mapper::findTargetClass).toList();
 
-            return Optional.empty();
+        var unmappedTestClasses = new HashSet<ClassNode>();
+        for (int i = 0; i < testClasses.size(); i++) {
+            var testClassNode = testClasses.get(i);
+            targetClasses.get(i).ifPresentOrElse(
+                    targetClass -> targetClass.addTestCases(testClassNode.getTestCases()),
+                    () -> unmappedTestClasses.add(testClassNode));
         }
-        return Optional.of(testClassNode);
-    }
-
-    private String createTargetClassName(final ClassNode testClassNode) {
-        return RegExUtils.removeAll(testClassNode.getName(), "I?Tests?$");
+        return unmappedTestClasses;
     }
 
     /**
@@ -792,6 +833,32 @@ public abstract class Node implements Serializable {
         }
     }
 
+    /**
+     * Merges the nodes of the tree that is starting at the specified {@link Node} into the tree that is starting at
+     * this node. In contrast to {@link #merge(Node)}, this tree is not copied but changed in place. So this method
+     * should be used only by the exclusive owner of this tree, e.g., to combine trees that have just been parsed.
+     * The {@code other} tree is not changed. To merge these two trees, this node and the specified {@code other}
+     * root node have to use the same {@link Metric} and name.
+     *
+     * @param other
+     *         the other tree to merge (represented by the root node)
+     *
+     * @throws IllegalArgumentException
+     *         if this root node is not compatible to the {@code other} root node
+     */
+    @SuppressWarnings({"ReferenceEquality", "PMD.CompareObjectsWithEquals"})
+    public void mergeInPlace(final Node other) {
+        if (other == this) {
+            return; // nothing to do
+        }
+        if (!getName().equals(other.getName())) {
+            throw new IllegalArgumentException(
+                    "Cannot merge nodes with different names: %s - %s".formatted(this, other));
+        }
+
+        mergeNode(other);
+    }
+
     private void ensureSameMetric(final Node other) {
         if (getMetric() != other.getMetric()) {
             throw new IllegalArgumentException(
@@ -852,6 +919,178 @@ public abstract class Node implements Serializable {
         children.clear();
     }
 
+    /**
+     * Writes the children and values of this node after the other fields: the children as a counted sequence of
+     * objects and the values in a compact form that contains no class descriptors and fractions. The fields
+     * {@code children} and {@code values} are written as {@code null} so that {@link #readObject(ObjectInputStream)}
+     * can distinguish these streams from streams of old versions that contain the lists.
+     *
+     * @param output
+     *         the stream to write to
+     *
+     * @throws IOException
+     *         if the stream cannot be written
+     */
+    @Serial
+    private void writeObject(final ObjectOutputStream output) throws IOException {
+        var fields = output.putFields();
+        fields.put("metric", metric);
+        fields.put("name", name);
+        fields.put("parent", parent);
+        fields.put("children", null);
+        fields.put("values", null);
+        output.writeFields();
+
+        output.writeInt(children.size());
+        for (Node child : children) {
+            output.writeObject(child);
+        }
+        writeValues(output, values);
+    }
+
+    @Serial
+    private void readObject(final ObjectInputStream input) throws IOException, ClassNotFoundException {
+        input.defaultReadObject();
+
+        if (children == null) { // @since 0.73.0: children and values follow the fields
+            var size = readSize(input, "children");
+            children = new ArrayList<>(Math.min(size, MAXIMUM_INITIAL_CAPACITY));
+            for (int i = 0; i < size; i++) {
+                children.add((Node) input.readObject());
+            }
+            values = readValues(input);
+        }
+        CoveragePool.getShared().ifPresent(pool -> name = pool.intern(name));
+    }
+
+    /**
+     * Replaces the strings of this node and its children with the pooled instances of the specified pool.
+     *
+     * @param pool
+     *         the pool to intern the strings with
+     */
+    void internStrings(final CoveragePool pool) {
+        name = pool.intern(name);
+        for (Node child : children) {
+            child.internStrings(pool);
+        }
+    }
+
+    /**
+     * Writes the specified values in a compact form: the number of values followed by the metric, the type, and the
+     * counters or the fraction of each value. Values of other types are written as objects.
+     *
+     * @param output
+     *         the stream to write to
+     * @param values
+     *         the values to write
+     *
+     * @throws IOException
+     *         if the stream cannot be written
+     */
+    static void writeValues(final ObjectOutputStream output, final Collection<? extends Value> values)
+            throws IOException {
+        output.writeInt(values.size());
+        for (Value value : values) {
+            var type = getSerializedType(value);
+            output.writeByte(type);
+            if (type == SERIALIZED_OBJECT) {
+                output.writeObject(value);
+            }
+            else {
+                output.writeObject(value.getMetric());
+                if (value instanceof Coverage coverage) {
+                    output.writeInt(coverage.getCovered());
+                    output.writeInt(coverage.getMissed());
+                }
+                else {
+                    output.writeInt(value.getFraction().getNumerator());
+                    output.writeInt(value.getFraction().getDenominator());
+                }
+            }
+        }
+    }
+
+    private static int getSerializedType(final Value value) {
+        var type = value.getClass();
+        if (type == Coverage.class) {
+            return SERIALIZED_COVERAGE;
+        }
+        if (type == Rate.class) {
+            return SERIALIZED_RATE;
+        }
+        if (type == Difference.class) {
+            return SERIALIZED_DIFFERENCE;
+        }
+        if (type == Value.class) {
+            return SERIALIZED_VALUE;
+        }
+        return SERIALIZED_OBJECT;
+    }
+
+    /**
+     * Reads the number of elements of a sequence that has been written to a stream. The number is not trusted: the
+     * lists of the elements should be created with an initial capacity of at most {@link #MAXIMUM_INITIAL_CAPACITY}.
+     *
+     * @param input
+     *         the stream to read from
+     * @param elements
+     *         the name of the elements, used in the error message
+     *
+     * @return the number of elements
+     * @throws IOException
+     *         if the stream cannot be read or the number is negative
+     */
+    static int readSize(final ObjectInputStream input, final String elements) throws IOException {
+        var size = input.readInt();
+        if (size < 0) {
+            throw new InvalidObjectException("Invalid number of %s: %d".formatted(elements, size));
+        }
+        return size;
+    }
+
+    /**
+     * Reads values that have been written by {@link #writeValues(ObjectOutputStream, Collection)}.
+     *
+     * @param input
+     *         the stream to read from
+     *
+     * @return the values
+     * @throws IOException
+     *         if the stream cannot be read
+     * @throws ClassNotFoundException
+     *         if the class of a value cannot be found
+     */
+    static List<Value> readValues(final ObjectInputStream input) throws IOException, ClassNotFoundException {
+        var size = readSize(input, "values");
+        var restored = new ArrayList<Value>(Math.min(size, MAXIMUM_INITIAL_CAPACITY));
+        for (int i = 0; i < size; i++) {
+            var type = input.readByte();
+            if (type == SERIALIZED_OBJECT) {
+                restored.add((Value) input.readObject());
+                continue;
+            }
+
+            var valueMetric = (Metric) input.readObject();
+            if (type == SERIALIZED_COVERAGE) {
+                restored.add(new CoverageBuilder().withMetric(valueMetric)
+                        .withCovered(input.readInt())
+                        .withMissed(input.readInt())
+                        .build());
+                continue;
+            }
+
+            var fraction = Fraction.getFraction(input.readInt(), input.readInt());
+            restored.add(switch (type) {
+                case SERIALIZED_VALUE -> new Value(valueMetric, fraction);
+                case SERIALIZED_RATE -> new Rate(valueMetric, fraction);
+                case SERIALIZED_DIFFERENCE -> new Difference(valueMetric, fraction);
+                default -> throw new IOException("Unsupported type of serialized value: " + type);
+            });
+        }
+        return restored;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) {
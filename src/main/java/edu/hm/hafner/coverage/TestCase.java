@@ -4,14 +4,18 @@ import org.apache.commons.lang3.StringUtils;
 
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 
+import edu.hm.hafner.coverage.TestCaseStoragePolicy.DescriptionPool;
 import edu.hm.hafner.util.Generated;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
- * Represents a test case that has been executed.
+ * Represents a test case that has been executed. The description of a failed test case might be stored compressed,
+ * see {@link TestCaseStoragePolicy}. Test cases are compared by their stored representation, so test cases that have
+ * been stored with and without compression are not equal.
  *
  * @author Ullrich Hafner
  */
@@ -25,15 +29,17 @@ public final class TestCase implements Serializable {
     private final String type;
     private final String message;
     private final String description;
+    private final byte[] compressedDescription; // @since 0.73.0: null if the description is not compressed
 
-    private TestCase(final String testName, final String className, final TestResult result,
-            final String type, final String message, final String description) {
+    TestCase(final String testName, final String className, final TestResult result,
+            final String type, final String message, final String description, final byte[] compressedDescription) {
         this.testName = testName;
         this.className = className.intern();
         this.result = result;
         this.type = type;
         this.message = message;
         this.description = description;
+        this.compressedDescription = compressedDescription;
     }
 
     public String getTestName() {
@@ -64,14 +70,31 @@ public final class TestCase implements Serializable {
         return message;
     }
 
+    /**
+     * Returns the description of the test failure, typically the stack trace. A compressed description is inflated
+     * on each call, it is not cached.
+     *
+     * @return the description
+     */
     public String getDescription() {
+        if (compressedDescription == null) {
+            return description;
+        }
+        return TestCaseStoragePolicy.inflate(compressedDescription);
+    }
+
+    String getStoredDescription() {
         return description;
     }
 
+    byte[] getCompressedDescription() {
+        return compressedDescription;
+    }
+
     @Override @Generated
     public String toString() {
         return "TestCase{testName='" + testName + '\'' + ", className='" + className + '\'' + ", status=" + result
-                + ", type='" + type + '\'' + ", message='" + message + '\'' + ", description='" + description + '\''
+                + ", type='" + type + '\'' + ", message='" + message + '\'' + ", description='" + getDescription() + '\''
                 + '}';
     }
 
@@ -90,13 +113,15 @@ public final class TestCase implements Serializable {
                 && result == testCase.result
                 && Objects.equals(type, testCase.type)
                 && Objects.equals(message, testCase.message)
-                && Objects.equals(description, testCase.description);
+                && Objects.equals(description, testCase.description)
+                && Arrays.equals(compressedDescription, testCase.compressedDescription);
     }
 
     @Override
     @Generated
     public int hashCode() {
-        return Objects.hash(testName, className, result, type, message, description);
+        return 31 * Objects.hash(testName, className, result, type, message, description)
+                + Arrays.hashCode(compressedDescription);
     }
 
     /**
@@ -110,6 +135,7 @@ public final class TestCase implements Serializable {
         private String type = StringUtils.EMPTY;
         private String message = StringUtils.EMPTY;
         private String description = StringUtils.EMPTY;
+        private DescriptionPool pool;
 
         @CanIgnoreReturnValue
         public TestCaseBuilder withStatus(final TestResult status) {
@@ -153,6 +179,22 @@ public final class TestCase implements Serializable {
             return this;
         }
 
+        /**
+         * Stores the message and description of the created test cases in the specified pool. Otherwise, the texts
+         * are stored as they are.
+         *
+         * @param pool
+         *         the pool that applies the {@link TestCaseStoragePolicy}
+         *
+         * @return this
+         */
+        @CanIgnoreReturnValue
+        public TestCaseBuilder withDescriptionPool(final DescriptionPool pool) {
+            this.pool = pool;
+
+            return this;
+        }
+
         @CanIgnoreReturnValue
         public TestCaseBuilder withFailure() {
             status = TestResult.FAILED;
@@ -161,7 +203,14 @@ public final class TestCase implements Serializable {
         }
 
         public TestCase build() {
-            return new TestCase(testName, className, status, type, message, description);
+            if (pool == null) {
+                return new TestCase(testName, className, status, type, message, description, null);
+            }
+            if (pool.isCompressing() && !description.isEmpty()) {
+                return new TestCase(testName, className, status, type, pool.store(message), StringUtils.EMPTY,
+                        pool.compress(pool.abbreviate(description)));
+            }
+            return new TestCase(testName, className, status, type, pool.store(message), pool.store(description), null);
         }
     }
 
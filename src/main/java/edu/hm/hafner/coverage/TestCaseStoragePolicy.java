@@ -0,0 +1,287 @@
+package edu.hm.hafner.coverage;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+
+import edu.hm.hafner.util.Generated;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Determines how the test result parsers store the failure messages and descriptions (i.e., the stack traces) of
+ * {@link TestCase test cases}. Large test suites with many failing tests produce lots of long, and often identical,
+ * stack traces. A policy can limit the length of these texts, share identical texts between the test cases of a
+ * report, and keep the descriptions in a compressed form that is inflated only when {@link TestCase#getDescription()}
+ * is called.
+ *
+ * @author Ullrich Hafner
+ */
+public final class TestCaseStoragePolicy implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 5143862817014722384L;
+
+    /** The minimum length of texts, shorter texts cannot be abbreviated with an ellipsis. */
+    public static final int MINIMUM_LENGTH = 4;
+
+    /**
+     * Stores the texts without limits and uncompressed. Identical texts of the test cases of a report are shared.
+     */
+    public static final TestCaseStoragePolicy DEFAULT = new TestCaseStoragePolicyBuilder().build();
+
+    private static final int BUFFER_SIZE = 1024;
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final int maximumLength;
+    private final boolean deduplicating;
+    private final boolean compressing;
+
+    private TestCaseStoragePolicy(final int maximumLength, final boolean deduplicating, final boolean compressing) {
+        this.maximumLength = maximumLength;
+        this.deduplicating = deduplicating;
+        this.compressing = compressing;
+    }
+
+    /**
+     * Returns the maximum number of characters of a message or description. Longer texts are abbreviated with an
+     * ellipsis.
+     *
+     * @return the maximum length of a message or description
+     */
+    public int getMaximumLength() {
+        return maximumLength;
+    }
+
+    /**
+     * Returns whether identical messages and descriptions of the test cases of a report share the same instance.
+     *
+     * @return {@code true} if identical texts are shared, {@code false} if each test case stores its own copy
+     */
+    public boolean isDeduplicating() {
+        return deduplicating;
+    }
+
+    /**
+     * Returns whether the descriptions of the test cases are stored in a compressed form. The messages are always
+     * stored uncompressed.
+     *
+     * @return {@code true} if the descriptions are compressed, {@code false} otherwise
+     */
+    public boolean isCompressing() {
+        return compressing;
+    }
+
+    /**
+     * Creates a new pool that stores the texts of the test cases of a single report according to this policy.
+     *
+     * @return the new pool
+     */
+    public DescriptionPool createPool() {
+        return new DescriptionPool(this);
+    }
+
+    static byte[] deflate(final String text) {
+        var deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(text.getBytes(StandardCharsets.UTF_8));
+            deflater.finish();
+
+            var output = new ByteArrayOutputStream(BUFFER_SIZE);
+            var buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return output.toByteArray();
+        }
+        finally {
+            deflater.end();
+        }
+    }
+
+    static String inflate(final byte[] compressed) {
+        var inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+
+            var output = new ByteArrayOutputStream(compressed.length * 4);
+            var buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Compressed description is truncated");
+                }
+                output.write(buffer, 0, length);
+            }
+            return output.toString(StandardCharsets.UTF_8);
+        }
+        catch (DataFormatException exception) {
+            throw new IllegalStateException("Compressed description is corrupt", exception);
+        }
+        finally {
+            inflater.end();
+        }
+    }
+
+    @Override
+    @Generated
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        var that = (TestCaseStoragePolicy) o;
+        return maximumLength == that.maximumLength
+                && deduplicating == that.deduplicating
+                && compressing == that.compressing;
+    }
+
+    @Override
+    @Generated
+    public int hashCode() {
+        return Objects.hash(maximumLength, deduplicating, compressing);
+    }
+
+    @Override
+    @Generated
+    public String toString() {
+        return "TestCaseStoragePolicy{maximumLength=" + maximumLength + ", deduplicating=" + deduplicating
+                + ", compressing=" + compressing + '}';
+    }
+
+    /**
+     * Stores the messages and descriptions of the test cases of a single report. If the policy deduplicates texts,
+     * then all test cases with the same text share the same instance, or the same compressed bytes, respectively.
+     * Compressed texts are looked up by the SHA-256 digest of their content, so the pool does not retain the
+     * uncompressed descriptions and deflates each distinct description only once. A pool is not thread safe, and it retains all distinct texts as long as it is referenced. So a
+     * parser should create a new pool for each report and discard it afterward.
+     */
+    public static final class DescriptionPool {
+        private final TestCaseStoragePolicy policy;
+        private final Map<String, String> texts = new HashMap<>();
+        private final Map<Digest, byte[]> compressedTexts = new HashMap<>();
+        private final MessageDigest messageDigest = createMessageDigest();
+
+        private DescriptionPool(final TestCaseStoragePolicy policy) {
+            this.policy = policy;
+        }
+
+        /**
+         * Returns the maximum number of characters of a text that will be retained. Parsers can use this limit to stop
+         * reading overlong texts early.
+         *
+         * @return the maximum length of a message or description
+         */
+        public int getMaximumLength() {
+            return policy.getMaximumLength();
+        }
+
+        boolean isCompressing() {
+            return policy.isCompressing();
+        }
+
+        String abbreviate(final String text) {
+            return StringUtils.abbreviate(text, policy.getMaximumLength());
+        }
+
+        String store(final String text) {
+            var abbreviated = abbreviate(text);
+            if (policy.isDeduplicating()) {
+                return texts.computeIfAbsent(abbreviated, key -> key);
+            }
+            return abbreviated;
+        }
+
+        byte[] compress(final String text) {
+            if (policy.isDeduplicating()) {
+                var digest = new Digest(messageDigest.digest(text.getBytes(StandardCharsets.UTF_8)));
+                return compressedTexts.computeIfAbsent(digest, key -> deflate(text));
+            }
+            return deflate(text);
+        }
+
+        private static MessageDigest createMessageDigest() {
+            try {
+                return MessageDigest.getInstance(DIGEST_ALGORITHM);
+            }
+            catch (NoSuchAlgorithmException exception) {
+                throw new IllegalStateException("Every Java platform must support " + DIGEST_ALGORITHM, exception);
+            }
+        }
+    }
+
+    /**
+     * Compares digests of texts by their content, so that they can be used as keys of a map.
+     */
+    private static final class Digest {
+        private final byte[] bytes;
+        private final int hashCode;
+
+        Digest(final byte[] bytes) {
+            this.bytes = bytes;
+            this.hashCode = Arrays.hashCode(bytes);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof Digest that && hashCode == that.hashCode && Arrays.equals(bytes, that.bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Builder to create new {@link TestCaseStoragePolicy} instances.
+     */
+    @SuppressWarnings({"checkstyle:MissingJavadocMethod", "checkstyle:HiddenField", "ParameterHidesMemberVariable"})
+    public static class TestCaseStoragePolicyBuilder {
+        private int maximumLength = Integer.MAX_VALUE;
+        private boolean deduplicating = true;
+        private boolean compressing;
+
+        @CanIgnoreReturnValue
+        public TestCaseStoragePolicyBuilder withMaximumLength(final int maximumLength) {
+            if (maximumLength < MINIMUM_LENGTH) {
+                throw new IllegalArgumentException(
+                        "Maximum length must be at least %d: %d".formatted(MINIMUM_LENGTH, maximumLength));
+            }
+            this.maximumLength = maximumLength;
+
+            return this;
+        }
+
+        @CanIgnoreReturnValue
+        public TestCaseStoragePolicyBuilder withDeduplication(final boolean deduplicating) {
+            this.deduplicating = deduplicating;
+
+            return this;
+        }
+
+        @CanIgnoreReturnValue
+        public TestCaseStoragePolicyBuilder withCompression(final boolean compressing) {
+            this.compressing = compressing;
+
+            return this;
+        }
+
+        public TestCaseStoragePolicy build() {
+            return new TestCaseStoragePolicy(maximumLength, deduplicating, compressing);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package edu.hm.hafner.coverage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Maps test classes to the production classes of a coverage tree. The packages and classes of the tree are indexed
+ * once, so mapping a test class requires only some hash lookups rather than a search of the whole tree. The index is
+ * not updated when the tree changes, and it is safe to use it concurrently as long as the tree is not modified.
+ *
+ * @author Ullrich Hafner
+ */
+final class TestClassMapper {
+    private final Map<String, PackageClasses> packages = new HashMap<>();
+    private final List<TestNamingConvention> conventions;
+
+    TestClassMapper(final Node root, final List<TestNamingConvention> conventions) {
+        this.conventions = List.copyOf(conventions);
+
+        indexPackages(root);
+    }
+
+    private void indexPackages(final Node node) {
+        if (node.getMetric() == Metric.PACKAGE && !packages.containsKey(node.getId())) {
+            packages.put(node.getId(), new PackageClasses(node.getAllClassNodes()));
+        }
+        for (Node child : node.getChildren()) {
+            indexPackages(child);
+        }
+    }
+
+    /**
+     * Finds the production class that is tested by the specified test class. The production class must be part of the
+     * package of the test class, its simple name is derived from the simple name of the test class by the first
+     * matching naming convention. If the test class follows none of the conventions, then its name is used as is.
+     *
+     * @param testClassNode
+     *         the test class
+     *
+     * @return the tested production class, or an empty result if there is no such class
+     */
+    Optional<ClassNode> findTargetClass(final ClassNode testClassNode) {
+        var classes = packages.get(testClassNode.getPackageName());
+        if (classes == null) {
+            return Optional.empty();
+        }
+
+        var testClassName = testClassNode.getName();
+        int lastDot = testClassName.lastIndexOf('.');
+        var packagePrefix = testClassName.substring(0, lastDot + 1);
+        for (String targetName : getTargetNames(testClassName.substring(lastDot + 1))) {
+            var targetClass = classes.find(targetName, packagePrefix + targetName);
+            if (targetClass.isPresent()) {
+                return targetClass;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private List<String> getTargetNames(final String simpleName) {
+        var targetNames = new ArrayList<String>();
+        for (TestNamingConvention convention : conventions) {
+            convention.getTargetName(simpleName).ifPresent(targetNames::add);
+        }
+        if (targetNames.isEmpty()) {
+            targetNames.add(simpleName);
+        }
+        return targetNames;
+    }
+
+    /**
+     * The classes of a package, indexed by their simple names.
+     */
+    private static final class PackageClasses {
+        private final List<ClassNode> classes;
+        private final Map<String, List<ClassNode>> classesBySimpleName = new HashMap<>();
+
+        PackageClasses(final List<ClassNode> classes) {
+            this.classes = classes;
+
+            for (ClassNode classNode : classes) {
+                var name = classNode.getName();
+                classesBySimpleName.computeIfAbsent(name.substring(name.lastIndexOf('.') + 1),
+                        key -> new ArrayList<>(1)).add(classNode);
+            }
+        }
+
+        /**
+         * Finds the first class with the specified simple name whose name ends with the specified target name. If
+         * there is no such class, then the first class whose name ends with the target name is returned, even if its
+         * simple name is longer.
+         */
+        Optional<ClassNode> find(final String simpleName, final String targetName) {
+            var matching = classesBySimpleName.getOrDefault(simpleName, List.of()).stream()
+                    .filter(classNode -> classNode.getName().endsWith(targetName))
+                    .findFirst();
+            if (matching.isPresent()) {
+                return matching;
+            }
+            return classes.stream()
+                    .filter(classNode -> classNode.getName().endsWith(targetName))
+                    .findFirst();
+        }
+    }
+}
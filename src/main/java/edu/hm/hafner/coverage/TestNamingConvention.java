@@ -0,0 +1,101 @@
+package edu.hm.hafner.coverage;
+
+import edu.hm.hafner.util.Generated;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * A naming convention that maps the simple name of a test class to the simple name of the production class under test.
+ * A convention is defined by a regular expression that must match the whole name of the test class: the first
+ * capturing group of the expression is the name of the production class.
+ *
+ * @author Ullrich Hafner
+ * @see Node#mergeTests(java.util.Collection, List)
+ */
+public final class TestNamingConvention {
+    /** Maps test classes with the suffixes {@code Test}, {@code Tests}, {@code ITest}, or {@code ITests}. */
+    public static final TestNamingConvention TEST_SUFFIX = suffix("I?Tests?");
+    /** Maps integration test classes with the suffix {@code IT}. */
+    public static final TestNamingConvention IT_SUFFIX = suffix("IT");
+    /** Maps specifications (e.g., Spock or Kotest) with the suffix {@code Spec}. */
+    public static final TestNamingConvention SPEC_SUFFIX = suffix("Spec");
+    /** Maps test classes with the prefix {@code Test}. */
+    public static final TestNamingConvention TEST_PREFIX = prefix("Test");
+
+    /** The conventions that are used if no conventions are specified. */
+    public static final List<TestNamingConvention> DEFAULT_CONVENTIONS = List.of(TEST_SUFFIX);
+
+    /**
+     * Creates a convention for test classes that append the specified suffix to the name of the production class.
+     *
+     * @param suffix
+     *         the regular expression of the suffix
+     *
+     * @return the convention
+     */
+    public static TestNamingConvention suffix(final String suffix) {
+        return of("(.+?)(?:" + suffix + ")");
+    }
+
+    /**
+     * Creates a convention for test classes that prepend the specified prefix to the name of the production class.
+     *
+     * @param prefix
+     *         the regular expression of the prefix
+     *
+     * @return the convention
+     */
+    public static TestNamingConvention prefix(final String prefix) {
+        return of("(?:" + prefix + ")(.+)");
+    }
+
+    /**
+     * Creates a convention from the specified regular expression. The first capturing group of the expression is the
+     * name of the production class.
+     *
+     * @param regex
+     *         the regular expression that matches the whole simple name of a test class
+     *
+     * @return the convention
+     * @throws IllegalArgumentException
+     *         if the expression has no capturing group
+     */
+    public static TestNamingConvention of(final String regex) {
+        var pattern = Pattern.compile(regex);
+        if (pattern.matcher("").groupCount() < 1) {
+            throw new IllegalArgumentException("Naming convention requires a capturing group: " + regex);
+        }
+        return new TestNamingConvention(pattern);
+    }
+
+    private final Pattern pattern;
+
+    private TestNamingConvention(final Pattern pattern) {
+        this.pattern = pattern;
+    }
+
+    /**
+     * Returns the simple name of the production class that is tested by the specified test class.
+     *
+     * @param testClassName
+     *         the simple name of the test class, i.e. without package
+     *
+     * @return the simple name of the production class, or an empty result if the test class does not follow this
+     *         convention
+     */
+    public Optional<String> getTargetName(final String testClassName) {
+        var matcher = pattern.matcher(testClassName);
+        if (matcher.matches()) {
+            return Optional.ofNullable(matcher.group(1)).filter(name -> !name.isEmpty());
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    @Generated
+    public String toString() {
+        return "TestNamingConvention{" + pattern + '}';
+    }
+}
@@ -0,0 +1,317 @@
+package edu.hm.hafner.coverage;
+
+import edu.hm.hafner.coverage.Metric.ValueSource;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Computes the differences between all nodes of two coverage trees. In contrast to {@link Node#computeDelta(Node)},
+ * which aggregates the values of both subtrees for each compared pair of nodes, the differences of all nodes are
+ * computed with a single aggregation of each tree.
+ *
+ * <p>
+ * The nodes of both trees are aligned top-down: starting with the two roots, the children of each aligned pair of
+ * nodes are joined by their metric and {@link Node#getId() ID} using a hash map. Each node is classified as one of
+ * the following:
+ * </p>
+ * <ul>
+ *     <li>{@link Status#ADDED}: the node is part of the current tree only.</li>
+ *     <li>{@link Status#REMOVED}: the node is part of the reference tree only.</li>
+ *     <li>{@link Status#CHANGED}: the node is part of both trees, but its aggregated values differ.</li>
+ *     <li>{@link Status#UNCHANGED}: the node is part of both trees and its aggregated values are the same.</li>
+ * </ul>
+ *
+ * <p>
+ * For aligned nodes, the differences of the aggregated values are computed in the same way as by
+ * {@link Node#computeDelta(Node)}. The aggregated values of the nodes are computed once, bottom-up, and are cached
+ * during the lifetime of this instance. So the trees must not be changed while the instance is used. The results are
+ * provided as a stream that is computed on demand, in pre-order of the current tree. The nodes of a removed subtree are
+ * reported after the other children of the parent of the subtree.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public final class TreeDiff {
+    private final Node current;
+    private final Node reference;
+    private final AggregatedValues values = new AggregatedValues();
+
+    /**
+     * The status of a node in the comparison of two trees.
+     */
+    public enum Status {
+        /** The node is part of the current tree only. */
+        ADDED,
+        /** The node is part of the reference tree only. */
+        REMOVED,
+        /** The node is part of both trees and has different aggregated values. */
+        CHANGED,
+        /** The node is part of both trees and has the same aggregated values. */
+        UNCHANGED
+    }
+
+    /**
+     * Creates a new comparison of the specified trees. The differences are computed on demand.
+     *
+     * @param current
+     *         the root of the current tree
+     * @param reference
+     *         the root of the reference tree
+     */
+    public TreeDiff(final Node current, final Node reference) {
+        this.current = current;
+        this.reference = reference;
+    }
+
+    /**
+     * Returns the differences of all nodes of both trees. The roots are aligned if they have the same metric and ID.
+     * The differences are computed while the stream is consumed.
+     *
+     * @return the differences of all nodes
+     */
+    public Stream<NodeDiff> stream() {
+        if (isAligned(current, reference)) {
+            return streamAligned(current, reference);
+        }
+        return Stream.concat(streamUnaligned(current, Status.ADDED), streamUnaligned(reference, Status.REMOVED));
+    }
+
+    /**
+     * Passes the differences of all nodes of both trees to the specified consumer.
+     *
+     * @param consumer
+     *         the consumer of the differences
+     *
+     * @see #stream()
+     */
+    public void forEach(final Consumer<NodeDiff> consumer) {
+        stream().forEach(consumer);
+    }
+
+    /**
+     * Returns the nodes of the current tree that are not part of the reference tree.
+     *
+     * @return the added nodes
+     */
+    public List<Node> getAddedNodes() {
+        return getNodes(Status.ADDED);
+    }
+
+    /**
+     * Returns the nodes of the reference tree that are not part of the current tree.
+     *
+     * @return the removed nodes
+     */
+    public List<Node> getRemovedNodes() {
+        return getNodes(Status.REMOVED);
+    }
+
+    /**
+     * Returns the nodes of the current tree whose aggregated values differ from the values of the aligned node of the
+     * reference tree.
+     *
+     * @return the changed nodes
+     */
+    public List<Node> getChangedNodes() {
+        return getNodes(Status.CHANGED);
+    }
+
+    private List<Node> getNodes(final Status status) {
+        return stream().filter(diff -> diff.getStatus() == status)
+                .map(NodeDiff::getNode)
+                .collect(Collectors.toList());
+    }
+
+    private static boolean isAligned(final Node node, final Node referenceNode) {
+        return node.getMetric() == referenceNode.getMetric() && node.getId().equals(referenceNode.getId());
+    }
+
+    private static String getKey(final Node node) {
+        return node.getMetric().name() + ':' + node.getId();
+    }
+
+    private Stream<NodeDiff> streamAligned(final Node node, final Node referenceNode) {
+        return Stream.concat(Stream.of(node).map(n -> compare(n, referenceNode)),
+                Stream.of(node).flatMap(n -> streamChildren(n, referenceNode)));
+    }
+
+    private Stream<NodeDiff> streamUnaligned(final Node node, final Status status) {
+        return Stream.concat(Stream.of(new NodeDiff(status, node, null, List.of())),
+                node.getChildren().stream().flatMap(child -> streamUnaligned(child, status)));
+    }
+
+    /**
+     * Joins the children of the specified nodes by their keys. If several children of the reference node have the same
+     * key, then the first child is aligned, the others are reported as removed.
+     */
+    private Stream<NodeDiff> streamChildren(final Node node, final Node referenceNode) {
+        Map<String, Node> referenceChildren = new HashMap<>();
+        for (Node child : referenceNode.getChildren()) {
+            referenceChildren.putIfAbsent(getKey(child), child);
+        }
+
+        List<Node> referenceNodes = new ArrayList<>();
+        Set<Node> aligned = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Node child : node.getChildren()) {
+            var referenceChild = referenceChildren.remove(getKey(child));
+            referenceNodes.add(referenceChild);
+            if (referenceChild != null) {
+                aligned.add(referenceChild);
+            }
+        }
+        var removed = referenceNode.getChildren().stream().filter(child -> !aligned.contains(child)).toList();
+
+        var children = node.getChildren();
+        var childDiffs = IntStream.range(0, children.size()).boxed().flatMap(index -> {
+            var referenceChild = referenceNodes.get(index);
+            if (referenceChild == null) {
+                return streamUnaligned(children.get(index), Status.ADDED);
+            }
+            return streamAligned(children.get(index), referenceChild);
+        });
+        return Stream.concat(childDiffs, removed.stream().flatMap(child -> streamUnaligned(child, Status.REMOVED)));
+    }
+
+    private NodeDiff compare(final Node node, final Node referenceNode) {
+        var distribution = values.getDistribution(node);
+        var referenceDistribution = values.getDistribution(referenceNode);
+
+        List<Difference> differences = new ArrayList<>();
+        for (Map.Entry<Metric, Value> entry : distribution.entrySet()) {
+            var referenceValue = referenceDistribution.get(entry.getKey());
+            if (referenceValue != null) {
+                differences.add(entry.getValue().subtract(referenceValue));
+            }
+        }
+        var status = distribution.equals(referenceDistribution) ? Status.UNCHANGED : Status.CHANGED;
+        return new NodeDiff(status, node, referenceNode, differences);
+    }
+
+    /**
+     * The result of the comparison of a node.
+     */
+    public static final class NodeDiff {
+        private final Status status;
+        private final Node node;
+        @CheckForNull
+        private final Node referenceNode;
+        private final List<Difference> differences;
+
+        NodeDiff(final Status status, final Node node, @CheckForNull final Node referenceNode,
+                final List<Difference> differences) {
+            this.status = status;
+            this.node = node;
+            this.referenceNode = referenceNode;
+            this.differences = differences;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * Returns the compared node. For removed nodes, this is the node of the reference tree, otherwise the node of
+         * the current tree.
+         *
+         * @return the compared node
+         */
+        public Node getNode() {
+            return node;
+        }
+
+        /**
+         * Returns the node of the reference tree that is aligned with the node of the current tree.
+         *
+         * @return the aligned node of the reference tree, or an empty result if the node has been added or removed
+         */
+        public Optional<Node> getReferenceNode() {
+            return Optional.ofNullable(referenceNode);
+        }
+
+        /**
+         * Returns the differences of the aggregated values of the aligned nodes. Metrics that are not available in
+         * both nodes are omitted.
+         *
+         * @return the differences of the aggregated values, empty for added and removed nodes
+         */
+        public List<Difference> getDifferences() {
+            return differences;
+        }
+
+        @Override
+        public String toString() {
+            return "%s %s %s".formatted(status, node, differences);
+        }
+    }
+
+    /**
+     * Caches the aggregated values and the available metrics of the nodes. Each value is aggregated from the cached
+     * values of the children, so each value of a tree is computed only once.
+     */
+    private static final class AggregatedValues implements ValueSource {
+        private final Map<Node, Map<Metric, Optional<Value>>> valuesOfNodes = new IdentityHashMap<>();
+        private final Map<Node, NavigableSet<Metric>> metricsOfNodes = new IdentityHashMap<>();
+
+        @Override
+        public Optional<Value> getValue(final Node node, final Metric metric) {
+            var nodeValues = valuesOfNodes.computeIfAbsent(node, n -> new EnumMap<>(Metric.class));
+            var value = nodeValues.get(metric);
+            if (value == null) {
+                value = metric.getValueFor(node, this);
+                nodeValues.put(metric, value);
+            }
+            return value;
+        }
+
+        /**
+         * Returns the available metrics for the tree spanned by the specified node in the same way as
+         * {@link Node#getMetrics()}, but with the cached metrics of the children.
+         */
+        @Override
+        public NavigableSet<Metric> getMetrics(final Node node) {
+            var metrics = metricsOfNodes.get(node);
+            if (metrics == null) {
+                metrics = new TreeSet<>();
+                for (Node child : node.getChildren()) {
+                    metrics.addAll(getMetrics(child));
+                }
+                for (Value value : node.getValues()) {
+                    metrics.add(value.getMetric());
+                }
+                if (metrics.stream().anyMatch(Metric::isCoverage)) {
+                    metrics.add(node.getMetric());
+                }
+                if (metrics.contains(Metric.LINE)) {
+                    metrics.add(Metric.LOC);
+                }
+                metricsOfNodes.put(node, metrics);
+            }
+            return metrics;
+        }
+
+        NavigableMap<Metric, Value> getDistribution(final Node node) {
+            NavigableMap<Metric, Value> distribution = new TreeMap<>();
+            for (Metric metric : getMetrics(node)) {
+                getValue(node, metric).ifPresent(value -> distribution.put(metric, value));
+            }
+            return distribution;
+        }
+    }
+}
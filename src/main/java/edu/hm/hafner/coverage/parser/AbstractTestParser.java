@@ -5,19 +5,24 @@ import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.events.StartElement;
 
+import edu.hm.hafner.coverage.ClassNode;
 import edu.hm.hafner.coverage.CoverageParser;
 import edu.hm.hafner.coverage.Metric;
 import edu.hm.hafner.coverage.ModuleNode;
 import edu.hm.hafner.coverage.Rate;
 import edu.hm.hafner.coverage.TestCase;
+import edu.hm.hafner.coverage.TestCase.TestCaseBuilder;
+import edu.hm.hafner.coverage.TestCaseStoragePolicy;
+import edu.hm.hafner.coverage.TestCaseStoragePolicy.DescriptionPool;
 import edu.hm.hafner.util.FilteredLog;
-import edu.hm.hafner.util.SecureXmlParserFactory;
 
 import java.io.Reader;
 import java.io.Serial;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Baseclass for test result parsers.
@@ -35,13 +40,25 @@ abstract class AbstractTestParser extends CoverageParser {
 
     private final QName testSuite;
     private final QName testCase;
+    private final TestCaseStoragePolicy storagePolicy; // @since 0.73.0
 
-    AbstractTestParser(final ProcessingMode processingMode, final QName testSuite, final QName testCase) {
+    AbstractTestParser(final ProcessingMode processingMode, final TestCaseStoragePolicy storagePolicy,
+            final QName testSuite, final QName testCase) {
         super(processingMode);
+        this.storagePolicy = storagePolicy;
         this.testSuite = testSuite;
         this.testCase = testCase;
     }
 
+    /**
+     * Returns the policy that determines how the messages and descriptions of the test cases are stored.
+     *
+     * @return the storage policy
+     */
+    public TestCaseStoragePolicy getStoragePolicy() {
+        return Objects.requireNonNullElse(storagePolicy, TestCaseStoragePolicy.DEFAULT);
+    }
+
     QName getTestCase() {
         return testCase;
     }
@@ -53,10 +70,12 @@ abstract class AbstractTestParser extends CoverageParser {
     @Override
     protected ModuleNode parseReport(final Reader reader, final String fileName, final FilteredLog log) {
         try {
-            var eventReader = new SecureXmlParserFactory().createXmlEventReader(reader);
+            var eventReader = XmlReaderFactory.createXmlEventReader(reader);
             var root = new ModuleNode(fileName);
-            var tests = readTestCases(eventReader, root, fileName);
-            handleEmptyResults(fileName, log, tests.isEmpty());
+            var counters = new TestCounters();
+            var numberOfTests = readTestCases(eventReader, root, counters, fileName);
+            counters.writeValues();
+            handleEmptyResults(fileName, log, numberOfTests == 0);
             return root;
         }
         catch (XMLStreamException exception) {
@@ -64,37 +83,127 @@ abstract class AbstractTestParser extends CoverageParser {
         }
     }
 
-    private List<TestCase> readTestCases(final XMLEventReader eventReader,
-            final ModuleNode root, final String fileName) throws XMLStreamException {
+    private int readTestCases(final XMLEventReader eventReader, final ModuleNode root,
+            final TestCounters counters, final String fileName) throws XMLStreamException {
+        var pool = getStoragePolicy().createPool();
         var suiteName = EMPTY;
-        var tests = new ArrayList<TestCase>();
+        int ordinal = 0;
+        int numberOfTests = 0;
         while (eventReader.hasNext()) {
             var event = eventReader.nextEvent();
 
             if (event.isStartElement() && getTestSuite().equals(event.asStartElement().getName())) {
                 suiteName = getOptionalValueOf(event.asStartElement(), NAME).orElse(EMPTY);
+                ordinal = 0;
             }
             else if (event.isStartElement() && getTestCase().equals(event.asStartElement().getName())) {
-                tests.add(readTestCase(eventReader, event.asStartElement(), suiteName, root, fileName));
+                ordinal++;
+                numberOfTests++;
+                var testCaseElement = event.asStartElement();
+                var builder = createBuilder(testCaseElement, suiteName, ordinal, pool);
+                readTestCase(eventReader, testCaseElement, builder, suiteName, root, counters, fileName);
             }
         }
+        return numberOfTests;
+    }
 
-        // TODO: right now the success rate is computed on the module level
-        // we should move this logic to the class and package level
-        var failed = tests.stream().filter(TestCase::isFailed).count();
-        var passed = tests.stream().filter(TestCase::isPassed).count();
+    private TestCaseBuilder createBuilder(final StartElement testCaseElement, final String suiteName,
+            final int ordinal, final DescriptionPool pool) {
+        return new TestCaseBuilder()
+                .withDescriptionPool(pool)
+                .withTestName(getOptionalValueOf(testCaseElement, NAME).orElseGet(() -> createId(suiteName, ordinal)));
+    }
 
-        var total = failed + passed;
-        if (total > 0) {
-            root.addValue(new Rate(Metric.TEST_SUCCESS_RATE, passed, total));
+    abstract TestCase readTestCase(XMLEventReader reader, StartElement testCaseElement, TestCaseBuilder builder,
+            String suiteName, ModuleNode root, TestCounters counters, String fileName) throws XMLStreamException;
+
+    /**
+     * Appends the characters of a failure description to the specified content. Characters beyond the maximum length
+     * of the {@link #getStoragePolicy() storage policy} are skipped, since they would be abbreviated anyway.
+     *
+     * @param content
+     *         the content read so far
+     * @param characters
+     *         the characters to append
+     */
+    void appendDescription(final StringBuilder content, final String characters) {
+        long remaining = getStoragePolicy().getMaximumLength() + 1L - content.length();
+        if (remaining > 0) {
+            content.append(characters, 0, (int) Math.min(remaining, characters.length()));
         }
-        return tests;
     }
 
-    abstract TestCase readTestCase(XMLEventReader reader, StartElement testCaseElement,
-            String suiteName, ModuleNode root, String fileName) throws XMLStreamException;
+    /**
+     * Adds the test case to the specified class. The test case, the number of tests, and the success rate of the class
+     * are counted in the specified counters and written to the class once the whole report has been read, so the test
+     * cases do not need to be scanned again after parsing. The totals of the packages and the module are aggregated
+     * from their classes.
+     *
+     * @param counters
+     *         the counters of the report
+     * @param classNode
+     *         the class of the test case
+     * @param testCase
+     *         the test case to add
+     */
+    void addTestCase(final TestCounters counters, final ClassNode classNode, final TestCase testCase) {
+        counters.add(classNode, testCase);
+    }
+
+    /**
+     * Creates a name for a test case without a name. The name is composed of the suite name and the position of the
+     * test case within the suite, so parsing the same report again creates the same names.
+     *
+     * @param suiteName
+     *         the name of the test suite
+     * @param ordinal
+     *         the position of the test case within the suite, starting with 1
+     *
+     * @return the name of the test case
+     */
+    protected String createId(final String suiteName, final int ordinal) {
+        return suiteName + "#" + ordinal;
+    }
+
+    /**
+     * Counts the test cases of the classes of a report. The values of the classes are written only once after the
+     * report has been read.
+     */
+    static final class TestCounters {
+        private final Map<ClassNode, ClassCounter> classes = new IdentityHashMap<>();
+
+        void add(final ClassNode classNode, final TestCase testCase) {
+            classes.computeIfAbsent(classNode, node -> new ClassCounter()).add(testCase);
+        }
 
-    protected String createId() {
-        return UUID.randomUUID().toString();
+        void writeValues() {
+            classes.forEach((classNode, counter) -> counter.writeValues(classNode));
+        }
+    }
+
+    /**
+     * Counts the tests of a class and collects its test cases, so that they are added in a single step.
+     */
+    private static final class ClassCounter {
+        private final List<TestCase> testCases = new ArrayList<>();
+        private int passed;
+        private int failed;
+
+        void add(final TestCase testCase) {
+            testCases.add(testCase);
+            if (testCase.isPassed()) {
+                passed++;
+            }
+            else if (testCase.isFailed()) {
+                failed++;
+            }
+        }
+
+        void writeValues(final ClassNode classNode) {
+            classNode.addTestCases(testCases); // updates the number of tests of the class
+            if (passed + failed > 0) {
+                classNode.replaceValue(new Rate(Metric.TEST_SUCCESS_RATE, passed, passed + failed));
+            }
+        }
     }
 }
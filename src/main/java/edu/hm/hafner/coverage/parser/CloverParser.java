@@ -17,7 +17,6 @@ import edu.hm.hafner.coverage.Node;
 import edu.hm.hafner.coverage.PackageNode;
 import edu.hm.hafner.util.FilteredLog;
 import edu.hm.hafner.util.PathUtil;
-import edu.hm.hafner.util.SecureXmlParserFactory;
 import edu.hm.hafner.util.TreeString;
 
 import java.io.Reader;
@@ -72,8 +71,7 @@ public class CloverParser extends CoverageParser {
     @Override
     protected ModuleNode parseReport(final Reader reader, final String fileName, final FilteredLog log) {
         try {
-            var factory = new SecureXmlParserFactory();
-            var eventReader = factory.createXmlEventReader(reader);
+            var eventReader = XmlReaderFactory.createXmlEventReader(reader);
 
             while (eventReader.hasNext()) {
                 var event = eventReader.nextEvent();
@@ -21,15 +21,12 @@ import edu.hm.hafner.coverage.PackageNode;
 import edu.hm.hafner.coverage.Value;
 import edu.hm.hafner.util.FilteredLog;
 import edu.hm.hafner.util.PathUtil;
-import edu.hm.hafner.util.SecureXmlParserFactory;
 
 import java.io.Reader;
 import java.io.Serial;
 import java.nio.file.Path;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.UUID;
-import java.util.regex.Pattern;
 
 /**
  * Parses Cobertura reports into a hierarchical Java Object Model.
@@ -42,7 +39,6 @@ public class CoberturaParser extends CoverageParser {
     @Serial
     private static final long serialVersionUID = -3625341318291829577L;
 
-    private static final Pattern BRANCH_PATTERN = Pattern.compile(".*\\((?<covered>\\d+)/(?<total>\\d+)\\)");
     private static final PathUtil PATH_UTIL = new PathUtil();
 
     private static final String DETERMINISTIC_PATH_PREFIX = "/_/";
@@ -50,6 +46,7 @@ public class CoberturaParser extends CoverageParser {
     private static final Coverage DEFAULT_BRANCH_COVERAGE = new CoverageBuilder(Metric.BRANCH).withCovered(2).withMissed(0).build();
     private static final Coverage LINE_COVERED = new CoverageBuilder(Metric.LINE).withCovered(1).withMissed(0).build();
     private static final Coverage LINE_MISSED = new CoverageBuilder(Metric.LINE).withCovered(0).withMissed(1).build();
+    private static final int NO_NUMBER = -1;
 
     /** XML elements. */
     private static final QName SOURCE = new QName("source");
@@ -90,7 +87,7 @@ public class CoberturaParser extends CoverageParser {
     @Override
     protected ModuleNode parseReport(final Reader reader, final String fileName, final FilteredLog log) {
         try {
-            var eventReader = new SecureXmlParserFactory().createXmlEventReader(reader);
+            var eventReader = XmlReaderFactory.createXmlEventReader(reader);
 
             var root = new ModuleNode(EMPTY); // Cobertura has no support for module names
             handleEmptyResults(fileName, log, readModule(eventReader, root, fileName, log));
@@ -104,6 +101,7 @@ public class CoberturaParser extends CoverageParser {
     private boolean readModule(final XMLEventReader eventReader, final ModuleNode root,
             final String fileName, final FilteredLog log) throws XMLStreamException {
         boolean isEmpty = true;
+        var packages = new SegmentTrie(root);
 
         while (eventReader.hasNext()) {
             var event = eventReader.nextEvent();
@@ -115,7 +113,7 @@ public class CoberturaParser extends CoverageParser {
                     readSource(eventReader, root);
                 }
                 else if (PACKAGE.equals(tagName)) {
-                    readPackage(eventReader, root, readName(startElement), fileName, log);
+                    readPackage(eventReader, packages, readName(startElement), fileName, log);
                     isEmpty = false;
                 }
             }
@@ -124,9 +122,10 @@ public class CoberturaParser extends CoverageParser {
         return isEmpty;
     }
 
-    private void readPackage(final XMLEventReader reader, final ModuleNode root,
+    private void readPackage(final XMLEventReader reader, final SegmentTrie packages,
             final String packageName, final String fileName, final FilteredLog log) throws XMLStreamException {
-        var packageNode = root.findOrCreatePackageNode(packageName);
+        var packageTrie = packages.findOrCreateChild(PackageNode.normalizePackageName(packageName),
+                Node::createPackageNode);
 
         while (reader.hasNext()) {
             var event = reader.nextEvent();
@@ -134,7 +133,7 @@ public class CoberturaParser extends CoverageParser {
             if (event.isStartElement()) {
                 var element = event.asStartElement();
                 if (CLASS.equals(element.getName())) {
-                    var fileNode = createFileNode(element, packageNode);
+                    var fileNode = createFileNode(element, packageTrie);
 
                     readClassOrMethod(reader, fileNode, fileNode, element, fileName, log);
                 }
@@ -145,12 +144,13 @@ public class CoberturaParser extends CoverageParser {
         }
     }
 
-    private FileNode createFileNode(final StartElement element, final PackageNode packageNode) {
+    private FileNode createFileNode(final StartElement element, final SegmentTrie packageTrie) {
         var fileName = getValueOf(element, FILE_NAME);
         var relativePath = Strings.CS.removeStart(PATH_UTIL.getRelativePath(fileName), DETERMINISTIC_PATH_PREFIX);
-        var path = getTreeStringBuilder().intern(relativePath);
+        var name = getFileName(fileName);
 
-        return packageNode.findOrCreateFileNode(getFileName(fileName), path);
+        return (FileNode) packageTrie.findOrCreateChild(relativePath + "/" + name,
+                (parent, key) -> parent.createFileNode(name, getTreeStringBuilder().intern(relativePath))).getNode();
     }
 
     private String getFileName(final String relativePath) {
@@ -169,7 +169,7 @@ public class CoberturaParser extends CoverageParser {
         getOptionalValueOf(element, COMPLEXITY)
                 .ifPresent(c -> node.addValue(new Value(Metric.CYCLOMATIC_COMPLEXITY, readComplexity(c))));
 
-        var coveragePerLine = new HashMap<Integer, Coverage>();
+        var coveragePerLine = new LineAccumulator();
 
         while (reader.hasNext()) {
             var event = reader.nextEvent();
@@ -186,15 +186,15 @@ public class CoberturaParser extends CoverageParser {
             else if (event.isEndElement()) {
                 var endElement = event.asEndElement();
                 if (CLASS.equals(endElement.getName()) || METHOD.equals(endElement.getName())) {
+                    coveragePerLine.mergeDuplicateLines();
                     if (CLASS.equals(endElement.getName())) {
-                        coveragePerLine.forEach((lineNumber, coverage) ->
-                                fileNode.addCounters(lineNumber, coverage.getCovered(), coverage.getMissed()));
+                        coveragePerLine.addCountersTo(fileNode);
                     }
 
-                    var coverages = recalculateCoverageFromMergedLines(coveragePerLine);
-                    node.addValue(coverages[0]);
-                    if (coverages[1].isSet()) {
-                        node.addValue(coverages[1]);
+                    node.addValue(coveragePerLine.getLineCoverage());
+                    var branchCoverage = coveragePerLine.getBranchCoverage();
+                    if (branchCoverage.isSet()) {
+                        node.addValue(branchCoverage);
                     }
                     return;
                 }
@@ -203,72 +203,17 @@ public class CoberturaParser extends CoverageParser {
         throw createEofException(fileName);
     }
 
-    /**
-     * Merges duplicate line coverage entries.
-     * <ul>
-     * <li>For line coverage (no branches): keeps the line as covered if any entry has hits > 0</li>
-     * <li>For branch coverage: keeps the maximum covered branches</li>
-     * </ul>
-     *
-     * @param existing the existing coverage for the line
-     * @param newCoverage the new coverage to merge
-     * @return the merged coverage
-     */
-    private Coverage mergeDuplicateLines(final Coverage existing, final Coverage newCoverage) {
-        if (isLineCoverage(existing, newCoverage)) {
-            return mergeLineCoverage(existing, newCoverage);
-        }
-        return mergeBranchCoverage(existing, newCoverage);
-    }
-
-    private boolean isLineCoverage(final Coverage existing, final Coverage newCoverage) {
-        return existing.getTotal() == 1 && newCoverage.getTotal() == 1;
-    }
-
-    private Coverage mergeLineCoverage(final Coverage existing, final Coverage newCoverage) {
-        return hasAnyCovered(existing, newCoverage) ? LINE_COVERED : LINE_MISSED;
-    }
-
-    private boolean hasAnyCovered(final Coverage existing, final Coverage newCoverage) {
-        return existing.getCovered() > 0 || newCoverage.getCovered() > 0;
-    }
-
-    private Coverage mergeBranchCoverage(final Coverage existing, final Coverage newCoverage) {
-        return newCoverage.getCovered() >= existing.getCovered() ? newCoverage : existing;
-    }
-
-    private void processLineElement(final StartElement nextElement,
-            final Map<Integer, Coverage> coveragePerLine) {
-        Coverage coverage;
+    private void processLineElement(final StartElement nextElement, final LineAccumulator coveragePerLine) {
+        int lineNumber = getIntegerValueOf(nextElement, NUMBER);
         if (isBranchCoverage(nextElement)) {
-            coverage = readBranchCoverage(nextElement);
+            var coverage = readBranchCoverage(nextElement);
+            coveragePerLine.add(lineNumber, coverage.getMetric() == Metric.BRANCH,
+                    coverage.getCovered(), coverage.getMissed());
         }
         else {
             int lineHits = getIntegerValueOf(nextElement, HITS);
-            coverage = computeLineCoverage(lineHits);
+            coveragePerLine.add(lineNumber, false, lineHits > 0 ? 1 : 0, lineHits > 0 ? 0 : 1);
         }
-
-        int lineNumber = getIntegerValueOf(nextElement, NUMBER);
-        coveragePerLine.merge(lineNumber, coverage, this::mergeDuplicateLines);
-    }
-
-    private Coverage[] recalculateCoverageFromMergedLines(final Map<Integer, Coverage> coveragePerLine) {
-        var lineCoverage = coveragePerLine.values().stream()
-                .filter(c -> c.getMetric() == Metric.LINE)
-                .reduce(Coverage.nullObject(Metric.LINE), Coverage::add);
-
-        var branchCoverage = coveragePerLine.values().stream()
-                .filter(c -> c.getMetric() == Metric.BRANCH)
-                .reduce(Coverage.nullObject(Metric.BRANCH), Coverage::add);
-
-        var branchLineCoverage = coveragePerLine.values().stream()
-                .filter(c -> c.getMetric() == Metric.BRANCH)
-                .map(c -> computeLineCoverage(c.getCovered()))
-                .reduce(Coverage.nullObject(Metric.LINE), Coverage::add);
-
-        lineCoverage = lineCoverage.add(branchLineCoverage);
-
-        return new Coverage[]{lineCoverage, branchCoverage};
     }
 
     protected Coverage computeLineCoverage(final int coverage) {
@@ -371,13 +316,215 @@ public class CoberturaParser extends CoverageParser {
     }
 
     private Coverage fromConditionCoverage(final String conditionCoverageAttribute) {
-        var matcher = BRANCH_PATTERN.matcher(conditionCoverageAttribute);
-        if (matcher.matches()) {
-            return new CoverageBuilder().withMetric(Metric.BRANCH)
-                    .withCovered(matcher.group("covered"))
-                    .withTotal(matcher.group("total"))
-                    .build();
+        return parseConditionCoverage(conditionCoverageAttribute, Metric.BRANCH);
+    }
+
+    /**
+     * Parses a coverage attribute of the form {@code 50% (1/2)}. The covered and total items are taken from the
+     * parentheses at the end of the value. If the value does not end with such a pair of numbers, a null object
+     * will be returned.
+     *
+     * @param attribute
+     *         the value of the coverage attribute
+     * @param metric
+     *         the metric of the coverage to create
+     *
+     * @return the parsed coverage
+     */
+    protected static Coverage parseConditionCoverage(final String attribute, final Metric metric) {
+        int end = attribute.length() - 1;
+        if (end < 0 || attribute.charAt(end) != ')') {
+            return Coverage.nullObject(metric);
+        }
+        int start = attribute.lastIndexOf('(', end);
+        if (start < 0 || containsLineTerminator(attribute, start)) {
+            return Coverage.nullObject(metric);
+        }
+        int separator = attribute.indexOf('/', start);
+        if (separator < 0) {
+            return Coverage.nullObject(metric);
+        }
+        int covered = parseDigits(attribute, start + 1, separator);
+        int total = parseDigits(attribute, separator + 1, end);
+        if (covered == NO_NUMBER || total == NO_NUMBER) {
+            return Coverage.nullObject(metric);
+        }
+        return new CoverageBuilder().withMetric(metric).withCovered(covered).withTotal(total).build();
+    }
+
+    /**
+     * Returns whether the prefix of the value contains a line break (the prefix has been matched by a regular
+     * expression wildcard in previous versions, which does not accept line terminators).
+     */
+    private static boolean containsLineTerminator(final String value, final int end) {
+        for (int i = 0; i < end; i++) {
+            char c = value.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses the decimal number in the specified range of the value. Numbers that do not fit into an integer are
+     * mapped to 0, see {@link #parseInteger(String)}.
+     */
+    private static int parseDigits(final String value, final int start, final int end) {
+        if (start >= end) {
+            return NO_NUMBER;
+        }
+        long number = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return NO_NUMBER;
+            }
+            if (number <= Integer.MAX_VALUE) {
+                number = number * 10 + c - '0';
+            }
+        }
+        return number > Integer.MAX_VALUE ? 0 : (int) number;
+    }
+
+    /**
+     * Collects the coverage of the lines of a class or method. Each line is stored as a primitive entry: either a
+     * line coverage (1/0 or 0/1) or a branch coverage. Duplicate entries for the same line are merged in the order of
+     * the report:
+     * <ul>
+     * <li>For line coverage (no branches): keeps the line as covered if any entry has hits &gt; 0</li>
+     * <li>For branch coverage: keeps the entry with the maximum covered branches (the last one wins a tie)</li>
+     * </ul>
+     */
+    private static final class LineAccumulator {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private int[] lines = new int[INITIAL_CAPACITY];
+        private int[] covered = new int[INITIAL_CAPACITY];
+        private int[] missed = new int[INITIAL_CAPACITY];
+        private boolean[] branches = new boolean[INITIAL_CAPACITY];
+        private int size;
+        private boolean isSorted = true;
+
+        void add(final int line, final boolean isBranch, final int coveredItems, final int missedItems) {
+            if (size == lines.length) {
+                int capacity = size * 2;
+                lines = Arrays.copyOf(lines, capacity);
+                covered = Arrays.copyOf(covered, capacity);
+                missed = Arrays.copyOf(missed, capacity);
+                branches = Arrays.copyOf(branches, capacity);
+            }
+            if (size > 0 && line < lines[size - 1]) {
+                isSorted = false;
+            }
+            lines[size] = line;
+            covered[size] = coveredItems;
+            missed[size] = missedItems;
+            branches[size] = isBranch;
+            size++;
+        }
+
+        void mergeDuplicateLines() {
+            if (!isSorted) {
+                sortByLine();
+            }
+            int target = -1;
+            for (int i = 0; i < size; i++) {
+                if (target >= 0 && lines[target] == lines[i]) {
+                    merge(target, i);
+                }
+                else {
+                    target++;
+                    copy(i, target);
+                }
+            }
+            size = target + 1;
+        }
+
+        private void merge(final int existing, final int next) {
+            if (covered[existing] + missed[existing] == 1 && covered[next] + missed[next] == 1) {
+                boolean isCovered = covered[existing] > 0 || covered[next] > 0;
+                branches[existing] = false;
+                covered[existing] = isCovered ? 1 : 0;
+                missed[existing] = isCovered ? 0 : 1;
+            }
+            else if (covered[next] >= covered[existing]) {
+                copy(next, existing);
+            }
+        }
+
+        private void copy(final int from, final int to) {
+            lines[to] = lines[from];
+            covered[to] = covered[from];
+            missed[to] = missed[from];
+            branches[to] = branches[from];
+        }
+
+        /**
+         * Sorts the entries by line number. Entries of the same line keep their order in the report, since the
+         * merge of duplicates depends on that order.
+         */
+        private void sortByLine() {
+            var keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = (long) lines[i] << Integer.SIZE | i;
+            }
+            Arrays.sort(keys);
+
+            var sortedLines = new int[size];
+            var sortedCovered = new int[size];
+            var sortedMissed = new int[size];
+            var sortedBranches = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                int index = (int) keys[i];
+                sortedLines[i] = lines[index];
+                sortedCovered[i] = covered[index];
+                sortedMissed[i] = missed[index];
+                sortedBranches[i] = branches[index];
+            }
+            lines = sortedLines;
+            covered = sortedCovered;
+            missed = sortedMissed;
+            branches = sortedBranches;
+            isSorted = true;
+        }
+
+        void addCountersTo(final FileNode fileNode) {
+            for (int i = 0; i < size; i++) {
+                fileNode.addCounters(lines[i], covered[i], missed[i]);
+            }
+        }
+
+        Coverage getLineCoverage() {
+            int coveredLines = 0;
+            int missedLines = 0;
+            for (int i = 0; i < size; i++) {
+                if (branches[i]) {
+                    if (covered[i] > 0) {
+                        coveredLines++;
+                    }
+                    else {
+                        missedLines++;
+                    }
+                }
+                else {
+                    coveredLines += covered[i];
+                    missedLines += missed[i];
+                }
+            }
+            return new CoverageBuilder(Metric.LINE).withCovered(coveredLines).withMissed(missedLines).build();
+        }
+
+        Coverage getBranchCoverage() {
+            int coveredBranches = 0;
+            int missedBranches = 0;
+            for (int i = 0; i < size; i++) {
+                if (branches[i]) {
+                    coveredBranches += covered[i];
+                    missedBranches += missed[i];
+                }
+            }
+            return new CoverageBuilder(Metric.BRANCH).withCovered(coveredBranches).withMissed(missedBranches).build();
         }
-        return Coverage.nullObject(Metric.BRANCH);
     }
 }
@@ -1,6 +1,7 @@
 package edu.hm.hafner.coverage.parser;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Strings;
 
 import edu.hm.hafner.coverage.Coverage.CoverageBuilder;
 import edu.hm.hafner.coverage.CoverageParser;
@@ -8,7 +9,6 @@ import edu.hm.hafner.coverage.FileNode;
 import edu.hm.hafner.coverage.Metric;
 import edu.hm.hafner.coverage.ModuleNode;
 import edu.hm.hafner.util.FilteredLog;
-import edu.hm.hafner.util.LineRange;
 import edu.hm.hafner.util.LookaheadStream;
 import edu.hm.hafner.util.PathUtil;
 import edu.hm.hafner.util.TreeStringBuilder;
@@ -17,20 +17,24 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Serial;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
- * A parser for Go coverage reports.
+ * A parser for Go coverage reports. Reports that are still being written can be parsed incrementally with a
+ * {@link #createSession(Path) session}.
  *
  * @see <a href="https://go.dev/doc/build-cover">Go coverage profiling support</a>
  * @author Ullrich Hafner
@@ -68,71 +72,57 @@ public class GoCovParser extends CoverageParser {
         super(processingMode);
     }
 
+    /**
+     * Creates a new session that parses the specified UTF-8 encoded report incrementally while it is being written.
+     *
+     * @param report
+     *         the report to parse
+     *
+     * @return the new session
+     * @see IncrementalParserSession
+     */
+    public IncrementalParserSession createSession(final Path report) {
+        return createSession(report, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a new session that parses the specified report incrementally while it is being written.
+     *
+     * @param report
+     *         the report to parse
+     * @param charset
+     *         the charset of the report
+     *
+     * @return the new session
+     * @see IncrementalParserSession
+     */
+    public IncrementalParserSession createSession(final Path report, final Charset charset) {
+        return new GoCovSession(report, charset);
+    }
+
+    /**
+     * Accepts Go coverage profiles, these typically use the extensions {@code .out} or {@code .txt}.
+     */
+    @Override
+    protected boolean isReportEntry(final String entryName) {
+        return Strings.CI.endsWithAny(entryName, ".out", ".txt");
+    }
+
     @Override
     protected ModuleNode parseReport(final Reader reader, final String reportFile, final FilteredLog log) {
         try (var bufferedReader = new BufferedReader(reader);
                 var lines = bufferedReader.lines();
                 var stream = new LookaheadStream(lines, reportFile)) {
-            // Store the coverage information per file in different maps so we can merge them afterward
-            var coveredRangesPerFile = new HashMap<String, List<LineRange>>();
-            var coveredInstructionsPerFile = new HashMap<String, Integer>();
-            var missedRangesPerFile = new HashMap<String, List<LineRange>>();
-            var missedInstructionsPerFile = new HashMap<String, Integer>();
-            var files = new HashSet<FileNode>();
-
-            var builder = new TreeStringBuilder();
-            var modules = new HashSet<ModuleNode>();
-            var projectName = StringUtils.EMPTY;
+            var scanner = new GoCovScanner(getTreeStringBuilder());
             while (stream.hasNext()) {
-                var line = stream.next();
-                var matcher = LINE_PATTERN.matcher(line);
-                if (matcher.find()) {
-                    projectName = getOrganisation(matcher) + matcher.group("project");
-
-                    var moduleName = matcher.group("module");
-                    var possibleModule = modules.stream()
-                            .filter(m -> m.getName().equals(moduleName))
-                            .findFirst();
-                    ModuleNode module;
-                    if (possibleModule.isEmpty()) {
-                        module = new ModuleNode(moduleName);
-                        modules.add(module);
-                    }
-                    else {
-                        module = possibleModule.get();
-                    }
-
-                    var packageName = matcher.group("package");
-                    var packageNode = module.findOrCreatePackageNode(packageName);
-
-                    var file = matcher.group("file");
-                    var fileNode = packageNode.findOrCreateFileNode(file,
-                            builder.intern(PATH_UTIL.getRelativePath(Path.of(packageName, file))));
-
-                    var instructions = asInt(matcher, "statements");
-                    var range = new LineRange(asInt(matcher, "lineStart"), asInt(matcher, "lineEnd"));
-                    files.add(fileNode);
-                    if (asInt(matcher, "executions") > 0) {
-                        merge(coveredRangesPerFile, fileNode.getId(), range);
-                        coveredInstructionsPerFile.merge(fileNode.getId(), instructions, Integer::sum);
-                    }
-                    else {
-                        merge(missedRangesPerFile, fileNode.getId(), range);
-                        missedInstructionsPerFile.merge(fileNode.getId(), instructions, Integer::sum);
-                    }
-                }
+                scanner.scanLine(stream.next());
             }
+            scanner.updateValues();
 
-            builder.dedup();
+            handleEmptyResults(reportFile, log, scanner.isEmpty());
 
-            buildCoverages(files,
-                    coveredInstructionsPerFile, missedInstructionsPerFile,
-                    coveredRangesPerFile, missedRangesPerFile);
-
-            handleEmptyResults(reportFile, log, modules.isEmpty());
-
-            var container = new ModuleNode(projectName);
-            container.addAllChildren(modules);
+            var container = new ModuleNode(scanner.getProjectName());
+            container.addAllChildren(scanner.getModules());
             return container;
         }
         catch (IOException exception) {
@@ -140,58 +130,183 @@ public class GoCovParser extends CoverageParser {
         }
     }
 
-    private String getOrganisation(final Matcher matcher) {
-        var org = matcher.group("org");
-        if (org == null) {
-            return StringUtils.EMPTY;
+    /**
+     * Parses a Go coverage report while it is being written. Since the name of the root is the name of the project,
+     * the root is created when the first block has been read. Before, the root is an empty module without name.
+     */
+    private static final class GoCovSession extends IncrementalParserSession {
+        private final GoCovScanner scanner = new GoCovScanner(new TreeStringBuilder());
+        private ModuleNode root = new ModuleNode(StringUtils.EMPTY);
+        private int moduleCount;
+
+        GoCovSession(final Path report, final Charset charset) {
+            super(report, charset);
         }
-        return org + "/";
-    }
 
-    private void buildCoverages(final Set<FileNode> files,
-            final Map<String, Integer> coveredInstructionsPerFile,
-            final Map<String, Integer> missedInstructionsPerFile,
-            final Map<String, List<LineRange>> coveredRangesPerFile,
-            final Map<String, List<LineRange>> missedRangesPerFile) {
-        var lineBuilder = new CoverageBuilder().withMetric(Metric.LINE);
-        var instructionBuilder = new CoverageBuilder().withMetric(Metric.INSTRUCTION);
-        for (FileNode file : files) {
-            var coveredInstructions = coveredInstructionsPerFile.getOrDefault(file.getId(), 0);
-            var missedInstructions = missedInstructionsPerFile.getOrDefault(file.getId(), 0);
-            file.addValue(instructionBuilder.withCovered(coveredInstructions).withMissed(missedInstructions).build());
+        @Override
+        public ModuleNode getRoot() {
+            return root;
+        }
 
-            var coveredLines = getLines(coveredRangesPerFile, file);
-            var missedLines = getLines(missedRangesPerFile, file);
-            missedLines.removeAll(coveredLines);
+        @Override
+        void scanLine(final char[] buffer, final int start, final int end) {
+            scanner.scanLine(CharBuffer.wrap(buffer, start, end - start));
+        }
 
-            file.addValue(lineBuilder.withCovered(coveredLines.size()).withMissed(missedLines.size()).build());
+        @Override
+        void applyChanges() {
+            scanner.updateValues();
 
-            coveredLines.forEach(line -> file.addCounters(line, 1, 0));
-            missedLines.forEach(line -> file.addCounters(line, 0, 1));
+            if (scanner.isEmpty()) {
+                return;
+            }
+            if (moduleCount == 0) {
+                root = new ModuleNode(scanner.getProjectName());
+            }
+            var modules = scanner.getModules();
+            for (int i = moduleCount; i < modules.size(); i++) {
+                root.addChild(modules.get(i));
+            }
+            moduleCount = modules.size();
         }
     }
 
-    private List<Integer> getLines(final Map<String, List<LineRange>> coveredRangesPerFile, final FileNode file) {
-        return coveredRangesPerFile.getOrDefault(file.getId(), List.of()).stream()
-                .map(LineRange::getLines)
-                .flatMap(Collection::stream)
-                .collect(Collectors.toList());
-    }
+    /**
+     * Scans the blocks of a Go coverage report. The statements and lines of the blocks are accumulated per file, the
+     * values of the {@link FileNode} instances are written on request for all files that have been changed since the
+     * last request.
+     */
+    private static final class GoCovScanner {
+        private final TreeStringBuilder builder;
+        private final Map<String, ModuleNode> modules = new LinkedHashMap<>();
+        private final Map<String, FileState> files = new HashMap<>();
+        private final Set<FileState> changedFiles = new LinkedHashSet<>();
+        private String projectName = StringUtils.EMPTY;
 
-    private void merge(final Map<String, List<LineRange>> map, final String key, final LineRange value) {
-        map.merge(key, new ArrayList<>(List.of(value)),
-                (oldValue, newValue) -> {
-                    oldValue.addAll(newValue);
-                    return oldValue;
-                });
+        GoCovScanner(final TreeStringBuilder builder) {
+            this.builder = builder;
+        }
+
+        boolean isEmpty() {
+            return modules.isEmpty();
+        }
+
+        String getProjectName() {
+            return projectName;
+        }
+
+        List<ModuleNode> getModules() {
+            return new ArrayList<>(modules.values());
+        }
+
+        void scanLine(final CharSequence line) {
+            var matcher = LINE_PATTERN.matcher(line);
+            if (matcher.find()) {
+                projectName = getOrganisation(matcher) + matcher.group("project");
+
+                var file = files.computeIfAbsent(
+                        line.subSequence(matcher.start("module"), matcher.end("file")).toString(),
+                        key -> createFileState(matcher));
+                file.addBlock(asInt(matcher, "lineStart"), asInt(matcher, "lineEnd"),
+                        asInt(matcher, "statements"), asInt(matcher, "executions") > 0);
+                changedFiles.add(file);
+            }
+        }
+
+        private FileState createFileState(final Matcher matcher) {
+            var module = modules.computeIfAbsent(matcher.group("module"), ModuleNode::new);
+
+            var packageName = matcher.group("package");
+            var packageNode = module.findOrCreatePackageNode(packageName);
+
+            var file = matcher.group("file");
+            return new FileState(packageNode.findOrCreateFileNode(file,
+                    builder.intern(PATH_UTIL.getRelativePath(Path.of(packageName, file)))));
+        }
+
+        void updateValues() {
+            changedFiles.forEach(FileState::updateValues);
+            changedFiles.clear();
+        }
+
+        private String getOrganisation(final Matcher matcher) {
+            var org = matcher.group("org");
+            if (org == null) {
+                return StringUtils.EMPTY;
+            }
+            return org + "/";
+        }
+
+        private int asInt(final Matcher matcher, final String group) {
+            try {
+                return Integer.parseInt(matcher.group(group));
+            }
+            catch (NumberFormatException exception) {
+                return 0;
+            }
+        }
     }
 
-    private int asInt(final Matcher matcher, final String group) {
-        try {
-            return Integer.parseInt(matcher.group(group));
+    /**
+     * The accumulated blocks of a source file. The lines of the blocks are counted per line, since overlapping blocks
+     * contribute each of their lines to the line coverage. A line is covered if a covered block contains it, and missed
+     * if only missed blocks contain it.
+     */
+    private static final class FileState {
+        private static final int INITIAL_CAPACITY = 256;
+
+        private final FileNode fileNode;
+        private int[] coveredBlocksPerLine = new int[INITIAL_CAPACITY];
+        private int[] missedBlocksPerLine = new int[INITIAL_CAPACITY];
+        private int coveredInstructions;
+        private int missedInstructions;
+        private int coveredLines;
+        private int missedLines;
+
+        FileState(final FileNode fileNode) {
+            this.fileNode = fileNode;
         }
-        catch (NumberFormatException exception) {
-            return 0;
+
+        void addBlock(final int lineStart, final int lineEnd, final int statements, final boolean isCovered) {
+            int first = Math.min(lineStart, lineEnd);
+            int last = Math.max(lineStart, lineEnd);
+            ensureCapacity(last);
+            if (isCovered) {
+                coveredInstructions += statements;
+                for (int line = first; line <= last; line++) {
+                    if (coveredBlocksPerLine[line] == 0) {
+                        missedLines -= missedBlocksPerLine[line];
+                        fileNode.addCounters(line, 1, 0);
+                    }
+                    coveredBlocksPerLine[line]++;
+                    coveredLines++;
+                }
+            }
+            else {
+                missedInstructions += statements;
+                for (int line = first; line <= last; line++) {
+                    if (coveredBlocksPerLine[line] == 0) {
+                        missedLines++;
+                        fileNode.addCounters(line, 0, 1);
+                    }
+                    missedBlocksPerLine[line]++;
+                }
+            }
+        }
+
+        private void ensureCapacity(final int line) {
+            if (line >= coveredBlocksPerLine.length) {
+                int capacity = Math.max(line + 1, coveredBlocksPerLine.length * 2);
+                coveredBlocksPerLine = Arrays.copyOf(coveredBlocksPerLine, capacity);
+                missedBlocksPerLine = Arrays.copyOf(missedBlocksPerLine, capacity);
+            }
+        }
+
+        void updateValues() {
+            fileNode.replaceValue(new CoverageBuilder().withMetric(Metric.INSTRUCTION)
+                    .withCovered(coveredInstructions).withMissed(missedInstructions).build());
+            fileNode.replaceValue(new CoverageBuilder().withMetric(Metric.LINE)
+                    .withCovered(coveredLines).withMissed(missedLines).build());
         }
     }
 }
@@ -0,0 +1,210 @@
+package edu.hm.hafner.coverage.parser;
+
+import edu.hm.hafner.coverage.CoverageParser.ParsingException;
+import edu.hm.hafner.coverage.CoveragePool;
+import edu.hm.hafner.coverage.ModuleNode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Parses a line based coverage report that is still being written, e.g., by a long-running test suite. Each call of
+ * {@link #update()} reads only the bytes that have been appended since the previous call and applies the new records to
+ * the tree of the session. The {@link edu.hm.hafner.coverage.FileNode file nodes} of the tree are changed in place, so
+ * all aggregated values of the tree reflect the new records immediately.
+ *
+ * <p>
+ * The session remembers the byte offset of the report and the state of incomplete records: a line is scanned only if
+ * its line break has been written, records that consist of several lines are applied when they are complete. When the
+ * report has been written completely, {@link #finish()} applies the remaining content as well.
+ * </p>
+ *
+ * <p>
+ * A session is not thread safe: the tree must not be read while the session is updated. If the report is truncated or
+ * replaced, then a new session must be created.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public abstract class IncrementalParserSession {
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final Path report;
+    private final CharsetDecoder decoder;
+    private final ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CharBuffer output = CharBuffer.allocate(BUFFER_SIZE);
+
+    private char[] line = new char[BUFFER_SIZE];
+    private int lineLength;
+    private long offset;
+    private boolean isFirstCharacter = true;
+
+    IncrementalParserSession(final Path report, final Charset charset) {
+        this.report = report;
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Returns the root of the tree that contains the records that have been read so far.
+     *
+     * @return the root of the tree
+     */
+    public abstract ModuleNode getRoot();
+
+    /**
+     * Returns the number of bytes of the report that have been read so far.
+     *
+     * @return the offset of the next byte to read
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Reads the content that has been appended to the report since the last update and applies the complete records
+     * to the tree.
+     *
+     * @return {@code true} if new lines have been read, {@code false} if the report did not change
+     * @throws ParsingException
+     *         if the report cannot be read, has been truncated, or contains invalid records
+     */
+    public boolean update() {
+        try (var channel = FileChannel.open(report, StandardOpenOption.READ)) {
+            var size = channel.size();
+            if (size < offset) {
+                throw new ParsingException("Report '%s' has been truncated from %d to %d bytes",
+                        report, offset, size);
+            }
+            boolean hasNewLines = false;
+            channel.position(offset);
+            while (channel.read(input) > 0) {
+                offset = channel.position();
+                hasNewLines |= decode(false);
+            }
+            if (hasNewLines) {
+                applyChanges();
+            }
+            return hasNewLines;
+        }
+        catch (IOException exception) {
+            throw new ParsingException(exception, "Can't read report '%s'", report);
+        }
+        catch (NumberFormatException exception) {
+            throw new ParsingException(exception);
+        }
+    }
+
+    /**
+     * Reads the remaining content of a report that will not be written anymore. In contrast to {@link #update()}, the
+     * last line is scanned even if it has no line break, and an incomplete last record is applied to the tree. If a
+     * {@link CoveragePool#getShared() shared pool} is set, then the strings of the final tree are interned.
+     *
+     * @throws ParsingException
+     *         if the report cannot be read, has been truncated, or contains invalid records
+     */
+    public void finish() {
+        update();
+        try {
+            decode(true);
+            if (lineLength > 0) {
+                scanLine(line, 0, lineLength);
+                lineLength = 0;
+            }
+            finishRecords();
+            applyChanges();
+            CoveragePool.getShared().ifPresent(pool -> pool.intern(getRoot()));
+        }
+        catch (NumberFormatException exception) {
+            throw new ParsingException(exception);
+        }
+    }
+
+    /**
+     * Decodes the bytes of the input buffer and scans all complete lines. Bytes of an incomplete character remain in
+     * the input buffer, characters of an incomplete line are copied to the line buffer.
+     */
+    private boolean decode(final boolean isEndOfInput) {
+        boolean hasNewLines = false;
+        input.flip();
+        while (true) {
+            var result = decoder.decode(input, output, isEndOfInput);
+            output.flip();
+            hasNewLines |= scanLines();
+            output.clear();
+            if (result.isUnderflow()) {
+                break;
+            }
+        }
+        if (isEndOfInput) {
+            decoder.flush(output);
+            output.flip();
+            hasNewLines |= scanLines();
+            output.clear();
+            decoder.reset();
+        }
+        input.compact();
+        return hasNewLines;
+    }
+
+    private boolean scanLines() {
+        boolean hasNewLines = false;
+        while (output.hasRemaining()) {
+            char character = output.get();
+            if (isFirstCharacter) {
+                isFirstCharacter = false;
+                if (character == BYTE_ORDER_MARK) {
+                    continue;
+                }
+            }
+            if (character == '\n') {
+                scanLine(line, 0, lineLength);
+                lineLength = 0;
+                hasNewLines = true;
+            }
+            else {
+                if (lineLength == line.length) {
+                    line = Arrays.copyOf(line, line.length * 2); // a line that does not fit into the buffer
+                }
+                line[lineLength++] = character;
+            }
+        }
+        return hasNewLines;
+    }
+
+    /**
+     * Scans a complete line of the report. The line does not contain the line break.
+     *
+     * @param buffer
+     *         the buffer that contains the line
+     * @param start
+     *         the index of the first character of the line
+     * @param end
+     *         the index after the last character of the line
+     */
+    abstract void scanLine(char[] buffer, int start, int end);
+
+    /**
+     * Applies incomplete records at the end of the report.
+     */
+    void finishRecords() {
+        // all records are complete by default
+    }
+
+    /**
+     * Writes the changes of the lines that have been scanned since the last call to the tree.
+     */
+    void applyChanges() {
+        // changes are written by scanLine by default
+    }
+}
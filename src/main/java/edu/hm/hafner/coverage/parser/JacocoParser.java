@@ -12,6 +12,7 @@ import org.apache.commons.lang3.Strings;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 
 import edu.hm.hafner.coverage.ClassNode;
+import edu.hm.hafner.coverage.Coverage;
 import edu.hm.hafner.coverage.Coverage.CoverageBuilder;
 import edu.hm.hafner.coverage.CoverageParser;
 import edu.hm.hafner.coverage.FileNode;
@@ -23,20 +24,38 @@ import edu.hm.hafner.coverage.PackageNode;
 import edu.hm.hafner.coverage.Value;
 import edu.hm.hafner.util.FilteredLog;
 import edu.hm.hafner.util.PathUtil;
-import edu.hm.hafner.util.SecureXmlParserFactory;
 import edu.hm.hafner.util.TreeString;
+import edu.hm.hafner.util.TreeStringBuilder;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.Serial;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Parses JaCoCo reports into a hierarchical Java Object Model.
  *
  * @author Melissa Bauer
  */
-@SuppressWarnings("PMD.GodClass")
+@SuppressWarnings({"PMD.GodClass", "PMD.CouplingBetweenObjects", "checkstyle:ClassDataAbstractionCoupling"})
 public class JacocoParser extends CoverageParser {
     @Serial
     private static final long serialVersionUID = -6021749565311262221L;
@@ -71,6 +90,15 @@ public class JacocoParser extends CoverageParser {
     private static final String VALUE_INSTRUCTION = "INSTRUCTION";
     private static final String VALUE_LINE = "LINE";
 
+    /** The counters of the report that are part of the summary. */
+    private static final Set<String> SUMMARY_TYPES = Set.of(VALUE_LINE, VALUE_INSTRUCTION, VALUE_BRANCH,
+            VALUE_COMPLEXITY, "METHOD", "CLASS");
+    /** The counters that determine whether an element of the report has been covered at all. */
+    private static final Set<String> BASELINE_TYPES = Set.of(VALUE_LINE, VALUE_INSTRUCTION, VALUE_BRANCH);
+    /** The elements of the report that are counted in the summary. */
+    private static final Map<QName, Metric> SUMMARY_ELEMENTS = Map.of(REPORT, Metric.MODULE, GROUP, Metric.MODULE,
+            PACKAGE, Metric.PACKAGE, SOURCE_FILE, Metric.FILE);
+
     /**
      * Creates a new instance of {@link JacocoParser}.
      */
@@ -91,8 +119,7 @@ public class JacocoParser extends CoverageParser {
     @Override
     protected ModuleNode parseReport(final Reader reader, final String fileName, final FilteredLog log) {
         try {
-            var factory = new SecureXmlParserFactory();
-            var eventReader = factory.createXmlEventReader(reader);
+            var eventReader = XmlReaderFactory.createXmlEventReader(reader);
 
             while (eventReader.hasNext()) {
                 var event = eventReader.nextEvent();
@@ -116,6 +143,267 @@ public class JacocoParser extends CoverageParser {
         }
     }
 
+    /**
+     * Reads only the counters of the report, no nodes are created for the packages, files, classes, and methods. If
+     * the report contains the counters of the whole report, then these counters are used as values of the module.
+     * Otherwise, the counters of all packages are summed up. The coverage of the modules, packages, and files is
+     * derived from the counters of the report, group, package, and source file elements. Together with the lines of
+     * code, the summary contains the same metrics as the aggregated values of the whole tree.
+     */
+    @Override
+    protected ModuleNode parseSummaryReport(final Reader reader, final String fileName, final FilteredLog log) {
+        try {
+            var eventReader = XmlReaderFactory.createXmlEventReader(reader);
+
+            ModuleNode root = null;
+            Map<Metric, Value> reportTotals = new EnumMap<>(Metric.class);
+            Map<Metric, Value> packageTotals = new EnumMap<>(Metric.class);
+            Map<Metric, Value> elementTotals = new EnumMap<>(Metric.class);
+            var parents = new ArrayDeque<QName>(); // the depth of the XML elements is independent of the report size
+            var elementsWithCounters = new BitSet(); // indexed by the depth of the element
+            var elementsWithCoverage = new BitSet();
+            while (eventReader.hasNext()) {
+                var event = eventReader.nextEvent();
+
+                if (event.isStartElement()) {
+                    var startElement = event.asStartElement();
+                    var tagName = startElement.getName();
+                    if (COUNTER.equals(tagName)) {
+                        if (REPORT.equals(parents.peek())) {
+                            addSummaryCounter(reportTotals, startElement);
+                        }
+                        else if (PACKAGE.equals(parents.peek())) {
+                            addSummaryCounter(packageTotals, startElement);
+                        }
+                        elementsWithCounters.set(parents.size() - 1);
+                        if (hasCoverage(startElement)) {
+                            elementsWithCoverage.set(parents.size() - 1);
+                        }
+                    }
+                    else if (REPORT.equals(tagName) && root == null) {
+                        root = new ModuleNode(getValueOf(startElement, NAME));
+                    }
+                    elementsWithCounters.clear(parents.size());
+                    elementsWithCoverage.clear(parents.size());
+                    parents.push(tagName);
+                }
+                else if (event.isEndElement()) {
+                    var tagName = parents.pop();
+                    if (elementsWithCounters.get(parents.size())) {
+                        countSummaryElement(elementTotals, tagName, elementsWithCoverage.get(parents.size()));
+                    }
+                    if (root != null && parents.isEmpty()) {
+                        break;
+                    }
+                }
+            }
+            if (root == null) {
+                handleEmptyResults(fileName, log);
+
+                return new ModuleNode("empty");
+            }
+            Map<Metric, Value> summary = new EnumMap<>(elementTotals);
+            summary.putAll(reportTotals.isEmpty() ? packageTotals : reportTotals);
+            if (summary.get(Metric.LINE) instanceof Coverage lineCoverage) {
+                summary.put(Metric.LOC, new Value(Metric.LOC, lineCoverage.getTotal()));
+            }
+            summary.values().forEach(root::addValue);
+            return root;
+        }
+        catch (XMLStreamException exception) {
+            throw new ParsingException(exception);
+        }
+    }
+
+    private void addSummaryCounter(final Map<Metric, Value> totals, final StartElement startElement) {
+        var currentType = getValueOf(startElement, TYPE);
+
+        if (SUMMARY_TYPES.contains(currentType)) {
+            var value = createValue(currentType,
+                    getIntegerValueOf(startElement, COVERED), getIntegerValueOf(startElement, MISSED));
+            totals.merge(value.getMetric(), value, Value::add);
+        }
+    }
+
+    private static boolean hasCoverage(final StartElement counter) {
+        return BASELINE_TYPES.contains(getValueOf(counter, TYPE)) && getIntegerValueOf(counter, COVERED) > 0;
+    }
+
+    private static void countSummaryElement(final Map<Metric, Value> totals, final QName tagName,
+            final boolean isCovered) {
+        var metric = SUMMARY_ELEMENTS.get(tagName);
+        if (metric != null) {
+            var value = new CoverageBuilder().withMetric(metric)
+                    .withCovered(isCovered ? 1 : 0)
+                    .withMissed(isCovered ? 0 : 1)
+                    .build();
+            totals.merge(metric, value, Value::add);
+        }
+    }
+
+    /**
+     * Parses the specified JaCoCo report using several threads. The report is read into memory and scanned for the
+     * {@code <package>} elements of the report and its groups. These packages are then parsed concurrently and
+     * assembled in the order of the document, together with the groups and report-level counters. The created tree is
+     * identical to the tree that would be created by {@link #parse(Reader, String, FilteredLog)}.
+     *
+     * <p>
+     * Parallel parsing must be requested explicitly with this method: all other methods of this parser parse reports
+     * sequentially, regardless of their size. So callers that already parse several reports concurrently do not start
+     * additional threads for each report.
+     * </p>
+     *
+     * <p>
+     * If the report cannot be split (e.g., since it uses an encoding that is not compatible with ASCII, or it contains
+     * the same package twice), then the report is parsed sequentially.
+     * </p>
+     *
+     * @param report
+     *         the report to parse
+     * @param threads
+     *         the number of threads to use
+     * @param log
+     *         the logger to write messages to
+     *
+     * @return the root of the created tree
+     * @throws ParsingException
+     *         if the content cannot be read by the parser
+     */
+    public ModuleNode parse(final Path report, final int threads, final FilteredLog log) {
+        var fileName = report.toString();
+        try (var channel = FileChannel.open(report, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                return parse(report, log);
+            }
+            var content = readContent(channel);
+            if (isCompressed(content)) {
+                return parse(report, log);
+            }
+            var charset = detectCharset(content);
+            return parse(() -> parseContent(content, charset, threads, fileName, log), fileName);
+        }
+        catch (IOException exception) {
+            throw new ParsingException(exception, "Can't read report '%s'", fileName);
+        }
+    }
+
+    private ModuleNode parseContent(final ByteBuffer content, final Charset charset, final int threads,
+            final String fileName, final FilteredLog log) {
+        return parseInParallel(content, charset, threads, fileName, log).orElseGet(
+                () -> parseReport(content, charset, fileName, log));
+    }
+
+    private Optional<ModuleNode> parseInParallel(final ByteBuffer content, final Charset charset, final int threads,
+            final String fileName, final FilteredLog log) {
+        if (threads > 1 && isAsciiCompatible(charset)) {
+            var splitter = new ReportSplitter(content);
+            if (splitter.split(content.position())) {
+                return parseSegments(splitter, charset, threads, fileName, log);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Parses the packages of the split report concurrently and assembles the tree in document order. All packages
+     * intern their paths with the string builder of the running parse invocation, so the paths of the packages share
+     * their common prefixes. If the tree cannot be assembled exactly like the sequential parser would do, then an
+     * empty result is returned and the reason is written to the log. In this case, the sequential parser also reports
+     * any errors.
+     */
+    @SuppressWarnings({"PMD.CognitiveComplexity", "PMD.CyclomaticComplexity"})
+    private Optional<ModuleNode> parseSegments(final ReportSplitter splitter, final Charset charset,
+            final int threads, final String fileName, final FilteredLog log) {
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            var content = splitter.getContent();
+            var paths = getTreeStringBuilder();
+            var packages = new ArrayDeque<Future<PackageNode>>();
+            for (Segment segment : splitter.getSegments()) {
+                if (segment.getType() == SegmentType.PACKAGE) {
+                    var slice = content.slice(segment.getStart(), segment.getLength());
+                    packages.add(executor.submit(() -> readPackageSegment(slice, charset, paths, fileName)));
+                }
+            }
+
+            var root = new ModuleNode(getValueOf(readTag(content, splitter.getReport(), charset), NAME));
+            var modules = new ArrayDeque<ModuleNode>();
+            var packageNames = new ArrayDeque<Set<String>>();
+            modules.push(root);
+            packageNames.push(new HashSet<>());
+            for (Segment segment : splitter.getSegments()) {
+                var module = modules.element();
+                switch (segment.getType()) {
+                    case PACKAGE -> {
+                        var packageNode = packages.remove().get();
+                        if (!packageNames.element().add(packageNode.getName())) {
+                            log.logInfo("Parsing '%s' sequentially since it contains the package '%s' twice",
+                                    fileName, packageNode.getName());
+                            return Optional.empty(); // the sequential parser merges the content of duplicate packages
+                        }
+                        module.addChild(packageNode);
+                    }
+                    case GROUP_START -> {
+                        modules.push(new ModuleNode(getValueOf(readTag(content, segment, charset), NAME)));
+                        packageNames.push(new HashSet<>());
+                    }
+                    case GROUP_END -> {
+                        var group = modules.pop();
+                        var groupPackageNames = packageNames.pop();
+                        modules.element().addChild(group);
+                        packageNames.element().addAll(groupPackageNames);
+                    }
+                    case COUNTER -> readValueCounter(module, readTag(content, segment, charset));
+                    default -> throw new IllegalStateException("Unexpected segment " + segment.getType());
+                }
+            }
+            return Optional.of(root);
+        }
+        catch (ExecutionException | XMLStreamException | IllegalArgumentException exception) {
+            var cause = exception instanceof ExecutionException ? exception.getCause() : exception;
+            log.logInfo("Parsing '%s' sequentially since the packages cannot be parsed in parallel: %s",
+                    fileName, cause.getMessage());
+            return Optional.empty();
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+
+            throw new ParsingException(exception, "Parsing of '%s' has been interrupted", fileName);
+        }
+        finally {
+            executor.shutdownNow();
+            executor.close(); // running packages still intern their paths with the shared string builder
+        }
+    }
+
+    private PackageNode readPackageSegment(final ByteBuffer segment, final Charset charset,
+            final TreeStringBuilder paths, final String fileName) throws XMLStreamException {
+        var reader = XmlReaderFactory.createXmlEventReader(
+                new InputStreamReader(asInputStream(segment), charset));
+        return readPackage(reader, new ModuleNode(EMPTY), nextStartElement(reader), paths, fileName);
+    }
+
+    private StartElement readTag(final ByteBuffer content, final Segment segment, final Charset charset)
+            throws XMLStreamException {
+        var bytes = new byte[segment.getLength()];
+        content.get(segment.getStart(), bytes);
+        var tag = new String(bytes, charset);
+        if (!tag.endsWith("/>")) {
+            tag = tag.substring(0, tag.length() - 1) + "/>";
+        }
+        return nextStartElement(XmlReaderFactory.createXmlEventReader(new StringReader(tag)));
+    }
+
+    private StartElement nextStartElement(final XMLEventReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            var event = reader.nextEvent();
+            if (event.isStartElement()) {
+                return event.asStartElement();
+            }
+        }
+        throw new XMLStreamException("No start element found");
+    }
+
     @CanIgnoreReturnValue
     private ModuleNode readModule(final XMLEventReader reader, final ModuleNode module, final String fileName)
             throws XMLStreamException {
@@ -125,7 +413,7 @@ public class JacocoParser extends CoverageParser {
             if (event.isStartElement()) {
                 var startElement = event.asStartElement();
                 if (PACKAGE.equals(startElement.getName())) {
-                    readPackage(reader, module, startElement, fileName);
+                    readPackage(reader, module, startElement, getTreeStringBuilder(), fileName);
                 }
                 else if (GROUP.equals(startElement.getName())) {
                     var subModule = new ModuleNode(getValueOf(startElement, NAME));
@@ -152,7 +440,8 @@ public class JacocoParser extends CoverageParser {
 
     @CanIgnoreReturnValue
     private PackageNode readPackage(final XMLEventReader reader, final ModuleNode root,
-            final StartElement startElement, final String fileName) throws XMLStreamException {
+            final StartElement startElement, final TreeStringBuilder paths, final String fileName)
+            throws XMLStreamException {
         var packageName = getValueOf(startElement, NAME);
         var packageNode = root.findOrCreatePackageNode(packageName);
         while (reader.hasNext()) {
@@ -161,10 +450,10 @@ public class JacocoParser extends CoverageParser {
             if (event.isStartElement()) {
                 var nextElement = event.asStartElement();
                 if (CLASS.equals(nextElement.getName())) {
-                    readClass(reader, packageNode, packageName, nextElement, fileName);
+                    readClass(reader, packageNode, packageName, nextElement, paths, fileName);
                 }
                 else if (SOURCE_FILE.equals(nextElement.getName())) {
-                    readSourceFile(reader, packageNode, packageName, nextElement, fileName);
+                    readSourceFile(reader, packageNode, packageName, nextElement, paths, fileName);
                 }
                 else if (COUNTER.equals(startElement.getName())) {
                     readValueCounter(packageNode, startElement);
@@ -181,13 +470,15 @@ public class JacocoParser extends CoverageParser {
     }
 
     @CanIgnoreReturnValue
-    private Node readClass(final XMLEventReader reader, final PackageNode packageNode,
-            final String packageName, final StartElement startElement, final String fileName) throws XMLStreamException {
+    private Node readClass(final XMLEventReader reader, final PackageNode packageNode, final String packageName,
+            final StartElement startElement, final TreeStringBuilder paths, final String fileName)
+            throws XMLStreamException {
         Optional<String> possibleFileName = getOptionalValueOf(startElement, SOURCE_FILE_NAME);
         ClassNode classNode;
         if (possibleFileName.isPresent()) {
             var classFileName = possibleFileName.get();
-            var fileNode = packageNode.findOrCreateFileNode(classFileName, internPath(packageName, classFileName));
+            var fileNode = packageNode.findOrCreateFileNode(classFileName,
+                    internPath(paths, packageName, classFileName));
 
             classNode = fileNode.findOrCreateClassNode(getValueOf(startElement, NAME));
         }
@@ -217,15 +508,24 @@ public class JacocoParser extends CoverageParser {
         throw createEofException(fileName);
     }
 
-    private TreeString internPath(final String packageName, final String fileName) {
-        return getTreeStringBuilder().intern(PATH_UTIL.getRelativePath(Path.of(packageName, fileName)));
+    /**
+     * Interns the path of a file. The packages of a report might be parsed concurrently, so the access to the shared
+     * string builder is synchronized.
+     */
+    private TreeString internPath(final TreeStringBuilder paths, final String packageName, final String fileName) {
+        var relativePath = PATH_UTIL.getRelativePath(Path.of(packageName, fileName));
+        synchronized (paths) {
+            return paths.intern(relativePath);
+        }
     }
 
     @CanIgnoreReturnValue
-    private Node readSourceFile(final XMLEventReader reader, final PackageNode packageNode,
-            final String packageName, final StartElement startElement, final String fileName) throws XMLStreamException {
+    private Node readSourceFile(final XMLEventReader reader, final PackageNode packageNode, final String packageName,
+            final StartElement startElement, final TreeStringBuilder paths, final String fileName)
+            throws XMLStreamException {
         var sourceFilename = getValueOf(startElement, NAME);
-        var fileNode = packageNode.findOrCreateFileNode(FilenameUtils.getName(sourceFilename), internPath(packageName, sourceFilename));
+        var fileNode = packageNode.findOrCreateFileNode(FilenameUtils.getName(sourceFilename),
+                internPath(paths, packageName, sourceFilename));
 
         while (reader.hasNext()) {
             var event = reader.nextEvent();
@@ -328,4 +628,283 @@ public class JacocoParser extends CoverageParser {
                     .withMissed(missed).build();
         }
     }
+
+    private enum SegmentType {
+        REPORT,
+        PACKAGE,
+        GROUP_START,
+        GROUP_END,
+        COUNTER
+    }
+
+    /**
+     * A range of bytes in the report that contains a package element or a tag at the report or group level.
+     */
+    private static final class Segment {
+        private final SegmentType type;
+        private final int start;
+        private final int end;
+
+        Segment(final SegmentType type, final int start, final int end) {
+            this.type = type;
+            this.start = start;
+            this.end = end;
+        }
+
+        SegmentType getType() {
+            return type;
+        }
+
+        int getStart() {
+            return start;
+        }
+
+        int getLength() {
+            return end - start;
+        }
+    }
+
+    /**
+     * Scans the bytes of a JaCoCo report for the elements below the {@code <report>} element. The content of packages
+     * is skipped by searching for the closing tag, so only a small part of the report needs to be inspected. The
+     * scanner is conservative: if the report uses any construct it does not understand (CDATA sections, document type
+     * definitions with internal subsets, unbalanced groups, etc.), then it gives up and the report is parsed
+     * sequentially.
+     */
+    @SuppressWarnings({"PMD.CognitiveComplexity", "PMD.CyclomaticComplexity", "PMD.NPathComplexity"})
+    private static final class ReportSplitter {
+        private final ByteBuffer content;
+        private final int limit;
+        private final List<Segment> segments = new ArrayList<>();
+        private Segment report;
+
+        ReportSplitter(final ByteBuffer content) {
+            this.content = content;
+            limit = content.limit();
+        }
+
+        ByteBuffer getContent() {
+            return content;
+        }
+
+        Segment getReport() {
+            return report;
+        }
+
+        List<Segment> getSegments() {
+            return segments;
+        }
+
+        boolean split(final int offset) {
+            int position = skipProlog(offset);
+            if (position < 0 || !isElement(position + 1, "report")) {
+                return false;
+            }
+            int end = findTagEnd(position);
+            if (end < 0) {
+                return false;
+            }
+            report = new Segment(SegmentType.REPORT, position, end + 1);
+            if (isEmptyElement(end)) {
+                return true;
+            }
+            return splitModule(end + 1);
+        }
+
+        private int skipProlog(final int offset) {
+            int position = offset;
+            while (true) {
+                int open = indexOf('<', position);
+                if (open < 0 || open + 1 >= limit) {
+                    return -1;
+                }
+                if (content.get(open + 1) != '!' && content.get(open + 1) != '?') {
+                    return open;
+                }
+                position = skipMarkup(open);
+                if (position < 0) {
+                    return -1;
+                }
+            }
+        }
+
+        /**
+         * Skips comments, processing instructions, and document type declarations without internal subset.
+         */
+        private int skipMarkup(final int open) {
+            if (startsWith(open, "<!--")) {
+                return endOf(indexOf("-->", open + 4), 3);
+            }
+            if (startsWith(open, "<?")) {
+                return endOf(indexOf("?>", open + 2), 2);
+            }
+            if (startsWith(open, "<!DOCTYPE")) {
+                int close = indexOf('>', open);
+                if (close < 0 || indexOf('[', open, close) >= 0) {
+                    return -1; // internal subsets might define entities
+                }
+                return close + 1;
+            }
+            return -1;
+        }
+
+        private boolean splitModule(final int offset) {
+            int position = offset;
+            int openGroups = 0;
+            while (true) {
+                int open = indexOf('<', position);
+                if (open < 0 || open + 1 >= limit) {
+                    return false;
+                }
+                byte next = content.get(open + 1);
+                if (next == '!' || next == '?') {
+                    position = skipMarkup(open);
+                    if (position < 0) {
+                        return false;
+                    }
+                }
+                else if (next == '/') {
+                    int close = indexOf('>', open);
+                    if (close < 0) {
+                        return false;
+                    }
+                    if (isElement(open + 2, "report")) {
+                        return openGroups == 0;
+                    }
+                    if (isElement(open + 2, "group")) {
+                        if (openGroups == 0) {
+                            return false;
+                        }
+                        openGroups--;
+                        segments.add(new Segment(SegmentType.GROUP_END, open, close + 1));
+                    }
+                    position = close + 1;
+                }
+                else {
+                    int end = findTagEnd(open);
+                    if (end < 0) {
+                        return false;
+                    }
+                    position = end + 1;
+                    if (isElement(open + 1, "package")) {
+                        if (!isEmptyElement(end)) {
+                            position = findPackageEnd(end + 1);
+                            if (position < 0) {
+                                return false;
+                            }
+                        }
+                        segments.add(new Segment(SegmentType.PACKAGE, open, position));
+                    }
+                    else if (isElement(open + 1, "group")) {
+                        segments.add(new Segment(SegmentType.GROUP_START, open, end + 1));
+                        if (isEmptyElement(end)) {
+                            segments.add(new Segment(SegmentType.GROUP_END, end + 1, end + 1));
+                        }
+                        else {
+                            openGroups++;
+                        }
+                    }
+                    else if (isElement(open + 1, "counter")) {
+                        segments.add(new Segment(SegmentType.COUNTER, open, end + 1));
+                    }
+                    else if (isElement(open + 1, "report")) {
+                        return false;
+                    }
+                }
+            }
+        }
+
+        private int findPackageEnd(final int offset) {
+            int position = offset;
+            while (true) {
+                int open = indexOf('<', position);
+                if (open < 0 || open + 1 >= limit) {
+                    return -1;
+                }
+                if (content.get(open + 1) == '/' && isElement(open + 2, "package")) {
+                    return endOf(indexOf('>', open), 1);
+                }
+                if (content.get(open + 1) == '!' && !startsWith(open, "<!--")) {
+                    return -1; // CDATA sections might contain markup
+                }
+                position = open + 1;
+            }
+        }
+
+        private int findTagEnd(final int open) {
+            byte quote = 0;
+            for (int i = open + 1; i < limit; i++) {
+                byte current = content.get(i);
+                if (quote != 0) {
+                    if (current == quote) {
+                        quote = 0;
+                    }
+                }
+                else if (current == '"' || current == '\'') {
+                    quote = current;
+                }
+                else if (current == '>') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private boolean isEmptyElement(final int end) {
+            return content.get(end - 1) == '/';
+        }
+
+        private boolean isElement(final int position, final String name) {
+            if (!startsWith(position, name)) {
+                return false;
+            }
+            int next = position + name.length();
+            if (next >= limit) {
+                return false;
+            }
+            byte current = content.get(next);
+            return current == '>' || current == '/' || current == ' ' || current == '\t'
+                    || current == '\n' || current == '\r';
+        }
+
+        private boolean startsWith(final int position, final String prefix) {
+            if (position + prefix.length() > limit) {
+                return false;
+            }
+            for (int i = 0; i < prefix.length(); i++) {
+                if (content.get(position + i) != prefix.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int indexOf(final char character, final int from) {
+            return indexOf(character, from, limit);
+        }
+
+        private int indexOf(final char character, final int from, final int to) {
+            for (int i = from; i < to; i++) {
+                if (content.get(i) == character) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int indexOf(final String text, final int from) {
+            int position = from;
+            while (true) {
+                int candidate = indexOf(text.charAt(0), position);
+                if (candidate < 0 || startsWith(candidate, text)) {
+                    return candidate;
+                }
+                position = candidate + 1;
+            }
+        }
+
+        private int endOf(final int position, final int length) {
+            return position < 0 ? -1 : position + length;
+        }
+    }
 }
@@ -9,6 +9,7 @@ import javax.xml.stream.events.XMLEvent;
 import edu.hm.hafner.coverage.ModuleNode;
 import edu.hm.hafner.coverage.TestCase;
 import edu.hm.hafner.coverage.TestCase.TestCaseBuilder;
+import edu.hm.hafner.coverage.TestCaseStoragePolicy;
 
 import java.io.Serial;
 
@@ -42,16 +43,25 @@ public class JunitParser extends AbstractTestParser {
      *         determines whether to ignore errors
      */
     public JunitParser(final ProcessingMode processingMode) {
-        super(processingMode, TEST_SUITE, TEST_CASE);
+        this(processingMode, TestCaseStoragePolicy.DEFAULT);
+    }
+
+    /**
+     * Creates a new instance of {@link JunitParser}.
+     *
+     * @param processingMode
+     *         determines whether to ignore errors
+     * @param storagePolicy
+     *         determines how the messages and descriptions of the test cases are stored
+     */
+    public JunitParser(final ProcessingMode processingMode, final TestCaseStoragePolicy storagePolicy) {
+        super(processingMode, storagePolicy, TEST_SUITE, TEST_CASE);
     }
 
     @Override
     TestCase readTestCase(final XMLEventReader reader, final StartElement testCaseElement,
-            final String suiteName, final ModuleNode root, final String fileName) throws XMLStreamException {
-        var builder = new TestCaseBuilder();
-
-        builder.withTestName(getOptionalValueOf(testCaseElement, NAME).orElse(createId()));
-
+            final TestCaseBuilder builder, final String suiteName, final ModuleNode root, final TestCounters counters,
+            final String fileName) throws XMLStreamException {
         while (reader.hasNext()) {
             var event = reader.nextEvent();
 
@@ -67,8 +77,9 @@ public class JunitParser extends AbstractTestParser {
                 var packageName = createPackageForClass(className);
                 var packageNode = root.findOrCreatePackageNode(packageName);
                 var classNode = packageNode.findOrCreateClassNode(className);
-                classNode.addTestCase(builder.build());
-                return builder.build();
+                var testCase = builder.build();
+                addTestCase(counters, classNode, testCase);
+                return testCase;
             }
         }
         throw createEofException(fileName);
@@ -101,7 +112,7 @@ public class JunitParser extends AbstractTestParser {
         while (true) {
             var event = reader.nextEvent();
             if (event.isCharacters()) {
-                aggregatedContent.append(event.asCharacters().getData());
+                appendDescription(aggregatedContent, event.asCharacters().getData());
             }
             else if (event.isEndElement() && isFailure(event)) {
                 builder.withDescription(aggregatedContent.toString());
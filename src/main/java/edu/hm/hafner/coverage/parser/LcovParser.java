@@ -1,29 +1,46 @@
 package edu.hm.hafner.coverage.parser;
 
-import org.apache.commons.lang3.tuple.MutablePair;
+import org.apache.commons.lang3.Strings;
 
 import edu.hm.hafner.coverage.Coverage.CoverageBuilder;
 import edu.hm.hafner.coverage.CoverageParser;
 import edu.hm.hafner.coverage.FileNode;
+import edu.hm.hafner.coverage.MethodNode;
 import edu.hm.hafner.coverage.Metric;
 import edu.hm.hafner.coverage.ModuleNode;
 import edu.hm.hafner.coverage.PackageNode;
 import edu.hm.hafner.coverage.Value;
 import edu.hm.hafner.util.FilteredLog;
-import edu.hm.hafner.util.LookaheadStream;
 import edu.hm.hafner.util.PathUtil;
+import edu.hm.hafner.util.TreeStringBuilder;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Serial;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.Set;
 
 /**
- * A parser for LCOV coverage reports.
+ * A parser for LCOV coverage reports. The report is scanned character by character without creating intermediate
+ * strings for the records. The line and branch records of a source file block are accumulated in primitive arrays.
+ * Each completed {@code SF:} ... {@code end_of_record} block is then merged into the state of its {@link FileNode}.
+ * This state keeps the lines and branches of all previous blocks of the source file, since LCOV reports might contain
+ * several blocks for the same file. The covered and total numbers of lines and branches are updated incrementally
+ * while the blocks are merged. Function records ({@code FN}, {@code FNDA}) are mapped to
+ * {@link MethodNode} instances with a {@link Metric#METHOD} coverage. Reports that are still being written can be
+ * parsed incrementally with a {@link #createSession(Path) session}.
+ *
+ * @see <a href="https://man.archlinux.org/man/geninfo.1.en#TRACEFILE_FORMAT">LCOV tracefile format</a>
  */
 public class LcovParser extends CoverageParser {
     @Serial
@@ -31,6 +48,15 @@ public class LcovParser extends CoverageParser {
 
     private static final PathUtil PATH_UTIL = new PathUtil();
 
+    private static final char[] SOURCE_FILE = "SF:".toCharArray();
+    private static final char[] LINE_DATA = "DA:".toCharArray();
+    private static final char[] BRANCH_DATA = "BRDA:".toCharArray();
+    private static final char[] FUNCTION = "FN:".toCharArray();
+    private static final char[] FUNCTION_DATA = "FNDA:".toCharArray();
+    private static final char[] END_OF_RECORD = "end_of_record".toCharArray();
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
     /**
      * Creates a new instance of {@link LcovParser}.
      */
@@ -48,142 +74,680 @@ public class LcovParser extends CoverageParser {
         super(processingMode);
     }
 
+    /**
+     * Accepts LCOV tracefiles, these typically use the extensions {@code .info} or {@code .lcov}.
+     */
+    @Override
+    protected boolean isReportEntry(final String entryName) {
+        return Strings.CI.endsWithAny(entryName, ".info", ".lcov");
+    }
+
     @Override
-    @SuppressWarnings({"PMD.CyclomaticComplexity", "PMD.CognitiveComplexity", "NullAway"})
     protected ModuleNode parseReport(final Reader reader, final String fileName, final FilteredLog log) {
-        var root = new ModuleNode(EMPTY);
-        Map<String, Map<Integer, MutablePair<Integer, Integer>>> files = new LinkedHashMap<>();
-        var currentFile = "-";
-
-        try (var br = new BufferedReader(reader);
-                var lines = br.lines();
-                var stream = new LookaheadStream(lines, fileName)) {
-            while (stream.hasNext()) {
-                var raw = stream.next();
-                var line = raw.trim();
-                if (line.isEmpty()) {
-                    continue;
-                }
-
-                // Source file (SF:<path>)
-                if (line.startsWith("SF:")) {
-                    currentFile = line.substring(3);
-                    files.putIfAbsent(currentFile, new TreeMap<>());
-                }
-
-                // Instruction coverage (DA:<line number>,<execution count>[,<checksum>])
-                else if (line.startsWith("DA:")) {
-                    var parts = line.substring(3).split(",", 3);
-                    var ln = Integer.parseInt(parts[0]);
-                    var isCovered = parts.length > 1 && Long.parseLong(parts[1]) > 0;
-                    var pair = files.getOrDefault(currentFile, new TreeMap<>()).getOrDefault(ln, MutablePair.of(0, 0));
-                    pair.setLeft(isCovered ? 1 : 0);
-                    files.get(currentFile).put(ln, pair);
-                }
-                // Branch coverage (BRDA:<line>,<block>,<branch>,<taken>)
-                else if (line.startsWith("BRDA:")) {
-                    var parts = line.substring(5).split(",", 4);
-                    var ln = Integer.parseInt(parts[0]);
-                    var taken = parts.length > 3 ? parts[3] : "-";
-                    var pair = files.getOrDefault(currentFile, new TreeMap<>()).getOrDefault(ln, MutablePair.of(0, 0));
-                    if (!"-".equals(taken) && Long.parseLong(taken) > 0) {
-                        pair.setRight(pair.getRight() + 1);
-                    }
-                    files.get(currentFile).put(ln, pair);
-                }
-            }
+        var scanner = new LcovScanner(new PackageNode(EMPTY), getTreeStringBuilder());
+        try {
+            scanner.scan(reader);
         }
         catch (IOException | NumberFormatException e) {
             throw new ParsingException(e);
         }
+        return createTree(scanner, fileName, log);
+    }
 
-        if (files.isEmpty()) {
-            handleEmptyResults(fileName, log);
-            return new ModuleNode("empty");
+    /**
+     * Scans the lines of the mapped report directly, if the report uses an encoding that is compatible with ASCII.
+     * Only the lines that contain other characters need to be decoded.
+     */
+    @Override
+    protected ModuleNode parseReport(final ByteBuffer content, final Charset charset, final String fileName,
+            final FilteredLog log) {
+        if (!isAsciiCompatible(charset)) {
+            return super.parseReport(content, charset, fileName, log);
         }
 
-        createCoverages(root, files);
+        var scanner = new LcovScanner(new PackageNode(EMPTY), getTreeStringBuilder());
+        try {
+            scanner.scan(content, charset);
+        }
+        catch (NumberFormatException e) {
+            throw new ParsingException(e);
+        }
+        return createTree(scanner, fileName, log);
+    }
 
-        return root;
+    /**
+     * Creates a new session that parses the specified UTF-8 encoded report incrementally while it is being written.
+     *
+     * @param report
+     *         the report to parse
+     *
+     * @return the new session
+     * @see IncrementalParserSession
+     */
+    public IncrementalParserSession createSession(final Path report) {
+        return createSession(report, StandardCharsets.UTF_8);
     }
 
-    private void createCoverages(final ModuleNode root, final Map<String, Map<Integer, MutablePair<Integer, Integer>>> files) {
-        // Create nodes in model
-        var packageNode = new PackageNode(EMPTY);
+    /**
+     * Creates a new session that parses the specified report incrementally while it is being written.
+     *
+     * @param report
+     *         the report to parse
+     * @param charset
+     *         the charset of the report
+     *
+     * @return the new session
+     * @see IncrementalParserSession
+     */
+    public IncrementalParserSession createSession(final Path report, final Charset charset) {
+        return new LcovSession(report, charset);
+    }
+
+    private ModuleNode createTree(final LcovScanner scanner, final String fileName, final FilteredLog log) {
+        if (scanner.isEmpty()) {
+            handleEmptyResults(fileName, log);
+            return new ModuleNode("empty");
+        }
+
         var moduleNode = new ModuleNode(EMPTY);
-        moduleNode.addChild(packageNode);
+        moduleNode.addChild(scanner.getPackageNode());
+        var root = new ModuleNode(EMPTY);
         root.addChild(moduleNode);
+        return root;
+    }
+
+    /**
+     * Parses an LCOV report while it is being written. The scanner keeps the accumulated state of all files, so each
+     * completed source file block is merged with the previous blocks of the same file. The tree is created upfront, so
+     * it has the same structure as the tree of a complete parse.
+     */
+    private static final class LcovSession extends IncrementalParserSession {
+        private final LcovScanner scanner = new LcovScanner(new PackageNode(EMPTY), new TreeStringBuilder());
+        private final ModuleNode root = new ModuleNode(EMPTY);
+
+        LcovSession(final Path report, final Charset charset) {
+            super(report, charset);
+
+            var moduleNode = new ModuleNode(EMPTY);
+            moduleNode.addChild(scanner.getPackageNode());
+            root.addChild(moduleNode);
+        }
+
+        @Override
+        public ModuleNode getRoot() {
+            return root;
+        }
+
+        @Override
+        void scanLine(final char[] buffer, final int start, final int end) {
+            scanner.scanLine(buffer, start, end);
+        }
+
+        @Override
+        void finishRecords() {
+            scanner.finishBlock(); // the last block might not be terminated
+        }
+    }
+
+    /**
+     * Scans the records of an LCOV report and writes the results of each source file block into a {@link FileNode}.
+     */
+    private static final class LcovScanner {
+        private final PackageNode packageNode;
+        private final TreeStringBuilder treeStringBuilder;
+        private final BlockAccumulator block = new BlockAccumulator();
+        private final Map<String, FileState> files = new HashMap<>();
+
+        LcovScanner(final PackageNode packageNode, final TreeStringBuilder treeStringBuilder) {
+            this.packageNode = packageNode;
+            this.treeStringBuilder = treeStringBuilder;
+        }
+
+        boolean isEmpty() {
+            return files.isEmpty();
+        }
+
+        PackageNode getPackageNode() {
+            return packageNode;
+        }
+
+        void scan(final Reader reader) throws IOException {
+            var buffer = new char[BUFFER_SIZE];
+            int length = 0;
+            int searchStart = 0;
+            int read;
+            while ((read = reader.read(buffer, length, buffer.length - length)) != -1) {
+                length += read;
+                int lineStart = 0;
+                for (int position = searchStart; position < length; position++) {
+                    if (buffer[position] == '\n') {
+                        scanLine(buffer, lineStart, position);
+                        lineStart = position + 1;
+                    }
+                }
+                length -= lineStart;
+                System.arraycopy(buffer, lineStart, buffer, 0, length);
+                searchStart = length;
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2); // a line that does not fit into the buffer
+                }
+            }
+            if (length > 0) {
+                scanLine(buffer, 0, length);
+            }
+            finishBlock(); // the last block might not be terminated
+        }
+
+        void scan(final ByteBuffer content, final Charset charset) {
+            var buffer = new char[BUFFER_SIZE];
+            int limit = content.limit();
+            int lineStart = content.position();
+            while (lineStart < limit) {
+                int lineEnd = lineStart;
+                boolean isAscii = true;
+                while (lineEnd < limit && content.get(lineEnd) != '\n') {
+                    isAscii &= content.get(lineEnd) >= 0;
+                    lineEnd++;
+                }
+                int length = lineEnd - lineStart;
+                if (isAscii) {
+                    if (length > buffer.length) {
+                        buffer = new char[Math.max(length, buffer.length * 2)];
+                    }
+                    for (int i = 0; i < length; i++) {
+                        buffer[i] = (char) content.get(lineStart + i);
+                    }
+                    scanLine(buffer, 0, length);
+                }
+                else {
+                    var line = charset.decode(content.slice(lineStart, length));
+                    scanLine(line.array(), line.arrayOffset() + line.position(), line.arrayOffset() + line.limit());
+                }
+                lineStart = lineEnd + 1;
+            }
+            content.position(limit);
+            finishBlock(); // the last block might not be terminated
+        }
+
+        @SuppressWarnings("PMD.CognitiveComplexity")
+        private void scanLine(final char[] buffer, final int lineStart, final int lineEnd) {
+            int start = lineStart;
+            int end = lineEnd;
+            while (start < end && buffer[start] <= ' ') {
+                start++;
+            }
+            while (end > start && buffer[end - 1] <= ' ') {
+                end--;
+            }
+            if (start == end) {
+                return;
+            }
+
+            if (startsWith(buffer, start, end, LINE_DATA)) {
+                scanLineData(buffer, start + LINE_DATA.length, end);
+            }
+            else if (startsWith(buffer, start, end, BRANCH_DATA)) {
+                scanBranchData(buffer, start + BRANCH_DATA.length, end);
+            }
+            else if (startsWith(buffer, start, end, FUNCTION_DATA)) {
+                scanFunctionData(buffer, start + FUNCTION_DATA.length, end);
+            }
+            else if (startsWith(buffer, start, end, FUNCTION)) {
+                scanFunction(buffer, start + FUNCTION.length, end);
+            }
+            else if (startsWith(buffer, start, end, SOURCE_FILE)) {
+                finishBlock();
+                block.start(new String(buffer, start + SOURCE_FILE.length, end - start - SOURCE_FILE.length));
+            }
+            else if (end - start == END_OF_RECORD.length && startsWith(buffer, start, end, END_OF_RECORD)) {
+                finishBlock();
+            }
+            // all other records (TN, LF, LH, BRF, BRH, FNF, FNH, ...) are derived from the data above
+        }
+
+        /**
+         * Scans {@code DA:<line number>,<execution count>[,<checksum>]}.
+         */
+        private void scanLineData(final char[] buffer, final int start, final int end) {
+            int separator = indexOf(buffer, ',', start, end);
+            int line = parseLineNumber(buffer, start, separator < 0 ? end : separator);
+            boolean isHit = false;
+            if (separator >= 0) {
+                int countEnd = indexOf(buffer, ',', separator + 1, end);
+                isHit = isPositiveCount(buffer, separator + 1, countEnd < 0 ? end : countEnd);
+            }
+            block.addLine(line, isHit);
+        }
+
+        /**
+         * Scans {@code BRDA:<line number>,<block>,<branch>,<taken>}. Since the branch field might contain
+         * commas, the number of times the branch was taken is read from the last field. The block and branch fields
+         * in between identify the branch of the line.
+         */
+        private void scanBranchData(final char[] buffer, final int start, final int end) {
+            int separator = indexOf(buffer, ',', start, end);
+            int line = parseLineNumber(buffer, start, separator < 0 ? end : separator);
+            int lastSeparator = lastIndexOf(buffer, ',', start, end);
+            if (lastSeparator > separator) {
+                block.addBranch(line, new String(buffer, separator + 1, lastSeparator - separator - 1),
+                        isPositiveCount(buffer, lastSeparator + 1, end));
+            }
+            else {
+                block.addBranch(line, EMPTY, false);
+            }
+        }
+
+        /**
+         * Scans {@code FN:<line number>,<function name>} or {@code FN:<start line>,<end line>,<function name>}.
+         */
+        private void scanFunction(final char[] buffer, final int start, final int end) {
+            int separator = indexOf(buffer, ',', start, end);
+            if (separator < 0) {
+                return; // no function name
+            }
+            int line = parseLineNumber(buffer, start, separator);
+            int nameStart = separator + 1;
+            int endLineSeparator = indexOf(buffer, ',', nameStart, end);
+            if (endLineSeparator > nameStart && isNumber(buffer, nameStart, endLineSeparator)) {
+                nameStart = endLineSeparator + 1;
+            }
+            block.addFunction(new String(buffer, nameStart, end - nameStart), line);
+        }
+
+        /**
+         * Scans {@code FNDA:<execution count>,<function name>}.
+         */
+        private void scanFunctionData(final char[] buffer, final int start, final int end) {
+            int separator = indexOf(buffer, ',', start, end);
+            if (separator < 0) {
+                return; // no function name
+            }
+            block.addFunctionHit(new String(buffer, separator + 1, end - separator - 1),
+                    isPositiveCount(buffer, start, separator));
+        }
+
+        private void finishBlock() {
+            if (block.isStarted()) {
+                var path = block.getPath();
+                var state = files.computeIfAbsent(path, this::createFileState);
+                state.add(block);
+                block.reset();
+            }
+        }
+
+        private FileState createFileState(final String path) {
+            var normalized = path.trim().replace('\\', '/');
+            var fileNode = packageNode.findOrCreateFileNode(baseName(normalized),
+                    treeStringBuilder.intern(PATH_UTIL.getRelativePath(Path.of(normalized))));
+            return new FileState(fileNode);
+        }
 
-        var builder = getTreeStringBuilder();
-        var lineBuilder = new CoverageBuilder().withMetric(Metric.LINE);
-        var instructionBuilder = new CoverageBuilder().withMetric(Metric.INSTRUCTION);
+        private static String baseName(final String normalizedPath) {
+            int index = normalizedPath.lastIndexOf('/');
+            return index >= 0 ? normalizedPath.substring(index + 1) : normalizedPath;
+        }
 
-        for (var entry : files.entrySet()) {
-            var path = entry.getKey();
-            String normalized = normalizePath(path);
-            String filename = baseName(normalized);
-            var id = builder.intern(PATH_UTIL.getRelativePath(Path.of(normalized)));
-            var fileNode = packageNode.findOrCreateFileNode(filename, id);
+        private static boolean startsWith(final char[] buffer, final int start, final int end, final char[] prefix) {
+            if (end - start < prefix.length) {
+                return false;
+            }
+            for (int i = 0; i < prefix.length; i++) {
+                if (buffer[start + i] != prefix[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
 
-            // Compute per-file aggregated metrics from the collected per-line data
-            int totalLines = entry.getValue().size();
-            int coveredInstructions = 0;
-            int coveredLines = 0;
-            for (var lineEntry : entry.getValue().entrySet()) {
-                int instrCovered = lineEntry.getValue().getLeft();
-                int branchesCovered = lineEntry.getValue().getRight();
-                if (instrCovered > 0) {
-                    coveredInstructions += instrCovered;
+        private static int indexOf(final char[] buffer, final char character, final int start, final int end) {
+            for (int position = start; position < end; position++) {
+                if (buffer[position] == character) {
+                    return position;
                 }
-                if (instrCovered > 0 || branchesCovered > 0) {
-                    coveredLines++;
+            }
+            return -1;
+        }
+
+        private static int lastIndexOf(final char[] buffer, final char character, final int start, final int end) {
+            for (int position = end - 1; position >= start; position--) {
+                if (buffer[position] == character) {
+                    return position;
                 }
             }
-            int missedInstructions = Math.max(0, totalLines - coveredInstructions);
-            int missedLines = Math.max(0, totalLines - coveredLines);
+            return -1;
+        }
 
-            // Add aggregated values so the aggregator produces PACKAGE/FILE metrics
-            fileNode.addValue(instructionBuilder.withCovered(coveredInstructions).withMissed(missedInstructions).build());
-            fileNode.addValue(lineBuilder.withCovered(coveredLines).withMissed(missedLines).build());
-            fileNode.addValue(new Value(Metric.LOC, totalLines));
+        private static boolean isNumber(final char[] buffer, final int start, final int end) {
+            for (int position = start; position < end; position++) {
+                if (!isDigit(buffer[position])) {
+                    return false;
+                }
+            }
+            return start < end;
+        }
 
-            // Add per-line counters
-            for (var lineEntry : entry.getValue().entrySet()) {
-                int lineNumber = lineEntry.getKey();
-                int instrCovered = lineEntry.getValue().getLeft();
-                int branchesCovered = lineEntry.getValue().getRight();
-                addCounters(fileNode, lineNumber, instrCovered, branchesCovered);
+        private static boolean isDigit(final char character) {
+            return character >= '0' && character <= '9';
+        }
+
+        private static int parseLineNumber(final char[] buffer, final int start, final int end) {
+            if (!isNumber(buffer, start, end) || end - start > 9) {
+                throw createNumberFormatException(buffer, start, end);
+            }
+            int value = 0;
+            for (int position = start; position < end; position++) {
+                value = value * 10 + buffer[position] - '0';
             }
+            return value;
+        }
+
+        /**
+         * Returns whether the specified execution count is greater than zero. The count is not converted to a number,
+         * so arbitrary large counts are supported. A count of {@code -} marks a branch that has not been executed.
+         */
+        private static boolean isPositiveCount(final char[] buffer, final int start, final int end) {
+            if (end - start == 1 && buffer[start] == '-') {
+                return false;
+            }
+            if (!isNumber(buffer, start, end)) {
+                throw createNumberFormatException(buffer, start, end);
+            }
+            for (int position = start; position < end; position++) {
+                if (buffer[position] != '0') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static NumberFormatException createNumberFormatException(final char[] buffer,
+                final int start, final int end) {
+            return new NumberFormatException(
+                    "For input string: \"%s\"".formatted(new String(buffer, start, end - start)));
+        }
+    }
+
+    /**
+     * Accumulates the line, branch, and function records of the current {@code SF:} block. The records are appended
+     * to arrays that are reused for all blocks of a report, so the memory depends on the number of records and not on
+     * the line numbers of the records.
+     */
+    private static final class BlockAccumulator {
+        private static final int INITIAL_CAPACITY = 256;
+
+        private String path = EMPTY;
+        private boolean isStarted;
+
+        private int[] lineNumbers = new int[INITIAL_CAPACITY];
+        private boolean[] lineHits = new boolean[INITIAL_CAPACITY];
+        private int lineCount;
+
+        private int[] branchLines = new int[INITIAL_CAPACITY];
+        private String[] branchIds = new String[INITIAL_CAPACITY];
+        private boolean[] branchesTaken = new boolean[INITIAL_CAPACITY];
+        private int branchCount;
+
+        private final Map<String, FunctionRecord> functions = new LinkedHashMap<>();
+
+        void start(final String sourcePath) {
+            path = sourcePath;
+            isStarted = true;
+        }
+
+        boolean isStarted() {
+            return isStarted;
+        }
+
+        String getPath() {
+            return path;
+        }
+
+        void addLine(final int line, final boolean isHit) {
+            if (!isStarted) {
+                return; // records outside a source file block are skipped
+            }
+            if (lineCount == lineNumbers.length) {
+                lineNumbers = Arrays.copyOf(lineNumbers, lineCount * 2);
+                lineHits = Arrays.copyOf(lineHits, lineCount * 2);
+            }
+            lineNumbers[lineCount] = line;
+            lineHits[lineCount] = isHit;
+            lineCount++;
+        }
+
+        void addBranch(final int line, final String id, final boolean isTaken) {
+            if (!isStarted) {
+                return; // records outside a source file block are skipped
+            }
+            if (branchCount == branchLines.length) {
+                branchLines = Arrays.copyOf(branchLines, branchCount * 2);
+                branchIds = Arrays.copyOf(branchIds, branchCount * 2);
+                branchesTaken = Arrays.copyOf(branchesTaken, branchCount * 2);
+            }
+            branchLines[branchCount] = line;
+            branchIds[branchCount] = id;
+            branchesTaken[branchCount] = isTaken;
+            branchCount++;
+        }
+
+        void addFunction(final String name, final int line) {
+            functions.computeIfAbsent(name, key -> new FunctionRecord(line));
+        }
+
+        void addFunctionHit(final String name, final boolean isHit) {
+            var function = functions.computeIfAbsent(name, key -> new FunctionRecord(0));
+            function.isHit |= isHit;
+        }
+
+        void reset() {
+            Arrays.fill(branchIds, 0, branchCount, null);
+            lineCount = 0;
+            branchCount = 0;
+            functions.clear();
+            path = EMPTY;
+            isStarted = false;
+        }
+    }
+
+    /**
+     * The line number and execution state of a function record.
+     */
+    private static final class FunctionRecord {
+        private final int line;
+        private boolean isHit;
+
+        FunctionRecord(final int line) {
+            this.line = line;
         }
     }
 
-    private void addCounters(final FileNode fileNode, final int lineNumber, final int coveredInstructions, final int coveredBranches) {
-        int missed;
-        int covered;
+    /**
+     * The state of a {@link FileNode} that has already been created. LCOV reports might contain several blocks for
+     * the same source file (e.g., one block per test name), so the state of the previous blocks is required to merge
+     * the results. Branches are identified by their line, block, and branch fields: a branch is covered if it has
+     * been taken in any of the blocks. The totals of the branches are updated with each added branch, so merging a
+     * block does not depend on the size of the previous blocks.
+     */
+    private static final class FileState {
+        private final FileNode fileNode;
+        private final LineSet lines = new LineSet();
+        private final LineSet hitLines = new LineSet();
+        private final LineSet coveredLines = new LineSet();
+        private final Map<Integer, BranchLine> branchesPerLine = new HashMap<>();
+        private final Map<String, MethodNode> methods = new HashMap<>();
+        private int coveredBranches;
+        private int totalBranches;
 
-        // No branches, only instruction coverage
-        if (coveredBranches == 0) {
-            covered = coveredInstructions > 0 ? 1 : 0;
-            missed = covered > 0 ? 0 : 1;
+        FileState(final FileNode fileNode) {
+            this.fileNode = fileNode;
         }
 
-        // Both
-        else {
-            covered = coveredBranches;
-            missed = coveredBranches - coveredInstructions;
+        void add(final BlockAccumulator block) {
+            for (int i = 0; i < block.lineCount; i++) {
+                int line = block.lineNumbers[i];
+                lines.add(line);
+                if (block.lineHits[i]) {
+                    hitLines.add(line);
+                    coveredLines.add(line);
+                }
+            }
+            Map<Integer, BranchLine> changedBranchLines = new LinkedHashMap<>();
+            for (int i = 0; i < block.branchCount; i++) {
+                int line = block.branchLines[i];
+                lines.add(line);
+                var branches = changedBranchLines.computeIfAbsent(line,
+                        key -> branchesPerLine.computeIfAbsent(key, BranchLine::new));
+                int covered = branches.covered;
+                int total = branches.total;
+                branches.add(block.branchIds[i], block.branchesTaken[i]);
+                coveredBranches += branches.covered - covered;
+                totalBranches += branches.total - total;
+            }
+            for (int i = 0; i < block.lineCount; i++) {
+                int line = block.lineNumbers[i];
+                if (!branchesPerLine.containsKey(line)) {
+                    boolean isCovered = hitLines.contains(line);
+                    fileNode.addCounters(line, isCovered ? 1 : 0, isCovered ? 0 : 1);
+                }
+            }
+            for (var branches : changedBranchLines.values()) {
+                fileNode.addCounters(branches.line, branches.covered, branches.total - branches.covered);
+                if (branches.covered > 0) {
+                    coveredLines.add(branches.line);
+                }
+            }
+            for (var function : block.functions.entrySet()) {
+                addFunction(function.getKey(), function.getValue());
+            }
+            updateValues();
+        }
+
+        private void addFunction(final String name, final FunctionRecord function) {
+            var methodNode = methods.get(name);
+            boolean isHit = function.isHit;
+            if (methodNode == null) {
+                methodNode = new MethodNode(name, "", function.line);
+                fileNode.addChild(methodNode);
+                methods.put(name, methodNode);
+            }
+            else {
+                isHit |= methodNode.getValue(Metric.METHOD).map(Value::asInteger).orElse(0) > 0;
+            }
+            methodNode.replaceValue(new CoverageBuilder().withMetric(Metric.METHOD)
+                    .withCovered(isHit ? 1 : 0)
+                    .withMissed(isHit ? 0 : 1)
+                    .build());
+        }
+
+        private void updateValues() {
+            int total = lines.size();
+            int hit = hitLines.size();
+            int covered = coveredLines.size();
+
+            fileNode.replaceValue(new CoverageBuilder().withMetric(Metric.INSTRUCTION)
+                    .withCovered(hit).withMissed(total - hit).build());
+            fileNode.replaceValue(new CoverageBuilder().withMetric(Metric.LINE)
+                    .withCovered(covered).withMissed(total - covered).build());
+            fileNode.replaceValue(new Value(Metric.LOC, total));
+            if (totalBranches > 0) {
+                fileNode.replaceValue(new CoverageBuilder().withMetric(Metric.BRANCH)
+                        .withCovered(coveredBranches).withMissed(totalBranches - coveredBranches).build());
+            }
         }
-        fileNode.addCounters(lineNumber, covered, missed);
     }
 
-    private static String normalizePath(final String path) {
-        return path.trim().replace('\\', '/');
+    /**
+     * The branches of a single line. The branches are stored in arrays and are found by a linear search, since a line
+     * usually has only a few branches. For lines with many branches (e.g., large switch statements), an index of the
+     * branch IDs is created.
+     */
+    private static final class BranchLine {
+        private static final int INITIAL_CAPACITY = 4;
+        private static final int LINEAR_SEARCH_LIMIT = 16;
+
+        private final int line;
+        private String[] ids = new String[INITIAL_CAPACITY];
+        private boolean[] taken = new boolean[INITIAL_CAPACITY];
+        @CheckForNull
+        private Map<String, Integer> indexes;
+        private int total;
+        private int covered;
+
+        BranchLine(final int line) {
+            this.line = line;
+        }
+
+        void add(final String id, final boolean isTaken) {
+            int index = indexOf(id);
+            if (index < 0) {
+                if (total == ids.length) {
+                    ids = Arrays.copyOf(ids, total * 2);
+                    taken = Arrays.copyOf(taken, total * 2);
+                }
+                ids[total] = id;
+                if (indexes != null) {
+                    indexes.put(id, total);
+                }
+                else if (total == LINEAR_SEARCH_LIMIT) {
+                    indexes = new HashMap<>();
+                    for (int i = 0; i <= total; i++) {
+                        indexes.put(ids[i], i);
+                    }
+                }
+                index = total;
+                total++;
+            }
+            if (isTaken && !taken[index]) {
+                taken[index] = true;
+                covered++;
+            }
+        }
+
+        private int indexOf(final String id) {
+            if (indexes != null) {
+                return indexes.getOrDefault(id, -1);
+            }
+            for (int i = 0; i < total; i++) {
+                if (ids[i].equals(id)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
     }
 
-    private static String baseName(final String normalizedPath) {
-        if (normalizedPath.isEmpty()) {
-            return "";
+    /**
+     * A set of line numbers. Small line numbers are stored in a {@link BitSet}, larger line numbers in a hash set. So
+     * a single large line number of a broken report does not allocate the memory for all preceding lines.
+     */
+    private static final class LineSet {
+        private static final int DENSE_LIMIT = 1 << 16;
+
+        private final BitSet denseLines = new BitSet();
+        private final Set<Integer> sparseLines = new HashSet<>();
+        private int size;
+
+        void add(final int line) {
+            if (line < DENSE_LIMIT) {
+                if (!denseLines.get(line)) {
+                    denseLines.set(line);
+                    size++;
+                }
+            }
+            else if (sparseLines.add(line)) {
+                size++;
+            }
+        }
+
+        boolean contains(final int line) {
+            if (line < DENSE_LIMIT) {
+                return denseLines.get(line);
+            }
+            return sparseLines.contains(line);
+        }
+
+        int size() {
+            return size;
         }
-        int idx = normalizedPath.lastIndexOf('/');
-        return idx >= 0 ? normalizedPath.substring(idx + 1) : normalizedPath;
     }
 }
@@ -6,8 +6,6 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.events.StartElement;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.tuple.MutablePair;
-import org.apache.commons.lang3.tuple.Pair;
 
 import edu.hm.hafner.coverage.ClassNode;
 import edu.hm.hafner.coverage.Coverage.CoverageBuilder;
@@ -19,21 +17,23 @@ import edu.hm.hafner.coverage.PackageNode;
 import edu.hm.hafner.coverage.Value;
 import edu.hm.hafner.util.FilteredLog;
 import edu.hm.hafner.util.PathUtil;
-import edu.hm.hafner.util.SecureXmlParserFactory;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.io.Reader;
 import java.io.Serial;
 import java.nio.file.Path;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.List;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
- * A parser which parses reports made by OpenCover into a Java Object Model.
- *
+ * A parser which parses reports made by OpenCover into a Java Object Model. The nodes are created while the report is
+ * read: the files of a module are created when they are declared, and the classes and methods are created when their
+ * elements have been read. The sequence and branch points are accumulated per file and line.
  */
 @SuppressWarnings({"checkstyle:ClassDataAbstractionCoupling", "PMD.GodClass"})
 public class OpenCoverParser extends CoverageParser {
@@ -52,9 +52,7 @@ public class OpenCoverParser extends CoverageParser {
     private static final QName FILE = new QName("File");
     private static final QName FILE_REF = new QName("FileRef");
     private static final QName SUMMARY = new QName("Summary");
-    private static final QName SEQUENCE_POINTS = new QName("SequencePoints");
     private static final QName SEQUENCE_POINT = new QName("SequencePoint");
-    private static final QName BRANCH_POINTS = new QName("BranchPoints");
     private static final QName BRANCH_POINT = new QName("BranchPoint");
 
     private static final QName SOURCE_LINE_NUMBER = new QName("sl");
@@ -62,6 +60,7 @@ public class OpenCoverParser extends CoverageParser {
     private static final QName MODULE_SKIPPED = new QName("skippedDueTo");
     private static final QName METHOD_VISITED = new QName("visited");
     private static final QName UID = new QName("uid");
+    private static final QName POINT_FILE_ID = new QName("fileid");
     private static final QName FULL_PATH = new QName("fullPath");
     private static final QName METHOD_INSTRUCTION_COVERED = new QName("visitedSequencePoints");
     private static final QName METHOD_INSTRUCTION_TOTAL = new QName("numSequencePoints");
@@ -87,20 +86,18 @@ public class OpenCoverParser extends CoverageParser {
     }
 
     @Override
-    @SuppressWarnings("PMD.AvoidDeeplyNestedIfStmts")
     protected ModuleNode parseReport(final Reader reader, final String fileName, final FilteredLog log) {
         try {
-            var eventReader = new SecureXmlParserFactory().createXmlEventReader(reader);
+            var eventReader = XmlReaderFactory.createXmlEventReader(reader);
             var root = new ModuleNode(EMPTY);
             while (eventReader.hasNext()) {
                 var event = eventReader.nextEvent();
-                if (event.isStartElement()) {
-                    var startElement = event.asStartElement();
-                    if (MODULE.equals(startElement.getName()) && startElement.getAttributeByName(MODULE_SKIPPED) == null) {
-                        var hasModule = !readModule(eventReader, root);
-                        if (hasModule) {
-                            return root;
-                        }
+                if (event.isStartElement() && MODULE.equals(event.asStartElement().getName())) {
+                    if (event.asStartElement().getAttributeByName(MODULE_SKIPPED) != null) {
+                        skipElement(eventReader);
+                    }
+                    else if (readModule(eventReader, root)) {
+                        return root;
                     }
                 }
             }
@@ -112,121 +109,88 @@ public class OpenCoverParser extends CoverageParser {
         }
     }
 
+    /**
+     * Skips the content of the current element without evaluating the nested elements.
+     *
+     * @param reader
+     *         the reader positioned after the start of the element
+     *
+     * @throws XMLStreamException
+     *         if the content cannot be read
+     */
+    private void skipElement(final XMLEventReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (reader.hasNext() && depth > 0) {
+            var event = reader.nextEvent();
+            if (event.isStartElement()) {
+                depth++;
+            }
+            else if (event.isEndElement()) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Reads a module and creates the nodes of its files, classes, and methods while reading.
+     *
+     * @param reader
+     *         the reader positioned after the start of the module
+     * @param root
+     *         the root to add the module to
+     *
+     * @return {@code true} if the module has a name and has been added to the root, {@code false} otherwise
+     * @throws XMLStreamException
+     *         if the content cannot be read
+     */
     private boolean readModule(final XMLEventReader reader, final ModuleNode root) throws XMLStreamException {
-        Map<String, String> files = new HashMap<>();
-        List<CoverageClassHolder> classes = new ArrayList<>();
-        boolean isEmpty = true;
-        var packageNode = new PackageNode(EMPTY);
+        var module = new ModuleState(new PackageNode(EMPTY));
+        boolean hasName = false;
         while (reader.hasNext()) {
             var event = reader.nextEvent();
             if (event.isStartElement()) {
                 var nextElement = event.asStartElement();
                 if (CLASS.equals(nextElement.getName())) {
-                    classes.add(readClass(reader));
+                    readClass(reader, module);
                 }
                 else if (FILE.equals(nextElement.getName())) {
-                    var fileName = getValueOf(nextElement, FULL_PATH);
-                    var uid = getValueOf(nextElement, UID);
-                    var relativePath = PATH_UTIL.getRelativePath(fileName);
-                    files.put(uid, relativePath);
+                    var relativePath = PATH_UTIL.getRelativePath(getValueOf(nextElement, FULL_PATH));
+                    var fileNode = module.packageNode.findOrCreateFileNode(getFileName(relativePath),
+                            getTreeStringBuilder().intern(relativePath));
+                    module.addFile(getValueOf(nextElement, UID), fileNode);
                 }
-                else if (MODULE_NAME.equals(nextElement.getName())) {
+                else if (MODULE_NAME.equals(nextElement.getName()) && !hasName) {
                     var moduleName = reader.nextEvent().asCharacters().getData();
                     var moduleNode = new ModuleNode(moduleName);
-                    packageNode = moduleNode.findOrCreatePackageNode(EMPTY);
+                    moduleNode.addChild(module.packageNode);
                     root.addChild(moduleNode);
-                    isEmpty = false;
+                    hasName = true;
                 }
             }
-            else if (event.isEndElement()) {
-                var nextElement = event.asEndElement();
-                if (MODULE.equals(nextElement.getName())) {
-                    break;
-                }
+            else if (event.isEndElement() && MODULE.equals(event.asEndElement().getName())) {
+                break;
             }
         }
 
-        if (isEmpty) {
-            return true;
-        }
+        module.addLineCounters();
 
-        createNodes(files, packageNode, classes);
-
-        return false;
-    }
-
-    private void createNodes(final Map<String, String> files, final PackageNode packageNode,
-            final List<CoverageClassHolder> classes) {
-        for (var file : files.entrySet()) {
-            var fileNode = packageNode.findOrCreateFileNode(getFileName(file.getValue()), getTreeStringBuilder().intern(file.getValue()));
-            for (CoverageClassHolder clazz : classes) {
-                if (clazz.hasMethods() && clazz.getFileId() != null && clazz.getFileId().equals(file.getKey())) {
-                    createClassWithMethods(clazz, fileNode);
-                }
-            }
-        }
-    }
-
-    private void createClassWithMethods(final CoverageClassHolder clazz, final FileNode fileNode) {
-        var classNode = fileNode.createClassNode(clazz.getClassName());
-        for (var method : clazz.getMethods()) {
-            if (classNode.findMethod(method.getMethodName(), method.getMethodName()).isEmpty()) {
-                createPoints(fileNode, classNode, method);
-            }
-        }
-    }
-
-    private void createPoints(final FileNode fileNode, final ClassNode classNode, final CoverageMethod method) {
-        var methodNode = classNode.createMethodNode(method.getMethodName(), method.getMethodName());
-        var builder = new CoverageBuilder();
-        var branchCoverage = builder.withMetric(Metric.BRANCH)
-                    .withCovered(method.getBranchCovered())
-                    .withMissed(method.getBranchMissed()).build();
-        var instructionCoverage = builder.withMetric(Metric.INSTRUCTION)
-                    .withCovered(method.getInstructionCovered())
-                    .withMissed(method.getInstructionMissed()).build();
-        var lineCoverage = builder.withMetric(Metric.LINE)
-                    .withCovered(method.getInstructionCovered())
-                    .withMissed(method.getInstructionMissed()).build();
-        methodNode.addValue(lineCoverage);
-        methodNode.addValue(branchCoverage);
-        methodNode.addValue(instructionCoverage);
-        methodNode.addValue(new Value(Metric.CYCLOMATIC_COMPLEXITY, method.getComplexity()));
-        Map<Integer, Pair<Integer, Integer>> points = new LinkedHashMap<>();
-
-        // Line coverage only
-        for (var sequencePoint : method.getSequencePoints()) {
-            points.put(sequencePoint.getLineNumber(), Pair.of(sequencePoint.getHint(), 0));
-        }
-
-        // Branch coverage (update existing line coverage)
-        for (var branchPoint : method.getBranchPoints()) {
-            if (points.containsKey(branchPoint.getLineNumber())) {
-                points.put(branchPoint.getLineNumber(), Pair.of(points.get(branchPoint.getLineNumber()).getLeft(), branchPoint.getRight()));
-            }
-        }
-
-        // Create all counters for each point
-        for (var point : points.entrySet()) {
-            addCounters(fileNode, point.getKey(), point.getValue().getLeft(), point.getValue().getRight());
-        }
+        return hasName;
     }
 
     @SuppressWarnings("PMD.CognitiveComplexity")
-    private CoverageClassHolder readClass(final XMLEventReader reader) throws XMLStreamException {
-        var className = StringUtils.EMPTY;
-        List<CoverageMethod> methods = new ArrayList<>();
+    private void readClass(final XMLEventReader reader, final ModuleState module) throws XMLStreamException {
+        var clazz = new ClassState(module);
         while (reader.hasNext()) {
             var event = reader.nextEvent();
             if (event.isStartElement()) {
                 var nextElement = event.asStartElement();
                 if (CLASS_NAME.equals(nextElement.getName())) {
-                    className = reader.nextEvent().asCharacters().getData();
+                    clazz.className = reader.nextEvent().asCharacters().getData();
                 }
                 // Only add visited methods
                 var visited = nextElement.getAttributeByName(METHOD_VISITED);
                 if (METHOD.equals(nextElement.getName()) && (visited == null || "true".equals(visited.getValue()))) {
-                    methods.add(readMethod(reader, nextElement));
+                    readMethod(reader, nextElement, clazz);
                 }
             }
             else if (event.isEndElement()) {
@@ -236,33 +200,35 @@ public class OpenCoverParser extends CoverageParser {
                 }
             }
         }
-
-        return new CoverageClassHolder(className, methods);
     }
 
+    /**
+     * Reads a method. The sequence and branch points are collected while reading the method. When the end of the
+     * method has been reached, the method node is created and the points are added to the line counters of their
+     * files. The points of skipped methods (duplicates or methods of classes without a known file) are discarded.
+     */
     @SuppressWarnings({"PMD.CyclomaticComplexity", "PMD.CognitiveComplexity"})
-    private CoverageMethod readMethod(final XMLEventReader reader, final StartElement parentElement) throws XMLStreamException {
+    private void readMethod(final XMLEventReader reader, final StartElement parentElement, final ClassState clazz)
+            throws XMLStreamException {
         var coverageMethod = new CoverageMethod();
         coverageMethod.setComplexity(getIntegerValueOf(parentElement, METHOD_CYCLOMATIC_COMPLEXITY));
         while (reader.hasNext()) {
             var event = reader.nextEvent();
             if (event.isStartElement()) {
                 var nextElement = event.asStartElement();
-                if (METHOD_NAME.equals(nextElement.getName())) {
+                var name = nextElement.getName();
+                if (METHOD_NAME.equals(name)) {
                     coverageMethod.setMethodName(reader.nextEvent().asCharacters().getData());
                 }
-                if (SUMMARY.equals(nextElement.getName())) {
+                else if (SUMMARY.equals(name)) {
                     readMethodSummary(coverageMethod, nextElement);
                 }
-                if (BRANCH_POINTS.equals(nextElement.getName())) {
-                    readBranchPoints(reader, coverageMethod);
-                }
-                if (SEQUENCE_POINTS.equals(nextElement.getName())) {
-                    readSequencePoints(reader, coverageMethod);
-                }
-                if (FILE_REF.equals(nextElement.getName())) {
+                else if (FILE_REF.equals(name)) {
                     coverageMethod.setFileId(getValueOf(nextElement, UID));
                 }
+                else if (SEQUENCE_POINT.equals(name) || BRANCH_POINT.equals(name)) {
+                    readPoint(nextElement, coverageMethod, clazz.module);
+                }
             }
             else if (event.isEndElement()) {
                 var endElement = event.asEndElement();
@@ -272,7 +238,11 @@ public class OpenCoverParser extends CoverageParser {
             }
         }
 
-        return coverageMethod;
+        var points = clazz.module.methodPoints;
+        if (clazz.addMethod(coverageMethod)) {
+            points.addToLineCounters();
+        }
+        points.clear();
     }
 
     private void readMethodSummary(final CoverageMethod coverageMethod, final StartElement startElement) {
@@ -282,60 +252,18 @@ public class OpenCoverParser extends CoverageParser {
         coverageMethod.setInstructionMissed(getIntegerValueOf(startElement, METHOD_INSTRUCTION_TOTAL) - coverageMethod.getInstructionCovered());
     }
 
-    private void readSequencePoints(final XMLEventReader reader, final CoverageMethod coverageMethod) throws XMLStreamException {
-        while (reader.hasNext()) {
-            var event = reader.nextEvent();
-            if (event.isStartElement()) {
-                var nextElement = event.asStartElement();
-                if (SEQUENCE_POINT.equals(nextElement.getName()) && nextElement.getAttributeByName(SOURCE_LINE_NUMBER) != null) {
-                    coverageMethod.getSequencePoints().add(new CoverageHint(
-                            getIntegerValueOf(nextElement, SOURCE_LINE_NUMBER),
-                            getIntegerValueOf(nextElement, SOURCE_LINE_HINT)
-                    ));
-                }
-            }
-            else if (event.isEndElement()) {
-                var endElement = event.asEndElement();
-                if (SEQUENCE_POINT.equals(endElement.getName()) || SEQUENCE_POINTS.equals(endElement.getName())) {
-                    break;
-                }
-            }
+    private void readPoint(final StartElement point, final CoverageMethod coverageMethod, final ModuleState module) {
+        if (point.getAttributeByName(SOURCE_LINE_NUMBER) == null) {
+            return;
         }
-    }
-
-    private void readBranchPoints(final XMLEventReader reader, final CoverageMethod coverageMethod) throws XMLStreamException {
-        while (reader.hasNext()) {
-            var event = reader.nextEvent();
-            if (event.isStartElement()) {
-                var nextElement = event.asStartElement();
-                if (BRANCH_POINT.equals(nextElement.getName()) && nextElement.getAttributeByName(SOURCE_LINE_NUMBER) != null) {
-                    coverageMethod.getBranchPoints().add(new CoverageHint(
-                            getIntegerValueOf(nextElement, SOURCE_LINE_NUMBER),
-                            getIntegerValueOf(nextElement, SOURCE_LINE_HINT)
-                    ));
-                }
-            }
-            else if (event.isEndElement()) {
-                var endElement = event.asEndElement();
-                if (BRANCH_POINT.equals(endElement.getName()) || BRANCH_POINTS.equals(endElement.getName())) {
-                    break;
-                }
-            }
+        var fileId = getOptionalValueOf(point, POINT_FILE_ID).orElse(coverageMethod.getFileId());
+        var lineCounters = module.getLineCounters(fileId);
+        if (lineCounters == null) {
+            return; // unknown file
         }
-    }
 
-    private void addCounters(final FileNode fileNode, final int lineNumber, final int coveredInstructions, final int coveredBranches) {
-        int missed;
-        int covered;
-        if (coveredBranches == 0) { // only instruction coverage found
-            covered = coveredInstructions > 0 ? 1 : 0;
-            missed = covered > 0 ? 0 : 1;
-        }
-        else {
-            covered = coveredBranches;
-            missed = coveredBranches - coveredInstructions;
-        }
-        fileNode.addCounters(lineNumber, covered, missed);
+        module.methodPoints.add(lineCounters, getIntegerValueOf(point, SOURCE_LINE_NUMBER),
+                BRANCH_POINT.equals(point.getName()), getIntegerValueOf(point, SOURCE_LINE_HINT) > 0);
     }
 
     @SuppressFBWarnings("NP_NULL_ON_SOME_PATH_FROM_RETURN_VALUE")
@@ -343,45 +271,200 @@ public class OpenCoverParser extends CoverageParser {
         return Path.of(PATH_UTIL.getAbsolutePath(relativePath)).getFileName().toString();
     }
 
-    private static class CoverageClassHolder extends MutablePair<String, List<CoverageMethod>> {
-        @Serial
-        private static final long serialVersionUID = 1L;
+    /**
+     * The files of the module that is currently read. The {@code uid} of a file is resolved to its {@link FileNode}
+     * as soon as the file has been declared in the {@code Files} section.
+     */
+    private static final class ModuleState {
+        private final PackageNode packageNode;
+        private final Map<String, LineCounters> filesById = new HashMap<>();
+        private final Map<FileNode, LineCounters> filesByNode = new IdentityHashMap<>();
+        private final MethodPoints methodPoints = new MethodPoints();
+
+        ModuleState(final PackageNode packageNode) {
+            this.packageNode = packageNode;
+        }
 
-        CoverageClassHolder(final String className, final List<CoverageMethod> methods) {
-            super(className, methods);
+        void addFile(final String uid, final FileNode fileNode) {
+            filesById.put(uid, filesByNode.computeIfAbsent(fileNode, LineCounters::new));
         }
 
-        boolean hasMethods() {
-            return !getMethods().isEmpty();
+        @CheckForNull
+        LineCounters getLineCounters(final String uid) {
+            return filesById.get(uid);
         }
 
-        List<CoverageMethod> getMethods() {
-            return getRight();
+        void addLineCounters() {
+            filesByNode.values().forEach(LineCounters::addTo);
         }
+    }
 
-        String getClassName() {
-            return getLeft();
+    /**
+     * The class that is currently read. The {@link ClassNode} is created in the file of the first visited method.
+     * Classes whose first visited method has no known file are skipped.
+     */
+    private static final class ClassState {
+        private final ModuleState module;
+        private String className = StringUtils.EMPTY;
+        private boolean isResolved;
+        @CheckForNull
+        private ClassNode classNode;
+        private final Set<String> methodNames = new HashSet<>();
+
+        ClassState(final ModuleState module) {
+            this.module = module;
+        }
+
+        /**
+         * Adds a method node for the specified method, if the class has a file and the method has not been added yet.
+         *
+         * @return {@code true} if the method node has been added, {@code false} if the method has been skipped
+         */
+        boolean addMethod(final CoverageMethod method) {
+            if (!isResolved) {
+                isResolved = true;
+                var lineCounters = module.getLineCounters(method.getFileId());
+                if (lineCounters != null) {
+                    classNode = lineCounters.fileNode.createClassNode(className);
+                }
+            }
+            if (classNode != null && methodNames.add(method.getMethodName())) {
+                createMethodNode(classNode, method);
+                return true;
+            }
+            return false;
         }
 
-        String getFileId() {
-            return getMethods().getFirst().getFileId();
+        private void createMethodNode(final ClassNode parent, final CoverageMethod method) {
+            var methodNode = parent.createMethodNode(method.getMethodName(), method.getMethodName());
+            var builder = new CoverageBuilder();
+            var branchCoverage = builder.withMetric(Metric.BRANCH)
+                    .withCovered(method.getBranchCovered())
+                    .withMissed(method.getBranchMissed()).build();
+            var instructionCoverage = builder.withMetric(Metric.INSTRUCTION)
+                    .withCovered(method.getInstructionCovered())
+                    .withMissed(method.getInstructionMissed()).build();
+            var lineCoverage = builder.withMetric(Metric.LINE)
+                    .withCovered(method.getInstructionCovered())
+                    .withMissed(method.getInstructionMissed()).build();
+            methodNode.addValue(lineCoverage);
+            methodNode.addValue(branchCoverage);
+            methodNode.addValue(instructionCoverage);
+            methodNode.addValue(new Value(Metric.CYCLOMATIC_COMPLEXITY, method.getComplexity()));
         }
     }
 
-    private static class CoverageHint extends MutablePair<Integer, Integer> {
-        @Serial
-        private static final long serialVersionUID = 1L;
+    /**
+     * Collects the sequence and branch points of the method that is currently read. The arrays are reused for all
+     * methods of a module.
+     */
+    private static final class MethodPoints {
+        private static final int INITIAL_CAPACITY = 64;
+
+        private LineCounters[] files = new LineCounters[INITIAL_CAPACITY];
+        private int[] lines = new int[INITIAL_CAPACITY];
+        private boolean[] isBranch = new boolean[INITIAL_CAPACITY];
+        private boolean[] isVisited = new boolean[INITIAL_CAPACITY];
+        private int size;
+
+        void add(final LineCounters file, final int line, final boolean isBranchPoint, final boolean isVisitedPoint) {
+            if (size == lines.length) {
+                files = Arrays.copyOf(files, size * 2);
+                lines = Arrays.copyOf(lines, size * 2);
+                isBranch = Arrays.copyOf(isBranch, size * 2);
+                isVisited = Arrays.copyOf(isVisited, size * 2);
+            }
+            files[size] = file;
+            lines[size] = line;
+            isBranch[size] = isBranchPoint;
+            isVisited[size] = isVisitedPoint;
+            size++;
+        }
 
-        CoverageHint(final Integer lineNumber, final Integer hint) {
-            super(lineNumber, hint);
+        void addToLineCounters() {
+            for (int i = 0; i < size; i++) {
+                if (isBranch[i]) {
+                    files[i].addBranchPoint(lines[i], isVisited[i]);
+                }
+                else {
+                    files[i].addSequencePoint(lines[i], isVisited[i]);
+                }
+            }
         }
 
-        Integer getLineNumber() {
-            return getLeft();
+        void clear() {
+            Arrays.fill(files, 0, size, null);
+            size = 0;
         }
+    }
+
+    /**
+     * Accumulates the sequence and branch points of a file in primitive arrays that are indexed by the line number.
+     * The counters are written to the {@link FileNode} when the module has been read completely.
+     */
+    private static final class LineCounters {
+        private static final int INITIAL_CAPACITY = 128;
+
+        private static final byte HAS_SEQUENCE_POINT = 1;
+        private static final byte IS_VISITED = 2;
 
-        Integer getHint() {
-            return getRight();
+        private final FileNode fileNode;
+        private byte[] sequencePoints = new byte[INITIAL_CAPACITY];
+        private int[] branchesCovered = new int[INITIAL_CAPACITY];
+        private int[] branchesMissed = new int[INITIAL_CAPACITY];
+        private int maximumLine = -1;
+
+        LineCounters(final FileNode fileNode) {
+            this.fileNode = fileNode;
+        }
+
+        void addSequencePoint(final int line, final boolean isVisited) {
+            if (ensureCapacity(line)) {
+                sequencePoints[line] |= isVisited ? HAS_SEQUENCE_POINT | IS_VISITED : HAS_SEQUENCE_POINT;
+            }
+        }
+
+        void addBranchPoint(final int line, final boolean isVisited) {
+            if (ensureCapacity(line)) {
+                if (isVisited) {
+                    branchesCovered[line]++;
+                }
+                else {
+                    branchesMissed[line]++;
+                }
+            }
+        }
+
+        /**
+         * Adds the counters of all lines with sequence or branch points to the file. Lines with branch points use the
+         * branch counters, all other lines are either covered or missed.
+         */
+        void addTo() {
+            for (int line = 0; line <= maximumLine; line++) {
+                if (branchesCovered[line] + branchesMissed[line] > 0) {
+                    fileNode.addCounters(line, branchesCovered[line], branchesMissed[line]);
+                }
+                else if ((sequencePoints[line] & IS_VISITED) != 0) {
+                    fileNode.addCounters(line, 1, 0);
+                }
+                else if (sequencePoints[line] != 0) {
+                    fileNode.addCounters(line, 0, 1);
+                }
+            }
+        }
+
+        private boolean ensureCapacity(final int line) {
+            if (line < 0) {
+                return false;
+            }
+            if (line >= sequencePoints.length) {
+                int capacity = Math.max(line + 1, sequencePoints.length * 2);
+                sequencePoints = Arrays.copyOf(sequencePoints, capacity);
+                branchesCovered = Arrays.copyOf(branchesCovered, capacity);
+                branchesMissed = Arrays.copyOf(branchesMissed, capacity);
+            }
+            maximumLine = Math.max(maximumLine, line);
+            return true;
         }
     }
 
@@ -394,8 +477,6 @@ public class OpenCoverParser extends CoverageParser {
         private int branchCovered;
         private int branchMissed;
         private int complexity;
-        private final List<CoverageHint> sequencePoints = new ArrayList<>();
-        private final List<CoverageHint> branchPoints = new ArrayList<>();
 
         String getMethodName() {
             return methodName;
@@ -452,13 +533,5 @@ public class OpenCoverParser extends CoverageParser {
         void setComplexity(final int complexity) {
             this.complexity = complexity;
         }
-
-        List<CoverageHint> getSequencePoints() {
-            return sequencePoints;
-        }
-
-        List<CoverageHint> getBranchPoints() {
-            return branchPoints;
-        }
     }
 }
@@ -10,19 +10,22 @@ import org.apache.commons.lang3.StringUtils;
 import edu.hm.hafner.coverage.Coverage.CoverageBuilder;
 import edu.hm.hafner.coverage.CoverageParser;
 import edu.hm.hafner.coverage.FileNode;
+import edu.hm.hafner.coverage.MethodNode;
 import edu.hm.hafner.coverage.Metric;
 import edu.hm.hafner.coverage.ModuleNode;
 import edu.hm.hafner.coverage.Mutation;
 import edu.hm.hafner.coverage.Mutation.MutationBuilder;
 import edu.hm.hafner.coverage.MutationStatus;
 import edu.hm.hafner.util.FilteredLog;
-import edu.hm.hafner.util.SecureXmlParserFactory;
+import edu.hm.hafner.util.TreeStringBuilder;
 
 import java.io.Reader;
 import java.io.Serial;
-import java.util.Set;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Parses reports created by PITest into a Java object model.
@@ -67,21 +70,20 @@ public class PitestParser extends CoverageParser {
     @Override
     protected ModuleNode parseReport(final Reader reader, final String fileName, final FilteredLog log) {
         try {
-            var factory = new SecureXmlParserFactory();
-            var eventReader = factory.createXmlEventReader(reader);
+            var eventReader = XmlReaderFactory.createXmlEventReader(reader);
 
-            var root = new ModuleNode(EMPTY); // PIT has no support for module names
-            boolean isEmpty = true;
+            var accumulator = new MutationAccumulator();
             while (eventReader.hasNext()) {
                 var event = eventReader.nextEvent();
 
                 if (event.isStartElement() && MUTATION.equals(event.asStartElement().getName())) {
-                    readMutation(eventReader, root, event.asStartElement());
-                    isEmpty = false;
+                    readMutation(eventReader, accumulator, event.asStartElement());
                 }
             }
-            handleEmptyResults(fileName, log, isEmpty);
-            root.getAllFileNodes().forEach(this::collectLineCoverage);
+            handleEmptyResults(fileName, log, accumulator.isEmpty());
+
+            var root = new ModuleNode(EMPTY); // PIT has no support for module names
+            accumulator.addTo(root, getTreeStringBuilder());
             return root;
         }
         catch (XMLStreamException exception) {
@@ -89,33 +91,10 @@ public class PitestParser extends CoverageParser {
         }
     }
 
-    private void collectLineCoverage(final FileNode fileNode) {
-        var builder = new CoverageBuilder(Metric.LINE);
-        var coveredLine = builder.withCovered(1).withMissed(0).build();
-        var uncoveredLine = builder.withCovered(0).withMissed(1).build();
-
-        var lineMapping = collectLines(fileNode, Mutation::isCovered).stream()
-                .collect(Collectors.toMap(k -> k, v -> coveredLine));
-        var covered = lineMapping.size();
-
-        collectLines(fileNode, Mutation::isMissed).forEach(line -> lineMapping.put(line, uncoveredLine));
-        var missed = lineMapping.size() - covered;
-
-        lineMapping.forEach((line, coverage) -> fileNode.addCounters(line, coverage.getCovered(), coverage.getMissed()));
-        fileNode.addValue(builder.withCovered(covered).withMissed(missed).build());
-    }
-
-    private static Set<Integer> collectLines(final FileNode fileNode,
-            final Predicate<Mutation> filterPredicate) {
-        return fileNode.getMutations().stream()
-                .filter(filterPredicate)
-                .map(Mutation::getLine)
-                .collect(Collectors.toSet());
-    }
-
-    private void readMutation(final XMLEventReader reader, final ModuleNode root, final StartElement mutationElement)
-            throws XMLStreamException {
+    private void readMutation(final XMLEventReader reader, final MutationAccumulator accumulator,
+            final StartElement mutationElement) throws XMLStreamException {
         var builder = new MutationBuilder();
+        var source = new MutatedSource();
 
         builder.withStatus(MutationStatus.valueOf(getValueOf(mutationElement, STATUS)));
         builder.withIsDetected(Boolean.parseBoolean(getValueOf(mutationElement, DETECTED)));
@@ -124,18 +103,18 @@ public class PitestParser extends CoverageParser {
             var event = reader.nextEvent();
 
             if (event.isStartElement()) {
-                readProperty(reader, builder);
+                readProperty(reader, builder, source);
             }
             else if (event.isEndElement()) {
-                builder.buildAndAddToModule(root, getTreeStringBuilder());
+                accumulator.add(source.fileName, builder.build());
                 return;
             }
         }
     }
 
     @SuppressWarnings({"PMD.CyclomaticComplexity", "PMD.CognitiveComplexity"}) // There are a lot of properties to read
-    private void readProperty(final XMLEventReader reader, final MutationBuilder builder)
-            throws XMLStreamException {
+    private void readProperty(final XMLEventReader reader, final MutationBuilder builder,
+            final MutatedSource source) throws XMLStreamException {
         var aggregatedContent = new StringBuilder();
 
         while (true) {
@@ -144,7 +123,7 @@ public class PitestParser extends CoverageParser {
                 aggregatedContent.append(event.asCharacters().getData());
             }
             else if (event.isStartElement()) {
-                readProperty(reader, builder); // sometimes properties are wrapped by another container element
+                readProperty(reader, builder, source); // sometimes properties are wrapped by another container element
             }
             else if (event.isEndElement()) {
                 var content = StringUtils.defaultString(StringUtils.strip(aggregatedContent.toString()));
@@ -160,6 +139,7 @@ public class PitestParser extends CoverageParser {
                 }
                 else if (name.equals(SOURCE_FILE)) {
                     builder.withSourceFile(content);
+                    source.fileName = content;
                 }
                 else if (name.equals(MUTATED_CLASS)) {
                     builder.withMutatedClass(content);
@@ -177,4 +157,157 @@ public class PitestParser extends CoverageParser {
             }
         }
     }
+
+    /**
+     * The name of the source file of a mutation. This name is not part of the created {@link Mutation}.
+     */
+    private static final class MutatedSource {
+        private String fileName = StringUtils.EMPTY;
+    }
+
+    /**
+     * Accumulates the mutations of a report before the tree is created. The mutation and test strength counters of
+     * each method and the covered and missed lines of each file are stored in primitive fields. The nodes of the tree
+     * are resolved and their values are written only once, after the whole report has been read.
+     */
+    private static final class MutationAccumulator {
+        private final Map<String, FileRecord> files = new LinkedHashMap<>();
+
+        boolean isEmpty() {
+            return files.isEmpty();
+        }
+
+        void add(final String sourceFile, final Mutation mutation) {
+            var packageName = StringUtils.substringBeforeLast(mutation.getMutatedClass(), ".");
+            var relativePath = packageName.replace('.', '/') + '/' + sourceFile;
+            files.computeIfAbsent(relativePath, key -> new FileRecord(packageName, sourceFile))
+                    .add(mutation);
+        }
+
+        void addTo(final ModuleNode root, final TreeStringBuilder treeStringBuilder) {
+            for (var entry : files.entrySet()) {
+                var file = entry.getValue();
+                var packageNode = root.findOrCreatePackageNode(file.packageName);
+                var fileNode = packageNode.findOrCreateFileNode(file.sourceFile,
+                        treeStringBuilder.intern(entry.getKey()));
+                file.addTo(fileNode);
+            }
+        }
+    }
+
+    /**
+     * The mutations, classes, and line flags of a source file.
+     */
+    private static final class FileRecord {
+        private final String packageName;
+        private final String sourceFile;
+        private final List<Mutation> mutations = new ArrayList<>();
+        private final Map<String, Map<String, MethodCounters>> methodsPerClass = new LinkedHashMap<>();
+        private final BitSet coveredLines = new BitSet();
+        private final BitSet missedLines = new BitSet();
+
+        FileRecord(final String packageName, final String sourceFile) {
+            this.packageName = packageName;
+            this.sourceFile = sourceFile;
+        }
+
+        void add(final Mutation mutation) {
+            mutations.add(mutation);
+
+            var className = StringUtils.substringAfterLast(mutation.getMutatedClass(), ".");
+            methodsPerClass.computeIfAbsent(className, key -> new LinkedHashMap<>())
+                    .computeIfAbsent(mutation.getMethod() + mutation.getSignature(),
+                            key -> new MethodCounters(mutation.getMethod(), mutation.getSignature()))
+                    .add(mutation);
+
+            int line = mutation.getLine();
+            if (line >= 0) {
+                if (mutation.isCovered()) {
+                    coveredLines.set(line);
+                }
+                if (mutation.isMissed()) {
+                    missedLines.set(line);
+                }
+            }
+        }
+
+        void addTo(final FileNode fileNode) {
+            for (var classEntry : methodsPerClass.entrySet()) {
+                var classNode = fileNode.findOrCreateClassNode(classEntry.getKey());
+                for (var methodCounters : classEntry.getValue().values()) {
+                    methodCounters.addTo(classNode.createMethodNode(methodCounters.name, methodCounters.signature));
+                }
+            }
+            mutations.forEach(fileNode::addMutation);
+            addLineCoverage(fileNode);
+        }
+
+        /**
+         * Adds the line coverage of the file. A line with a mutation that has no coverage is marked as missed, all
+         * other lines with mutations are marked as covered.
+         */
+        private void addLineCoverage(final FileNode fileNode) {
+            var allLines = (BitSet) coveredLines.clone();
+            allLines.or(missedLines);
+            for (int line = allLines.nextSetBit(0); line >= 0; line = allLines.nextSetBit(line + 1)) {
+                if (missedLines.get(line)) {
+                    fileNode.addCounters(line, 0, 1);
+                }
+                else {
+                    fileNode.addCounters(line, 1, 0);
+                }
+            }
+            int covered = coveredLines.cardinality();
+            fileNode.addValue(new CoverageBuilder(Metric.LINE)
+                    .withCovered(covered)
+                    .withMissed(allLines.cardinality() - covered)
+                    .build());
+        }
+    }
+
+    /**
+     * The mutation and test strength counters of a method.
+     */
+    private static final class MethodCounters {
+        private final String name;
+        private final String signature;
+        private int mutationsCovered;
+        private int mutationsMissed;
+        private int strengthCovered;
+        private int strengthMissed;
+
+        MethodCounters(final String name, final String signature) {
+            this.name = name;
+            this.signature = signature;
+        }
+
+        void add(final Mutation mutation) {
+            boolean hasStrength = mutation.getStatus() != MutationStatus.NO_COVERAGE;
+            if (mutation.isDetected()) {
+                mutationsCovered++;
+                if (hasStrength) {
+                    strengthCovered++;
+                }
+            }
+            else {
+                mutationsMissed++;
+                if (hasStrength) {
+                    strengthMissed++;
+                }
+            }
+        }
+
+        void addTo(final MethodNode methodNode) {
+            methodNode.addValue(new CoverageBuilder(Metric.MUTATION)
+                    .withCovered(mutationsCovered)
+                    .withMissed(mutationsMissed)
+                    .build());
+            if (strengthCovered + strengthMissed > 0) {
+                methodNode.addValue(new CoverageBuilder(Metric.TEST_STRENGTH)
+                        .withCovered(strengthCovered)
+                        .withMissed(strengthMissed)
+                        .build());
+            }
+        }
+    }
 }
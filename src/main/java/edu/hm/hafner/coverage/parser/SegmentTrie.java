@@ -0,0 +1,119 @@
+package edu.hm.hafner.coverage.parser;
+
+import edu.hm.hafner.coverage.Node;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+/**
+ * A trie that mirrors the nodes of a coverage tree that are created by a parser. Each trie entry references a node and
+ * indexes the children of this node by a key, typically a segment of a hierarchical path. Resolving a path of {@code n}
+ * segments therefore requires {@code n} hash lookups, independent of the size of the tree. Searching the tree itself
+ * with {@link Node#find} would visit the whole subtree for each segment.
+ *
+ * <p>
+ * The trie only knows the nodes that have been created or registered through the trie. So a parser should use the trie
+ * for all nodes of the hierarchy that it resolves.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+final class SegmentTrie {
+    private final Node node;
+    private final Map<String, SegmentTrie> children = new HashMap<>();
+
+    /**
+     * Creates a new trie for the children of the specified node.
+     *
+     * @param node
+     *         the root node of the trie
+     */
+    SegmentTrie(final Node node) {
+        this.node = node;
+    }
+
+    Node getNode() {
+        return node;
+    }
+
+    /**
+     * Returns the child with the specified key. If there is no such child yet, the child node is created with the
+     * specified factory. The factory is responsible for linking the new node to its parent.
+     *
+     * @param key
+     *         the key of the child
+     * @param factory
+     *         creates the child node, gets the parent node and the key as arguments
+     *
+     * @return the trie of the child
+     */
+    SegmentTrie findOrCreateChild(final String key, final BiFunction<Node, String, ? extends Node> factory) {
+        var child = children.get(key);
+        if (child == null) {
+            child = new SegmentTrie(factory.apply(node, key));
+            children.put(key, child);
+        }
+        return child;
+    }
+
+    /**
+     * Returns the node of the specified hierarchical path. The segments of the path are separated by slashes or
+     * backslashes, empty segments are skipped.
+     *
+     * @param path
+     *         the path of the node, relative to the node of this trie
+     *
+     * @return the node of the path, or an empty result if there is no such node
+     */
+    Optional<Node> find(final String path) {
+        var current = this;
+        int start = 0;
+        while (start <= path.length()) {
+            int end = indexOfSeparator(path, start);
+            if (end > start) {
+                current = current.children.get(path.substring(start, end));
+                if (current == null) {
+                    return Optional.empty();
+                }
+            }
+            start = end + 1;
+        }
+        return Optional.of(current.node);
+    }
+
+    /**
+     * Returns the node of the specified hierarchical path. Missing nodes of the path are created with the specified
+     * factory. The segments of the path are separated by slashes or backslashes, empty segments are skipped.
+     *
+     * @param path
+     *         the path of the node, relative to the node of this trie
+     * @param factory
+     *         creates a missing node, gets the parent node and the path segment as arguments
+     *
+     * @return the node of the path
+     */
+    Node findOrCreate(final String path, final BiFunction<Node, String, ? extends Node> factory) {
+        var current = this;
+        int start = 0;
+        while (start <= path.length()) {
+            int end = indexOfSeparator(path, start);
+            if (end > start) {
+                current = current.findOrCreateChild(path.substring(start, end), factory);
+            }
+            start = end + 1;
+        }
+        return current.node;
+    }
+
+    private static int indexOfSeparator(final String path, final int start) {
+        for (int i = start; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '/' || c == '\\') {
+                return i;
+            }
+        }
+        return path.length();
+    }
+}
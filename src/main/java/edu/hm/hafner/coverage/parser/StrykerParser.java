@@ -1,8 +1,9 @@
 package edu.hm.hafner.coverage.parser;
 
-import tools.jackson.databind.JsonNode;
-import tools.jackson.databind.ObjectMapper;
 import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.ObjectMapper;
 
 import edu.hm.hafner.coverage.Coverage.CoverageBuilder;
 import edu.hm.hafner.coverage.CoverageParser;
@@ -12,20 +13,21 @@ import edu.hm.hafner.coverage.Mutation;
 import edu.hm.hafner.coverage.MutationStatus;
 import edu.hm.hafner.util.FilteredLog;
 import edu.hm.hafner.util.PathUtil;
-import edu.hm.hafner.util.TreeString;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Strings;
 
 import java.io.Reader;
 import java.io.Serial;
 import java.nio.file.Path;
 import java.util.Locale;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.StringJoiner;
 
 /**
- * Parses Stryker JSON mutation reports into a hierarchical Java object model.
- * 
+ * Parses Stryker JSON mutation reports into a hierarchical Java object model. The report is read as a stream of
+ * tokens: each entry of the {@code files} object is converted into a {@link edu.hm.hafner.coverage.FileNode} with its
+ * mutations before the next entry is read. The source text of the files is skipped.
+ *
  * @author Akash Manna
  * @see <a href="https://stryker-mutator.io/">Stryker Mutation</a>
  */
@@ -65,19 +67,29 @@ public class StrykerParser extends CoverageParser {
         super(processingMode);
     }
 
+    /**
+     * Accepts Stryker mutation reports, these use the JSON format.
+     */
     @Override
-    protected ModuleNode parseReport(final Reader reader, final String fileName, final FilteredLog log) {
-        try {
-            var report = MAPPER.readTree(reader);
-            var files = report.path(FILES);
+    protected boolean isReportEntry(final String entryName) {
+        return Strings.CI.endsWith(entryName, ".json");
+    }
 
+    @Override
+    protected ModuleNode parseReport(final Reader reader, final String fileName, final FilteredLog log) {
+        try (var parser = MAPPER.createParser(reader)) {
             var root = new ModuleNode(EMPTY);
             boolean isEmpty = true;
 
-            if (files.isObject()) {
-                for (var entry : files.properties()) {
-                    readFile(root, entry.getKey(), entry.getValue());
-                    isEmpty = false;
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                    var name = parser.currentName();
+                    if (parser.nextToken() == JsonToken.START_OBJECT && FILES.equals(name)) {
+                        isEmpty = readFiles(root, parser);
+                    }
+                    else {
+                        parser.skipChildren();
+                    }
                 }
             }
 
@@ -89,32 +101,69 @@ public class StrykerParser extends CoverageParser {
         }
     }
 
-    private void readFile(final ModuleNode root, final String reportFileName, final JsonNode fileNode) {
+    /**
+     * Reads the entries of the {@code files} object. Each entry is processed completely before the next one is read,
+     * so only the mutations of the current file are kept in memory.
+     *
+     * @param root
+     *         the root of the tree
+     * @param parser
+     *         the parser positioned at the start of the {@code files} object
+     *
+     * @return {@code true} if the {@code files} object has no entries, {@code false} otherwise
+     */
+    private boolean readFiles(final ModuleNode root, final JsonParser parser) {
+        boolean isEmpty = true;
+        while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+            var reportFileName = parser.currentName();
+            parser.nextToken();
+            readFile(root, reportFileName, parser);
+            isEmpty = false;
+        }
+        return isEmpty;
+    }
+
+    private void readFile(final ModuleNode root, final String reportFileName, final JsonParser parser) {
         var relativePath = normalizePath(PATH_UTIL.getRelativePath(reportFileName));
         var fileName = getFileName(relativePath);
         var packageName = getPackageName(relativePath);
         var packageNode = root.findOrCreatePackageNode(packageName);
-        var coverageFile = packageNode.findOrCreateFileNode(fileName, TreeString.valueOf(relativePath));
+        var coverageFile = packageNode.findOrCreateFileNode(fileName, getTreeStringBuilder().intern(relativePath));
+
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
 
+        var mutatedClass = toMutatedClass(relativePath);
         int covered = 0;
         int missed = 0;
 
-        var mutants = fileNode.path(MUTANTS);
-        if (mutants.isArray()) {
-            for (var mutantNode : mutants) {
-                var mutation = createMutation(fileName, relativePath, mutantNode);
-                coverageFile.addMutation(mutation);
+        while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+            var name = parser.currentName();
+            if (parser.nextToken() == JsonToken.START_ARRAY && MUTANTS.equals(name)) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    if (parser.currentToken() != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    var mutation = readMutation(fileName, mutatedClass, parser);
+                    coverageFile.addMutation(mutation);
 
-                if (!mutation.isValid()) {
-                    continue;
-                }
-                if (mutation.isDetected()) {
-                    covered++;
-                }
-                else {
-                    missed++;
+                    if (!mutation.isValid()) {
+                        continue;
+                    }
+                    if (mutation.isDetected()) {
+                        covered++;
+                    }
+                    else {
+                        missed++;
+                    }
                 }
             }
+            else {
+                parser.skipChildren(); // skips the source text and all other properties without reading them
+            }
         }
 
         if (covered + missed > 0) {
@@ -122,34 +171,83 @@ public class StrykerParser extends CoverageParser {
         }
     }
 
-    private Mutation createMutation(final String fileName, final String relativePath, final JsonNode mutantNode) {
-        var status = readStatus(mutantNode.path(STATUS).asString(StringUtils.EMPTY));
-        var line = mutantNode.path(LOCATION).path(START).path(LINE).asInt(0);
-        var id = mutantNode.path(ID).asString(Integer.toString(line));
-        var mutatorName = mutantNode.path(MUTATOR_NAME).asString(StringUtils.EMPTY);
-        var description = mutantNode.path(DESCRIPTION).asString(StringUtils.EMPTY);
+    @SuppressWarnings("PMD.CognitiveComplexity")
+    private Mutation readMutation(final String fileName, final String mutatedClass, final JsonParser parser) {
+        var status = MutationStatus.NON_VIABLE;
+        int line = 0;
+        var id = StringUtils.EMPTY;
+        var mutatorName = StringUtils.EMPTY;
+        var description = StringUtils.EMPTY;
+        var killedBy = StringUtils.EMPTY;
+
+        while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+            var name = parser.currentName();
+            var token = parser.nextToken();
+            switch (name) {
+                case ID -> id = parser.getValueAsString(StringUtils.EMPTY);
+                case MUTATOR_NAME -> mutatorName = parser.getValueAsString(StringUtils.EMPTY);
+                case DESCRIPTION -> description = parser.getValueAsString(StringUtils.EMPTY);
+                case STATUS -> status = readStatus(parser.getValueAsString(StringUtils.EMPTY));
+                case KILLED_BY -> killedBy = readStringArray(parser, token);
+                case LOCATION -> line = readStartLine(parser, token);
+                default -> parser.skipChildren();
+            }
+        }
 
         return new Mutation.MutationBuilder()
                 .withIsDetected(status == MutationStatus.KILLED)
                 .withStatus(status)
                 .withLine(line)
                 .withMutator(mutatorName)
-                .withKillingTest(joinStringArray(mutantNode.path(KILLED_BY)))
+                .withKillingTest(killedBy)
                 .withDescription(description)
                 .withSourceFile(fileName)
-                .withMutatedClass(toMutatedClass(relativePath))
-                .withMutatedMethod("mutation-" + id)
+                .withMutatedClass(mutatedClass)
+                .withMutatedMethod("mutation-" + (id.isEmpty() ? Integer.toString(line) : id))
                 .build();
     }
 
-    private static String joinStringArray(final JsonNode node) {
-        if (!node.isArray()) {
+    private static String readStringArray(final JsonParser parser, final JsonToken token) {
+        if (token != JsonToken.START_ARRAY) {
+            parser.skipChildren();
             return StringUtils.EMPTY;
         }
 
-        return StreamSupport.stream(node.spliterator(), false)
-                .map(element -> element.asString(StringUtils.EMPTY))
-                .collect(Collectors.joining(","));
+        var joiner = new StringJoiner(",");
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            joiner.add(parser.getValueAsString(StringUtils.EMPTY));
+            parser.skipChildren();
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Reads the line of the {@code location.start.line} property.
+     */
+    private static int readStartLine(final JsonParser parser, final JsonToken token) {
+        int line = 0;
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return line;
+        }
+
+        while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+            var name = parser.currentName();
+            if (parser.nextToken() == JsonToken.START_OBJECT && START.equals(name)) {
+                while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                    var startName = parser.currentName();
+                    parser.nextToken();
+                    if (LINE.equals(startName)) {
+                        line = parser.getValueAsInt(0);
+                    }
+                    parser.skipChildren();
+                }
+            }
+            else {
+                parser.skipChildren();
+            }
+        }
+        return line;
     }
 
     private static String getFileName(final String relativePath) {
@@ -3,9 +3,11 @@ package edu.hm.hafner.coverage.parser;
 import java.io.File;
 import java.io.Reader;
 import java.io.Serial;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.nio.file.Paths;
-import java.util.Optional;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.EnumMap;
 import java.util.Locale;
 import java.util.Map;
@@ -22,7 +24,6 @@ import edu.hm.hafner.coverage.Metric;
 import edu.hm.hafner.coverage.ModuleNode;
 import edu.hm.hafner.coverage.Node;
 import edu.hm.hafner.util.FilteredLog;
-import edu.hm.hafner.util.SecureXmlParserFactory;
 import edu.hm.hafner.util.TreeString;
 
 /**
@@ -78,35 +79,56 @@ public class Trace32Parser extends CoverageParser {
 
     @Override
     protected ModuleNode parseReport(final Reader reader, final String fileName, final FilteredLog log) {
-        var root = new ModuleNode("TRACE32 Coverage");
-        Map<String, String> filesToProcess;
+        try {
+            return parseReport(XmlReaderFactory.createXmlEventReader(reader), fileName, log);
+        }
+        catch (XMLStreamException e) {
+            throw new ParsingException(e);
+        }
+    }
 
+    /**
+     * Hands the bytes of the mapped report directly to the XML parser, which decodes them itself. So the report is not
+     * decoded into an intermediate character buffer before parsing.
+     */
+    @Override
+    protected ModuleNode parseReport(final ByteBuffer content, final Charset charset, final String fileName,
+            final FilteredLog log) {
         try {
-            filesToProcess = parseFile(root, reader);
+            return parseReport(XmlReaderFactory.createXmlEventReader(asInputStream(content), charset), fileName, log);
         }
         catch (XMLStreamException e) {
             throw new ParsingException(e);
         }
+    }
+
+    private ModuleNode parseReport(final XMLEventReader xml, final String fileName, final FilteredLog log)
+            throws XMLStreamException {
+        var root = new ModuleNode("TRACE32 Coverage");
+        var modules = new SegmentTrie(root);
+        var filesToProcess = parseFile(modules, xml);
 
         if (root.isEmpty()) {
             handleEmptyResults(fileName, log);
             return new ModuleNode("empty");
         }
 
-        addFilesAndRenameModules(root, filesToProcess, log);
+        addFilesAndRenameModules(root, modules, filesToProcess, log);
 
         return root;
     }
 
-    private void addFilesAndRenameModules(final ModuleNode root, final Map<String, String> filesToProcess, final FilteredLog log) {
+    private void addFilesAndRenameModules(final ModuleNode root, final SegmentTrie modules,
+            final Map<String, String> filesToProcess, final FilteredLog log) {
         var rootFiles = root.createClassNode("TRACE32 Files");
+        var fileIds = new HashSet<String>();
 
         for (var entry : filesToProcess.entrySet()) {
             var filePath = entry.getValue(); // for clarity
 
             var fileNodePath = Paths.get(filePath).getFileName();
             var fileNodeName = (fileNodePath != null) ? fileNodePath.toString() : "missing_file";
-            if (rootFiles.hasChild(filePath + fileNodeName)) {
+            if (!fileIds.add(filePath + fileNodeName)) {
                 log.logInfo("[TRACE32] Found duplicate file module: \"%s\", source: \"%s\"", entry.getKey(), filePath);
                 continue;
             }
@@ -115,7 +137,7 @@ public class Trace32Parser extends CoverageParser {
             root.addSource(filePath);
             var fileNode = rootFiles.createFileNode(fileNodeName, TreeString.valueOf(filePath));
 
-            var optNode = getNodeTree(root, entry.getKey());
+            var optNode = modules.find(entry.getKey());
             if (optNode.isPresent()) {
                 var moduleNode = optNode.get();
                 // Clone existing class node and rename it to a filename
@@ -149,28 +171,6 @@ public class Trace32Parser extends CoverageParser {
         return event.isEndElement() && event.asEndElement().getName().equals(name);
     }
 
-    @SuppressWarnings("StringSplitter")
-    private Optional<Node> getNodeTree(final Node root, final String treeName) {
-        var lastNode = root;
-        for (var name : treeName.split("[\\/\\\\]")) {
-            var classNode = lastNode.findClass(name);
-            if (classNode.isEmpty()) {
-                return Optional.empty();
-            }
-            lastNode = classNode.get();
-        }
-        return Optional.of(lastNode);
-    }
-
-    @SuppressWarnings("StringSplitter")
-    private Node makeNodeTree(final Node root, final String treeName) {
-        var lastNode = root;
-        for (var name : treeName.split("[\\/\\\\]")) {
-            lastNode = lastNode.findOrCreateClassNode(name);
-        }
-        return lastNode;
-    }
-
     private void addOrReplaceMetric(final Map<Fields, Integer> metricsMap, final Node node, final Metric metric, final Fields total, final Fields covered) {
         node.replaceValue(new CoverageBuilder(metric)
                 .withTotal(metricsMap.getOrDefault(total, 0))
@@ -178,7 +178,7 @@ public class Trace32Parser extends CoverageParser {
     }
 
     @SuppressWarnings({"PMD.CyclomaticComplexity", "PMD.CognitiveComplexity"})
-    private String readMetric(final XMLEventReader xml, final Node root, final String metric, final QName element, final boolean readFunction) throws XMLStreamException {
+    private String readMetric(final XMLEventReader xml, final SegmentTrie modules, final String metric, final QName element, final boolean readFunction) throws XMLStreamException {
         var event = xml.nextEvent();
         var treeName = "";
         var map = new EnumMap<Fields, Integer>(Fields.class);
@@ -197,7 +197,7 @@ public class Trace32Parser extends CoverageParser {
                 if (!readFunction) {
                     break;
                 }
-                readMetric(xml, root, metric, FUNCTION, false);
+                readMetric(xml, modules, metric, FUNCTION, false);
             }
             else {
                 try {
@@ -214,7 +214,7 @@ public class Trace32Parser extends CoverageParser {
             return treeName;
         }
 
-        var node = makeNodeTree(root, treeName);
+        var node = modules.findOrCreate(treeName, Node::createClassNode);
         addOrReplaceMetric(map, node, Metric.BYTES, Fields.BYTES, Fields.BYTESOK);
 
         switch (metric) {
@@ -259,8 +259,8 @@ public class Trace32Parser extends CoverageParser {
     }
 
     @SuppressWarnings({"PMD.CyclomaticComplexity", "PMD.CognitiveComplexity"})
-    private Map<String, String> parseFile(final ModuleNode root, final Reader reader) throws XMLStreamException {
-        final var xml = new SecureXmlParserFactory().createXmlEventReader(reader);
+    private Map<String, String> parseFile(final SegmentTrie modules, final XMLEventReader xml)
+            throws XMLStreamException {
         Map<String, String> filesToProcess = new HashMap<>();
 
         while (xml.hasNext()) {
@@ -271,7 +271,7 @@ public class Trace32Parser extends CoverageParser {
                 event = xml.nextEvent();
                 while (!(endElement(event, LIST_MODULE) || endElement(event, LIST_FUNC))) {
                     if (startElement(event, MODULE)) {
-                        readMetric(xml, root, metric, MODULE, true);
+                        readMetric(xml, modules, metric, MODULE, true);
                     }
                     event = xml.nextEvent();
                 }
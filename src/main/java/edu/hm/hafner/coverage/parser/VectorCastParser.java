@@ -6,7 +6,6 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.events.StartElement;
 
 import edu.hm.hafner.coverage.Coverage;
-import edu.hm.hafner.coverage.Coverage.CoverageBuilder;
 import edu.hm.hafner.coverage.FileNode;
 import edu.hm.hafner.coverage.Metric;
 import edu.hm.hafner.coverage.Node;
@@ -17,7 +16,6 @@ import java.io.Serial;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
 
 /**
  * Parses VectorCAST reports into a hierarchical Java Object Model.
@@ -31,8 +29,6 @@ public class VectorCastParser extends CoberturaParser {
     @Serial
     private static final long serialVersionUID = 598117573006409816L;
 
-    private static final Pattern BRANCH_PATTERN = Pattern.compile(".*\\((?<covered>\\d+)/(?<total>\\d+)\\)");
-
     private static final Coverage DEFAULT_MCDCPAIR_COVERAGE = Coverage.nullObject(Metric.MCDC_PAIR);
     private static final Coverage DEFAULT_FUNCTION_COVERAGE  = Coverage.nullObject(Metric.METHOD);
     private static final Coverage DEFAULT_FUNCTIONCALL_COVERAGE = Coverage.nullObject(Metric.FUNCTION_CALL);
@@ -208,14 +204,7 @@ public class VectorCastParser extends CoberturaParser {
     }
 
     private Coverage fromAllCoverages(final String covAttrStr, final Metric metric) {
-        var matcher = BRANCH_PATTERN.matcher(covAttrStr);
-        if (matcher.matches()) {
-            return new CoverageBuilder().withMetric(metric)
-                    .withCovered(matcher.group("covered"))
-                    .withTotal(matcher.group("total"))
-                    .build();
-        }
-        return Coverage.nullObject(metric);
+        return parseConditionCoverage(covAttrStr, metric);
     }
 
     private Coverage fromMcdcPairCoverage(final String covAttrStr) {
@@ -0,0 +1,69 @@
+package edu.hm.hafner.coverage.parser;
+
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+
+/**
+ * Creates the StAX readers of the XML based parsers. Looking up an {@link XMLInputFactory} implementation with the
+ * service loader and configuring it is expensive compared to parsing a small report. Therefore, the factory is created
+ * only once, when this class is initialized, and is shared by all parsers afterward. The shared factory is never
+ * configured again, it is only used to create new readers, which is safe for concurrent use.
+ *
+ * <p>
+ * Neither document type definitions nor external entities are supported. This is the configuration of the
+ * {@link edu.hm.hafner.util.SecureXmlParserFactory}.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+final class XmlReaderFactory {
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private static XMLInputFactory createFactory() {
+        var factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * Creates a new event reader for the specified XML content.
+     *
+     * @param reader
+     *         the XML content
+     *
+     * @return the event reader
+     * @throws XMLStreamException
+     *         if the reader cannot be created
+     */
+    static XMLEventReader createXmlEventReader(final Reader reader) throws XMLStreamException {
+        return FACTORY.createXMLEventReader(reader);
+    }
+
+    /**
+     * Creates a new event reader for the specified XML content. The bytes of the content are decoded by the XML parser
+     * itself.
+     *
+     * @param content
+     *         the XML content
+     * @param charset
+     *         the charset of the content
+     *
+     * @return the event reader
+     * @throws XMLStreamException
+     *         if the reader cannot be created
+     */
+    static XMLEventReader createXmlEventReader(final InputStream content, final Charset charset)
+            throws XMLStreamException {
+        return FACTORY.createXMLEventReader(content, charset.name());
+    }
+
+    private XmlReaderFactory() {
+        // prevents instantiation
+    }
+}
@@ -10,6 +10,7 @@ import javax.xml.stream.events.XMLEvent;
 import edu.hm.hafner.coverage.ModuleNode;
 import edu.hm.hafner.coverage.TestCase;
 import edu.hm.hafner.coverage.TestCase.TestCaseBuilder;
+import edu.hm.hafner.coverage.TestCaseStoragePolicy;
 
 /**
  * Parses reports in the
@@ -45,16 +46,25 @@ public class XunitParser extends AbstractTestParser {
      *         determines whether to ignore errors
      */
     public XunitParser(final ProcessingMode processingMode) {
-        super(processingMode, COLLECTION, TEST);
+        this(processingMode, TestCaseStoragePolicy.DEFAULT);
+    }
+
+    /**
+     * Creates a new instance of {@link XunitParser}.
+     *
+     * @param processingMode
+     *         determines whether to ignore errors
+     * @param storagePolicy
+     *         determines how the messages and descriptions of the test cases are stored
+     */
+    public XunitParser(final ProcessingMode processingMode, final TestCaseStoragePolicy storagePolicy) {
+        super(processingMode, storagePolicy, COLLECTION, TEST);
     }
 
     @Override
     TestCase readTestCase(final XMLEventReader reader, final StartElement testCaseElement,
-            final String suiteName, final ModuleNode root, final String fileName) throws XMLStreamException {
-        var builder = new TestCaseBuilder();
-
-        builder.withTestName(getOptionalValueOf(testCaseElement, NAME).orElse(createId()));
-
+            final TestCaseBuilder builder, final String suiteName, final ModuleNode root, final TestCounters counters,
+            final String fileName) throws XMLStreamException {
         readStatus(testCaseElement, builder);
 
         while (reader.hasNext()) {
@@ -68,8 +78,9 @@ public class XunitParser extends AbstractTestParser {
                 builder.withClassName(className);
                 var packageNode = root.findOrCreatePackageNode(EMPTY);
                 var classNode = packageNode.findOrCreateClassNode(className);
-                classNode.addTestCase(builder.build());
-                return builder.build();
+                var testCase = builder.build();
+                addTestCase(counters, classNode, testCase);
+                return testCase;
             }
         }
         throw createEofException(fileName);
@@ -103,7 +114,7 @@ public class XunitParser extends AbstractTestParser {
         while (true) {
             var event = reader.nextEvent();
             if (event.isCharacters()) {
-                aggregatedContent.append(event.asCharacters().getData());
+                appendDescription(aggregatedContent, event.asCharacters().getData());
             }
             else if (event.isEndElement() && isFailure(event)) {
                 return;
@@ -2,9 +2,12 @@ package edu.hm.hafner.coverage.registry;
 
 import edu.hm.hafner.coverage.parser.LcovParser;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.ImmutablePair;
 
 import edu.hm.hafner.coverage.CoverageParser;
+import edu.hm.hafner.coverage.CoverageParser.ParsingException;
 import edu.hm.hafner.coverage.CoverageParser.ProcessingMode;
+import edu.hm.hafner.coverage.ModuleNode;
 import edu.hm.hafner.coverage.parser.CloverParser;
 import edu.hm.hafner.coverage.parser.CoberturaParser;
 import edu.hm.hafner.coverage.parser.GoCovParser;
@@ -18,14 +21,24 @@ import edu.hm.hafner.coverage.parser.StrykerParser;
 import edu.hm.hafner.coverage.parser.Trace32Parser;
 import edu.hm.hafner.coverage.parser.VectorCastParser;
 import edu.hm.hafner.coverage.parser.XunitParser;
+import edu.hm.hafner.util.FilteredLog;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Provides a registry for all available {@link CoverageParserType parsers}.
+ * Provides a registry for all available {@link CoverageParserType parsers}. Since parsers can be used concurrently, the
+ * registry creates only a single parser for each combination of parser type and processing mode and shares it with all
+ * callers.
  *
  * @author Ullrich Hafner
  */
 @SuppressWarnings("checkstyle:ClassDataAbstractionCoupling")
 public class ParserRegistry {
+    private static final Map<ImmutablePair<CoverageParserType, ProcessingMode>, CoverageParser> PARSERS
+            = new ConcurrentHashMap<>();
+
     /** Supported parsers. */
     public enum CoverageParserType {
         COBERTURA,
@@ -64,17 +77,22 @@ public class ParserRegistry {
     }
 
     /**
-     * Returns the parser for the specified name.
+     * Returns the parser for the specified name. The returned parser is shared by all callers.
      *
      * @param parser
      *         the parser
      * @param processingMode
      *         determines whether to ignore errors
      *
-     * @return the created parser
+     * @return the shared parser
      */
-    @SuppressWarnings("PMD.CyclomaticComplexity")
     public CoverageParser get(final CoverageParserType parser, final ProcessingMode processingMode) {
+        return PARSERS.computeIfAbsent(new ImmutablePair<>(parser, processingMode),
+                key -> create(key.getLeft(), key.getRight()));
+    }
+
+    @SuppressWarnings("PMD.CyclomaticComplexity")
+    private CoverageParser create(final CoverageParserType parser, final ProcessingMode processingMode) {
         return switch (parser) {
             case CLOVER -> new CloverParser(processingMode);
             case COBERTURA -> new CoberturaParser(processingMode);
@@ -92,4 +110,26 @@ public class ParserRegistry {
             case VECTORCAST -> new VectorCastParser(processingMode);
         };
     }
+
+    /**
+     * Parses the specified report file with the parser of the given type. The report might be compressed with gzip or
+     * zip, see {@link CoverageParser#parse(Path, FilteredLog)}.
+     *
+     * @param report
+     *         the report to parse
+     * @param parser
+     *         the parser
+     * @param processingMode
+     *         determines whether to ignore errors
+     * @param log
+     *         the logger to write messages to
+     *
+     * @return the root of the created tree
+     * @throws ParsingException
+     *         if the file cannot be read or if the content cannot be read by the parser
+     */
+    public ModuleNode parse(final Path report, final CoverageParserType parser, final ProcessingMode processingMode,
+            final FilteredLog log) {
+        return get(parser, processingMode).parse(report, log);
+    }
 }
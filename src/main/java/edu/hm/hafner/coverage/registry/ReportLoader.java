@@ -0,0 +1,235 @@
+package edu.hm.hafner.coverage.registry;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+
+import edu.hm.hafner.coverage.ContainerNode;
+import edu.hm.hafner.coverage.CoverageParser.ParsingException;
+import edu.hm.hafner.coverage.CoverageParser.ProcessingMode;
+import edu.hm.hafner.coverage.Metric;
+import edu.hm.hafner.coverage.ModuleNode;
+import edu.hm.hafner.coverage.Node;
+import edu.hm.hafner.coverage.registry.ParserRegistry.CoverageParserType;
+import edu.hm.hafner.util.FilteredLog;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Loads several coverage reports of the same type and merges them into a single tree. The reports are parsed
+ * concurrently on a bounded number of virtual threads. When all reports have been parsed, the trees are merged as a
+ * balanced tree reduction, so that the pairs of trees of each level of the reduction are merged in parallel. Since the
+ * parsed trees are owned by the loader, each merge changes one of its operands in place, see
+ * {@link Node#mergeInPlace(Node)}. This avoids copying the ever-growing intermediate result for each report, as a
+ * sequential fold with {@link Node#merge(Node)} would do.
+ *
+ * <p>
+ * All reports are parsed with the shared parser of the {@link ParserRegistry}, but each report uses its own
+ * {@link FilteredLog}. The logs of the parsed reports are combined in the order of the reports, even if parsing of a
+ * report fails. Loading can be cancelled by interrupting the calling thread: all running tasks will be interrupted,
+ * all pending tasks will be cancelled, and an {@link InterruptedException} will be thrown. Reports compressed with
+ * gzip or zip are decompressed while parsing.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public class ReportLoader {
+    private final ParserRegistry registry = new ParserRegistry();
+    private final int maximumParallelism;
+
+    /**
+     * Creates a new instance of {@link ReportLoader} that parses as many reports concurrently as processors are
+     * available.
+     */
+    public ReportLoader() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new instance of {@link ReportLoader}.
+     *
+     * @param maximumParallelism
+     *         the maximum number of reports that will be parsed or merged concurrently
+     */
+    public ReportLoader(final int maximumParallelism) {
+        if (maximumParallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + maximumParallelism);
+        }
+        this.maximumParallelism = maximumParallelism;
+    }
+
+    /**
+     * Parses the specified reports and merges the results into a single tree. If all reports have the same root name
+     * and metric, then the merged root is returned. Otherwise, the merged trees of each root name are attached to a new
+     * {@link ContainerNode}, see {@link Node#merge(List)}. If errors are ignored and none of the reports can be read
+     * or parsed, then an empty module is returned.
+     *
+     * @param reports
+     *         the reports to parse
+     * @param parserType
+     *         the type of the reports
+     * @param processingMode
+     *         determines whether to ignore errors: if errors are ignored, reports that cannot be read or parsed will be
+     *         skipped, otherwise the first failure will be thrown
+     * @param log
+     *         the logger to write the combined messages of all reports to
+     *
+     * @return the root of the merged tree
+     * @throws ParsingException
+     *         if a report cannot be read or parsed and errors should not be ignored
+     * @throws InterruptedException
+     *         if the calling thread has been interrupted while waiting for the results
+     */
+    public Node load(final List<Path> reports, final CoverageParserType parserType,
+            final ProcessingMode processingMode, final FilteredLog log) throws InterruptedException {
+        if (reports.isEmpty()) {
+            return Node.merge(List.of());
+        }
+
+        var executor = Executors.newFixedThreadPool(Math.min(maximumParallelism, reports.size()),
+                Thread.ofVirtual().name("coverage-report-loader-", 0).factory());
+        var tasks = new ArrayList<Future<?>>();
+        try {
+            var logs = new ArrayList<FilteredLog>(reports.size());
+            var parsedReports = new ArrayList<Future<ModuleNode>>(reports.size());
+            for (Path report : reports) {
+                var reportLog = new FilteredLog("Errors while parsing " + report);
+                logs.add(reportLog);
+                parsedReports.add(executor.submit(() -> parse(report, parserType, processingMode, reportLog)));
+            }
+            tasks.addAll(parsedReports);
+
+            var roots = new ArrayList<ModuleNode>(reports.size());
+            try {
+                for (Future<ModuleNode> parsedReport : parsedReports) {
+                    var root = await(parsedReport);
+                    if (root != null) {
+                        roots.add(root);
+                    }
+                }
+            }
+            finally {
+                mergeLogs(log, logs, parsedReports);
+            }
+
+            if (roots.isEmpty()) { // all reports have been skipped
+                log.logError("[%s] The processed files %s do not contain data.",
+                        getClass().getSimpleName(), reports);
+                return new ModuleNode("empty");
+            }
+            return merge(roots, executor, tasks);
+        }
+        catch (InterruptedException exception) {
+            executor.shutdownNow(); // cancelling a merge does not interrupt it, so all workers are interrupted
+            tasks.forEach(task -> task.cancel(true));
+            throw exception;
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Combines the logs of the reports that have been parsed. The logs of reports that are still being parsed are
+     * skipped, since their parser might still write to them.
+     */
+    private void mergeLogs(final FilteredLog log, final List<FilteredLog> logs,
+            final List<Future<ModuleNode>> parsedReports) {
+        for (int i = 0; i < parsedReports.size(); i++) {
+            if (parsedReports.get(i).isDone()) {
+                log.merge(logs.get(i));
+            }
+        }
+    }
+
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private ModuleNode parse(final Path report, final CoverageParserType parserType,
+            final ProcessingMode processingMode, final FilteredLog log) {
+        try {
+            return registry.parse(report, parserType, processingMode, log);
+        }
+        catch (RuntimeException exception) {
+            if (processingMode == ProcessingMode.IGNORE_ERRORS) {
+                log.logException(exception, "Skipping report '%s' since it cannot be read or parsed", report);
+                return null;
+            }
+            throw exception;
+        }
+    }
+
+    private Node merge(final List<ModuleNode> roots, final ExecutorService executor,
+            final List<Future<?>> tasks) throws InterruptedException {
+        Map<ImmutablePair<String, Metric>, List<Node>> grouped = new LinkedHashMap<>();
+        for (ModuleNode root : roots) {
+            grouped.computeIfAbsent(new ImmutablePair<>(root.getName(), root.getMetric()),
+                    key -> new ArrayList<>()).add(root);
+        }
+
+        var reductions = new ArrayList<CompletableFuture<Node>>(grouped.size());
+        for (List<Node> matching : grouped.values()) {
+            reductions.add(reduce(matching, executor, tasks));
+        }
+        if (reductions.size() == 1) {
+            return await(reductions.getFirst());
+        }
+
+        var container = new ContainerNode("Container");
+        for (CompletableFuture<Node> reduction : reductions) {
+            container.addChild(await(reduction));
+        }
+        return container;
+    }
+
+    /**
+     * Merges the specified nodes pairwise, level by level, until a single node remains. The reduction starts after all
+     * reports have been parsed, since the parsed trees are grouped by their roots. Within the reduction, a merge starts
+     * as soon as both of its operands have been merged, so it does not wait for the other merges of the previous level.
+     * The first operand of each merge is changed in place: every node is an operand of at most one running merge.
+     */
+    private CompletableFuture<Node> reduce(final List<Node> nodes, final ExecutorService executor,
+            final List<Future<?>> tasks) {
+        List<CompletableFuture<Node>> level = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            level.add(CompletableFuture.completedFuture(node));
+        }
+        while (level.size() > 1) {
+            var next = new ArrayList<CompletableFuture<Node>>((level.size() + 1) / 2);
+            for (int i = 0; i + 1 < level.size(); i += 2) {
+                var merged = level.get(i).thenCombineAsync(level.get(i + 1), ReportLoader::mergeInPlace, executor);
+                tasks.add(merged);
+                next.add(merged);
+            }
+            if (level.size() % 2 == 1) {
+                next.add(level.getLast());
+            }
+            level = next;
+        }
+        return level.getFirst();
+    }
+
+    private static Node mergeInPlace(final Node merged, final Node other) {
+        merged.mergeInPlace(other);
+        return merged;
+    }
+
+    private <T> T await(final Future<T> task) throws InterruptedException {
+        try {
+            return task.get();
+        }
+        catch (ExecutionException exception) {
+            var cause = Objects.requireNonNullElse(exception.getCause(), exception);
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ParsingException(cause);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package edu.hm.hafner.coverage;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import edu.hm.hafner.coverage.Coverage.CoverageBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link ChangeCoverageAnalyzer} with the separate filter methods of {@link Node} for a tree with 50,000
+ * files, 200 of them with modified lines. Run with {@code mvn test -Pbenchmark}.
+ *
+ * @author Ullrich Hafner
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ChangeCoverageAnalyzerBenchmark {
+    /**
+     * Runs the benchmark.
+     *
+     * @throws RunnerException
+     *         if the benchmark could not be started
+     */
+    @Test
+    void benchmark() throws RunnerException {
+        var options = new OptionsBuilder()
+                .include(ChangeCoverageAnalyzerBenchmark.class.getName() + ".*")
+                .build();
+
+        new Runner(options).run();
+    }
+
+    /**
+     * Creates the change coverage trees with the separate filter methods.
+     *
+     * @param tree
+     *         the tree to filter
+     * @param blackhole
+     *         consumes the filtered trees and their values
+     */
+    @Benchmark
+    public void filterMethods(final Tree tree, final Blackhole blackhole) {
+        var modifiedLines = tree.root.filterByModifiedLines();
+        var modifiedFiles = tree.root.filterByModifiedFiles();
+        var indirectChanges = tree.root.filterByIndirectChanges();
+
+        blackhole.consume(modifiedLines.aggregateValues());
+        blackhole.consume(modifiedFiles.aggregateValues());
+        blackhole.consume(indirectChanges.aggregateValues());
+    }
+
+    /**
+     * Creates the change coverage trees with the {@link ChangeCoverageAnalyzer}.
+     *
+     * @param tree
+     *         the tree to filter
+     *
+     * @return the analyzer with the filtered trees and their values
+     */
+    @Benchmark
+    public ChangeCoverageAnalyzer analyzer(final Tree tree) {
+        return new ChangeCoverageAnalyzer(tree.root);
+    }
+
+    /**
+     * A tree with 500 packages of 100 files each. Every 250th file has modified lines, every 500th file has indirect
+     * coverage changes.
+     */
+    @State(Scope.Benchmark)
+    public static class Tree {
+        private static final int PACKAGES = 500;
+        private static final int FILES_PER_PACKAGE = 100;
+        private static final int LINES_PER_FILE = 50;
+        private static final int MODIFIED_FILE_INTERVAL = 250;
+        private static final int INDIRECT_FILE_INTERVAL = 500;
+
+        private Node root;
+
+        /**
+         * Creates the tree.
+         */
+        @Setup(Level.Trial)
+        public void createTree() {
+            root = new ModuleNode("module");
+            var builder = new CoverageBuilder();
+            int index = 0;
+            for (int p = 0; p < PACKAGES; p++) {
+                var packageNode = new PackageNode("edu.hm.p" + p);
+                root.addChild(packageNode);
+                for (int f = 0; f < FILES_PER_PACKAGE; f++) {
+                    var fileName = "F" + f + ".java";
+                    var file = new FileNode(fileName, "edu/hm/p" + p + "/" + fileName);
+                    packageNode.addChild(file);
+                    int covered = 0;
+                    for (int line = 1; line <= LINES_PER_FILE; line++) {
+                        int hit = line % 3 == 0 ? 0 : 1;
+                        file.addCounters(line, hit, 1 - hit);
+                        covered += hit;
+                    }
+                    file.addValue(builder.withMetric(Metric.LINE)
+                            .withCovered(covered).withMissed(LINES_PER_FILE - covered).build());
+                    if (index % MODIFIED_FILE_INTERVAL == 0) {
+                        file.addModifiedLines(1, 2, 3, 10, 20, 30);
+                    }
+                    if (index % INDIRECT_FILE_INTERVAL == 1) {
+                        file.addIndirectCoverageChange(5, 1);
+                    }
+                    index++;
+                }
+            }
+        }
+    }
+}
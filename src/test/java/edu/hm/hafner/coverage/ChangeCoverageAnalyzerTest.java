@@ -0,0 +1,85 @@
+package edu.hm.hafner.coverage;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.coverage.parser.JacocoParser;
+import edu.hm.hafner.util.FilteredLog;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ChangeCoverageAnalyzerTest {
+    private static final String REPORT = "/edu/hm/hafner/coverage/parser/jacoco/jacoco-codingstyle.xml";
+
+    @Test
+    void shouldCreateSameTreesAsFilterMethods() {
+        var tree = readReport();
+        var files = tree.getAllFileNodes();
+        var modified = files.get(0);
+        var lines = modified.getLinesWithCoverage();
+        modified.addModifiedLines(lines.first(), lines.last(), lines.last() + 1000);
+        files.get(1).addModifiedLines(-1);
+        var indirect = files.get(2);
+        indirect.addIndirectCoverageChange(indirect.getLinesWithCoverage().first(), 1);
+
+        var analyzer = new ChangeCoverageAnalyzer(tree);
+
+        assertThat(analyzer.getModifiedLinesTree()).isEqualTo(tree.filterByModifiedLines());
+        assertThat(analyzer.getModifiedFilesTree()).isEqualTo(tree.filterByModifiedFiles());
+        assertThat(analyzer.getIndirectChangesTree()).isEqualTo(tree.filterByIndirectChanges());
+        assertThat(analyzer.getModifiedLinesValues()).isEqualTo(tree.filterByModifiedLines().aggregateValues());
+        assertThat(analyzer.getModifiedFilesValues()).isEqualTo(tree.filterByModifiedFiles().aggregateValues());
+        assertThat(analyzer.getIndirectChangesValues()).isEqualTo(tree.filterByIndirectChanges().aggregateValues());
+
+        assertThat(analyzer.getModifiedLinesTree().getAllFileNodes()).extracting(FileNode::getName)
+                .containsExactly(modified.getName());
+        assertThat(analyzer.getModifiedFilesTree().getAllFileNodes()).extracting(FileNode::getName)
+                .containsExactly(modified.getName());
+        assertThat(analyzer.getIndirectChangesTree().getAllFileNodes()).extracting(FileNode::getName)
+                .containsExactly(indirect.getName());
+    }
+
+    @Test
+    void shouldCreateEmptyTreesWithoutChanges() {
+        var tree = readReport();
+
+        var analyzer = new ChangeCoverageAnalyzer(tree);
+
+        assertThat(analyzer.getModifiedLinesTree()).isNotSameAs(tree).isEqualTo(tree.copy());
+        assertThat(analyzer.getModifiedFilesTree()).isEqualTo(tree.copy());
+        assertThat(analyzer.getIndirectChangesTree()).isEqualTo(tree.copy());
+        assertThat(analyzer.getModifiedLinesValues()).isEqualTo(tree.filterByModifiedLines().aggregateValues());
+    }
+
+    @Test
+    void shouldShareCoveredAndModifiedLinesOfFile() {
+        var file = new FileNode("A.java", "edu/hm/A.java");
+        file.addCounters(1, 1, 0);
+        file.addCounters(2, 0, 1);
+        file.addCounters(3, 1, 0);
+        file.addModifiedLines(2, 3, 4);
+
+        assertThat(file.hasCoveredAndModifiedLines()).isTrue();
+        assertThat(file.getCoveredAndModifiedLines()).containsExactly(2, 3);
+
+        var analyzer = new ChangeCoverageAnalyzer(file);
+
+        assertThat(analyzer.getModifiedLinesTree()).isEqualTo(file.filterByModifiedLines());
+        assertThat(analyzer.getModifiedFilesTree()).isEqualTo(file.copyTree());
+        assertThat(analyzer.getIndirectChangesTree()).isEqualTo(file.copy());
+    }
+
+    private Node readReport() {
+        try (var stream = Objects.requireNonNull(getClass().getResourceAsStream(REPORT));
+                var reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            return new JacocoParser().parse(reader, REPORT, new FilteredLog("Errors"));
+        }
+        catch (IOException exception) {
+            throw new AssertionError(exception);
+        }
+    }
+}
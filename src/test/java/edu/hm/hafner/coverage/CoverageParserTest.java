@@ -2,6 +2,12 @@ package edu.hm.hafner.coverage;
 
 import org.junit.jupiter.api.Test;
 
+import edu.hm.hafner.util.FilteredLog;
+
+import java.io.Reader;
+import java.io.Serial;
+import java.io.StringReader;
+
 import static edu.hm.hafner.coverage.assertions.Assertions.*;
 
 /**
@@ -16,4 +22,22 @@ class CoverageParserTest {
         assertThat(CoverageParser.parseInteger("NO_NUMBER")).isEqualTo(0);
         assertThat(CoverageParser.parseInteger("111")).isEqualTo(111);
     }
+
+    @Test
+    void shouldShareStringBuilderOnlyWithinParseInvocation() {
+        var parser = new CoverageParser(CoverageParser.ProcessingMode.FAIL_FAST) {
+            @Serial
+            private static final long serialVersionUID = -2129387066409215836L;
+
+            @Override
+            protected ModuleNode parseReport(final Reader reader, final String fileName, final FilteredLog log) {
+                assertThat(getTreeStringBuilder()).isSameAs(getTreeStringBuilder());
+                return new ModuleNode(fileName);
+            }
+        };
+
+        assertThat(parser.getTreeStringBuilder()).isNotSameAs(parser.getTreeStringBuilder());
+        assertThat(parser.parse(new StringReader(""), "report", new FilteredLog("Errors"))).hasName("report");
+        assertThat(parser.getTreeStringBuilder()).isNotSameAs(parser.getTreeStringBuilder());
+    }
 }
@@ -0,0 +1,183 @@
+package edu.hm.hafner.coverage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.coverage.Mutation.MutationBuilder;
+import edu.hm.hafner.coverage.parser.JacocoParser;
+import edu.hm.hafner.util.FilteredLog;
+import edu.hm.hafner.util.TreeString;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CoveragePoolTest {
+    private static final String REPORT = "/edu/hm/hafner/coverage/parser/jacoco/jacoco-codingstyle.xml";
+
+    @AfterEach
+    void resetSharedPool() {
+        CoveragePool.setShared(null);
+    }
+
+    @Test
+    void shouldNotShareAPoolByDefault() {
+        assertThat(CoveragePool.getShared()).isEmpty();
+    }
+
+    @Test
+    void shouldInternStringsAndPaths() {
+        var pool = new CoveragePool();
+
+        assertThat(pool.getHitRatio()).isZero();
+
+        var first = pool.intern(copyOf("edu.hm.hafner"));
+        var second = pool.intern(copyOf("edu.hm.hafner"));
+        var path = pool.intern(TreeString.valueOf("src/main/java"));
+        var otherPath = pool.intern(TreeString.valueOf("src/main/java"));
+
+        assertThat(pool).hasToString("CoveragePool: 2 instances, 2 hits, 2 misses");
+        assertThat(pool.size()).isEqualTo(2);
+        assertThat(pool.getHits()).isEqualTo(2);
+        assertThat(pool.getMisses()).isEqualTo(2);
+        assertThat(pool.getHitRatio()).isEqualTo(0.5);
+        assertThat(second).isSameAs(first);
+        assertThat(otherPath).isSameAs(path);
+    }
+
+    @Test
+    void shouldInternStringsOfNodes() {
+        var pool = new CoveragePool();
+        var first = createTree();
+        var second = createTree();
+
+        pool.intern(first);
+        pool.intern(second);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(getMethod(second).getName()).isSameAs(getMethod(first).getName());
+        assertThat(getMethod(second).getSignature()).isSameAs(getMethod(first).getSignature());
+        assertThat(getFile(second).getMutations().get(0).getDescription())
+                .isSameAs(getFile(first).getMutations().get(0).getDescription());
+        assertThat(pool.getHits()).isPositive();
+    }
+
+    @Test
+    void shouldInternParsedTrees() {
+        var pool = new CoveragePool();
+        CoveragePool.setShared(pool);
+
+        var first = readReport();
+        var misses = pool.getMisses();
+        var second = readReport();
+
+        assertThat(second).isEqualTo(first);
+        assertThat(pool.getMisses()).isEqualTo(misses);
+        assertThat(getMethod(second).getSignature()).isSameAs(getMethod(first).getSignature());
+        assertThat(second.getAllClassNodes().get(0).getName()).isSameAs(first.getAllClassNodes().get(0).getName());
+    }
+
+    @Test
+    void shouldInternDeserializedTrees() throws IOException, ClassNotFoundException {
+        var serialized = serialize(createTree());
+
+        var pool = new CoveragePool();
+        CoveragePool.setShared(pool);
+
+        var first = deserialize(serialized);
+        var second = deserialize(serialized);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(getMethod(second).getMethodName()).isSameAs(getMethod(first).getMethodName());
+        assertThat(getMethod(second).getSignature()).isSameAs(getMethod(first).getSignature());
+        assertThat(getFile(second).getMutations().get(0).getMutator())
+                .isSameAs(getFile(first).getMutations().get(0).getMutator());
+    }
+
+    @Test
+    void shouldInternStringsOfDeserializedMethodsOnce() throws IOException, ClassNotFoundException {
+        var serialized = serialize(new MethodNode(copyOf("method"), copyOf("()V"), 10));
+
+        var pool = new CoveragePool();
+        CoveragePool.setShared(pool);
+
+        var method = (MethodNode) deserialize(serialized);
+
+        assertThat(method.getName()).isSameAs(pool.intern("method()V"));
+        assertThat(pool.getMisses()).isEqualTo(3); // name, method name, and signature
+        assertThat(pool.getHits()).isEqualTo(1); // the lookup of the name above
+    }
+
+    @Test
+    void shouldInternDecodedTrees() throws IOException {
+        var codec = new CoverageTreeCodec();
+        var encoded = codec.encode(readReport());
+
+        CoveragePool.setShared(new CoveragePool());
+
+        var first = codec.decode(encoded);
+        var second = codec.decode(encoded);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(getMethod(second).getSignature()).isSameAs(getMethod(first).getSignature());
+        assertThat(second.getAll(Metric.PACKAGE).get(0).getName())
+                .isSameAs(first.getAll(Metric.PACKAGE).get(0).getName());
+    }
+
+    private MethodNode getMethod(final Node root) {
+        return root.getAllMethodNodes().get(0);
+    }
+
+    private FileNode getFile(final Node root) {
+        return root.getAllFileNodes().get(0);
+    }
+
+    private static String copyOf(final String text) {
+        return String.valueOf(text.toCharArray());
+    }
+
+    private ModuleNode createTree() {
+        var root = new ModuleNode(copyOf("module"));
+        var file = new FileNode(copyOf("A.java"), copyOf("edu/hm/A.java"));
+        root.addChild(file);
+        file.addMutation(new MutationBuilder().withLine(1)
+                .withMutator(copyOf("Negate"))
+                .withDescription(copyOf("negated conditional"))
+                .build());
+        var classNode = new ClassNode(copyOf("edu.hm.A"));
+        file.addChild(classNode);
+        classNode.addChild(new MethodNode(copyOf("method"), copyOf("(Ljava/lang/String;)V"), 10));
+        return root;
+    }
+
+    private Node readReport() {
+        try (var stream = Objects.requireNonNull(getClass().getResourceAsStream(REPORT));
+                var reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            return new JacocoParser().parse(reader, REPORT, new FilteredLog("Errors"));
+        }
+        catch (IOException exception) {
+            throw new AssertionError(exception);
+        }
+    }
+
+    private byte[] serialize(final Node root) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var output = new ObjectOutputStream(bytes)) {
+            output.writeObject(root);
+        }
+        return bytes.toByteArray();
+    }
+
+    private Node deserialize(final byte[] serialized) throws IOException, ClassNotFoundException {
+        try (var input = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return (Node) input.readObject();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package edu.hm.hafner.coverage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.hm.hafner.coverage.Coverage.CoverageBuilder;
+import edu.hm.hafner.coverage.CoverageTableExporter.Table;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CoverageTableExporterTest {
+    private final CoverageTableExporter exporter = new CoverageTableExporter();
+
+    @Test
+    void shouldWriteNodesAsCsv() throws IOException {
+        assertThat(writeCsv(createTree(), Table.NODES)).containsExactly(
+                "id,parent,metric,name",
+                "0,-1,MODULE,module",
+                "1,0,PACKAGE,edu.hm",
+                "2,1,FILE,\"A,\"\"quoted\"\".java\"",
+                "3,0,CONTAINER,container");
+    }
+
+    @Test
+    void shouldWriteValuesAsCsv() throws IOException {
+        assertThat(writeCsv(createTree(), Table.VALUES)).containsExactly(
+                "node,metric,numerator,denominator",
+                "0,LOC,200,1",
+                "2,LINE,2,3",
+                "2,TEST_SUCCESS_RATE,2,3");
+    }
+
+    @Test
+    void shouldWriteLinesAsCsv() throws IOException {
+        assertThat(writeCsv(createTree(), Table.LINES)).containsExactly(
+                "file,line,covered,missed",
+                "2,1,1,0",
+                "2,2,0,1",
+                "2,3,1,0");
+    }
+
+    @Test
+    void shouldWriteAllTablesInColumnarLayout() throws IOException {
+        var tables = readColumnar(writeColumnar(createTree()));
+
+        assertThat(tables.get(Table.NODES.ordinal())).containsExactly(
+                "0,-1,MODULE,module",
+                "1,0,PACKAGE,edu.hm",
+                "2,1,FILE,A,\"quoted\".java",
+                "3,0,CONTAINER,container");
+        assertThat(tables.get(Table.VALUES.ordinal())).containsExactly(
+                "0,LOC,200,1",
+                "2,LINE,2,3",
+                "2,TEST_SUCCESS_RATE,2,3");
+        assertThat(tables.get(Table.LINES.ordinal())).containsExactly(
+                "2,1,1,0",
+                "2,2,0,1",
+                "2,3,1,0");
+    }
+
+    @Test
+    void shouldSplitLargeTablesIntoBlocks() throws IOException {
+        var root = new ModuleNode("module");
+        var file = new FileNode("Large.java", "Large.java");
+        root.addChild(file);
+        int lineCount = CoverageTableExporter.BLOCK_SIZE * 2 + 1;
+        for (int line = 1; line <= lineCount; line++) {
+            file.addCounters(line, 1, 0);
+        }
+
+        var lines = readColumnar(writeColumnar(root)).get(Table.LINES.ordinal());
+
+        assertThat(lines).hasSize(lineCount)
+                .startsWith("1,1,1,0")
+                .endsWith("1,%d,1,0".formatted(lineCount));
+    }
+
+    @Test
+    void shouldNotRetainDetailsOfLazyFiles(@TempDir final Path folder) throws IOException {
+        var root = createTree();
+        var file = folder.resolve("tree.bin");
+        try (var output = Files.newOutputStream(file)) {
+            new CoverageTreeCodec().writeSegmented(root, output);
+        }
+        var restored = new CoverageTreeCodec().read(file);
+
+        assertThat(writeColumnar(restored)).isEqualTo(writeColumnar(root));
+
+        Files.delete(file);
+        assertThatIllegalStateException().isThrownBy(() -> restored.getAllFileNodes().get(0).getCounters());
+    }
+
+    private ModuleNode createTree() {
+        var root = new ModuleNode("module");
+        root.addValue(new Value(Metric.LOC, 200));
+
+        var packageNode = new PackageNode("edu.hm");
+        root.addChild(packageNode);
+        root.addChild(new ContainerNode("container"));
+
+        var file = new FileNode("A,\"quoted\".java", "edu/hm/A.java");
+        packageNode.addChild(file);
+        file.addValue(new CoverageBuilder().withMetric(Metric.LINE).withCovered(2).withMissed(1).build());
+        file.addValue(new Rate(Metric.TEST_SUCCESS_RATE, 2, 3));
+        file.addCounters(1, 1, 0);
+        file.addCounters(2, 0, 1);
+        file.addCounters(3, 1, 0);
+
+        return root;
+    }
+
+    private List<String> writeCsv(final Node root, final Table table) throws IOException {
+        var output = new ByteArrayOutputStream();
+        exporter.writeCsv(root, table, output);
+        return output.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    private byte[] writeColumnar(final Node root) throws IOException {
+        var output = new ByteArrayOutputStream();
+        exporter.writeColumnar(root, output);
+        return output.toByteArray();
+    }
+
+    /**
+     * Reads the blocks of the columnar layout and returns the rows of each table with comma separated fields.
+     */
+    private List<List<String>> readColumnar(final byte[] exported) throws IOException {
+        var input = new DataInputStream(new ByteArrayInputStream(exported));
+        assertThat(input.readInt()).isEqualTo(0x434F5658);
+        assertThat(input.readByte()).isEqualTo((byte) 1);
+        var metrics = new String[input.readInt()];
+        for (int i = 0; i < metrics.length; i++) {
+            metrics[i] = input.readUTF();
+        }
+
+        List<List<String>> tables = List.of(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        for (int table = input.readByte(); table != 0; table = input.readByte()) {
+            var size = input.readInt();
+            var isNodeTable = table - 1 == Table.NODES.ordinal();
+            var columns = new int[isNodeTable ? 3 : 4][size];
+            for (int[] column : columns) {
+                for (int row = 0; row < size; row++) {
+                    column[row] = input.readInt();
+                }
+            }
+            for (int row = 0; row < size; row++) {
+                if (isNodeTable) {
+                    var name = new byte[input.readInt()];
+                    input.readFully(name);
+                    tables.get(table - 1).add("%d,%d,%s,%s".formatted(columns[0][row], columns[1][row],
+                            metrics[columns[2][row]], new String(name, StandardCharsets.UTF_8)));
+                }
+                else if (table - 1 == Table.VALUES.ordinal()) {
+                    tables.get(table - 1).add("%d,%s,%d,%d".formatted(columns[0][row], metrics[columns[1][row]],
+                            columns[2][row], columns[3][row]));
+                }
+                else {
+                    tables.get(table - 1).add("%d,%d,%d,%d".formatted(columns[0][row], columns[1][row],
+                            columns[2][row], columns[3][row]));
+                }
+            }
+        }
+        assertThat(input.read()).isEqualTo(-1);
+        return tables;
+    }
+}
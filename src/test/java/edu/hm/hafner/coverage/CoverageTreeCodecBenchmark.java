@@ -0,0 +1,158 @@
+package edu.hm.hafner.coverage;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import edu.hm.hafner.coverage.parser.JacocoParser;
+import edu.hm.hafner.util.FilteredLog;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link CoverageTreeCodec} with Java serialization for the tree of a large JaCoCo report. Run with
+ * {@code mvn test -Pbenchmark}.
+ *
+ * @author Ullrich Hafner
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CoverageTreeCodecBenchmark {
+    /**
+     * Runs the benchmark.
+     *
+     * @throws RunnerException
+     *         if the benchmark could not be started
+     */
+    @Test
+    void benchmark() throws RunnerException {
+        var options = new OptionsBuilder()
+                .include(CoverageTreeCodecBenchmark.class.getName() + ".*")
+                .build();
+
+        new Runner(options).run();
+    }
+
+    /**
+     * Writes the tree with the codec.
+     *
+     * @param tree
+     *         the tree to write
+     *
+     * @return the encoded tree
+     */
+    @Benchmark
+    public byte[] writeCodec(final Tree tree) {
+        return tree.codec.encode(tree.root);
+    }
+
+    /**
+     * Reads the tree with the codec.
+     *
+     * @param tree
+     *         the tree to read
+     *
+     * @return the restored tree
+     * @throws IOException
+     *         if the tree could not be read
+     */
+    @Benchmark
+    public Node readCodec(final Tree tree) throws IOException {
+        return tree.codec.decode(tree.encoded);
+    }
+
+    /**
+     * Writes the tree with Java serialization.
+     *
+     * @param tree
+     *         the tree to write
+     *
+     * @return the serialized tree
+     * @throws IOException
+     *         if the tree could not be written
+     */
+    @Benchmark
+    public byte[] writeSerialization(final Tree tree) throws IOException {
+        return serialize(tree.root);
+    }
+
+    /**
+     * Reads the tree with Java serialization.
+     *
+     * @param tree
+     *         the tree to read
+     *
+     * @return the restored tree
+     * @throws IOException
+     *         if the tree could not be read
+     * @throws ClassNotFoundException
+     *         if a class of the tree is not found
+     */
+    @Benchmark
+    public Object readSerialization(final Tree tree) throws IOException, ClassNotFoundException {
+        try (var input = new ObjectInputStream(new ByteArrayInputStream(tree.serialized))) {
+            return input.readObject();
+        }
+    }
+
+    private static byte[] serialize(final Node root) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var output = new ObjectOutputStream(bytes)) {
+            output.writeObject(root);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * The tree of the report {@code jacoco-big.xml} in both encodings.
+     */
+    @State(Scope.Benchmark)
+    public static class Tree {
+        private static final String REPORT = "/edu/hm/hafner/coverage/parser/jacoco/jacoco-big.xml";
+
+        private final CoverageTreeCodec codec = new CoverageTreeCodec();
+
+        private Node root;
+        private byte[] encoded;
+        private byte[] serialized;
+
+        /**
+         * Parses the report and encodes the tree.
+         *
+         * @throws IOException
+         *         if the report could not be read
+         */
+        @Setup(Level.Trial)
+        public void createTree() throws IOException {
+            try (var stream = Objects.requireNonNull(CoverageTreeCodecBenchmark.class.getResourceAsStream(REPORT));
+                    var reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+                root = new JacocoParser().parse(reader, REPORT, new FilteredLog("Errors"));
+            }
+            encoded = codec.encode(root);
+            serialized = serialize(root);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package edu.hm.hafner.coverage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import edu.hm.hafner.coverage.Coverage.CoverageBuilder;
+import edu.hm.hafner.coverage.Mutation.MutationBuilder;
+import edu.hm.hafner.coverage.TestCase.TestCaseBuilder;
+import edu.hm.hafner.coverage.TestCase.TestResult;
+import edu.hm.hafner.coverage.TestCaseStoragePolicy.TestCaseStoragePolicyBuilder;
+import edu.hm.hafner.coverage.parser.JacocoParser;
+import edu.hm.hafner.coverage.parser.JunitParser;
+import edu.hm.hafner.coverage.parser.PitestParser;
+import edu.hm.hafner.util.FilteredLog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CoverageTreeCodecTest {
+    private static final String PARSER_RESOURCES = "/edu/hm/hafner/coverage/parser/";
+
+    private final CoverageTreeCodec codec = new CoverageTreeCodec();
+
+    @Test
+    void shouldRestoreAllNodeTypes() throws IOException {
+        var root = createTree();
+
+        var restored = codec.decode(codec.encode(root));
+
+        assertThat(restored).isEqualTo(root);
+        assertThat(restored.getValues()).containsExactlyElementsOf(root.getValues());
+        assertThat(restored.getChildren()).extracting(Node::getName).containsExactly("edu.hm", "container");
+        assertThat(restored.getAllMethodNodes()).first().satisfies(method -> {
+            assertThat(method.getParent()).isEqualTo(root.getAllClassNodes().get(0));
+            assertThat(method.getLineNumber()).isEqualTo(-1);
+        });
+    }
+
+    @Test
+    void shouldRestoreFileDetails() throws IOException {
+        var root = createTree();
+
+        var file = codec.decode(codec.encode(root)).getAllFileNodes().get(0);
+
+        assertThat(file.getRelativePath()).isEqualTo("src/edu/hm/A.java");
+        assertThat(file.getCounters()).containsExactly(entry(-3, 0), entry(10, 1));
+        assertThat(file.getMissedCounters()).containsExactly(2, 0, 5);
+        assertThat(file.getMcdcPairCoveredCounters()).containsExactly(1);
+        assertThat(file.getFunctionCallMissedCounters()).containsExactly(3);
+        assertThat(file.getModifiedLines()).containsExactly(1, 10, 200);
+        assertThat(file.getIndirectCoverageChanges()).containsExactly(entry(10, -4));
+        assertThat(file.getDelta(Metric.LINE)).isEqualTo(new Difference(Metric.LINE, -1, 3));
+        assertThat(file.getMutations()).containsExactlyElementsOf(root.getAllFileNodes().get(0).getMutations());
+    }
+
+    @Test
+    void shouldRestoreTestCasesAndNames() throws IOException {
+        var root = createTree();
+
+        var restored = codec.decode(codec.encode(root));
+
+        var classNode = restored.getAllClassNodes().get(0);
+        assertThat(classNode.getName()).isEqualTo("edu/hm/A");
+        assertThat(classNode.getTestCases()).containsExactlyElementsOf(root.getAllClassNodes().get(0).getTestCases());
+        assertThat(classNode.getTestCases().get(0).getDescription()).isEqualTo("java.lang.AssertionError");
+        assertThat(classNode.getValues()).containsExactlyElementsOf(root.getAllClassNodes().get(0).getValues());
+        assertThat(restored.getAllMethodNodes()).first().extracting(Node::getName).isEqualTo("legacy");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({
+            "jacoco/jacoco-big.xml, jacoco",
+            "jacoco/jacoco-codingstyle.xml, jacoco",
+            "pit/mutations.xml, pit",
+            "junit/TESTS-TestSuites.xml, junit"})
+    void shouldRestoreParsedReports(final String fileName, final String format) throws IOException {
+        var root = readReport(fileName, format);
+
+        var encoded = codec.encode(root);
+        var restored = codec.decode(encoded);
+
+        assertThat(restored).isEqualTo(root);
+        assertThat(restored.aggregateValues()).containsExactlyElementsOf(root.aggregateValues());
+        assertThat(codec.encode(restored)).isEqualTo(encoded);
+        assertThat(encoded.length).isLessThan(serialize(root).length);
+    }
+
+    @Test
+    void shouldReadSegmentedTreeFromFile(@TempDir final Path folder) throws IOException {
+        var root = readReport("jacoco/jacoco-big.xml", "jacoco");
+        var file = writeSegmented(root, folder);
+
+        var restored = codec.read(file);
+
+        assertThat(restored.aggregateValues()).containsExactlyElementsOf(root.aggregateValues());
+        assertThat(restored).isEqualTo(root);
+        assertThat(codec.encode(restored)).isEqualTo(codec.encode(root));
+    }
+
+    @Test
+    void shouldReadSegmentedTreeFromStream(@TempDir final Path folder) throws IOException {
+        var root = createTree();
+        var file = writeSegmented(root, folder);
+
+        var restored = codec.decode(Files.readAllBytes(file));
+        Files.delete(file);
+
+        assertThat(restored).isEqualTo(root);
+        assertThat(restored.getAllFileNodes().get(0).getCounters()).containsExactly(entry(-3, 0), entry(10, 1));
+    }
+
+    @Test
+    void shouldLoadFileDetailsOnDemand(@TempDir final Path folder) throws IOException {
+        var root = createTree();
+        var file = writeSegmented(root, folder);
+
+        var restored = codec.read(file);
+        var loaded = restored.getAllFileNodes().get(0);
+        assertThat(loaded.getMutations()).containsExactlyElementsOf(root.getAllFileNodes().get(0).getMutations());
+
+        var unloaded = codec.read(file);
+        Files.delete(file);
+
+        assertThat(unloaded.getValues()).containsExactlyElementsOf(root.getValues());
+        assertThat(loaded.getModifiedLines()).containsExactly(1, 10, 200);
+        assertThatIllegalStateException().isThrownBy(() -> unloaded.getAllFileNodes().get(0).getCounters())
+                .withMessageContaining("src/edu/hm/A.java");
+    }
+
+    @Test
+    void shouldEncodeTreeAsDeltaOfReferenceTree() throws IOException {
+        var reference = readReport("jacoco/jacoco-big.xml", "jacoco");
+        var root = readReport("jacoco/jacoco-big.xml", "jacoco");
+        root.getAllFileNodes().get(5).addCounters(10_000, 1, 0);
+        root.getAllFileNodes().get(7).replaceValue(new Value(Metric.LOC, 12_345));
+        root.getAllMethodNodes().get(3).replaceValue(new Value(Metric.CYCLOMATIC_COMPLEXITY, 99));
+        root.addChild(new PackageNode("new.package"));
+
+        var delta = codec.encodeDelta(root, reference);
+        var restored = codec.decodeDelta(delta, reference);
+
+        assertThat(restored).isEqualTo(root);
+        assertThat(restored.aggregateValues()).containsExactlyElementsOf(root.aggregateValues());
+        assertThat(delta.length).isLessThan(codec.encode(root).length / 20);
+        assertThat(codec.encodeDelta(reference, reference).length).isLessThan(delta.length);
+    }
+
+    @Test
+    void shouldCopyDetailsOfReferenceTreeOnDemand(@TempDir final Path folder) throws IOException {
+        var root = createTree();
+        root.getAllFileNodes().get(0).addValue(new Value(Metric.LOC, 10));
+        var file = writeSegmented(createTree(), folder);
+
+        var delta = codec.encodeDelta(root, codec.read(file));
+        var restored = codec.decodeDelta(delta, codec.read(file));
+        var loaded = codec.decodeDelta(delta, codec.read(file));
+        assertThat(loaded).isEqualTo(root);
+
+        Files.delete(file);
+
+        assertThat(restored.getAllFileNodes().get(0).getValues()).contains(new Value(Metric.LOC, 10));
+        assertThatIllegalStateException().isThrownBy(() -> restored.getAllFileNodes().get(0).getCounters())
+                .withMessageContaining("src/edu/hm/A.java");
+        assertThat(loaded.getAllFileNodes().get(0).getCounters()).containsExactly(entry(-3, 0), entry(10, 1));
+    }
+
+    @Test
+    void shouldRejectDeltaWithoutMatchingReference() {
+        var reference = createTree();
+        var root = createTree();
+        root.replaceValue(new Value(Metric.LOC, 300));
+        var delta = codec.encodeDelta(root, reference);
+
+        assertThatIOException().isThrownBy(() -> codec.decode(delta))
+                .withMessageContaining("requires a reference tree");
+        assertThatIOException().isThrownBy(() -> codec.decodeDelta(delta, new ModuleNode("module")))
+                .withMessageContaining("does not contain the node PACKAGE:edu.hm");
+        assertThatIOException().isThrownBy(() -> codec.decodeDelta(codec.encode(reference), reference))
+                .withMessageContaining("does not contain a delta");
+    }
+
+    @Test
+    void shouldRejectInvalidInput() {
+        var encoded = codec.encode(createTree());
+
+        assertThatIOException().isThrownBy(() -> codec.decode(new byte[] {1, 2, 3, 4}))
+                .withMessageContaining("does not contain a coverage tree");
+        assertThatIOException().isThrownBy(() -> codec.decode(Arrays.copyOf(encoded, encoded.length - 1)))
+                .withMessageContaining("Unexpected end");
+        var withTrailingBytes = Arrays.copyOf(encoded, encoded.length + 1);
+        assertThatIOException().isThrownBy(() -> codec.decode(withTrailingBytes))
+                .withMessageContaining("unexpected bytes");
+    }
+
+    @Test
+    void shouldRejectUnsupportedValueTypes() {
+        var root = new ModuleNode("module");
+        root.addValue(new Rate(Metric.LOC, 1) {
+            private static final long serialVersionUID = 1L;
+        });
+
+        assertThatIllegalArgumentException().isThrownBy(() -> codec.encode(root))
+                .withMessageContaining("Unsupported value type");
+    }
+
+    private ModuleNode createTree() {
+        var root = new ModuleNode("module");
+        root.addSource("src/main/java");
+        root.addValue(new Value(Metric.LOC, 200));
+
+        var packageNode = new PackageNode("edu/hm");
+        root.addChild(packageNode);
+        root.addChild(new ContainerNode("container"));
+
+        var file = new FileNode("A.java", "src/edu/hm/A.java");
+        packageNode.addChild(file);
+        file.addCounters(10, 1, 0);
+        file.addCounters(-3, 0, 2);
+        file.addMcdcPairCounters(4, 1, 1);
+        file.addFunctionCallCounters(7, 0, 3);
+        file.getCounterColumns().get(1).put(99, 5);
+        file.addModifiedLines(1, 10, 200);
+        file.addIndirectCoverageChange(10, -4);
+        file.getCoverageDeltas().put(Metric.LINE, new Difference(Metric.LINE, -1, 3));
+        file.addMutation(new MutationBuilder().withIsDetected(true)
+                .withStatus(MutationStatus.KILLED)
+                .withLine(10)
+                .withMutator("Negate")
+                .withKillingTest("ATest")
+                .withMutatedClass("edu.hm.A")
+                .withMutatedMethod("method")
+                .withMutatedMethodSignature("()V")
+                .withDescription("negated conditional")
+                .build());
+
+        var classNode = new ClassNode("edu.hm.A");
+        classNode.setName("edu/hm/A"); // name of an old serialization
+        file.addChild(classNode);
+        var pool = new TestCaseStoragePolicyBuilder().withCompression(true).build().createPool();
+        classNode.addTestCase(new TestCaseBuilder().withTestName("failing")
+                .withClassName("edu.hm.ATest")
+                .withStatus(TestResult.FAILED)
+                .withMessage("failed")
+                .withDescription("java.lang.AssertionError")
+                .withDescriptionPool(pool)
+                .build());
+        classNode.addTestCase(new TestCaseBuilder().withTestName("passing").withClassName("edu.hm.ATest").build());
+
+        var method = new MethodNode("method", "()V", -1);
+        method.setName("legacy");
+        classNode.addChild(method);
+        method.addValue(new CoverageBuilder().withMetric(Metric.LINE).withCovered(100_000).withMissed(3).build());
+        method.addValue(new Rate(Metric.TEST_SUCCESS_RATE, 2, 3));
+        method.addValue(new Value(Metric.CYCLOMATIC_COMPLEXITY, Integer.MIN_VALUE));
+
+        return root;
+    }
+
+    private Node readReport(final String fileName, final String format) {
+        var parser = switch (format) {
+            case "pit" -> new PitestParser();
+            case "junit" -> new JunitParser();
+            default -> new JacocoParser();
+        };
+        try (var stream = Objects.requireNonNull(getClass().getResourceAsStream(PARSER_RESOURCES + fileName));
+                var reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            return parser.parse(reader, fileName, new FilteredLog("Errors"));
+        }
+        catch (IOException exception) {
+            throw new AssertionError(exception);
+        }
+    }
+
+    private Path writeSegmented(final Node root, final Path folder) throws IOException {
+        var file = folder.resolve("tree.bin");
+        try (var output = Files.newOutputStream(file)) {
+            codec.writeSegmented(root, output);
+        }
+        return file;
+    }
+
+    private byte[] serialize(final Node root) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var output = new ObjectOutputStream(bytes)) {
+            output.writeObject(root);
+        }
+        return bytes.toByteArray();
+    }
+}
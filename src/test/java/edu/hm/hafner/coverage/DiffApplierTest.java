@@ -0,0 +1,123 @@
+package edu.hm.hafner.coverage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.OptionalInt;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DiffApplierTest {
+    private static final String DIFF = """
+            diff --git a/src/main/java/edu/hm/A.java b/src/main/java/edu/hm/A.java
+            index 1234567..89abcde 100644
+            --- a/src/main/java/edu/hm/A.java
+            +++ b/src/main/java/edu/hm/A.java
+            @@ -2,6 +2,7 @@ public class A {
+             line 2
+            -line 3
+            +line 3 changed
+            +--- line 4 added
+             line 4
+             line 5
+            -line 6
+             line 7
+            +line 8 added
+            @@ -20,0 +22,2 @@ public class A {
+            +line 22 added
+            +line 23 added
+            \\ No newline at end of file
+            diff --git a/src/main/java/edu/hm/B.java b/src/main/java/edu/hm/B.java
+            new file mode 100644
+            --- /dev/null
+            +++ b/src/main/java/edu/hm/B.java
+            @@ -0,0 +1,2 @@
+            +line 1
+            +line 2
+            diff --git a/src/main/java/edu/hm/Deleted.java b/src/main/java/edu/hm/Deleted.java
+            deleted file mode 100644
+            --- a/src/main/java/edu/hm/Deleted.java
+            +++ /dev/null
+            @@ -1 +0,0 @@
+            -line 1
+            diff --git a/README.md b/README.md
+            --- a/README.md
+            +++ b/README.md
+            @@ -1 +1 @@
+            -old
+            +new
+            """;
+
+    @Test
+    void shouldMarkAddedLinesAsModified() throws IOException {
+        var tree = createTree();
+
+        var applier = new DiffApplier(tree);
+        applier.apply(new StringReader(DIFF));
+
+        assertThat(getFile(applier, "edu/hm/A.java").getModifiedLines()).containsExactly(3, 4, 8, 22, 23);
+        assertThat(getFile(applier, "edu/hm/B.java").getModifiedLines()).containsExactly(1, 2);
+        assertThat(getFile(applier, "edu/hm/C.java").hasModifiedLines()).isFalse();
+        assertThat(applier.getUnresolvedFiles()).containsExactly("b/README.md");
+    }
+
+    @Test
+    void shouldMapLinesBeforeChangeToLinesAfterChange() throws IOException {
+        var applier = new DiffApplier(createTree());
+        applier.apply(new StringReader(DIFF));
+
+        var mapping = applier.getLineMapping(getFile(applier, "edu/hm/A.java"));
+
+        assertThat(mapping.getNewLine(1)).isEqualTo(OptionalInt.of(1));
+        assertThat(mapping.getNewLine(2)).isEqualTo(OptionalInt.of(2));
+        assertThat(mapping.getNewLine(3)).isEmpty();
+        assertThat(mapping.getNewLine(4)).isEqualTo(OptionalInt.of(5));
+        assertThat(mapping.getNewLine(5)).isEqualTo(OptionalInt.of(6));
+        assertThat(mapping.getNewLine(6)).isEmpty();
+        assertThat(mapping.getNewLine(7)).isEqualTo(OptionalInt.of(7));
+        assertThat(mapping.getNewLine(8)).isEqualTo(OptionalInt.of(9));
+        assertThat(mapping.getNewLine(20)).isEqualTo(OptionalInt.of(21));
+        assertThat(mapping.getNewLine(21)).isEqualTo(OptionalInt.of(24));
+
+        var unchanged = applier.getLineMapping(getFile(applier, "edu/hm/C.java"));
+        assertThat(unchanged.getNewLine(42)).isEqualTo(OptionalInt.of(42));
+    }
+
+    @Test
+    void shouldResolveFilesByLongestSuffix() {
+        var applier = new DiffApplier(createTree());
+
+        assertThat(applier.findFile("b/src/main/java/edu/hm/A.java")).map(FileNode::getName).contains("A.java");
+        assertThat(applier.findFile("edu/hm/A.java")).map(FileNode::getName).contains("A.java");
+        assertThat(applier.findFile("src\\main\\java\\edu\\hm\\C.java")).map(FileNode::getName).contains("C.java");
+        assertThat(applier.findFile("edu/hm/Missing.java")).isEmpty();
+    }
+
+    @Test
+    void shouldRejectMalformedDiff() {
+        var applier = new DiffApplier(createTree());
+
+        assertThatIOException().isThrownBy(() -> applier.apply(new StringReader("@@ -1 +1 @@\n")))
+                .withMessageContaining("Hunk without file header");
+        assertThatIOException().isThrownBy(() -> applier.apply(new StringReader("+++ b/A.java\n@@ -1 +1 @\n")))
+                .withMessageContaining("Malformed hunk header");
+        assertThatIOException()
+                .isThrownBy(() -> applier.apply(new StringReader("+++ b/A.java\n@@ -1,2 +1,2 @@\n 1\n")))
+                .withMessageContaining("Unexpected end of hunk");
+    }
+
+    private FileNode getFile(final DiffApplier applier, final String path) {
+        return applier.findFile(path).orElseThrow();
+    }
+
+    private Node createTree() {
+        var root = new ModuleNode("module");
+        var packageNode = new PackageNode("edu.hm");
+        root.addChild(packageNode);
+        packageNode.addChild(new FileNode("A.java", "edu/hm/A.java"));
+        packageNode.addChild(new FileNode("B.java", "edu/hm/B.java"));
+        packageNode.addChild(new FileNode("C.java", "edu/hm/C.java"));
+        return root;
+    }
+}
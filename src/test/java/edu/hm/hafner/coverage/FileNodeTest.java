@@ -109,6 +109,31 @@ class FileNodeTest extends AbstractNodeTest {
         assertThatRestoredInstanceEqualsOriginalInstance(createSerializable(), restore(restored));
     }
 
+    @Test
+    void shouldSerializeAllDetails() {
+        var file = createNode("Details");
+        file.addMcdcPairCounters(10, 1, 3);
+        file.addFunctionCallCounters(11, 0, 2);
+        file.addMutation(new MutationBuilder().withLine(10).withMutator("Negate").build());
+        file.addValue(new Value(Metric.LOC, 100));
+        file.addValue(new Rate(Metric.TEST_SUCCESS_RATE, 2, 3));
+        var classNode = new ClassNode("Details");
+        classNode.addValue(new Coverage.CoverageBuilder().withMetric(Metric.LINE).withCovered(5).withMissed(1).build());
+        file.addChild(classNode);
+
+        var restored = (FileNode) restore(toByteArray(file));
+
+        assertThat(restored).isEqualTo(file);
+        assertThat(restored.getCounters()).containsExactly(entry(10, 1), entry(11, 2));
+        assertThat(restored.getMcdcPairCoveredCounters()).containsExactly(1);
+        assertThat(restored.getFunctionCallMissedCounters()).containsExactly(2);
+        assertThat(restored.getModifiedLines()).containsExactly(10);
+        assertThat(restored.getIndirectCoverageChanges()).containsExactly(entry(15, 123));
+        assertThat(restored.getMutations()).containsExactlyElementsOf(file.getMutations());
+        assertThat(restored.getValues()).containsExactlyElementsOf(file.getValues());
+        assertThat(restored.getChildren()).first().satisfies(child -> assertThat(child.getParent()).isSameAs(restored));
+    }
+
     @Test
     void shouldComputeDelta() {
         var builder = new Coverage.CoverageBuilder();
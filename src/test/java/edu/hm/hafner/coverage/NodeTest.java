@@ -11,6 +11,13 @@ import edu.hm.hafner.coverage.Coverage.CoverageBuilder;
 import edu.hm.hafner.coverage.Mutation.MutationBuilder;
 import edu.hm.hafner.util.TreeString;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -36,6 +43,25 @@ class NodeTest {
     private static final String COVERED_CLASS = "CoveredClass.class";
     private static final String MISSED_CLASS = "MissedClass.class";
 
+    @Test
+    void shouldRejectInvalidNumberOfSerializedValues() throws IOException {
+        try (var input = createStreamWithSize(-1)) {
+            assertThatExceptionOfType(InvalidObjectException.class).isThrownBy(() -> Node.readValues(input))
+                    .withMessageContaining("Invalid number of values: -1");
+        }
+        try (var input = createStreamWithSize(Integer.MAX_VALUE)) {
+            assertThatExceptionOfType(EOFException.class).isThrownBy(() -> Node.readValues(input));
+        }
+    }
+
+    private ObjectInputStream createStreamWithSize(final int size) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var output = new ObjectOutputStream(bytes)) {
+            output.writeInt(size);
+        }
+        return new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
     @Test
     void shouldMapPackageAndFileNameOfWarnings() {
         var node = new PackageNode("edu.hm.hafner.grading");
@@ -756,6 +782,28 @@ class NodeTest {
         assertThat(merged.getChildren()).hasSize(2);
     }
 
+    @Test
+    void shouldMergeInPlace() {
+        var parentA = new PackageNode("package");
+        var childA = new FileNode("fileA", ".");
+        parentA.addChild(childA);
+        var parentB = new PackageNode("package");
+        var childB = new FileNode("fileB", ".");
+        parentB.addChild(childB);
+
+        var expected = parentA.merge(parentB);
+        parentA.mergeInPlace(parentB);
+
+        assertThat(parentA).isEqualTo(expected).hasOnlyChildren(childA, childB);
+        assertThat(parentA.getChildren()).first().isSameAs(childA);
+        assertThat(parentB).hasOnlyChildren(childB);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> parentA.mergeInPlace(new PackageNode("other")))
+                .withMessageContaining("different names");
+        assertThatIllegalArgumentException().isThrownBy(() -> parentA.mergeInPlace(new ModuleNode("package")))
+                .withMessageContaining("different metrics");
+    }
+
     @Test
     void shouldMergeMultipleNodesWithDifferentMetricInList() {
         var parentA = new ModuleNode("M");
@@ -0,0 +1,79 @@
+package edu.hm.hafner.coverage;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.coverage.TestCaseStoragePolicy.TestCaseStoragePolicyBuilder;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TestCaseStoragePolicyTest {
+    private static final String TEXT = "java.lang.AssertionError: expected 2 but was 3";
+
+    @Test
+    void shouldAdhereToEquals() {
+        EqualsVerifier.forClass(TestCaseStoragePolicy.class).verify();
+    }
+
+    @Test
+    void shouldCreateDefaultPolicy() {
+        assertThat(TestCaseStoragePolicy.DEFAULT).satisfies(policy -> {
+            assertThat(policy.getMaximumLength()).isEqualTo(Integer.MAX_VALUE);
+            assertThat(policy.isDeduplicating()).isTrue();
+            assertThat(policy.isCompressing()).isFalse();
+        });
+    }
+
+    @Test
+    void shouldRejectTooSmallMaximumLength() {
+        var builder = new TestCaseStoragePolicyBuilder();
+
+        assertThatIllegalArgumentException().isThrownBy(() -> builder.withMaximumLength(3))
+                .withMessageContaining("3");
+        assertThat(builder.withMaximumLength(4).build().getMaximumLength()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldAbbreviateAndShareTexts() {
+        var pool = new TestCaseStoragePolicyBuilder().withMaximumLength(10).build().createPool();
+
+        var abbreviated = pool.store(TEXT);
+        assertThat(abbreviated).isEqualTo("java.la...");
+        assertThat(pool.store(new String(TEXT))).isSameAs(abbreviated);
+        assertThat(pool.store("short")).isEqualTo("short");
+    }
+
+    @Test
+    void shouldNotShareTextsWithoutDeduplication() {
+        var pool = new TestCaseStoragePolicyBuilder().withDeduplication(false).build().createPool();
+
+        var copy = new String(TEXT);
+        assertThat(pool.store(copy)).isSameAs(copy);
+        assertThat(pool.compress(TEXT)).isNotSameAs(pool.compress(TEXT));
+    }
+
+    @Test
+    void shouldShareCompressedTexts() {
+        var pool = new TestCaseStoragePolicyBuilder().withCompression(true).build().createPool();
+
+        var compressed = pool.compress(TEXT);
+        assertThat(pool.compress(new String(TEXT))).isSameAs(compressed);
+        assertThat(TestCaseStoragePolicy.inflate(compressed)).isEqualTo(TEXT);
+
+        var other = pool.compress(TEXT + " and 4");
+        assertThat(other).isNotSameAs(compressed);
+        assertThat(TestCaseStoragePolicy.inflate(other)).isEqualTo(TEXT + " and 4");
+    }
+
+    @Test
+    void shouldRejectCorruptCompressedText() {
+        var compressed = TestCaseStoragePolicy.deflate(TEXT);
+        var truncated = Arrays.copyOf(compressed, compressed.length / 2);
+
+        assertThatIllegalStateException().isThrownBy(() -> TestCaseStoragePolicy.inflate(truncated));
+        assertThatIllegalStateException().isThrownBy(() -> TestCaseStoragePolicy.inflate(new byte[] {1, 2, 3}));
+    }
+}
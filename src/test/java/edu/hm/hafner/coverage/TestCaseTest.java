@@ -2,11 +2,43 @@ package edu.hm.hafner.coverage;
 
 import org.junit.jupiter.api.Test;
 
+import edu.hm.hafner.coverage.TestCase.TestCaseBuilder;
+import edu.hm.hafner.coverage.TestCaseStoragePolicy.TestCaseStoragePolicyBuilder;
+
 import nl.jqno.equalsverifier.EqualsVerifier;
 
+import static org.assertj.core.api.Assertions.*;
+
 class TestCaseTest {
+    private static final String STACK_TRACE = """
+            java.lang.AssertionError: expected 2 but was 3
+            \tat edu.hm.hafner.CalculatorTest.shouldAdd(CalculatorTest.java:12)
+            """;
+
     @Test
     void shouldAdhereToEquals() {
         EqualsVerifier.forClass(TestCase.class).verify();
     }
+
+    @Test
+    void shouldInflateCompressedDescription() {
+        var pool = new TestCaseStoragePolicyBuilder().withCompression(true).build().createPool();
+
+        var compressed = new TestCaseBuilder().withDescriptionPool(pool).withDescription(STACK_TRACE).build();
+        var uncompressed = new TestCaseBuilder().withDescription(STACK_TRACE).build();
+
+        assertThat(compressed.getDescription()).isEqualTo(STACK_TRACE);
+        assertThat(compressed.toString()).contains(STACK_TRACE);
+        assertThat(compressed).isNotEqualTo(uncompressed)
+                .isEqualTo(new TestCaseBuilder().withDescriptionPool(pool).withDescription(STACK_TRACE).build());
+    }
+
+    @Test
+    void shouldNotCompressEmptyDescription() {
+        var pool = new TestCaseStoragePolicyBuilder().withCompression(true).build().createPool();
+
+        assertThat(new TestCaseBuilder().withDescriptionPool(pool).build())
+                .isEqualTo(new TestCaseBuilder().build())
+                .extracting(TestCase::getDescription).asString().isEmpty();
+    }
 }
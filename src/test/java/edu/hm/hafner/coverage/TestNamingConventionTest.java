@@ -0,0 +1,43 @@
+package edu.hm.hafner.coverage;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TestNamingConventionTest {
+    @Test
+    void shouldStripTestSuffixes() {
+        var convention = TestNamingConvention.TEST_SUFFIX;
+
+        assertThat(convention.getTargetName("CalculatorTest")).contains("Calculator");
+        assertThat(convention.getTargetName("CalculatorTests")).contains("Calculator");
+        assertThat(convention.getTargetName("CalculatorITest")).contains("Calculator");
+        assertThat(convention.getTargetName("TestCaseTest")).contains("TestCase");
+        assertThat(convention.getTargetName("Calculator")).isEmpty();
+        assertThat(convention.getTargetName("Test")).isEmpty();
+    }
+
+    @Test
+    void shouldStripOtherSuffixesAndPrefixes() {
+        assertThat(TestNamingConvention.SPEC_SUFFIX.getTargetName("CalculatorSpec")).contains("Calculator");
+        assertThat(TestNamingConvention.IT_SUFFIX.getTargetName("CalculatorIT")).contains("Calculator");
+        assertThat(TestNamingConvention.IT_SUFFIX.getTargetName("CalculatorTest")).isEmpty();
+        assertThat(TestNamingConvention.TEST_PREFIX.getTargetName("TestCalculator")).contains("Calculator");
+        assertThat(TestNamingConvention.TEST_PREFIX.getTargetName("CalculatorTest")).isEmpty();
+    }
+
+    @Test
+    void shouldCreateConventionFromRegularExpression() {
+        var convention = TestNamingConvention.of("Check(.+)Behavior");
+
+        assertThat(convention.getTargetName("CheckParserBehavior")).contains("Parser");
+        assertThat(convention.getTargetName("ParserBehavior")).isEmpty();
+        assertThat(convention).hasToString("TestNamingConvention{Check(.+)Behavior}");
+    }
+
+    @Test
+    void shouldRejectExpressionWithoutCapturingGroup() {
+        assertThatIllegalArgumentException().isThrownBy(() -> TestNamingConvention.of("Test.*"))
+                .withMessageContaining("Test.*");
+    }
+}
@@ -0,0 +1,118 @@
+package edu.hm.hafner.coverage;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.coverage.Coverage.CoverageBuilder;
+import edu.hm.hafner.coverage.TreeDiff.NodeDiff;
+import edu.hm.hafner.coverage.TreeDiff.Status;
+import edu.hm.hafner.coverage.parser.JacocoParser;
+import edu.hm.hafner.util.FilteredLog;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import static edu.hm.hafner.coverage.Metric.*;
+import static org.assertj.core.api.Assertions.*;
+
+class TreeDiffTest {
+    private static final String REPORT = "/edu/hm/hafner/coverage/parser/jacoco/jacoco-codingstyle.xml";
+
+    @Test
+    void shouldClassifyAllNodes() {
+        var reference = createTree(5, 5);
+        reference.getChildren().get(0).addChild(new FileNode("Removed.java", "edu/hm/Removed.java"));
+        var current = createTree(8, 2);
+        current.getChildren().get(0).addChild(new FileNode("Added.java", "edu/hm/Added.java"));
+
+        var diff = new TreeDiff(current, reference);
+
+        assertThat(diff.stream()).extracting(NodeDiff::getStatus, d -> d.getNode().getName()).containsExactly(
+                tuple(Status.CHANGED, "module"),
+                tuple(Status.CHANGED, "edu.hm"),
+                tuple(Status.CHANGED, "A.java"),
+                tuple(Status.UNCHANGED, "B.java"),
+                tuple(Status.ADDED, "Added.java"),
+                tuple(Status.REMOVED, "Removed.java"));
+        assertThat(diff.getAddedNodes()).extracting(Node::getName).containsExactly("Added.java");
+        assertThat(diff.getRemovedNodes()).extracting(Node::getName).containsExactly("Removed.java");
+        assertThat(diff.getChangedNodes()).extracting(Node::getName).containsExactly("module", "edu.hm", "A.java");
+    }
+
+    @Test
+    void shouldComputeDifferencesOfAlignedNodes() {
+        var reference = createTree(5, 5);
+        var current = createTree(8, 2);
+
+        var diff = new TreeDiff(current, reference);
+
+        var file = diff.stream().filter(d -> d.getNode().getName().equals("A.java")).findFirst().orElseThrow();
+        assertThat(file.getReferenceNode()).containsSame(reference.getAllFileNodes().get(0));
+        assertThat(file.getDifferences()).map(Difference::getMetric).containsExactly(FILE, LINE, LOC);
+        assertThat(file.getDifferences().get(1).asDouble()).isEqualTo(30);
+        assertThat(diff.stream().filter(d -> d.getStatus() == Status.ADDED)).isEmpty();
+    }
+
+    @Test
+    void shouldReportAllNodesOfUnalignedRoots() {
+        var reference = createTree(5, 5);
+        var current = new ModuleNode("other");
+        current.addChild(new PackageNode("edu.hm"));
+
+        var diff = new TreeDiff(current, reference);
+
+        assertThat(diff.getAddedNodes()).extracting(Node::getName).containsExactly("other", "edu.hm");
+        assertThat(diff.getRemovedNodes()).extracting(Node::getName)
+                .containsExactly("module", "edu.hm", "A.java", "B.java");
+        assertThat(diff.stream()).allSatisfy(d -> {
+            assertThat(d.getReferenceNode()).isEmpty();
+            assertThat(d.getDifferences()).isEmpty();
+        });
+    }
+
+    @Test
+    void shouldComputeSameDifferencesAsNodes() {
+        var reference = readReport();
+        var current = readReport();
+        current.getAllMethodNodes().get(0).replaceValue(
+                new CoverageBuilder().withMetric(LINE).withCovered(1).withMissed(1).build());
+
+        var diff = new TreeDiff(current, reference);
+
+        assertThat(diff.getChangedNodes()).containsExactly(current.getAllMethodNodes().get(0));
+        assertThat(diff.stream()).hasSize(countNodes(current));
+        diff.forEach(d -> assertThat(d.getDifferences())
+                .containsExactlyElementsOf(d.getNode().computeDelta(d.getReferenceNode().orElseThrow())));
+    }
+
+    private int countNodes(final Node node) {
+        return 1 + node.getChildren().stream().mapToInt(this::countNodes).sum();
+    }
+
+    private ModuleNode createTree(final int coveredInA, final int missedInA) {
+        var root = new ModuleNode("module");
+        var packageNode = new PackageNode("edu.hm");
+        root.addChild(packageNode);
+
+        var builder = new CoverageBuilder().withMetric(LINE);
+        var a = new FileNode("A.java", "edu/hm/A.java");
+        a.addValue(builder.withCovered(coveredInA).withMissed(missedInA).build());
+        packageNode.addChild(a);
+        var b = new FileNode("B.java", "edu/hm/B.java");
+        b.addValue(builder.withCovered(1).withMissed(1).build());
+        packageNode.addChild(b);
+
+        return root;
+    }
+
+    private Node readReport() {
+        try (var stream = Objects.requireNonNull(getClass().getResourceAsStream(REPORT));
+                var reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            return new JacocoParser().parse(reader, REPORT, new FilteredLog("Errors"));
+        }
+        catch (IOException exception) {
+            throw new AssertionError(exception);
+        }
+    }
+}
@@ -15,7 +15,9 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.Objects;
 
 import static edu.hm.hafner.coverage.assertions.Assertions.*;
@@ -48,6 +50,27 @@ abstract class AbstractParserTest {
         }
     }
 
+    ModuleNode readSummary(final String fileName) {
+        try (var stream = createFile(fileName);
+                var reader = new InputStreamReader(Objects.requireNonNull(stream), StandardCharsets.UTF_8)) {
+            return createParser(ProcessingMode.FAIL_FAST).parseSummary(reader, fileName, log);
+        }
+        catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    Path getPath(final String fileName) {
+        var name = getFolder() + "/" + fileName;
+        try {
+            return Path.of(Objects.requireNonNull(AbstractParserTest.class.getResource(name),
+                    "File not found: " + name).toURI());
+        }
+        catch (URISyntaxException e) {
+            throw new AssertionError(e);
+        }
+    }
+
     @MustBeClosed
     @SuppressFBWarnings("OBL")
     private InputStream createFile(final String fileName) throws IOException {
@@ -39,6 +39,17 @@ class CoberturaParserTest extends AbstractParserTest {
         return "cobertura";
     }
 
+    @Test
+    void shouldAggregateValuesOfTreeForSummary() {
+        var summary = readSummary("cobertura.xml");
+        var tree = readReport("cobertura.xml");
+
+        assertThat(summary).hasName(tree.getName());
+        assertThat(summary.getChildren()).isEmpty();
+        assertThat(summary.getValues()).isEqualTo(tree.aggregateValues());
+        assertThat(summary.aggregateValues()).isEqualTo(tree.aggregateValues());
+    }
+
     @Test
     @Issue("JENKINS-73635")
     void shouldRemovePrefixOfDeterministicCoverageReport() {
@@ -693,6 +704,37 @@ class CoberturaParserTest extends AbstractParserTest {
                         coverage -> assertThat(coverage).hasCovered(6).hasMissed(8));
     }
 
+    @Test
+    void shouldMergeUnorderedDuplicateLineNumbersInReportOrder() {
+        var result = readReport("cobertura-duplicate-lines-unordered.xml");
+
+        var fileNode = result.getAllFileNodes().getFirst();
+
+        // Line 10: equal number of covered branches → the later entry wins
+        assertThat(fileNode.getCoveredOfLine(10)).isEqualTo(1);
+        assertThat(fileNode.getMissedOfLine(10)).isEqualTo(3);
+
+        // Line 20: percentage with decimals
+        assertThat(fileNode.getCoveredOfLine(20)).isEqualTo(2);
+        assertThat(fileNode.getMissedOfLine(20)).isEqualTo(0);
+
+        // Line 30: the second entry has hits > 0 → covered
+        assertThat(fileNode.getCoveredOfLine(30)).isEqualTo(1);
+        assertThat(fileNode.getMissedOfLine(30)).isEqualTo(0);
+
+        var classNode = fileNode.getAll(CLASS).getFirst();
+        assertThat(classNode.getValue(LINE))
+                .isPresent()
+                .get()
+                .isInstanceOfSatisfying(Coverage.class,
+                        coverage -> assertThat(coverage).hasCovered(3).hasMissed(0));
+        assertThat(classNode.getValue(BRANCH))
+                .isPresent()
+                .get()
+                .isInstanceOfSatisfying(Coverage.class,
+                        coverage -> assertThat(coverage).hasCovered(3).hasMissed(3));
+    }
+
     private ModuleNode readExampleReport() {
         return readReport("cobertura.xml");
     }
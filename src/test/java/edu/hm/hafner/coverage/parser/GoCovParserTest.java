@@ -1,6 +1,7 @@
 package edu.hm.hafner.coverage.parser;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import edu.hm.hafner.coverage.Coverage.CoverageBuilder;
 import edu.hm.hafner.coverage.CoverageParser;
@@ -10,6 +11,11 @@ import edu.hm.hafner.coverage.ModuleNode;
 import edu.hm.hafner.coverage.Node;
 import edu.hm.hafner.coverage.Value;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
 import static edu.hm.hafner.coverage.Metric.*;
 import static edu.hm.hafner.coverage.Metric.CLASS;
 import static edu.hm.hafner.coverage.Metric.FILE;
@@ -48,6 +54,31 @@ class GoCovParserTest extends AbstractParserTest {
                 new CoverageBuilder().withMetric(MODULE).withCovered(3).withTotal(3).build());
     }
 
+    @Test
+    void shouldParseGrowingReportIncrementally(@TempDir final Path folder) throws IOException {
+        var content = Files.readString(getPath("go-coverage-atomic.out"));
+        int split = content.indexOf("github.com/example/project/pkg/db");
+
+        var report = folder.resolve("coverage.out");
+        Files.writeString(report, content.substring(0, split + 20));
+
+        var session = new GoCovParser().createSession(report);
+
+        assertThat(session.update()).isTrue();
+        var root = session.getRoot();
+        assertThat(root).hasName("github.com/example");
+        assertThat(root.getFiles()).containsExactly("pkg/utils/file1.go");
+        assertThat(root.getAllFileNodes()).singleElement().satisfies(
+                file -> assertThat(file).hasMissedLines(19, 20));
+
+        Files.writeString(report, content.substring(split + 20), StandardOpenOption.APPEND);
+
+        assertThat(session.update()).isTrue();
+        assertThat(session.getRoot()).isSameAs(root).isEqualTo(readReport("go-coverage-atomic.out"));
+        verifyReport(root);
+        assertThat(session.update()).isFalse();
+    }
+
     private void verifyReport(final ModuleNode report) {
         assertThat(report.getAll(PACKAGE)).hasSize(4)
                 .map(Node::getName)
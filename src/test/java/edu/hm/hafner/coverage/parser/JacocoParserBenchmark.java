@@ -0,0 +1,148 @@
+package edu.hm.hafner.coverage.parser;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import edu.hm.hafner.coverage.ModuleNode;
+import edu.hm.hafner.util.FilteredLog;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how parsing of a large JaCoCo report scales with the number of threads. Run with
+ * {@code mvn test -Pbenchmark}.
+ *
+ * @author Ullrich Hafner
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class JacocoParserBenchmark {
+    /**
+     * Runs the benchmark.
+     *
+     * @throws RunnerException
+     *         if the benchmark could not be started
+     */
+    @Test
+    void benchmark() throws RunnerException {
+        var options = new OptionsBuilder()
+                .include(JacocoParserBenchmark.class.getName() + ".*")
+                .build();
+
+        new Runner(options).run();
+    }
+
+    /**
+     * Parses the generated report with the configured number of threads.
+     *
+     * @param report
+     *         the generated report
+     *
+     * @return the created tree
+     */
+    @Benchmark
+    public ModuleNode parse(final Report report) {
+        return new JacocoParser().parse(report.getPath(), report.threads, new FilteredLog());
+    }
+
+    /**
+     * A synthetic JaCoCo report with many packages in several groups.
+     */
+    @State(Scope.Benchmark)
+    public static class Report {
+        private static final int PACKAGES = 2000;
+        private static final int CLASSES = 20;
+        private static final int METHODS = 10;
+        private static final int LINES = 100;
+        private static final int PACKAGES_PER_GROUP = 100;
+
+        @Param({"1", "2", "4", "8", "16"})
+        int threads;
+
+        private Path path;
+
+        Path getPath() {
+            return path;
+        }
+
+        /**
+         * Writes the report to a temporary file.
+         *
+         * @throws IOException
+         *         if the file could not be written
+         */
+        @Setup(Level.Trial)
+        public void createReport() throws IOException {
+            path = Files.createTempFile("jacoco-benchmark", ".xml");
+            try (var writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>");
+                writer.write("<!DOCTYPE report PUBLIC \"-//JACOCO//DTD Report 1.1//EN\" \"report.dtd\">");
+                writer.write("<report name=\"benchmark\">\n");
+                for (int p = 0; p < PACKAGES; p++) {
+                    if (p % PACKAGES_PER_GROUP == 0) {
+                        writer.write("<group name=\"group-%d\">%n".formatted(p / PACKAGES_PER_GROUP));
+                    }
+                    writePackage(writer, "edu/hm/p" + p);
+                    if (p % PACKAGES_PER_GROUP == PACKAGES_PER_GROUP - 1 || p == PACKAGES - 1) {
+                        writer.write("</group>\n");
+                    }
+                }
+                writer.write("<counter type=\"INSTRUCTION\" missed=\"1\" covered=\"1\"/></report>\n");
+            }
+        }
+
+        private void writePackage(final Appendable writer, final String packageName) throws IOException {
+            writer.append("<package name=\"%s\">%n".formatted(packageName));
+            for (int c = 0; c < CLASSES; c++) {
+                writer.append("<class name=\"%s/C%d\" sourcefilename=\"C%d.java\">".formatted(packageName, c, c));
+                for (int m = 0; m < METHODS; m++) {
+                    writer.append("<method name=\"m%d\" desc=\"()V\" line=\"%d\">".formatted(m, m * 10 + 1))
+                            .append("<counter type=\"INSTRUCTION\" missed=\"1\" covered=\"%d\"/>".formatted(m))
+                            .append("<counter type=\"LINE\" missed=\"1\" covered=\"2\"/>")
+                            .append("<counter type=\"COMPLEXITY\" missed=\"1\" covered=\"1\"/>")
+                            .append("</method>");
+                }
+                writer.append("</class>\n<sourcefile name=\"C%d.java\">".formatted(c));
+                for (int line = 1; line <= LINES; line++) {
+                    writer.append("<line nr=\"%d\" mi=\"%d\" ci=\"%d\" mb=\"0\" cb=\"0\"/>".formatted(
+                            line, line % 3, line % 5));
+                }
+                writer.append("</sourcefile>\n");
+            }
+            writer.append("</package>\n");
+        }
+
+        /**
+         * Deletes the report.
+         *
+         * @throws IOException
+         *         if the file could not be deleted
+         */
+        @TearDown(Level.Trial)
+        public void deleteReport() throws IOException {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package edu.hm.hafner.coverage.parser;
 import org.apache.commons.lang3.Strings;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.junitpioneer.jupiter.DefaultLocale;
@@ -21,6 +22,10 @@ import edu.hm.hafner.coverage.Node;
 import edu.hm.hafner.coverage.Percentage;
 import edu.hm.hafner.coverage.Value;
 
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
@@ -48,6 +53,60 @@ class JacocoParserTest extends AbstractParserTest {
         return (Coverage) node.getValue(metric).get();
     }
 
+    @ParameterizedTest(name = "[{index}] Report: {0}")
+    @ValueSource(strings = {"jacoco-groups.xml", "jacoco-analysis-model.xml", "jacoco-codingstyle.xml",
+            "file-subpackage.xml", "jacocoTestReport.xml", "pester.xml"})
+    @DisplayName("Parallel parsing should create the same tree as sequential parsing")
+    void shouldCreateSameTreeWhenParsingInParallel(final String fileName) {
+        var parallel = new JacocoParser().parse(getPath(fileName), 4, getLog());
+
+        assertThat(parallel).isEqualTo(readReport(fileName));
+        assertThat(parallel.getAllFileNodes()).isEqualTo(readReport(fileName).getAllFileNodes());
+    }
+
+    @Test
+    void shouldAssembleGroupsAndReportCountersWhenParsingInParallel() {
+        var tree = new JacocoParser().parse(getPath("jacoco-groups.xml"), 2, getLog());
+
+        assertThat(tree).hasName("grouped");
+        assertThat(tree.getChildren()).extracting(Node::getName).containsExactly("g1", "empty", "top");
+
+        var group = tree.getChildren().getFirst();
+        assertThat(group.getChildren()).extracting(Node::getName).containsExactly("inner", "x");
+        assertThat(group.getChildren().getFirst().getChildren()).extracting(Node::getName).containsExactly("a.b");
+        assertThat(tree.getAll(METHOD)).extracting(Node::getName).containsExactly("<init>()V", "m(Ljava/lang/String;)V");
+    }
+
+    @Test
+    void shouldLogWhyReportIsParsedSequentially() {
+        var tree = new JacocoParser().parse(getPath("jacoco-duplicate-package.xml"), 2, getLog());
+
+        assertThat(tree).isEqualTo(readReport("jacoco-duplicate-package.xml"));
+        assertThat(tree.getAll(FILE)).extracting(Node::getName).containsExactly("C.java", "D.java");
+        assertThat(getLog().getInfoMessages()).anySatisfy(
+                message -> assertThat(message).contains("sequentially", "package 'a.b' twice"));
+    }
+
+    @ParameterizedTest(name = "[{index}] Charset: {0}")
+    @ValueSource(strings = {"UTF-16LE", "UTF-16BE"})
+    @DisplayName("Should detect UTF-16 reports without byte order mark")
+    void shouldDetectUtf16WithoutByteOrderMark(final String charset, @TempDir final Path folder) throws IOException {
+        var content = Files.readString(getPath("jacoco-codingstyle.xml"))
+                .replace("encoding=\"UTF-8\"", "encoding=\"UTF-16\"");
+        var report = folder.resolve("jacoco.xml");
+        Files.writeString(report, content, Charset.forName(charset));
+
+        assertThat(new JacocoParser().parse(report, getLog())).isEqualTo(readReport("jacoco-codingstyle.xml"));
+    }
+
+    @Test
+    void shouldDecompressGzipReport() {
+        var expected = readReport("jacoco-codingstyle.xml");
+
+        assertThat(new JacocoParser().parse(getPath("jacoco-codingstyle.xml.gz"), getLog())).isEqualTo(expected);
+        assertThat(new JacocoParser().parse(getPath("jacoco-codingstyle.xml.gz"), 4, getLog())).isEqualTo(expected);
+    }
+
     @Test
     void shouldMergeBranches() {
         var a = getFileNode(readReport("jacoco-merge-a.xml"));
@@ -373,6 +432,48 @@ class JacocoParserTest extends AbstractParserTest {
                 new Value(LOC, 145));
     }
 
+    @Test
+    void shouldReadSummaryFromReportCounters() {
+        var summary = readSummary("jacoco-codingstyle.xml");
+
+        assertThat(summary).hasName(PROJECT_NAME);
+        assertThat(summary.getChildren()).isEmpty();
+        assertThat(summary.getValues()).containsExactly(
+                new CoverageBuilder().withMetric(MODULE).withCovered(1).withMissed(0).build(),
+                new CoverageBuilder().withMetric(PACKAGE).withCovered(1).withMissed(0).build(),
+                new CoverageBuilder().withMetric(FILE).withCovered(7).withMissed(1).build(),
+                new CoverageBuilder().withMetric(CLASS).withCovered(15).withMissed(1).build(),
+                new CoverageBuilder().withMetric(METHOD).withCovered(97).withMissed(5).build(),
+                new CoverageBuilder().withMetric(LINE).withCovered(294).withMissed(29).build(),
+                new CoverageBuilder().withMetric(BRANCH).withCovered(109).withMissed(7).build(),
+                new CoverageBuilder().withMetric(INSTRUCTION).withCovered(1260).withMissed(90).build(),
+                new Value(LOC, 323),
+                new Value(CYCLOMATIC_COMPLEXITY, 160));
+        assertThat(summary.getValues()).isEqualTo(readExampleReport().aggregateValues());
+    }
+
+    @Test
+    void shouldSumPackageCountersForSummaryWithoutReportCounters() {
+        var summary = readSummary("jacoco-package-counters.xml");
+
+        assertThat(summary).hasName("packages");
+        assertThat(summary.getChildren()).isEmpty();
+        assertThat(summary.getValues()).containsExactly(
+                new CoverageBuilder().withMetric(MODULE).withCovered(1).withMissed(0).build(),
+                new CoverageBuilder().withMetric(PACKAGE).withCovered(2).withMissed(0).build(),
+                new CoverageBuilder().withMetric(FILE).withCovered(1).withMissed(0).build(),
+                new CoverageBuilder().withMetric(LINE).withCovered(2).withMissed(0).build(),
+                new CoverageBuilder().withMetric(BRANCH).withCovered(1).withMissed(1).build(),
+                new CoverageBuilder().withMetric(INSTRUCTION).withCovered(6).withMissed(2).build(),
+                new Value(LOC, 2),
+                new Value(CYCLOMATIC_COMPLEXITY, 3));
+    }
+
+    @Test
+    void shouldReportEmptySummary() {
+        assertThatExceptionOfType(ParsingException.class).isThrownBy(() -> readSummary("empty.xml"));
+    }
+
     @Test
     void shouldSplitPackages() {
         var tree = readExampleReport();
@@ -13,9 +13,13 @@ import edu.hm.hafner.coverage.PackageNode;
 import edu.hm.hafner.coverage.Rate;
 import edu.hm.hafner.coverage.TestCase;
 import edu.hm.hafner.coverage.TestCase.TestResult;
+import edu.hm.hafner.coverage.TestCaseStoragePolicy;
+import edu.hm.hafner.coverage.TestCaseStoragePolicy.TestCaseStoragePolicyBuilder;
 import edu.hm.hafner.coverage.Value;
+import edu.hm.hafner.util.FilteredLog;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 import static edu.hm.hafner.coverage.assertions.Assertions.*;
@@ -67,6 +71,110 @@ class JunitParserTest extends AbstractParserTest {
                 new Rate(Metric.TEST_SUCCESS_RATE, 1, 3));
     }
 
+    @Test
+    void shouldReadAllReportsOfZipArchive() {
+        var tree = createParser(ProcessingMode.FAIL_FAST).parse(getPath("junit-reports.zip"), new FilteredLog());
+
+        assertThat(tree).hasName(EMPTY);
+        assertThat(tree.getChildren()).map(Node::getName).satisfiesExactly(
+                first -> assertThat(first).endsWith("junit-reports.zip!/archunit1.xml"),
+                second -> assertThat(second).endsWith("junit-reports.zip!/archunit2.xml"),
+                third -> assertThat(third).endsWith("junit-reports.zip!/JENKINS-64117.xml"));
+        assertThat(tree.getAll(Metric.CLASS)).hasSize(3);
+        assertThat(tree.aggregateValues()).contains(new Value(Metric.TESTS, 7));
+    }
+
+    @Test
+    void shouldSkipArchiveEntriesThatAreNoReports() {
+        var log = new FilteredLog();
+        var tree = createParser(ProcessingMode.FAIL_FAST).parse(getPath("junit-reports-with-other-files.zip"), log);
+
+        assertThat(tree.getName()).endsWith("junit-reports-with-other-files.zip!/reports/archunit1.xml");
+        assertThat(tree.aggregateValues()).isEqualTo(readReport("archunit1.xml").aggregateValues());
+        assertThat(log.getInfoMessages()).satisfiesExactly(
+                readme -> assertThat(readme).contains("reports/README.txt"),
+                html -> assertThat(html).contains("reports/index.html"),
+                csv -> assertThat(csv).contains("reports/results.csv"));
+    }
+
+    @Test
+    void shouldCreateNamesForUnnamedTestsFromSuiteAndPosition() {
+        var tree = readJunitReport("unnamed-tests.xml");
+
+        assertThat(tree.getTestCases()).extracting(TestCase::getTestName)
+                .containsExactly("Parameterized#1", "Parameterized#2", "Parameterized#3", "Smoke#1", "shouldParse");
+        assertThat(readReport("unnamed-tests.xml")).isEqualTo(tree);
+    }
+
+    @Test
+    void shouldComputeTestStatisticsOfClassesAndPackages() {
+        var tree = readJunitReport("unnamed-tests.xml");
+
+        assertThat(getPackage(tree)).hasName("edu.hm.hafner").hasNoValues();
+        assertThat(getPackage(tree).aggregateValues()).containsExactly(
+                new Value(Metric.TESTS, 5),
+                new Rate(Metric.TEST_SUCCESS_RATE, 3, 4));
+        assertThat(tree.findClass("edu.hm.hafner.Calculator")).hasValueSatisfying(
+                calculator -> assertThat(calculator).hasValues(
+                        new Value(Metric.TESTS, 3),
+                        new Rate(Metric.TEST_SUCCESS_RATE, 1, 2)));
+        assertThat(tree.findClass("edu.hm.hafner.Parser")).hasValueSatisfying(
+                parser -> assertThat(parser).hasValues(
+                        new Value(Metric.TESTS, 2),
+                        new Rate(Metric.TEST_SUCCESS_RATE, 2, 2)));
+        assertThat(tree.aggregateValues()).containsExactly(
+                new Value(Metric.TESTS, 5),
+                new Rate(Metric.TEST_SUCCESS_RATE, 3, 4));
+    }
+
+    @Test
+    void shouldAggregateTestStatisticsOfMergedPackages() {
+        var merged = getPackage(readJunitReport("unnamed-tests.xml"))
+                .merge(getPackage(readJunitReport("flaky-tests.xml")));
+
+        assertThat(merged).hasName("edu.hm.hafner").hasNoValues();
+        assertThat(merged.getAll(Metric.CLASS)).hasSize(3);
+        assertThat(merged.aggregateValues()).containsExactly(
+                new Value(Metric.TESTS, 9),
+                new Rate(Metric.TEST_SUCCESS_RATE, 4, 8));
+    }
+
+    @Test
+    void shouldShareIdenticalDescriptionsOfReport() {
+        var failures = getFailures(readJunitReport("flaky-tests.xml"));
+
+        assertThat(failures).hasSize(3).allSatisfy(failure -> assertThat(failure.getDescription())
+                .isSameAs(failures.getFirst().getDescription())
+                .startsWith("java.lang.IllegalStateException: Connection refused")
+                .endsWith("at edu.hm.hafner.ClientTest.shouldConnect(ClientTest.java:17)"));
+    }
+
+    @Test
+    void shouldAbbreviateLongMessagesAndDescriptions() {
+        var policy = new TestCaseStoragePolicyBuilder().withMaximumLength(20).build();
+
+        var failures = getFailures(readReport("flaky-tests.xml", new JunitParser(ProcessingMode.FAIL_FAST, policy)));
+
+        assertThat(failures).hasSize(3).allSatisfy(failure -> {
+            assertThat(failure.getMessage()).isEqualTo("Connection refused");
+            assertThat(failure.getDescription()).isEqualTo("java.lang.Illegal...");
+        });
+    }
+
+    @Test
+    void shouldKeepDescriptionsCompressed() {
+        var policy = new TestCaseStoragePolicyBuilder().withCompression(true).build();
+
+        var compressed = getFailures(readReport("flaky-tests.xml", new JunitParser(ProcessingMode.FAIL_FAST, policy)));
+        var uncompressed = getFailures(readJunitReport("flaky-tests.xml"));
+
+        assertThat(compressed).hasSize(3).extracting(TestCase::getDescription)
+                .containsOnly(uncompressed.getFirst().getDescription());
+        assertThat(compressed).extracting(TestCase::getMessage).containsOnly("Connection refused");
+        assertThat(compressed).isNotEqualTo(uncompressed);
+        assertThat(new JunitParser().getStoragePolicy()).isEqualTo(TestCaseStoragePolicy.DEFAULT);
+    }
+
     @Test
     void shouldReadWithNameOnly() {
         var tree = readJunitReport("cfn-lint.xml");
@@ -213,6 +321,10 @@ class JunitParserTest extends AbstractParserTest {
         return (ClassNode) children.getFirst();
     }
 
+    private List<TestCase> getFailures(final Node node) {
+        return node.getTestCases().stream().filter(TestCase::isFailed).toList();
+    }
+
     private TestCase getFirstTest(final Node node) {
         return node.getAll(Metric.CLASS).stream()
                 .map(ClassNode.class::cast)
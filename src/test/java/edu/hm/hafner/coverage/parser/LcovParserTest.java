@@ -2,14 +2,23 @@ package edu.hm.hafner.coverage.parser;
 
 import edu.hm.hafner.coverage.Coverage;
 import edu.hm.hafner.coverage.CoverageParser;
+import edu.hm.hafner.coverage.CoverageParser.ParsingException;
 import edu.hm.hafner.coverage.CoverageParser.ProcessingMode;
 import edu.hm.hafner.coverage.FileNode;
 import edu.hm.hafner.coverage.Value;
+import edu.hm.hafner.util.FilteredLog;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junitpioneer.jupiter.DefaultLocale;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
 import static edu.hm.hafner.coverage.Metric.*;
-import static edu.hm.hafner.coverage.assertions.Assertions.assertThat;
+import static edu.hm.hafner.coverage.assertions.Assertions.*;
 
 @DefaultLocale("en")
 class LcovParserTest extends AbstractParserTest {
@@ -86,4 +95,185 @@ class LcovParserTest extends AbstractParserTest {
                 new Value(LOC, 2)
         );
     }
+
+    @Test
+    void shouldCreateMethodsFromFunctionRecords() {
+        var report = readReport("functions.lcov");
+
+        var builder = new Coverage.CoverageBuilder();
+        assertThat(report.aggregateValues()).contains(
+                builder.withMetric(FILE).withCovered(1).withTotal(1).build(),
+                builder.withMetric(METHOD).withCovered(2).withTotal(3).build(),
+                builder.withMetric(LINE).withCovered(4).withTotal(5).build(),
+                builder.withMetric(INSTRUCTION).withCovered(4).withTotal(5).build(),
+                builder.withMetric(BRANCH).withCovered(2).withTotal(2).build(),
+                new Value(LOC, 5));
+
+        assertThat(report.getAllMethodNodes()).satisfiesExactly(
+                add -> assertThat(add).hasMethodName("add").hasLineNumber(3),
+                subtract -> assertThat(subtract).hasMethodName("subtract").hasLineNumber(8),
+                multiply -> assertThat(multiply).hasMethodName("multiply(int, int)").hasLineNumber(15));
+
+        assertThat(report.getAllFileNodes()).singleElement().satisfies(
+                file -> assertThat(file).hasName("math.c")
+                        .hasRelativePath("src/math.c")
+                        .hasCoveredLines(3, 4, 8, 9)
+                        .hasMissedLines(15));
+    }
+
+    @Test
+    void shouldMergeBlocksOfSameSourceFile() {
+        var report = readReport("functions.lcov");
+
+        var file = report.getAllFileNodes().getFirst();
+        assertThat(file.getCoveredOfLine(3)).isEqualTo(1);
+        assertThat(file.getMissedOfLine(3)).isZero();
+        assertThat(file.getCoveredOfLine(4)).isEqualTo(2);
+        assertThat(file.getMissedOfLine(4)).isZero();
+        assertThat(report.findMethod("subtract", ""))
+                .hasValueSatisfying(method -> assertThat(method.getValue(METHOD)).contains(
+                        new Coverage.CoverageBuilder().withMetric(METHOD).withCovered(1).withMissed(0).build()));
+    }
+
+    @Test
+    void shouldMergeManyBranchesOfSameLine() {
+        var content = new StringBuilder();
+        for (int block = 0; block < 3; block++) {
+            content.append("SF:src/switch.c\nDA:10,1\n");
+            for (int branch = 0; branch < 20; branch++) {
+                var isTaken = branch % 3 == block && branch < 19;
+                content.append("BRDA:10,0,%d,%s\n".formatted(branch, isTaken ? "1" : "-"));
+            }
+            content.append("end_of_record\n");
+        }
+
+        var report = createParser(ProcessingMode.FAIL_FAST).parse(
+                new StringReader(content.toString()), "switch.lcov", new FilteredLog());
+
+        var file = report.getAllFileNodes().getFirst();
+        assertThat(file.getCoveredOfLine(10)).isEqualTo(19);
+        assertThat(file.getMissedOfLine(10)).isOne();
+        assertThat(file.getValue(BRANCH)).contains(
+                new Coverage.CoverageBuilder().withMetric(BRANCH).withCovered(19).withMissed(1).build());
+    }
+
+    @Test
+    void shouldStoreLargeLineNumbers() {
+        var report = createParser(ProcessingMode.FAIL_FAST).parse(new StringReader("""
+                SF:src/math.c
+                DA:1,0
+                DA:999999999,1
+                BRDA:999999998,0,0,1
+                BRDA:999999998,0,1,-
+                end_of_record
+                """), "large-line-numbers.lcov", new FilteredLog());
+
+        var file = report.getAllFileNodes().getFirst();
+        assertThat(file).hasCoveredLines(999_999_998, 999_999_999).hasMissedLines(1);
+        assertThat(file.getCoveredOfLine(999_999_998)).isOne();
+        assertThat(file.getMissedOfLine(999_999_998)).isOne();
+    }
+
+    @Test
+    void shouldScanMappedReportWithByteOrderMarkAndWindowsLineEndings() {
+        var report = createParser(ProcessingMode.FAIL_FAST).parse(getPath("bom-crlf.lcov"), new FilteredLog());
+
+        assertThat(report).isEqualTo(readReport("bom-crlf.lcov"));
+        assertThat(report.getAllMethodNodes()).satisfiesExactly(
+                add -> assertThat(add).hasMethodName("add").hasLineNumber(3),
+                compare -> assertThat(compare).hasMethodName("gr\u00f6\u00dfer").hasLineNumber(8));
+        assertThat(report.getAllFileNodes()).singleElement().satisfies(
+                file -> assertThat(file).hasRelativePath("src/math.c")
+                        .hasCoveredLines(3, 4)
+                        .hasMissedLines(8));
+    }
+
+    @Test
+    void shouldCreateSameTreeForMappedReport() {
+        for (String fileName : new String[] {"single.lcov", "report.lcov", "functions.lcov"}) {
+            assertThat(createParser(ProcessingMode.IGNORE_ERRORS).parse(getPath(fileName), new FilteredLog()))
+                    .isEqualTo(readReport(fileName, ProcessingMode.IGNORE_ERRORS));
+        }
+    }
+
+    @Test
+    void shouldThrowExceptionIfMappedReportDoesNotExist() {
+        var parser = createParser(ProcessingMode.FAIL_FAST);
+
+        assertThatExceptionOfType(ParsingException.class)
+                .isThrownBy(() -> parser.parse(Path.of("does-not-exist.lcov"), new FilteredLog()))
+                .withMessageContaining("does-not-exist.lcov");
+    }
+
+    @Test
+    void shouldParseGrowingReportIncrementally(@TempDir final Path folder) throws IOException {
+        var content = Files.readString(getPath("functions.lcov"));
+        int secondBlock = content.indexOf("TN:integration");
+        int firstBlockEnd = content.indexOf("end_of_record");
+
+        var report = folder.resolve("lcov.info");
+        Files.writeString(report, content.substring(0, firstBlockEnd));
+
+        var session = new LcovParser().createSession(report);
+        var root = session.getRoot();
+
+        assertThat(session.update()).isTrue();
+        assertThat(root.getAllFileNodes()).isEmpty(); // the first block is not yet complete
+        assertThat(session.update()).isFalse();
+
+        append(report, content.substring(firstBlockEnd, secondBlock + 10));
+
+        assertThat(session.update()).isTrue();
+        assertThat(session.getRoot()).isSameAs(root);
+        assertThat(root.getAllFileNodes()).singleElement().satisfies(
+                file -> assertThat(file).hasRelativePath("src/math.c")
+                        .hasCoveredLines(3, 4)
+                        .hasMissedLines(8, 9, 15));
+        assertThat(root.findMethod("subtract", ""))
+                .hasValueSatisfying(method -> assertThat(method.getValue(METHOD)).contains(
+                        new Coverage.CoverageBuilder().withMetric(METHOD).withCovered(0).withMissed(1).build()));
+
+        append(report, content.substring(secondBlock + 10));
+
+        assertThat(session.update()).isTrue();
+        assertThat(root).isEqualTo(readReport("functions.lcov"));
+        assertThat(session.getOffset()).isEqualTo(Files.size(report));
+    }
+
+    @Test
+    void shouldApplyUnterminatedRecordWhenFinished(@TempDir final Path folder) throws IOException {
+        var report = folder.resolve("lcov.info");
+        Files.writeString(report, "SF:src/main.c\nDA:1,1\nDA:2,0");
+
+        var session = new LcovParser().createSession(report);
+
+        assertThat(session.update()).isTrue();
+        assertThat(session.getRoot().getAllFileNodes()).isEmpty();
+
+        session.finish();
+
+        assertThat(session.getRoot().getAllFileNodes()).singleElement().satisfies(
+                file -> assertThat(file).hasRelativePath("src/main.c")
+                        .hasCoveredLines(1)
+                        .hasMissedLines(2));
+    }
+
+    @Test
+    void shouldThrowExceptionIfGrowingReportHasBeenTruncated(@TempDir final Path folder) throws IOException {
+        var report = folder.resolve("lcov.info");
+        Files.writeString(report, Files.readString(getPath("single.lcov")));
+
+        var session = new LcovParser().createSession(report);
+        session.update();
+
+        Files.writeString(report, "TN:\n");
+
+        assertThatExceptionOfType(ParsingException.class)
+                .isThrownBy(session::update)
+                .withMessageContaining("has been truncated");
+    }
+
+    private void append(final Path report, final String content) throws IOException {
+        Files.writeString(report, content, StandardOpenOption.APPEND);
+    }
 }
@@ -107,6 +107,20 @@ class OpenCoverParserTest extends AbstractParserTest {
                 coverage -> assertThat(coverage).hasTotal(21).hasCovered(19));
     }
 
+    @Test
+    void shouldAccumulateAllSequenceAndBranchPointsOfLine() {
+        var fileNode = getFileNode(readExampleReport());
+
+        assertThat(fileNode.getCoveredOfLine(30)).isEqualTo(1);
+        assertThat(fileNode.getMissedOfLine(30)).isEqualTo(1);
+        assertThat(fileNode.getCoveredOfLine(32)).isZero();
+        assertThat(fileNode.getMissedOfLine(32)).isEqualTo(2);
+        assertThat(fileNode.getCoveredOfLine(161)).isEqualTo(2);
+        assertThat(fileNode.getMissedOfLine(161)).isZero();
+        assertThat(fileNode.getCoveredOfLine(42)).isEqualTo(1);
+        assertThat(fileNode.getMissedOfLine(42)).isZero();
+    }
+
     @ParameterizedTest
     @Issue("JENKINS-72595")
     @ValueSource(strings = {"opencover-reporttotestsourcefiles.xml", "opencover-with-bom.xml"})
@@ -147,6 +161,15 @@ class OpenCoverParserTest extends AbstractParserTest {
                 new Value(LOC, 826));
     }
 
+    @Test
+    void shouldIgnorePointsOfSkippedMethods() {
+        var module = readReport("opencover-withskippedmodules.xml");
+
+        assertThat(module.getAllFileNodes()).filteredOn(file -> file.getAll(METHOD).isEmpty())
+                .hasSize(11)
+                .allSatisfy(file -> assertThat(file.getLinesWithCoverage()).isEmpty());
+    }
+
     private void verifyLineCoverage(final FileNode a) {
         var children = a.getAll(METHOD).stream()
                 .filter(m -> "System.Boolean MyLogging.FancyClass::get_IsMyCodeWrittenWell()System.Boolean MyLogging.FancyClass::get_IsMyCodeWrittenWell()".equals(m.getName()))
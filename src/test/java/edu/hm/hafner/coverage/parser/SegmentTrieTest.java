@@ -0,0 +1,63 @@
+package edu.hm.hafner.coverage.parser;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.coverage.ClassNode;
+import edu.hm.hafner.coverage.ModuleNode;
+import edu.hm.hafner.coverage.Node;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SegmentTrieTest {
+    @Test
+    void shouldCreateNodesOfHierarchicalPath() {
+        var root = new ModuleNode("root");
+        var trie = new SegmentTrie(root);
+
+        var function = trie.findOrCreate("app/module\\function", Node::createClassNode);
+
+        assertThat(function).isInstanceOf(ClassNode.class).hasFieldOrPropertyWithValue("name", "function");
+        assertThat(root.getChildren()).extracting(Node::getName).containsExactly("app");
+        assertThat(root.getChildren().getFirst().getChildren()).extracting(Node::getName).containsExactly("module");
+        assertThat(trie.findOrCreate("app\\module/function", Node::createClassNode)).isSameAs(function);
+        assertThat(trie.find("/app//module/function/")).containsSame(function);
+    }
+
+    @Test
+    void shouldResolveSegmentsRelativeToParent() {
+        var root = new ModuleNode("root");
+        var trie = new SegmentTrie(root);
+
+        var module = trie.findOrCreate("main", Node::createClassNode);
+        var function = trie.findOrCreate("main/main", Node::createClassNode);
+
+        assertThat(function).isNotSameAs(module);
+        assertThat(module.getChildren()).containsExactly(function);
+        assertThat(trie.find("main")).containsSame(module);
+    }
+
+    @Test
+    void shouldNotFindMissingPaths() {
+        var trie = new SegmentTrie(new ModuleNode("root"));
+        trie.findOrCreate("app/module", Node::createClassNode);
+
+        assertThat(trie.find("app/other")).isEmpty();
+        assertThat(trie.find("module")).isEmpty();
+        assertThat(trie.find("")).containsSame(trie.getNode());
+    }
+
+    @Test
+    void shouldCreateChildWithKeyOnlyOnce() {
+        var root = new ModuleNode("root");
+        var trie = new SegmentTrie(root);
+
+        var first = trie.findOrCreateChild("edu/hm", Node::createPackageNode);
+        var second = trie.findOrCreateChild("edu/hm", (parent, key) -> {
+            throw new AssertionError("Node should not be created again");
+        });
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getNode()).hasFieldOrPropertyWithValue("name", "edu.hm");
+        assertThat(root.getChildren()).containsExactly(first.getNode());
+    }
+}
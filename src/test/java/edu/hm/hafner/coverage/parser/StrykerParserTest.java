@@ -231,6 +231,29 @@ class StrykerParserTest extends AbstractParserTest {
         assertThat(mutation.getMutatedClass()).isEqualTo("src.math.add");
     }
 
+    @Test
+    void shouldReadPropertiesInAnyOrder() {
+        var tree = readReport("mutation-report-property-order.json");
+
+        var file = findFile(tree, "sub.ts");
+        assertThat(file).hasRelativePath("src/lib/sub.ts");
+        assertThat(file.getMutations()).hasSize(2);
+        assertThat(file.getValue(MUTATION)).hasValueSatisfying(value ->
+                assertThat(value).isInstanceOfSatisfying(Coverage.class,
+                        coverage -> assertThat(coverage).hasCovered(1).hasMissed(1)));
+
+        var killed = findMutationByStatus(tree, "sub.ts", MutationStatus.KILLED);
+        assertThat(killed).hasLine(6)
+                .hasMutator("ArithmeticOperator")
+                .hasDescription("Replaced - with +")
+                .hasKillingTest("sub.spec")
+                .hasMutatedClass("src.lib.sub")
+                .hasMethod("mutation-17");
+
+        var survived = findMutationByStatus(tree, "sub.ts", MutationStatus.SURVIVED);
+        assertThat(survived).hasLine(9).hasKillingTest("").hasDescription("").hasMethod("mutation-9");
+    }
+
     private static FileNode findFile(
             final edu.hm.hafner.coverage.ModuleNode tree, final String name) {
         return tree.getAllFileNodes().stream()
@@ -3,15 +3,20 @@ package edu.hm.hafner.coverage.parser;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Objects;
 
 import org.junit.jupiter.api.Test;
 
+import edu.hm.hafner.coverage.ClassNode;
 import edu.hm.hafner.coverage.CoverageParser;
 import edu.hm.hafner.coverage.Metric;
 import edu.hm.hafner.coverage.ModuleNode;
 import edu.hm.hafner.coverage.Node;
+import edu.hm.hafner.coverage.PackageNode;
 import edu.hm.hafner.coverage.TestCase;
+import edu.hm.hafner.coverage.TestCase.TestCaseBuilder;
+import edu.hm.hafner.coverage.TestNamingConvention;
 import edu.hm.hafner.coverage.Value;
 import edu.hm.hafner.util.FilteredLog;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -96,6 +101,55 @@ class TestCaseMappingTest {
                         .containsOnly(METRIC_TESTS));
     }
 
+    @Test
+    void shouldMapTestClassesWithCustomNamingConventions() {
+        var coverage = new ModuleNode("coverage");
+        var production = coverage.findOrCreatePackageNode("edu.hm.hafner");
+        var calculator = production.findOrCreateClassNode("edu.hm.hafner.Calculator");
+        var parser = production.findOrCreateClassNode("edu.hm.hafner.Parser");
+        var scanner = production.findOrCreateClassNode("edu.hm.hafner.Scanner");
+
+        var calculatorSpec = createTestClass("edu.hm.hafner.CalculatorSpec", "shouldAdd");
+        var calculatorTest = createTestClass("edu.hm.hafner.CalculatorTest", "shouldSubtract");
+        var parserTest = createTestClass("edu.hm.hafner.TestParser", "shouldParse");
+        var scannerIt = createTestClass("edu.hm.hafner.ScannerIT", "shouldScan");
+        var unknown = createTestClass("edu.hm.hafner.FormatterSpec", "shouldFormat");
+        var otherPackage = createTestClass("edu.hm.other.CalculatorSpec", "shouldMultiply");
+
+        var unmapped = coverage.mergeTests(
+                List.of(calculatorSpec, calculatorTest, parserTest, scannerIt, unknown, otherPackage),
+                List.of(TestNamingConvention.SPEC_SUFFIX, TestNamingConvention.TEST_PREFIX,
+                        TestNamingConvention.IT_SUFFIX, TestNamingConvention.TEST_SUFFIX));
+
+        assertThat(unmapped).containsExactlyInAnyOrder(unknown, otherPackage);
+        assertThat(calculator.getTestCases()).extracting(TestCase::getTestName)
+                .containsExactly("shouldAdd", "shouldSubtract");
+        assertThat(parser.getTestCases()).extracting(TestCase::getTestName).containsExactly("shouldParse");
+        assertThat(scanner.getTestCases()).extracting(TestCase::getTestName).containsExactly("shouldScan");
+        assertThat(coverage.getValue(Metric.TESTS)).contains(new Value(Metric.TESTS, 6));
+    }
+
+    @Test
+    void shouldOnlyMapTestClassesWithDefaultNamingConvention() {
+        var coverage = new ModuleNode("coverage");
+        var calculator = coverage.findOrCreatePackageNode("edu.hm.hafner")
+                .findOrCreateClassNode("edu.hm.hafner.Calculator");
+
+        var calculatorSpec = createTestClass("edu.hm.hafner.CalculatorSpec", "shouldAdd");
+        var calculatorTests = createTestClass("edu.hm.hafner.CalculatorTests", "shouldSubtract");
+        var unmapped = coverage.mergeTests(List.of(calculatorSpec, calculatorTests));
+
+        assertThat(unmapped).containsExactly(calculatorSpec);
+        assertThat(calculator.getTestCases()).extracting(TestCase::getTestName).containsExactly("shouldSubtract");
+    }
+
+    private ClassNode createTestClass(final String className, final String testName) {
+        var packageNode = new PackageNode(className.substring(0, className.lastIndexOf('.')));
+        var testClass = packageNode.findOrCreateClassNode(className);
+        testClass.addTestCase(new TestCaseBuilder().withClassName(className).withTestName(testName).build());
+        return testClass;
+    }
+
     @SuppressFBWarnings("OBL")
     private ModuleNode readReport(final String fileName, final CoverageParser parser) {
         try {
@@ -8,6 +8,7 @@ import edu.hm.hafner.coverage.CoverageParser.ParsingException;
 import edu.hm.hafner.coverage.CoverageParser.ProcessingMode;
 import edu.hm.hafner.coverage.Metric;
 import edu.hm.hafner.coverage.Node;
+import edu.hm.hafner.util.FilteredLog;
 
 import java.util.stream.Collectors;
 
@@ -65,6 +66,17 @@ class Trace32ParserTest extends AbstractParserTest {
         assertThat(packages).isEmpty();
     }
 
+    @Test
+    void testFunctionWithSameNameAsModule() {
+        var root = readReport("main/index.xml");
+
+        assertThat(root.getChildren()).extracting(Node::getName).containsExactly("main", "TRACE32 Files");
+        var module = root.getChildren().getFirst();
+        assertThat(module.getChildren()).extracting(Node::getName).containsExactly("main");
+        assertThat(module.getValue(Metric.BYTES)).contains(
+                new Coverage.CoverageBuilder(Metric.BYTES).withCovered(20).withMissed(4).build());
+    }
+
     @Test
     void testCallCoverage() {
         var root = readReport("trace32-call.xml");
@@ -207,4 +219,12 @@ class Trace32ParserTest extends AbstractParserTest {
             assertThat(cov.getMissed()).isEqualTo(149);
         });
     }
+
+    @Test
+    void testMappedReport() {
+        for (String fileName : new String[] {"trace32-call.xml", "trace32-mcdc.xml", "trace32-stmt.xml"}) {
+            assertThat(createParser(ProcessingMode.FAIL_FAST).parse(getPath(fileName), new FilteredLog()))
+                    .isEqualTo(readReport(fileName));
+        }
+    }
 }
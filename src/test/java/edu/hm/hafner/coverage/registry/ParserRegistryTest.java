@@ -6,10 +6,20 @@ import org.junit.jupiter.api.Test;
 
 import edu.hm.hafner.coverage.CoverageParser.ParsingException;
 import edu.hm.hafner.coverage.CoverageParser.ProcessingMode;
+import edu.hm.hafner.coverage.ModuleNode;
+import edu.hm.hafner.coverage.parser.JacocoParser;
 import edu.hm.hafner.coverage.registry.ParserRegistry.CoverageParserType;
 import edu.hm.hafner.util.FilteredLog;
 
 import java.io.StringReader;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -31,10 +41,57 @@ class ParserRegistryTest {
         }
     }
 
+    @Test
+    void shouldShareParsersOfSameTypeAndMode() {
+        var parser = new ParserRegistry().get(CoverageParserType.JACOCO, ProcessingMode.FAIL_FAST);
+
+        assertThat(new ParserRegistry().get("jacoco", ProcessingMode.FAIL_FAST)).isSameAs(parser);
+        assertThat(new ParserRegistry().get(CoverageParserType.JACOCO, ProcessingMode.IGNORE_ERRORS))
+                .isNotSameAs(parser);
+        assertThat(new ParserRegistry().get(CoverageParserType.COBERTURA, ProcessingMode.FAIL_FAST))
+                .isNotSameAs(parser);
+    }
+
+    @Test
+    void shouldParseConcurrentlyWithSharedParser() throws InterruptedException, ExecutionException {
+        var parser = new ParserRegistry().get(CoverageParserType.JACOCO, ProcessingMode.FAIL_FAST);
+        var reports = List.of("jacoco-analysis-model.xml", "jacoco-codingstyle.xml", "jacoco-merge-a.xml");
+        var expected = new ArrayList<ModuleNode>();
+        for (String report : reports) {
+            expected.add(new JacocoParser().parse(getReport(report), new FilteredLog()));
+        }
+
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var results = new ArrayList<Future<ModuleNode>>();
+            for (int i = 0; i < 10; i++) {
+                for (String report : reports) {
+                    results.add(executor.submit(() -> parser.parse(getReport(report), new FilteredLog())));
+                }
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertThat(results.get(i).get()).isEqualTo(expected.get(i % reports.size()));
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     void shouldThrowExceptionForNotSupportedTypes() {
         assertThatIllegalArgumentException()
                 .isThrownBy(() -> new ParserRegistry().get("UNKNOWN", ProcessingMode.FAIL_FAST))
                 .withMessageContaining("Unknown parser name: UNKNOWN");
     }
+
+    private Path getReport(final String fileName) {
+        try {
+            return Path.of(Objects.requireNonNull(ParserRegistryTest.class.getResource(
+                    "/edu/hm/hafner/coverage/parser/jacoco/" + fileName), "File not found: " + fileName).toURI());
+        }
+        catch (URISyntaxException exception) {
+            throw new AssertionError(exception);
+        }
+    }
 }
@@ -0,0 +1,153 @@
+package edu.hm.hafner.coverage.registry;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.coverage.ContainerNode;
+import edu.hm.hafner.coverage.CoverageParser.ParsingException;
+import edu.hm.hafner.coverage.CoverageParser.ProcessingMode;
+import edu.hm.hafner.coverage.ModuleNode;
+import edu.hm.hafner.coverage.Node;
+import edu.hm.hafner.coverage.parser.JacocoParser;
+import edu.hm.hafner.coverage.registry.ParserRegistry.CoverageParserType;
+import edu.hm.hafner.util.FilteredLog;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ReportLoaderTest {
+    private static final String JACOCO = "/edu/hm/hafner/coverage/parser/jacoco/";
+    private static final String JUNIT = "/edu/hm/hafner/coverage/parser/junit/";
+
+    @Test
+    void shouldMergeReportsOfSameModule() throws InterruptedException {
+        var reports = List.of(getReport("jacoco-merge-a.xml"), getReport("jacoco-merge-b.xml"),
+                getReport("jacoco-merge-c.xml"), getReport("jacoco-codingstyle.xml"));
+        var log = new FilteredLog();
+
+        var loaded = new ReportLoader(2).load(reports, CoverageParserType.JACOCO, ProcessingMode.FAIL_FAST, log);
+
+        assertThat(loaded).isEqualTo(Node.merge(parseSequentially(reports)));
+        assertThat(loaded.getName()).isEqualTo("Java coding style");
+        assertThat(log.getErrorMessages()).isEmpty();
+    }
+
+    @Test
+    void shouldAttachDifferentModulesToContainerInOrderOfReports() throws InterruptedException {
+        var reports = List.of(getReport("jacoco-analysis-model.xml"), getReport("jacoco-merge-a.xml"),
+                getReport("jacoco-merge-b.xml"));
+
+        var loaded = new ReportLoader().load(reports, CoverageParserType.JACOCO, ProcessingMode.FAIL_FAST,
+                new FilteredLog());
+
+        assertThat(loaded).isInstanceOf(ContainerNode.class);
+        assertThat(loaded.getChildren()).extracting(Node::getName)
+                .containsExactly("Static Analysis Model and Parsers", "Java coding style");
+        assertThat(loaded.getChildren()).containsExactlyInAnyOrderElementsOf(
+                Node.merge(parseSequentially(reports)).getChildren());
+    }
+
+    @Test
+    void shouldSkipBrokenReportsIfErrorsAreIgnored() throws InterruptedException {
+        var missing = Path.of("does-not-exist.xml");
+        var empty = getReport("empty.xml");
+        var log = new FilteredLog();
+
+        var loaded = new ReportLoader().load(List.of(getReport("jacoco-merge-a.xml"), missing, empty),
+                CoverageParserType.JACOCO, ProcessingMode.IGNORE_ERRORS, log);
+
+        assertThat(loaded).isInstanceOf(ContainerNode.class);
+        assertThat(loaded.getChildren()).extracting(Node::getName).containsExactly("Java coding style", "empty");
+        assertThat(log.getErrorMessages()).anySatisfy(
+                message -> assertThat(message).contains("Skipping report", "does-not-exist.xml"));
+    }
+
+    @Test
+    void shouldReturnEmptyModuleIfAllReportsAreSkipped() throws InterruptedException {
+        var log = new FilteredLog();
+
+        var loaded = new ReportLoader().load(List.of(Path.of("does-not-exist.xml"), Path.of("missing.xml")),
+                CoverageParserType.JACOCO, ProcessingMode.IGNORE_ERRORS, log);
+
+        assertThat(loaded).isInstanceOf(ModuleNode.class);
+        assertThat(loaded.getName()).isEqualTo("empty");
+        assertThat(loaded.hasChildren()).isFalse();
+        assertThat(log.getErrorMessages()).anySatisfy(
+                message -> assertThat(message).contains("do not contain data", "missing.xml"));
+    }
+
+    @Test
+    void shouldThrowExceptionForBrokenReportsIfErrorsAreNotIgnored() {
+        var reports = List.of(getReport("jacoco-merge-a.xml"), Path.of("does-not-exist.xml"));
+        var loader = new ReportLoader();
+
+        assertThatExceptionOfType(ParsingException.class)
+                .isThrownBy(() -> loader.load(reports, CoverageParserType.JACOCO, ProcessingMode.FAIL_FAST,
+                        new FilteredLog()))
+                .withMessageContaining("does-not-exist.xml");
+        assertThatExceptionOfType(ParsingException.class)
+                .isThrownBy(() -> loader.load(List.of(getReport("empty.xml")), CoverageParserType.JACOCO,
+                        ProcessingMode.FAIL_FAST, new FilteredLog()));
+    }
+
+    @Test
+    void shouldKeepLogsOfParsedReportsIfErrorsAreNotIgnored() {
+        var reports = List.of(getReport(JUNIT, "junit-reports-with-other-files.zip"), Path.of("does-not-exist.xml"));
+        var log = new FilteredLog();
+        var loader = new ReportLoader();
+
+        assertThatExceptionOfType(ParsingException.class)
+                .isThrownBy(() -> loader.load(reports, CoverageParserType.JUNIT, ProcessingMode.FAIL_FAST, log))
+                .withMessageContaining("does-not-exist.xml");
+        assertThat(log.getInfoMessages()).hasSize(3).allSatisfy(
+                message -> assertThat(message).contains("Skipping", "junit-reports-with-other-files.zip"));
+    }
+
+    @Test
+    void shouldReturnEmptyContainerForNoReports() throws InterruptedException {
+        var loaded = new ReportLoader().load(List.of(), CoverageParserType.JACOCO, ProcessingMode.FAIL_FAST,
+                new FilteredLog());
+
+        assertThat(loaded).isInstanceOf(ContainerNode.class);
+        assertThat(loaded.hasChildren()).isFalse();
+    }
+
+    @Test
+    void shouldRejectInvalidParallelism() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new ReportLoader(0));
+    }
+
+    private List<Node> parseSequentially(final List<Path> reports) {
+        var nodes = new ArrayList<Node>();
+        for (Path report : reports) {
+            try (var reader = Files.newBufferedReader(report, StandardCharsets.UTF_8)) {
+                nodes.add(new JacocoParser().parse(reader, report.toString(), new FilteredLog()));
+            }
+            catch (IOException exception) {
+                throw new AssertionError(exception);
+            }
+        }
+        return nodes;
+    }
+
+    private Path getReport(final String fileName) {
+        return getReport(JACOCO, fileName);
+    }
+
+    private Path getReport(final String folder, final String fileName) {
+        try {
+            return Path.of(Objects.requireNonNull(ReportLoaderTest.class.getResource(folder + fileName),
+                    "File not found: " + fileName).toURI());
+        }
+        catch (URISyntaxException exception) {
+            throw new AssertionError(exception);
+        }
+    }
+}